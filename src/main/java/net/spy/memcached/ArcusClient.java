@@ -30,16 +30,25 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -102,6 +111,7 @@ import net.spy.memcached.collection.MapGet;
 import net.spy.memcached.collection.MapInsert;
 import net.spy.memcached.collection.MapUpdate;
 import net.spy.memcached.collection.MapUpsert;
+import net.spy.memcached.collection.SMGetCursor;
 import net.spy.memcached.collection.SMGetElement;
 import net.spy.memcached.collection.SMGetMode;
 import net.spy.memcached.collection.SetCreate;
@@ -112,15 +122,18 @@ import net.spy.memcached.collection.SetInsert;
 import net.spy.memcached.collection.SetPipedExist;
 import net.spy.memcached.compat.log.Logger;
 import net.spy.memcached.compat.log.LoggerFactory;
+import net.spy.memcached.internal.BTreeElementIterator;
 import net.spy.memcached.internal.BTreeStoreAndGetFuture;
 import net.spy.memcached.internal.BroadcastFuture;
 import net.spy.memcached.internal.BulkOperationFuture;
 import net.spy.memcached.internal.CollectionFuture;
 import net.spy.memcached.internal.CollectionGetBulkFuture;
 import net.spy.memcached.internal.CollectionGetFuture;
+import net.spy.memcached.internal.CollectionScanIterator;
 import net.spy.memcached.internal.OperationFuture;
 import net.spy.memcached.internal.PipedCollectionFuture;
 import net.spy.memcached.internal.SMGetFuture;
+import net.spy.memcached.internal.StreamingBulkFuture;
 import net.spy.memcached.internal.result.BopGetBulkResultImpl;
 import net.spy.memcached.internal.result.BopGetByPositionResultImpl;
 import net.spy.memcached.internal.result.BopGetResultImpl;
@@ -195,6 +208,8 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
   public static final int MAX_PIPED_ITEM_COUNT = 500;
 
   private final Transcoder<Object> collectionTranscoder;
+  private final int pipedChunkWindow;
+  private final int bulkStoreWindow;
 
   public static final int BOPGET_BULK_CHUNK_SIZE = 200;
   public static final int SMGET_CHUNK_SIZE = 500;
@@ -363,6 +378,8 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
       throw new IllegalStateException("DNS cache TTL is out of range from 0 to " + MAX_DNS_CACHE_TTL);
     }
     collectionTranscoder = cf.getDefaultCollectionTranscoder();
+    pipedChunkWindow = cf.getPipedChunkWindow();
+    bulkStoreWindow = cf.getBulkStoreWindow();
     registerMbean(name);
   }
 
@@ -1027,6 +1044,132 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncStoreBulk(type, o, exp, transcoder);
   }
 
+  @Override
+  public <T> Future<Boolean> asyncStoreBulk(
+          final StoreType type, final Iterator<? extends Entry<String, T>> entries,
+          final int exp, final Transcoder<T> tc,
+          final BiConsumer<String, OperationStatus> failureHandler) {
+    final StreamingBulkFuture rv = new StreamingBulkFuture(operationTimeout);
+    checkState();
+
+    // reads the entries on the thread freeing a slot of the window of a node,
+    // one thread at a time, so that no thread waits for a full window.
+    class EntrySender {
+      private final AtomicInteger wip = new AtomicInteger();
+      // the fields below are accessed only in sendEntries().
+      // operations in flight on each node, bounded by the bulk store window.
+      private final Map<MemcachedNode, Semaphore> windows = new HashMap<>();
+      // the entry read whose node has a full window.
+      private Entry<String, T> held = null;
+      private MemcachedNode heldNode = null;
+      private boolean ended = false;
+
+      void send() {
+        if (wip.getAndIncrement() != 0) {
+          return;
+        }
+        int missed = 1;
+        do {
+          sendEntries();
+          missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+      }
+
+      private void sendEntries() {
+        while (!ended) {
+          if (rv.isCancelled() || (held == null && !readEntry())) {
+            ended = true;
+            rv.endOfStream();
+            return;
+          }
+          if (held == null) {
+            continue;
+          }
+          Semaphore window = windows.computeIfAbsent(heldNode,
+              n -> new Semaphore(bulkStoreWindow));
+          if (!window.tryAcquire()) {
+            // sent again when an operation of the node completes.
+            return;
+          }
+          Entry<String, T> entry = held;
+          held = null;
+          store(heldNode, window, entry);
+        }
+      }
+
+      // read the next entry to hold, returning false at the end of the entries.
+      private boolean readEntry() {
+        Entry<String, T> entry;
+        try {
+          if (!entries.hasNext()) {
+            return false;
+          }
+          entry = entries.next();
+        } catch (RuntimeException e) {
+          getLogger().warn("Failed to read the entries of bulk store.", e);
+          rv.fail();
+          return false;
+        }
+        EncodedKey encodedKey = new EncodedKey(entry.getKey());
+        try {
+          keyValidator.validateKey(encodedKey);
+        } catch (IllegalArgumentException e) {
+          fail(entry.getKey(), e);
+          return true;
+        }
+        // all the store types are written to the same node as set.
+        heldNode = getMemcachedConnection().findNodeByKey(encodedKey, APIType.SET);
+        held = entry;
+        return true;
+      }
+
+      private void store(MemcachedNode node, final Semaphore window, Entry<String, T> entry) {
+        final String key = entry.getKey();
+        OperationCallback cb = new OperationCallback() {
+          public void receivedStatus(OperationStatus val) {
+            if (!val.isSuccess()) {
+              rv.fail();
+              failureHandler.accept(key, val);
+            }
+          }
+
+          public void complete() {
+            window.release();
+            rv.complete(this);
+            send();
+          }
+        };
+        Operation op;
+        try {
+          CachedData co = tc.encode(entry.getValue());
+          op = opFact.store(type, key, co.getFlags(), exp, co.getData(), cb);
+        } catch (RuntimeException e) {
+          window.release();
+          fail(key, e);
+          return;
+        }
+        rv.addOperation(cb, op);
+        getMemcachedConnection().addOperation(node, op);
+      }
+
+      private void fail(String key, RuntimeException e) {
+        rv.fail();
+        failureHandler.accept(key,
+            new OperationStatus(false, e.getMessage(), StatusCode.ERR_CLIENT));
+      }
+    }
+
+    new EntrySender().send();
+    return rv;
+  }
+
+  @Override
+  public Future<Boolean> asyncStoreBulk(
+          StoreType type, Iterator<? extends Entry<String, Object>> entries, int exp,
+          BiConsumer<String, OperationStatus> failureHandler) {
+    return asyncStoreBulk(type, entries, exp, transcoder, failureHandler);
+  }
+
   @Override
   public Future<Map<String, OperationStatus>> asyncDeleteBulk(List<String> keyList) {
     keyValidator.validateKey(keyList);
@@ -1067,6 +1210,103 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncDeleteBulk(Arrays.asList(key));
   }
 
+  @Override
+  public <T> Future<Boolean> asyncStoreBulkNoreply(final StoreType type,
+                                                   final List<String> keyList,
+                                                   final int exp, final T o,
+                                                   final Transcoder<T> tc, boolean sync) {
+    Collection<Entry<MemcachedNode, List<String>>> arrangedKey =
+            validateAndGroupKeys(keyList, keyList.size(), APIType.SET);
+    final CachedData co = tc.encode(o);
+    return asyncNoreplyBulk(arrangedKey, keyList.size(), (group, cb) -> {
+      List<Operation> ops = new ArrayList<>(group.getValue().size());
+      for (String key : group.getValue()) {
+        ops.add(opFact.store(type, key, co.getFlags(), exp, co.getData(), true, cb));
+      }
+      return ops;
+    }, sync);
+  }
+
+  @Override
+  public Future<Boolean> asyncStoreBulkNoreply(StoreType type, List<String> key,
+                                               int exp, Object o, boolean sync) {
+    return asyncStoreBulkNoreply(type, key, exp, o, transcoder, sync);
+  }
+
+  @Override
+  public Future<Boolean> asyncDeleteBulkNoreply(List<String> keyList, boolean sync) {
+    Collection<Entry<MemcachedNode, List<String>>> arrangedKey =
+            validateAndGroupKeys(keyList, keyList.size(), APIType.DELETE);
+    return asyncNoreplyBulk(arrangedKey, keyList.size(), (group, cb) -> {
+      List<Operation> ops = new ArrayList<>(group.getValue().size());
+      for (String key : group.getValue()) {
+        ops.add(opFact.delete(key, true, cb));
+      }
+      return ops;
+    }, sync);
+  }
+
+  /**
+   * Generic noreply bulk operation.
+   * The operations of each key group are added to its node, followed by a version
+   * operation if sync is requested. As the responses come in order on a connection,
+   * the response of the version operation means that the operations before it
+   * have been processed by the server.
+   *
+   * @param arrangedKey key groups and their nodes
+   * @param opCount     the number of operations made for all the key groups
+   * @param makeOps     makes the noreply operations of a key group with the given callback
+   * @param sync        whether to send a version operation behind the operations of each group
+   * @return future holding true if all the operations (and version operations) have succeeded
+   */
+  private Future<Boolean> asyncNoreplyBulk(
+          Collection<Entry<MemcachedNode, List<String>>> arrangedKey, int opCount,
+          BiFunction<Entry<MemcachedNode, List<String>>, OperationCallback, List<Operation>> makeOps,
+          boolean sync) {
+    int markerCount = sync ? arrangedKey.size() : 0;
+    final BroadcastFuture<Boolean> rv
+            = new BroadcastFuture<>(operationTimeout, Boolean.TRUE, opCount + markerCount);
+    // piped collection operations require a MultiKeyPipedOperationCallback,
+    // but no per-key status is received in noreply mode.
+    OperationCallback cb = new MultiKeyPipedOperationCallback() {
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        if (!status.isSuccess()) {
+          rv.set(Boolean.FALSE, status);
+        }
+      }
+
+      @Override
+      public void complete() {
+        rv.complete();
+      }
+
+      @Override
+      public void gotStatus(String key, OperationStatus status) {
+      }
+    };
+
+    List<Entry<MemcachedNode, Operation>> nodeOps = new ArrayList<>(opCount + markerCount);
+    for (Entry<MemcachedNode, List<String>> entry : arrangedKey) {
+      for (Operation op : makeOps.apply(entry, cb)) {
+        nodeOps.add(new AbstractMap.SimpleEntry<>(entry.getKey(), op));
+      }
+      if (sync) {
+        nodeOps.add(new AbstractMap.SimpleEntry<>(entry.getKey(), opFact.version(cb)));
+      }
+    }
+
+    List<Operation> ops = new ArrayList<>(nodeOps.size());
+    for (Entry<MemcachedNode, Operation> entry : nodeOps) {
+      ops.add(entry.getValue());
+    }
+    rv.addOperations(ops);
+    for (Entry<MemcachedNode, Operation> entry : nodeOps) {
+      addOp(entry.getKey(), entry.getValue());
+    }
+    return rv;
+  }
+
   @Override
   public CollectionFuture<Boolean> asyncBopCreate(String key,
                                                   ElementValueType valueType,
@@ -1229,6 +1469,40 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncBopGet(key, get, tc);
   }
 
+  @Override
+  public BTreeElementIterator<Object> bopGetIterator(String key, long from, long to,
+                                                     ElementFlagFilter eFlagFilter,
+                                                     int pageSize) {
+    return bopGetIterator(key, from, to, eFlagFilter, pageSize, collectionTranscoder);
+  }
+
+  @Override
+  public <T> BTreeElementIterator<T> bopGetIterator(final String key,
+                                                    final long from, final long to,
+                                                    final ElementFlagFilter eFlagFilter,
+                                                    final int pageSize,
+                                                    final Transcoder<T> tc) {
+    KeyValidator.validateBKey(from, to);
+    validatePageSize(pageSize);
+    final boolean reverse = from > to;
+    return new BTreeElementIterator<>(last -> {
+      long start = from;
+      if (last != null) {
+        if (last.getLongBkey() == to) {
+          return null;
+        }
+        start = (reverse) ? last.getLongBkey() - 1 : last.getLongBkey() + 1;
+      }
+      return asyncBopGet(key, start, to, eFlagFilter, 0, pageSize, false, false, tc);
+    }, pageSize);
+  }
+
+  private void validatePageSize(int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must be larger than 0.");
+    }
+  }
+
 //  @Override
 //  public CollectionFuture<Map<String, Object>> asyncMopGet(String key) {
 //    return asyncMopGet(key, false, false);
@@ -1314,6 +1588,32 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncMopGet(key, get, tc);
   }
 
+  @Override
+  public CollectionScanIterator<Map.Entry<String, Object>> mopGetIterator(String key,
+                                                                          List<String> mkeyList,
+                                                                          int batchSize) {
+    return mopGetIterator(key, mkeyList, batchSize, collectionTranscoder);
+  }
+
+  @Override
+  public <T> CollectionScanIterator<Map.Entry<String, T>> mopGetIterator(
+          final String key, List<String> mkeyList, final int batchSize, final Transcoder<T> tc) {
+    keyValidator.validateMKey(mkeyList);
+    validatePageSize(batchSize);
+    final List<String> mkeys = new ArrayList<>(mkeyList);
+    final AtomicInteger nextIdx = new AtomicInteger(0);
+    return new CollectionScanIterator<>(page -> {
+      int from = nextIdx.get();
+      if (from >= mkeys.size()) {
+        return null;
+      }
+      int to = Math.min(from + batchSize, mkeys.size());
+      nextIdx.set(to);
+      MapGet get = new MapGet(mkeys.subList(from, to), false, false);
+      return asyncMopGet(key, get, tc);
+    }, Map::entrySet);
+  }
+
 //  @Override
 //  public CollectionFuture<List<Object>> asyncLopGet(String key, int index) {
 //    return asyncLopGet(key, index, false, false);
@@ -1363,6 +1663,26 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncLopGet(key, get, tc);
   }
 
+  @Override
+  public CollectionScanIterator<Object> lopGetIterator(String key, int pageSize) {
+    return lopGetIterator(key, pageSize, collectionTranscoder);
+  }
+
+  @Override
+  public <T> CollectionScanIterator<T> lopGetIterator(final String key, final int pageSize,
+                                                      final Transcoder<T> tc) {
+    validatePageSize(pageSize);
+    final AtomicInteger nextIdx = new AtomicInteger(0);
+    return new CollectionScanIterator<>(page -> {
+      if (page != null && page.size() < pageSize) {
+        return null;
+      }
+      int from = nextIdx.getAndAdd(pageSize);
+      ListGet get = new ListGet(from, from + pageSize - 1, false, false);
+      return asyncLopGet(key, get, tc);
+    }, list -> list);
+  }
+
 //  @Override
 //  public CollectionFuture<Set<Object>> asyncSopGet(String key, int count) {
 //    return asyncSopGet(key, count, false, false);
@@ -1387,6 +1707,30 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncSopGet(key, get, tc);
   }
 
+  @Override
+  public CollectionScanIterator<Object> sopGetIterator(String key, int count,
+                                                       boolean withDelete,
+                                                       boolean dropIfEmpty) {
+    return sopGetIterator(key, count, withDelete, dropIfEmpty, collectionTranscoder);
+  }
+
+  @Override
+  public <T> CollectionScanIterator<T> sopGetIterator(final String key, final int count,
+                                                      final boolean withDelete,
+                                                      final boolean dropIfEmpty,
+                                                      final Transcoder<T> tc) {
+    validatePageSize(count);
+    // without delete, the next batch may have the same items.
+    // with delete, a prefetched batch would be lost if the iteration stops.
+    return new CollectionScanIterator<>(page -> {
+      if (page != null && (!withDelete || page.size() < count)) {
+        return null;
+      }
+      SetGet get = new SetGet(count, withDelete, dropIfEmpty);
+      return asyncSopGet(key, get, tc);
+    }, set -> set, false);
+  }
+
   @Override
   public CollectionFuture<Boolean> asyncBopDelete(String key, long bkey,
                                                   ElementFlagFilter eFlagFilter,
@@ -1749,6 +2093,8 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
             new PipedCollectionFuture<>(latch, operationTimeout);
 
     final List<Operation> ops = new ArrayList<>(insertList.size());
+    final int window = Math.min(pipedChunkWindow, insertList.size());
+    final IntConsumer chunkCompletion = pipedChunkCompletion(key, ops, window, rv, latch);
     IntFunction<OperationCallback> makeCallback = opIdx -> new SingleKeyPipedOperationCallback() {
 
       public void receivedStatus(OperationStatus status) {
@@ -1757,17 +2103,7 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
       }
 
       public void complete() {
-        CollectionOperationStatus operationStatus = rv.getOperationStatus();
-        if (operationStatus != null && operationStatus.isSuccess()
-                && !ops.get(opIdx).isCancelled()
-                && opIdx + 1 < ops.size()) {
-          Operation nextOp = ops.get(opIdx + 1);
-          if (!nextOp.isCancelled()) {
-            addOp(key, nextOp);
-            return;
-          }
-        }
-        latch.countDown();
+        chunkCompletion.accept(opIdx);
       }
 
       public void gotStatus(Integer index, OperationStatus status) {
@@ -1784,10 +2120,63 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     }
 
     rv.addOperations(ops);
-    addOp(key, ops.get(0));
+    for (int i = 0; i < window; i++) {
+      addOp(key, ops.get(i));
+    }
     return rv;
   }
 
+  /**
+   * Make the completion handler of the chunks of a piped operation,
+   * given the number of chunks sent first.
+   * A chunk completed successfully sends the next chunk not sent yet,
+   * so that up to the window of chunks are in flight on the connection.
+   * Once a chunk fails or is cancelled, the chunks not sent yet are not sent,
+   * and the latch is counted down when all the chunks sent have completed.
+   * The completions are handled one at a time, so that the chunks counted
+   * in flight are always the chunks sent and not completed yet, even if a
+   * chunk is cancelled by another thread while the next chunk is sent.
+   */
+  private IntConsumer pipedChunkCompletion(final String key, final List<Operation> ops,
+                                           final int window,
+                                           final PipedCollectionFuture<?, ?> rv,
+                                           final CountDownLatch latch) {
+    return new IntConsumer() {
+      // guarded by this
+      private int nextIdx = window;
+      private int inFlight = window;
+      private boolean stopped = false;
+
+      @Override
+      public synchronized void accept(int opIdx) {
+        if (opIdx >= nextIdx) {
+          // a chunk not sent yet is cancelled.
+          stopped = true;
+          return;
+        }
+        CollectionOperationStatus operationStatus = rv.getOperationStatus();
+        if (operationStatus != null && operationStatus.isSuccess()
+                && !ops.get(opIdx).isCancelled() && !stopped) {
+          if (nextIdx < ops.size()) {
+            Operation nextOp = ops.get(nextIdx++);
+            if (!nextOp.isCancelled()) {
+              // counted before it is sent, as it may complete within addOp.
+              inFlight++;
+              addOp(key, nextOp);
+            } else {
+              stopped = true;
+            }
+          }
+        } else {
+          stopped = true;
+        }
+        if (--inFlight == 0) {
+          latch.countDown();
+        }
+      }
+    };
+  }
+
   @Override
   public OperationFuture<Boolean> flush(final String prefix) {
     return flush(prefix, -1);
@@ -1849,11 +2238,11 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
 
         @Override
         public void receivedStatus(OperationStatus status) {
-          final int processed = processedSMGetCount.decrementAndGet();
-
+          // the elements are added before the count is decreased,
+          // so the merge of the last smget sees the elements of all the smgets.
           if (status.isSuccess()) {
-            result.mergeSMGetElements(eachResult);
-            if (processed == 0) {
+            result.addSMGetElements(eachResult);
+            if (processedSMGetCount.decrementAndGet() == 0) {
               result.makeResultOperationStatus();
             }
           } else {
@@ -1861,6 +2250,7 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
             CollectionOperationStatus cstatus = toCollectionOperationStatus(status);
             result.setFailedOperationStatus(cstatus);
             getLogger().warn("SMGetFailed. status=%s", cstatus);
+            processedSMGetCount.decrementAndGet();
           }
         }
 
@@ -1909,6 +2299,10 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
       ops.add(op);
       addOp(smGet.getMemcachedNode(), op);
     }
+    if (smGetList.isEmpty()) {
+      // no more elements after the cursor.
+      result.makeResultOperationStatus();
+    }
 
     return new SMGetFuture<>(ops, result, blatch, operationTimeout);
   }
@@ -2116,6 +2510,8 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
             new PipedCollectionFuture<>(latch, operationTimeout);
 
     final List<Operation> ops = new ArrayList<>(updateList.size());
+    final int window = Math.min(pipedChunkWindow, updateList.size());
+    final IntConsumer chunkCompletion = pipedChunkCompletion(key, ops, window, rv, latch);
     IntFunction<OperationCallback> makeCallback = opIdx -> new SingleKeyPipedOperationCallback() {
 
       public void receivedStatus(OperationStatus status) {
@@ -2124,17 +2520,7 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
       }
 
       public void complete() {
-        CollectionOperationStatus operationStatus = rv.getOperationStatus();
-        if (operationStatus != null && operationStatus.isSuccess()
-                && !ops.get(opIdx).isCancelled()
-                && opIdx + 1 < ops.size()) {
-          Operation nextOp = ops.get(opIdx + 1);
-          if (!nextOp.isCancelled()) {
-            addOp(key, nextOp);
-            return;
-          }
-        }
-        latch.countDown();
+        chunkCompletion.accept(opIdx);
       }
 
       public void gotStatus(Integer index, OperationStatus status) {
@@ -2151,7 +2537,9 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     }
 
     rv.addOperations(ops);
-    addOp(key, ops.get(0));
+    for (int i = 0; i < window; i++) {
+      addOp(key, ops.get(i));
+    }
     return rv;
   }
 
@@ -2232,6 +2620,34 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncBopExtendedGet(key, get, tc);
   }
 
+  @Override
+  public BTreeElementIterator<Object> bopGetIterator(String key, byte[] from, byte[] to,
+                                                     ElementFlagFilter eFlagFilter,
+                                                     int pageSize) {
+    return bopGetIterator(key, from, to, eFlagFilter, pageSize, collectionTranscoder);
+  }
+
+  @Override
+  public <T> BTreeElementIterator<T> bopGetIterator(final String key,
+                                                    final byte[] from, final byte[] to,
+                                                    final ElementFlagFilter eFlagFilter,
+                                                    final int pageSize,
+                                                    final Transcoder<T> tc) {
+    KeyValidator.validateBKey(from, to);
+    validatePageSize(pageSize);
+    final int order = (BTreeUtil.compareByteArraysInLexOrder(from, to) > 0) ? -1 : 1;
+    return new BTreeElementIterator<>(last -> {
+      byte[] start = from;
+      if (last != null) {
+        start = BTreeUtil.adjacentByteArrayBKey(last.getByteArrayBkey(), order < 0);
+        if (start == null || BTreeUtil.compareByteArraysInLexOrder(start, to) * order > 0) {
+          return null;
+        }
+      }
+      return asyncBopGet(key, start, to, eFlagFilter, 0, pageSize, false, false, tc);
+    }, pageSize);
+  }
+
   /**
    * Generic get operation for b+tree items using byte-array type bkeys.
    * Public methods for b+tree items call this method.
@@ -2738,36 +3154,94 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
   public SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
           List<String> keyList, byte[] from, byte[] to, ElementFlagFilter eFlagFilter,
           int count, boolean unique) {
+    return asyncBopSortMergeGet(keyList, from, to, eFlagFilter, count, unique, null);
+  }
+
+  @Override
+  public SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
+          List<String> keyList, long from, long to, ElementFlagFilter eFlagFilter,
+          int count, boolean unique) {
+    return asyncBopSortMergeGet(keyList, from, to, eFlagFilter, count, unique, null);
+  }
+
+  @Override
+  public SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
+          List<String> keyList, final byte[] from, final byte[] to,
+          final ElementFlagFilter eFlagFilter, final int count, final boolean unique,
+          SMGetCursor cursor) {
     KeyValidator.validateBKey(from, to);
     keyValidator.validateKey(keyList);
     keyValidator.checkDupKey(keyList);
-    if (count < 1) {
-      throw new IllegalArgumentException("Count must be larger than 0.");
-    }
-    if (count > MAX_SMGET_COUNT) {
-      throw new IllegalArgumentException("The count must not exceed a maximum of "
-              + MAX_SMGET_COUNT + ".");
+    validateSMGetCount(count);
+
+    final boolean reverse = BTreeUtil.compareByteArraysInLexOrder(from, to) > 0;
+    if (cursor == null) {
+      return smget(smGetList(keyList, (node, keys) -> new BTreeSMGetWithByteTypeBkey<>(
+              node, keys, from, to, eFlagFilter, count, unique)),
+          count, unique, reverse, collectionTranscoder);
     }
 
-    Collection<Entry<MemcachedNode, List<String>>> arrangedKey =
-            groupingKeys(keyList, SMGET_CHUNK_SIZE, APIType.BOP_SMGET);
-    List<BTreeSMGet<Object>> smGetList = new ArrayList<>(
-            arrangedKey.size());
-    for (Entry<MemcachedNode, List<String>> entry : arrangedKey) {
-      smGetList.add(new BTreeSMGetWithByteTypeBkey<>(entry.getKey(),
-              entry.getValue(), from, to, eFlagFilter, count, unique));
+    if (!cursor.getBkeyObject().isByteArray()) {
+      throw new IllegalArgumentException("The cursor must have a byte array bkey.");
+    }
+    final byte[] bkey = cursor.getBkeyObject().getByteArrayBKeyRaw();
+    final int order = (reverse) ? -1 : 1;
+    if (BTreeUtil.compareByteArraysInLexOrder(bkey, from) * order < 0 ||
+        BTreeUtil.compareByteArraysInLexOrder(bkey, to) * order > 0) {
+      throw new IllegalArgumentException("The cursor is out of the bkey range.");
     }
 
-    return smget(smGetList, count, unique,
-            (BTreeUtil.compareByteArraysInLexOrder(from, to) > 0), collectionTranscoder);
+    List<List<String>> splitKeys = splitKeysByCursor(keyList, cursor, unique, reverse);
+    List<BTreeSMGet<Object>> smGetList = smGetList(splitKeys.get(0),
+        (node, keys) -> new BTreeSMGetWithByteTypeBkey<>(
+            node, keys, bkey, to, eFlagFilter, count, unique));
+    final byte[] next = BTreeUtil.adjacentByteArrayBKey(bkey, reverse);
+    if (next != null && BTreeUtil.compareByteArraysInLexOrder(next, to) * order <= 0) {
+      smGetList.addAll(smGetList(splitKeys.get(1),
+          (node, keys) -> new BTreeSMGetWithByteTypeBkey<>(
+              node, keys, next, to, eFlagFilter, count, unique)));
+    }
+    return smget(smGetList, count, unique, reverse, collectionTranscoder);
   }
 
   @Override
   public SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
-          List<String> keyList, long from, long to, ElementFlagFilter eFlagFilter,
-          int count, boolean unique) {
+          List<String> keyList, final long from, final long to,
+          final ElementFlagFilter eFlagFilter, final int count, final boolean unique,
+          SMGetCursor cursor) {
     keyValidator.validateKey(keyList);
     keyValidator.checkDupKey(keyList);
+    validateSMGetCount(count);
+
+    final boolean reverse = from > to;
+    if (cursor == null) {
+      return smget(smGetList(keyList, (node, keys) -> new BTreeSMGetWithLongTypeBkey<>(
+              node, keys, from, to, eFlagFilter, count, unique)),
+          count, unique, reverse, collectionTranscoder);
+    }
+
+    if (!cursor.getBkeyObject().isLong()) {
+      throw new IllegalArgumentException("The cursor must have a long bkey.");
+    }
+    final long bkey = cursor.getBkeyObject().getLongBKey();
+    if ((reverse) ? (bkey > from || bkey < to) : (bkey < from || bkey > to)) {
+      throw new IllegalArgumentException("The cursor is out of the bkey range.");
+    }
+
+    List<List<String>> splitKeys = splitKeysByCursor(keyList, cursor, unique, reverse);
+    List<BTreeSMGet<Object>> smGetList = smGetList(splitKeys.get(0),
+        (node, keys) -> new BTreeSMGetWithLongTypeBkey<>(
+            node, keys, bkey, to, eFlagFilter, count, unique));
+    if (bkey != to) {
+      final long next = (reverse) ? bkey - 1 : bkey + 1;
+      smGetList.addAll(smGetList(splitKeys.get(1),
+          (node, keys) -> new BTreeSMGetWithLongTypeBkey<>(
+              node, keys, next, to, eFlagFilter, count, unique)));
+    }
+    return smget(smGetList, count, unique, reverse, collectionTranscoder);
+  }
+
+  private void validateSMGetCount(int count) {
     if (count < 1) {
       throw new IllegalArgumentException("Count must be larger than 0.");
     }
@@ -2775,16 +3249,39 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
       throw new IllegalArgumentException("The count must not exceed a maximum of "
               + MAX_SMGET_COUNT + ".");
     }
+  }
 
+  private List<BTreeSMGet<Object>> smGetList(
+          List<String> keyList,
+          BiFunction<MemcachedNode, List<String>, BTreeSMGet<Object>> smGetOf) {
     Collection<Entry<MemcachedNode, List<String>>> arrangedKey =
             groupingKeys(keyList, SMGET_CHUNK_SIZE, APIType.BOP_SMGET);
     List<BTreeSMGet<Object>> smGetList = new ArrayList<>(
             arrangedKey.size());
     for (Entry<MemcachedNode, List<String>> entry : arrangedKey) {
-      smGetList.add(new BTreeSMGetWithLongTypeBkey<>(entry.getKey(),
-              entry.getValue(), from, to, eFlagFilter, count, unique));
+      smGetList.add(smGetOf.apply(entry.getKey(), entry.getValue()));
+    }
+    return smGetList;
+  }
+
+  /**
+   * Split the keys of a smget page following the cursor into two lists.
+   * The elements of the keys in the first list are fetched from the cursor bkey,
+   * because their elements at the cursor bkey come after the cursor.
+   * The elements of the other keys are fetched from the bkey next to the cursor bkey.
+   */
+  private List<List<String>> splitKeysByCursor(List<String> keyList, SMGetCursor cursor,
+                                               boolean unique, boolean reverse) {
+    List<String> fromCursor = new ArrayList<>();
+    List<String> afterCursor = new ArrayList<>();
+    for (String key : keyList) {
+      if (!unique && cursor.isBefore(key, reverse)) {
+        fromCursor.add(key);
+      } else {
+        afterCursor.add(key);
+      }
     }
-    return smget(smGetList, count, unique, (from > to), collectionTranscoder);
+    return Arrays.asList(fromCursor, afterCursor);
   }
 
   @Override
@@ -2821,6 +3318,35 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     return asyncCollectionInsertBulk2(insertList);
   }
 
+  @Override
+  public Future<Boolean> asyncBopInsertBulkNoreply(
+          List<String> keyList, long bkey, byte[] eFlag, Object value,
+          CollectionAttributes attributesForCreate, boolean sync) {
+    return asyncBopInsertBulkNoreply(keyList, bkey, eFlag, value,
+            attributesForCreate, collectionTranscoder, sync);
+  }
+
+  @Override
+  public <T> Future<Boolean> asyncBopInsertBulkNoreply(
+          List<String> keyList, final long bkey, final byte[] eFlag, T value,
+          final CollectionAttributes attributesForCreate, Transcoder<T> tc, boolean sync) {
+
+    KeyValidator.validateBKey(bkey);
+    keyValidator.validateKey(keyList);
+    keyValidator.checkDupKey(keyList);
+    Collection<Entry<MemcachedNode, List<String>>> arrangedKey =
+            groupingKeys(keyList, NON_PIPED_BULK_INSERT_CHUNK_SIZE, APIType.BOP_INSERT);
+
+    final CachedData insertValue = tc.encode(value);
+    return asyncNoreplyBulk(arrangedKey, arrangedKey.size(), (group, cb) -> {
+      CollectionBulkInsert<T> insert = new CollectionBulkInsert.BTreeBulkInsert<>(
+              group.getKey(), group.getValue(), String.valueOf(bkey), BTreeUtil.toHex(eFlag),
+              insertValue, attributesForCreate);
+      insert.setNoreply(true);
+      return Collections.singletonList(opFact.collectionBulkInsert(insert, cb));
+    }, sync);
+  }
+
   @Override
   public Future<Map<String, CollectionOperationStatus>> asyncBopInsertBulk(
           List<String> keyList, byte[] bkey, byte[] eFlag, Object value,
@@ -3003,11 +3529,6 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     if (count < 1) {
       throw new IllegalArgumentException("Count must be larger than 0.");
     }
-    if (count > MAX_GETBULK_ELEMENT_COUNT) {
-      throw new IllegalArgumentException("Count must not exceed a maximum of "
-          + MAX_GETBULK_ELEMENT_COUNT + ".");
-    }
-
     Collection<Entry<MemcachedNode, List<String>>> rearrangedKeys =
             groupingKeys(keyList, BOPGET_BULK_CHUNK_SIZE, APIType.BOP_GET);
 
@@ -3016,10 +3537,11 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
 
     for (Entry<MemcachedNode, List<String>> entry : rearrangedKeys) {
       getBulkList.add(new BTreeGetBulkWithLongTypeBkey<>(entry.getKey(),
-              entry.getValue(), from, to, eFlagFilter, offset, count));
+              entry.getValue(), from, to, eFlagFilter, offset,
+              Math.min(count, MAX_GETBULK_ELEMENT_COUNT)));
     }
 
-    return btreeGetBulk(getBulkList, (from > to), tc);
+    return btreeGetBulk(getBulkList, count, (from > to), tc, bkey -> (Long) bkey);
   }
 
   public CollectionGetBulkFuture<Map<String, BTreeGetResult<ByteArrayBKey, Object>>>
@@ -3043,11 +3565,6 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
     if (count < 1) {
       throw new IllegalArgumentException("Count must be larger than 0.");
     }
-    if (count > MAX_GETBULK_ELEMENT_COUNT) {
-      throw new IllegalArgumentException("Count must not exceed a maximum of "
-          + MAX_GETBULK_ELEMENT_COUNT + ".");
-    }
-
     Collection<Entry<MemcachedNode, List<String>>> rearrangedKeys =
             groupingKeys(keyList, BOPGET_BULK_CHUNK_SIZE, APIType.BOP_GET);
 
@@ -3056,129 +3573,134 @@ public class ArcusClient extends FrontCacheMemcachedClient implements ArcusClien
 
     for (Entry<MemcachedNode, List<String>> entry : rearrangedKeys) {
       getBulkList.add(new BTreeGetBulkWithByteTypeBkey<>(entry.getKey(),
-              entry.getValue(), from, to, eFlagFilter, offset, count));
+              entry.getValue(), from, to, eFlagFilter, offset,
+              Math.min(count, MAX_GETBULK_ELEMENT_COUNT)));
     }
 
     boolean reverse = BTreeUtil.compareByteArraysInLexOrder(from, to) > 0;
 
-    return btreeGetBulkByteArrayBKey(getBulkList, reverse, tc);
+    return btreeGetBulk(getBulkList, count, reverse, tc,
+        bkey -> new ByteArrayBKey((byte[]) bkey));
   }
 
   /**
    * Generic bulk get operation for b+tree items. Public methods call this method.
    *
+   * <p>A server returns at most {@link #MAX_GETBULK_ELEMENT_COUNT} elements of each key
+   * in a request. If a key returns a full page and has not reached the given count,
+   * the elements after the last one are requested again, until the count is reached
+   * or the range is exhausted. The keys of a request resuming after the same bkey
+   * share the next request, as a request has a single range for all its keys.</p>
+   *
    * @param getBulkList list of operation parameters (item keys, element key range, and so on)
+   * @param count       number of elements to retrieve from each b+tree
    * @param reverse     forward or backward
    * @param tc          transcoder to serialize and unserialize value
+   * @param bkeyOf      converter of the decoded bkey to the bkey type of the result
    * @return future holding the map of item key and the fetched elements from that key
    */
-  private <T> CollectionGetBulkFuture<Map<String, BTreeGetResult<Long, T>>> btreeGetBulk(
-          final List<BTreeGetBulk<T>> getBulkList,
-          final boolean reverse, final Transcoder<T> tc) {
+  private <K, T> CollectionGetBulkFuture<Map<String, BTreeGetResult<K, T>>> btreeGetBulk(
+          final List<BTreeGetBulk<T>> getBulkList, final int count,
+          final boolean reverse, final Transcoder<T> tc,
+          final Function<Object, K> bkeyOf) {
 
-    final CountDownLatch latch = new CountDownLatch(getBulkList.size());
-    final Collection<Operation> ops = new ArrayList<>();
-    final Map<String, List<BTreeElement<Long, CachedData>>> cachedDataMap =
-            new HashMap<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicInteger pending = new AtomicInteger(getBulkList.size());
+    final Collection<Operation> ops = new ConcurrentLinkedQueue<>();
+    final Map<String, List<BTreeElement<K, CachedData>>> cachedDataMap =
+            new ConcurrentHashMap<>();
     final Map<String, CollectionOperationStatus> opStatusMap =
-            new HashMap<>();
-    final GetResult<Map<String, BTreeGetResult<Long, T>>> result =
+            new ConcurrentHashMap<>();
+    final GetResult<Map<String, BTreeGetResult<K, T>>> result =
             new BopGetBulkResultImpl<>(cachedDataMap, opStatusMap, reverse, tc);
+    final CollectionGetBulkFuture<Map<String, BTreeGetResult<K, T>>> future =
+            new CollectionGetBulkFuture<>(latch, ops, result, operationTimeout);
 
-    for (BTreeGetBulk<T> getBulk : getBulkList) {
-      final Operation op = opFact.bopGetBulk(getBulk, new BTreeGetBulkOperation.Callback() {
+    class PageSender {
+      void send(final BTreeGetBulk<T> getBulk, final int remaining, final boolean firstPage) {
+        final Map<String, Integer> pageCounts = new HashMap<>();
+        final Map<String, Object> lastBkeys = new HashMap<>();
+        final int pageCount = Math.min(remaining, MAX_GETBULK_ELEMENT_COUNT);
+        final Operation[] self = new Operation[1];
+        Operation op = opFact.bopGetBulk(getBulk, new BTreeGetBulkOperation.Callback() {
 
-        @Override
-        public void receivedStatus(OperationStatus status) {
-          // Nothing to do here because the user MUST search the result Map instance.
-        }
+          @Override
+          public void receivedStatus(OperationStatus status) {
+            // Nothing to do here because the user MUST search the result Map instance.
+          }
 
-        @Override
-        public void complete() {
-          latch.countDown();
-        }
+          @Override
+          public void complete() {
+            int left = remaining - pageCount;
+            if (left > 0 && !future.isCancelRequested()
+                && !self[0].isCancelled() && !self[0].hasErrored()) {
+              // the keys returning a full page, by the bkey to resume after.
+              Map<K, List<String>> fullPageKeys = new LinkedHashMap<>();
+              Map<K, Object> resumeBkeys = new HashMap<>();
+              for (Entry<String, Integer> entry : pageCounts.entrySet()) {
+                if (entry.getValue() == pageCount) {
+                  Object lastBkey = lastBkeys.get(entry.getKey());
+                  K bkey = bkeyOf.apply(lastBkey);
+                  fullPageKeys.computeIfAbsent(bkey, b -> new ArrayList<>()).add(entry.getKey());
+                  resumeBkeys.put(bkey, lastBkey);
+                }
+              }
+              for (Entry<K, List<String>> entry : fullPageKeys.entrySet()) {
+                BTreeGetBulk<T> nextPage = getBulk.nextPage(entry.getValue(),
+                    resumeBkeys.get(entry.getKey()), Math.min(left, MAX_GETBULK_ELEMENT_COUNT));
+                if (nextPage != null) {
+                  pending.incrementAndGet();
+                  send(nextPage, left, false);
+                }
+              }
+            }
+            if (pending.decrementAndGet() == 0) {
+              latch.countDown();
+            }
+          }
 
-        @Override
-        public void gotKey(String key, int elementCount, OperationStatus status) {
-          if (elementCount > 0) {
-            cachedDataMap.put(key, new ArrayList<>(elementCount));
+          @Override
+          public void gotKey(String key, int elementCount, OperationStatus status) {
+            CollectionOperationStatus cstatus = (CollectionOperationStatus) status;
+            if (elementCount > 0) {
+              cachedDataMap.computeIfAbsent(key, k -> new ArrayList<>(elementCount));
+            }
+            if (firstPage) {
+              opStatusMap.put(key, cstatus);
+            } else if (cstatus.getResponse() == CollectionResponse.TRIMMED) {
+              // the rest of the elements were trimmed after the previous page.
+              opStatusMap.put(key, cstatus);
+            }
+            if (cstatus.getResponse() == CollectionResponse.OK) {
+              pageCounts.put(key, elementCount);
+            }
           }
-          opStatusMap.put(key, (CollectionOperationStatus) status);
-        }
 
-        @Override
-        public void gotElement(String key, int flags, Object bkey, byte[] eflag, byte[] data) {
-          List<BTreeElement<Long, CachedData>> elems = cachedDataMap.get(key);
-          assert elems != null : "Element list not prepared in bopGetBulk";
-          elems.add(new BTreeElement<>((Long) bkey, eflag,
-                  new CachedData(flags, data, tc.getMaxSize())));
+          @Override
+          public void gotElement(String key, int flags, Object bkey, byte[] eflag, byte[] data) {
+            List<BTreeElement<K, CachedData>> elems = cachedDataMap.get(key);
+            assert elems != null : "Element list not prepared in bopGetBulk";
+            elems.add(new BTreeElement<>(bkeyOf.apply(bkey), eflag,
+                    new CachedData(flags, data, tc.getMaxSize())));
+            lastBkeys.put(key, bkey);
+          }
+        });
+        self[0] = op;
+        ops.add(op);
+        // the future may have been cancelled before seeing the operation added.
+        if (future.isCancelRequested()) {
+          op.cancel("by application.");
+        } else {
+          addOp(getBulk.getMemcachedNode(), op);
         }
-      });
-      ops.add(op);
-      addOp(getBulk.getMemcachedNode(), op);
+      }
     }
 
-    return new CollectionGetBulkFuture<>(
-            latch, ops, result, operationTimeout);
-  }
-
-  /**
-   * Generic bulk get operation for b+tree items using byte-array type bkeys.
-   * Public methods call this method.
-   *
-   * @param getBulkList list of operation parameters (item keys, element key range, and so on)
-   * @param reverse     forward or backward
-   * @param tc          transcoder to serialize and unserialize value
-   * @return future holding the map of item key and the fetched elements from that key
-   */
-  private <T> CollectionGetBulkFuture<Map<String, BTreeGetResult<ByteArrayBKey, T>>>
-      btreeGetBulkByteArrayBKey(
-          final List<BTreeGetBulk<T>> getBulkList,
-          final boolean reverse, final Transcoder<T> tc) {
-
-    final CountDownLatch latch = new CountDownLatch(getBulkList.size());
-    final Collection<Operation> ops = new ArrayList<>(getBulkList.size());
-    final Map<String, List<BTreeElement<ByteArrayBKey, CachedData>>> cachedDataMap =
-            new HashMap<>();
-    final Map<String, CollectionOperationStatus> opStatusMap =
-            new HashMap<>();
-    final GetResult<Map<String, BTreeGetResult<ByteArrayBKey, T>>> result =
-            new BopGetBulkResultImpl<>(cachedDataMap, opStatusMap, reverse, tc);
-
+    PageSender sender = new PageSender();
     for (BTreeGetBulk<T> getBulk : getBulkList) {
-      Operation op = opFact.bopGetBulk(getBulk, new BTreeGetBulkOperation.Callback() {
-        @Override
-        public void receivedStatus(OperationStatus status) {
-        }
-
-        @Override
-        public void complete() {
-          latch.countDown();
-        }
-
-        @Override
-        public void gotKey(String key, int elementCount, OperationStatus status) {
-          if (elementCount > 0) {
-            cachedDataMap.put(key, new ArrayList<>(elementCount));
-          }
-          opStatusMap.put(key, (CollectionOperationStatus) status);
-        }
-
-        @Override
-        public void gotElement(String key, int flags, Object bkey, byte[] eflag, byte[] data) {
-          List<BTreeElement<ByteArrayBKey, CachedData>> elems = cachedDataMap.get(key);
-          assert elems != null : "Element list not prepared in bopGetBulk";
-          elems.add(new BTreeElement<>(
-                  new ByteArrayBKey((byte[]) bkey), eflag,
-                  new CachedData(flags, data, tc.getMaxSize())));
-        }
-      });
-      ops.add(op);
-      addOp(getBulk.getMemcachedNode(), op);
+      sender.send(getBulk, count, true);
     }
-
-    return new CollectionGetBulkFuture<>(
-            latch, ops, result, operationTimeout);
+    return future;
   }
 
   @Override
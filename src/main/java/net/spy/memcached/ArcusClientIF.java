@@ -16,10 +16,12 @@
  */
 package net.spy.memcached;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 import net.spy.memcached.collection.Attributes;
 import net.spy.memcached.collection.BTreeGetResult;
@@ -30,11 +32,14 @@ import net.spy.memcached.collection.Element;
 import net.spy.memcached.collection.ElementFlagFilter;
 import net.spy.memcached.collection.ElementFlagUpdate;
 import net.spy.memcached.collection.ElementValueType;
+import net.spy.memcached.collection.SMGetCursor;
 import net.spy.memcached.collection.SMGetElement;
 import net.spy.memcached.collection.SMGetMode;
+import net.spy.memcached.internal.BTreeElementIterator;
 import net.spy.memcached.internal.BTreeStoreAndGetFuture;
 import net.spy.memcached.internal.CollectionFuture;
 import net.spy.memcached.internal.CollectionGetBulkFuture;
+import net.spy.memcached.internal.CollectionScanIterator;
 import net.spy.memcached.internal.OperationFuture;
 import net.spy.memcached.internal.SMGetFuture;
 import net.spy.memcached.ops.CollectionOperationStatus;
@@ -227,6 +232,54 @@ public interface ArcusClientIF extends MemcachedClientIF {
   Future<Map<String, OperationStatus>> asyncStoreBulk(
           StoreType type, Map<String, Object> o, int exp);
 
+  /**
+   * Store the entries read from an iterator, keeping up to the bulk store window
+   * of operations in flight on each node.
+   * The calling thread reads the entries until the window of the node of the next key
+   * is full, and returns without waiting. The rest of the entries are read by the IO
+   * thread completing an operation of that node, so the iterator must not block.
+   * The iterator is read by one thread at a time. {@link Future#get()} times out only
+   * when no operation completes within the operation timeout.
+   * Each key failed to be stored is given to the failure handler instead of being
+   * kept in the future. The handler is called from the calling thread and the IO threads,
+   * possibly at the same time, so it must be thread-safe and must not block.
+   *
+   * <h2>Basic usage</h2>
+   * <pre>{@code
+   *  ArcusClient c = getClientFromPool();
+   *
+   *  Iterator<Map.Entry<String, Object>> entries = readEntries();
+   *
+   *  Future<Boolean> f = c.asyncStoreBulk(StoreType.set, entries, 3600, transcoder,
+   *      (key, status) -> log.warn("failed to store {}: {}", key, status));
+   *  }</pre>
+   *
+   * @param <T>            the expected class of the values
+   * @param type           the type of store operation to perform.
+   * @param entries        the iterator of the keys and values to store
+   * @param exp            the expiration of the objects
+   * @param tc             the transcoder to serialize the values
+   * @param failureHandler the handler of each key failed to be stored
+   * @return a future that will hold true if all the entries have been stored
+   */
+  <T> Future<Boolean> asyncStoreBulk(
+          StoreType type, Iterator<? extends Map.Entry<String, T>> entries, int exp,
+          Transcoder<T> tc, BiConsumer<String, OperationStatus> failureHandler);
+
+  /**
+   * Store the entries read from an iterator with the default transcoder,
+   * keeping up to the bulk store window of operations in flight on each node.
+   *
+   * @param type           the type of store operation to perform.
+   * @param entries        the iterator of the keys and values to store
+   * @param exp            the expiration of the objects
+   * @param failureHandler the handler of each key failed to be stored
+   * @return a future that will hold true if all the entries have been stored
+   */
+  Future<Boolean> asyncStoreBulk(
+          StoreType type, Iterator<? extends Map.Entry<String, Object>> entries, int exp,
+          BiConsumer<String, OperationStatus> failureHandler);
+
   /**
    * Delete an object in the cache on each key.
    *
@@ -255,6 +308,48 @@ public interface ArcusClientIF extends MemcachedClientIF {
    */
   Future<Map<String, OperationStatus>> asyncDeleteBulk(String... key);
 
+  /**
+   * Store an object in the cache on each key in the noreply mode.
+   * The operations complete once written to the servers, and their failures are not known.
+   *
+   * @param <T>  the expected class of the value
+   * @param type the type of store operation to perform.
+   * @param key  the key list which this object should be added
+   * @param exp  the expiration of this object
+   * @param o    the object to store on each keys
+   * @param tc   the transcoder to serialize and unserialize the value
+   * @param sync if true, a version request is sent behind the operations on each connection,
+   *             and the future completes when the servers have processed all of them
+   * @return a future that will hold true if all the operations are sent
+   */
+  <T> Future<Boolean> asyncStoreBulkNoreply(
+          StoreType type, List<String> key, int exp, T o, Transcoder<T> tc, boolean sync);
+
+  /**
+   * Store an object in the cache on each key in the noreply mode.
+   * The operations complete once written to the servers, and their failures are not known.
+   *
+   * @param type the type of store operation to perform.
+   * @param key  the key list which this object should be added
+   * @param exp  the expiration of this object
+   * @param o    the object to store on each keys
+   * @param sync if true, a version request is sent behind the operations on each connection,
+   *             and the future completes when the servers have processed all of them
+   * @return a future that will hold true if all the operations are sent
+   */
+  Future<Boolean> asyncStoreBulkNoreply(
+          StoreType type, List<String> key, int exp, Object o, boolean sync);
+
+  /**
+   * Delete an object in the cache on each key in the noreply mode.
+   * The operations complete once written to the servers, and their failures are not known.
+   *
+   * @param key  the key list which this object should be deleted
+   * @param sync if true, a version request is sent behind the operations on each connection,
+   *             and the future completes when the servers have processed all of them
+   * @return a future that will hold true if all the operations are sent
+   */
+  Future<Boolean> asyncDeleteBulkNoreply(List<String> key, boolean sync);
 
   /**
    * Insert one item into multiple b+trees at once.
@@ -291,6 +386,49 @@ public interface ArcusClientIF extends MemcachedClientIF {
           List<String> keyList, long bkey, byte[] eFlag, Object value,
           CollectionAttributes attributesForCreate);
 
+  /**
+   * Insert one item into multiple b+trees at once in the noreply mode.
+   * The operations complete once written to the servers, and their failures are not known.
+   *
+   * @param <T>                 the expected class of the value
+   * @param keyList             key list of b+tree
+   * @param bkey                key of a b+tree element.
+   * @param eFlag               element flag. Length of element flag is between 1 and 31. if
+   *                            this value is null, Arcus don't assign element flag.
+   * @param value               value of element. this value can't be null.
+   * @param attributesForCreate create a b+tree with this attributes, if given key is not
+   *                            exists.
+   * @param tc                  transcoder to encode value
+   * @param sync                if true, a version request is sent behind the operations
+   *                            on each connection, and the future completes
+   *                            when the servers have processed all of them
+   * @return a future that will hold true if all the operations are sent
+   */
+  <T> Future<Boolean> asyncBopInsertBulkNoreply(
+          List<String> keyList, long bkey, byte[] eFlag, T value,
+          CollectionAttributes attributesForCreate,
+          Transcoder<T> tc, boolean sync);
+
+  /**
+   * Insert one item into multiple b+trees at once in the noreply mode.
+   * The operations complete once written to the servers, and their failures are not known.
+   *
+   * @param keyList             key list of b+tree
+   * @param bkey                key of a b+tree element.
+   * @param eFlag               element flag. Length of element flag is between 1 and 31. if
+   *                            this value is null, Arcus don't assign element flag.
+   * @param value               value of element. this value can't be null.
+   * @param attributesForCreate create a b+tree with this attributes, if given key is not
+   *                            exists.
+   * @param sync                if true, a version request is sent behind the operations
+   *                            on each connection, and the future completes
+   *                            when the servers have processed all of them
+   * @return a future that will hold true if all the operations are sent
+   */
+  Future<Boolean> asyncBopInsertBulkNoreply(
+          List<String> keyList, long bkey, byte[] eFlag, Object value,
+          CollectionAttributes attributesForCreate, boolean sync);
+
   /**
    * Insert one item into multiple map at once.
    *
@@ -661,6 +799,39 @@ public interface ArcusClientIF extends MemcachedClientIF {
                                                           boolean dropIfEmpty,
                                                           Transcoder<T> tc);
 
+  /**
+   * Get a lazy iterator over the elements of a b+tree in the bkey range,
+   * which are fetched by pages of the given size while they are iterated.
+   * The elements are in ascending order if from &lt; to, or in descending order otherwise.
+   *
+   * @param key         key of a b+tree
+   * @param from        the first bkey
+   * @param to          the last bkey
+   * @param eFlagFilter element flag filter
+   * @param pageSize    number of elements fetched by a request. must be larger than 0.
+   * @return an iterator of the elements, which also gives a stream of them
+   */
+  BTreeElementIterator<Object> bopGetIterator(String key, long from, long to,
+                                              ElementFlagFilter eFlagFilter, int pageSize);
+
+  /**
+   * Get a lazy iterator over the elements of a b+tree in the bkey range,
+   * which are fetched by pages of the given size while they are iterated.
+   * The elements are in ascending order if from &lt; to, or in descending order otherwise.
+   *
+   * @param <T>         the expected class of the value
+   * @param key         key of a b+tree
+   * @param from        the first bkey
+   * @param to          the last bkey
+   * @param eFlagFilter element flag filter
+   * @param pageSize    number of elements fetched by a request. must be larger than 0.
+   * @param tc          transcoder to decode value
+   * @return an iterator of the elements, which also gives a stream of them
+   */
+  <T> BTreeElementIterator<T> bopGetIterator(String key, long from, long to,
+                                             ElementFlagFilter eFlagFilter, int pageSize,
+                                             Transcoder<T> tc);
+
 //  /**
 //   * Retrieves all items from the map
 //   *
@@ -807,6 +978,37 @@ public interface ArcusClientIF extends MemcachedClientIF {
                                                    boolean withDelete, boolean dropIfEmpty,
                                                    Transcoder<T> tc);
 
+  /**
+   * Get a lazy iterator over the items of the map on given mkey list,
+   * which are fetched by batches of the given size while they are iterated.
+   * The mkeys not in the map are skipped.
+   *
+   * @param key       key of a map
+   * @param mkeyList  mkeyList
+   * @param batchSize number of mkeys fetched by a request. must be larger than 0.
+   * @return an iterator of the mkey and value entries, which also gives a stream of them
+   */
+  CollectionScanIterator<Map.Entry<String, Object>> mopGetIterator(String key,
+                                                                   List<String> mkeyList,
+                                                                   int batchSize);
+
+  /**
+   * Get a lazy iterator over the items of the map on given mkey list,
+   * which are fetched by batches of the given size while they are iterated.
+   * The mkeys not in the map are skipped.
+   *
+   * @param <T>       the expected class of the value
+   * @param key       key of a map
+   * @param mkeyList  mkeyList
+   * @param batchSize number of mkeys fetched by a request. must be larger than 0.
+   * @param tc        a transcoder to decode returned values
+   * @return an iterator of the mkey and value entries, which also gives a stream of them
+   */
+  <T> CollectionScanIterator<Map.Entry<String, T>> mopGetIterator(String key,
+                                                                  List<String> mkeyList,
+                                                                  int batchSize,
+                                                                  Transcoder<T> tc);
+
 //  /**
 //   * Retrieves an item on given index in the list.
 //   *
@@ -915,6 +1117,28 @@ public interface ArcusClientIF extends MemcachedClientIF {
                                             boolean withDelete, boolean dropIfEmpty,
                                             Transcoder<T> tc);
 
+  /**
+   * Get a lazy iterator over all items in the list from the head,
+   * which are fetched by index windows of the given size while they are iterated.
+   *
+   * @param key      key of a list
+   * @param pageSize number of items fetched by a request. must be larger than 0.
+   * @return an iterator of the items, which also gives a stream of them
+   */
+  CollectionScanIterator<Object> lopGetIterator(String key, int pageSize);
+
+  /**
+   * Get a lazy iterator over all items in the list from the head,
+   * which are fetched by index windows of the given size while they are iterated.
+   *
+   * @param <T>      the expected class of the value
+   * @param key      key of a list
+   * @param pageSize number of items fetched by a request. must be larger than 0.
+   * @param tc       a transcoder to decode the returned values
+   * @return an iterator of the items, which also gives a stream of them
+   */
+  <T> CollectionScanIterator<T> lopGetIterator(String key, int pageSize, Transcoder<T> tc);
+
 //  /**
 //   * Retrieves count number of random items in the set.
 //   *
@@ -965,6 +1189,47 @@ public interface ArcusClientIF extends MemcachedClientIF {
                                            boolean withDelete, boolean dropIfEmpty,
                                            Transcoder<T> tc);
 
+  /**
+   * Get a lazy iterator over the items in the set, which are fetched
+   * by random batches of the given count while they are iterated.
+   * Since a set has no order to resume from, all items are iterated only with delete,
+   * and the next batch is requested only when the items of a batch are consumed.
+   * Without delete, only a batch of the items is iterated.
+   * With delete, the items of a batch that are left when the iteration stops,
+   * e.g. by closing its stream, are lost since they are already removed from the set.
+   *
+   * @param key         key of a set
+   * @param count       number of items fetched by a request. must be larger than 0.
+   * @param withDelete  true to remove the fetched items from the set and iterate all items
+   * @param dropIfEmpty true to remove the key when all elements are removed.
+   *                    false set will remain empty even if all the elements are removed
+   * @return an iterator of the items, which also gives a stream of them
+   */
+  CollectionScanIterator<Object> sopGetIterator(String key, int count,
+                                                boolean withDelete, boolean dropIfEmpty);
+
+  /**
+   * Get a lazy iterator over the items in the set, which are fetched
+   * by random batches of the given count while they are iterated.
+   * Since a set has no order to resume from, all items are iterated only with delete,
+   * and the next batch is requested only when the items of a batch are consumed.
+   * Without delete, only a batch of the items is iterated.
+   * With delete, the items of a batch that are left when the iteration stops,
+   * e.g. by closing its stream, are lost since they are already removed from the set.
+   *
+   * @param <T>         the expected class of the value
+   * @param key         key of a set
+   * @param count       number of items fetched by a request. must be larger than 0.
+   * @param withDelete  true to remove the fetched items from the set and iterate all items
+   * @param dropIfEmpty true to remove the key when all elements are removed.
+   *                    false set will remain empty even if all the elements are removed
+   * @param tc          a tranacoder to decode returned value
+   * @return an iterator of the items, which also gives a stream of them
+   */
+  <T> CollectionScanIterator<T> sopGetIterator(String key, int count,
+                                               boolean withDelete, boolean dropIfEmpty,
+                                               Transcoder<T> tc);
+
   /**
    * Deletes an item with given bkey in the b+tree. (Arcus 1.6 or above)
    *
@@ -1926,6 +2191,39 @@ public interface ArcusClientIF extends MemcachedClientIF {
           int count, boolean withDelete, boolean dropIfEmpty,
           Transcoder<T> tc);
 
+  /**
+   * Get a lazy iterator over the elements of a b+tree in the bkey range,
+   * which are fetched by pages of the given size while they are iterated.
+   * The elements are in ascending order if from &lt; to, or in descending order otherwise.
+   *
+   * @param key         key of a b+tree
+   * @param from        the first bkey
+   * @param to          the last bkey
+   * @param eFlagFilter element flag filter
+   * @param pageSize    number of elements fetched by a request. must be larger than 0.
+   * @return an iterator of the elements, which also gives a stream of them
+   */
+  BTreeElementIterator<Object> bopGetIterator(String key, byte[] from, byte[] to,
+                                              ElementFlagFilter eFlagFilter, int pageSize);
+
+  /**
+   * Get a lazy iterator over the elements of a b+tree in the bkey range,
+   * which are fetched by pages of the given size while they are iterated.
+   * The elements are in ascending order if from &lt; to, or in descending order otherwise.
+   *
+   * @param <T>         the expected class of the value
+   * @param key         key of a b+tree
+   * @param from        the first bkey
+   * @param to          the last bkey
+   * @param eFlagFilter element flag filter
+   * @param pageSize    number of elements fetched by a request. must be larger than 0.
+   * @param tc          transcoder to decode value
+   * @return an iterator of the elements, which also gives a stream of them
+   */
+  <T> BTreeElementIterator<T> bopGetIterator(String key, byte[] from, byte[] to,
+                                             ElementFlagFilter eFlagFilter, int pageSize,
+                                             Transcoder<T> tc);
+
   /**
    * Get elements that matched both filter and bkey range criteria from
    * multiple b+tree. The result is sorted by order of bkey.
@@ -1975,6 +2273,44 @@ public interface ArcusClientIF extends MemcachedClientIF {
           List<String> keyList, long from, long to, ElementFlagFilter eFlagFilter,
           int count, boolean unique);
 
+  /**
+   * Get the page of elements that matched both filter and bkey range criteria from
+   * multiple b+tree, which follows the given cursor. The result is sorted by order of bkey.
+   * The cursor of the next page is given by {@link SMGetFuture#getNextCursor()}.
+   *
+   * @param keyList     b+ tree key list
+   * @param from        bkey index from
+   * @param to          bkey index to
+   * @param eFlagFilter element flag filter
+   * @param count       number of returning values. must be larger than 0 and not more than 1000.
+   * @param unique      true if only unique bkeys are returned.
+   * @param cursor      cursor of the previous page with the same arguments,
+   *                    or null for the first page
+   * @return a future that will hold the return value list of the fetch.
+   */
+  SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
+          List<String> keyList, byte[] from, byte[] to, ElementFlagFilter eFlagFilter,
+          int count, boolean unique, SMGetCursor cursor);
+
+  /**
+   * Get the page of elements that matched both filter and bkey range criteria from
+   * multiple b+tree, which follows the given cursor. The result is sorted by order of bkey.
+   * The cursor of the next page is given by {@link SMGetFuture#getNextCursor()}.
+   *
+   * @param keyList     b+ tree key list
+   * @param from        bkey index from
+   * @param to          bkey index to
+   * @param eFlagFilter element flag filter
+   * @param count       number of returning values. must be larger than 0 and not more than 1000.
+   * @param unique      true if only unique bkeys are returned.
+   * @param cursor      cursor of the previous page with the same arguments,
+   *                    or null for the first page
+   * @return a future that will hold the return value list of the fetch.
+   */
+  SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
+          List<String> keyList, long from, long to, ElementFlagFilter eFlagFilter,
+          int count, boolean unique, SMGetCursor cursor);
+
   /**
    * Insert one item into multiple b+trees at once.
    *
@@ -2018,7 +2354,8 @@ public interface ArcusClientIF extends MemcachedClientIF {
    * @param eFlagFilter element flag filter
    * @param offset      0-based offset. must be 0 or positive.
    * @param count       number of elements to retrieve from each b+tree.
-   *                    must be larger than 0 and not more than 50.
+   *                    must be larger than 0. more than 50 elements of a b+tree
+   *                    are fetched by the multiple requests.
    *                    total number of returning elements could be 0 to (count * keyList.size()).
    * @return future indicating result of each b+tree
    */
@@ -2037,7 +2374,8 @@ public interface ArcusClientIF extends MemcachedClientIF {
    * @param eFlagFilter element flag filter
    * @param offset      0-based offset. must be 0 or positive.
    * @param count       number of elements to retrieve from each b+tree.
-   *                    must be larger than 0 and not more than 50.
+   *                    must be larger than 0. more than 50 elements of a b+tree
+   *                    are fetched by the multiple requests.
    *                    total number of returning elements could be 0 to (count * keyList.size()).
    * @param tc          transcoder to decode value
    * @return future indicating result of each b+tree
@@ -2056,7 +2394,8 @@ public interface ArcusClientIF extends MemcachedClientIF {
    * @param eFlagFilter element flag filter
    * @param offset      0-based offset. must be 0 or positive.
    * @param count       number of elements to retrieve from each b+tree.
-   *                    must be larger than 0 and not more than 50.
+   *                    must be larger than 0. more than 50 elements of a b+tree
+   *                    are fetched by the multiple requests.
    *                    total number of returning elements could be 0 to (count * keyList.size()).
    * @return future indicating result of each b+tree
    */
@@ -2074,7 +2413,8 @@ public interface ArcusClientIF extends MemcachedClientIF {
    * @param eFlagFilter element flag filter
    * @param offset      0-based offset. must be 0 or positive.
    * @param count       number of elements to retrieve from each b+tree.
-   *                    must be larger than 0 and not more than 50.
+   *                    must be larger than 0. more than 50 elements of a b+tree
+   *                    are fetched by the multiple requests.
    *                    total number of returning elements could be 0 to (count * keyList.size()).
    * @param tc          transcoder to decode value
    * @return future indicating result of each b+tree
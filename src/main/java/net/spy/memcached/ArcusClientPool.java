@@ -26,6 +26,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import net.spy.memcached.collection.Attributes;
 import net.spy.memcached.collection.BTreeGetResult;
@@ -36,12 +37,16 @@ import net.spy.memcached.collection.Element;
 import net.spy.memcached.collection.ElementFlagFilter;
 import net.spy.memcached.collection.ElementFlagUpdate;
 import net.spy.memcached.collection.ElementValueType;
+import net.spy.memcached.collection.SMGetCursor;
 import net.spy.memcached.collection.SMGetElement;
 import net.spy.memcached.collection.SMGetMode;
+import net.spy.memcached.internal.BTreeElementIterator;
 import net.spy.memcached.internal.BTreeStoreAndGetFuture;
 import net.spy.memcached.internal.BulkFuture;
+import net.spy.memcached.internal.BulkGetSubscriber;
 import net.spy.memcached.internal.CollectionFuture;
 import net.spy.memcached.internal.CollectionGetBulkFuture;
+import net.spy.memcached.internal.CollectionScanIterator;
 import net.spy.memcached.internal.GetFuture;
 import net.spy.memcached.internal.OperationFuture;
 import net.spy.memcached.internal.SMGetFuture;
@@ -319,6 +324,18 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
     return this.getClient().asyncGetBulk(keys);
   }
 
+  @Override
+  public <T> void asyncGetBulkStream(Collection<String> keys, Transcoder<T> tc,
+                                     BulkGetSubscriber<T> subscriber) {
+    this.getClient().asyncGetBulkStream(keys, tc, subscriber);
+  }
+
+  @Override
+  public void asyncGetBulkStream(Collection<String> keys,
+                                 BulkGetSubscriber<Object> subscriber) {
+    this.getClient().asyncGetBulkStream(keys, subscriber);
+  }
+
   @Override
   public <T> BulkFuture<Map<String, CASValue<T>>> asyncGetsBulk(Collection<String> keys,
                                                                 Iterator<Transcoder<T>> tcs) {
@@ -588,6 +605,20 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
     return this.getClient().asyncStoreBulk(type, o, exp);
   }
 
+  @Override
+  public <T> Future<Boolean> asyncStoreBulk(
+          StoreType type, Iterator<? extends Map.Entry<String, T>> entries, int exp,
+          Transcoder<T> tc, BiConsumer<String, OperationStatus> failureHandler) {
+    return this.getClient().asyncStoreBulk(type, entries, exp, tc, failureHandler);
+  }
+
+  @Override
+  public Future<Boolean> asyncStoreBulk(
+          StoreType type, Iterator<? extends Map.Entry<String, Object>> entries, int exp,
+          BiConsumer<String, OperationStatus> failureHandler) {
+    return this.getClient().asyncStoreBulk(type, entries, exp, failureHandler);
+  }
+
   @Override
   public Future<Map<String, OperationStatus>> asyncDeleteBulk(
           List<String> key) {
@@ -601,6 +632,23 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
     return this.getClient().asyncDeleteBulk(key);
   }
 
+  @Override
+  public <T> Future<Boolean> asyncStoreBulkNoreply(
+          StoreType type, List<String> key, int exp, T o, Transcoder<T> tc, boolean sync) {
+    return this.getClient().asyncStoreBulkNoreply(type, key, exp, o, tc, sync);
+  }
+
+  @Override
+  public Future<Boolean> asyncStoreBulkNoreply(
+          StoreType type, List<String> key, int exp, Object o, boolean sync) {
+    return this.getClient().asyncStoreBulkNoreply(type, key, exp, o, sync);
+  }
+
+  @Override
+  public Future<Boolean> asyncDeleteBulkNoreply(List<String> key, boolean sync) {
+    return this.getClient().asyncDeleteBulkNoreply(key, sync);
+  }
+
   @Override
   public <T> Future<Map<String, CollectionOperationStatus>> asyncBopInsertBulk(
           List<String> keyList, long bkey, byte[] eFlag, T value,
@@ -617,6 +665,22 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
             attributesForCreate);
   }
 
+  @Override
+  public <T> Future<Boolean> asyncBopInsertBulkNoreply(
+          List<String> keyList, long bkey, byte[] eFlag, T value,
+          CollectionAttributes attributesForCreate, Transcoder<T> tc, boolean sync) {
+    return this.getClient().asyncBopInsertBulkNoreply(keyList, bkey, eFlag, value,
+            attributesForCreate, tc, sync);
+  }
+
+  @Override
+  public Future<Boolean> asyncBopInsertBulkNoreply(
+          List<String> keyList, long bkey, byte[] eFlag, Object value,
+          CollectionAttributes attributesForCreate, boolean sync) {
+    return this.getClient().asyncBopInsertBulkNoreply(keyList, bkey, eFlag, value,
+            attributesForCreate, sync);
+  }
+
   @Override
   public <T> Future<Map<String, CollectionOperationStatus>> asyncMopInsertBulk(
           List<String> keyList, String mkey, T value,
@@ -771,6 +835,34 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
             count, withDelete, dropIfEmpty, tc);
   }
 
+  @Override
+  public BTreeElementIterator<Object> bopGetIterator(String key, long from, long to,
+                                                     ElementFlagFilter eFlagFilter,
+                                                     int pageSize) {
+    return this.getClient().bopGetIterator(key, from, to, eFlagFilter, pageSize);
+  }
+
+  @Override
+  public <T> BTreeElementIterator<T> bopGetIterator(String key, long from, long to,
+                                                    ElementFlagFilter eFlagFilter,
+                                                    int pageSize, Transcoder<T> tc) {
+    return this.getClient().bopGetIterator(key, from, to, eFlagFilter, pageSize, tc);
+  }
+
+  @Override
+  public BTreeElementIterator<Object> bopGetIterator(String key, byte[] from, byte[] to,
+                                                     ElementFlagFilter eFlagFilter,
+                                                     int pageSize) {
+    return this.getClient().bopGetIterator(key, from, to, eFlagFilter, pageSize);
+  }
+
+  @Override
+  public <T> BTreeElementIterator<T> bopGetIterator(String key, byte[] from, byte[] to,
+                                                    ElementFlagFilter eFlagFilter,
+                                                    int pageSize, Transcoder<T> tc) {
+    return this.getClient().bopGetIterator(key, from, to, eFlagFilter, pageSize, tc);
+  }
+
 //  @Override
 //  public CollectionFuture<Map<String, Object>> asyncMopGet(String key) {
 //    return this.getClient().asyncMopGet(key);
@@ -848,6 +940,21 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
     return this.getClient().asyncMopGet(key, mkeyList, withDelete, dropIfEmpty, tc);
   }
 
+  @Override
+  public CollectionScanIterator<Map.Entry<String, Object>> mopGetIterator(String key,
+                                                                          List<String> mkeyList,
+                                                                          int batchSize) {
+    return this.getClient().mopGetIterator(key, mkeyList, batchSize);
+  }
+
+  @Override
+  public <T> CollectionScanIterator<Map.Entry<String, T>> mopGetIterator(String key,
+                                                                         List<String> mkeyList,
+                                                                         int batchSize,
+                                                                         Transcoder<T> tc) {
+    return this.getClient().mopGetIterator(key, mkeyList, batchSize, tc);
+  }
+
 //  @Override
 //  public CollectionFuture<List<Object>> asyncLopGet(String key, int index) {
 //    return this.getClient()
@@ -906,6 +1013,17 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
             dropIfEmpty, tc);
   }
 
+  @Override
+  public CollectionScanIterator<Object> lopGetIterator(String key, int pageSize) {
+    return this.getClient().lopGetIterator(key, pageSize);
+  }
+
+  @Override
+  public <T> CollectionScanIterator<T> lopGetIterator(String key, int pageSize,
+                                                      Transcoder<T> tc) {
+    return this.getClient().lopGetIterator(key, pageSize, tc);
+  }
+
 //  @Override
 //  public CollectionFuture<Set<Object>> asyncSopGet(String key, int count) {
 //    return this.getClient()
@@ -936,6 +1054,21 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
             dropIfEmpty, tc);
   }
 
+  @Override
+  public CollectionScanIterator<Object> sopGetIterator(String key, int count,
+                                                       boolean withDelete,
+                                                       boolean dropIfEmpty) {
+    return this.getClient().sopGetIterator(key, count, withDelete, dropIfEmpty);
+  }
+
+  @Override
+  public <T> CollectionScanIterator<T> sopGetIterator(String key, int count,
+                                                      boolean withDelete,
+                                                      boolean dropIfEmpty,
+                                                      Transcoder<T> tc) {
+    return this.getClient().sopGetIterator(key, count, withDelete, dropIfEmpty, tc);
+  }
+
   @Override
   public CollectionFuture<Boolean> asyncBopDelete(String key, long bkey,
                                                   ElementFlagFilter eFlagFilter,
@@ -1420,6 +1553,22 @@ public class ArcusClientPool implements MemcachedClientIF, ArcusClientIF {
             eFlagFilter, count, unique);
   }
 
+  @Override
+  public SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
+          List<String> keyList, byte[] from, byte[] to, ElementFlagFilter eFlagFilter,
+          int count, boolean unique, SMGetCursor cursor) {
+    return this.getClient().asyncBopSortMergeGet(keyList, from, to,
+            eFlagFilter, count, unique, cursor);
+  }
+
+  @Override
+  public SMGetFuture<List<SMGetElement<Object>>> asyncBopSortMergeGet(
+          List<String> keyList, long from, long to, ElementFlagFilter eFlagFilter,
+          int count, boolean unique, SMGetCursor cursor) {
+    return this.getClient().asyncBopSortMergeGet(keyList, from, to,
+            eFlagFilter, count, unique, cursor);
+  }
+
   @Override
   public Future<Map<String, CollectionOperationStatus>> asyncBopInsertBulk(
           List<String> keyList, byte[] bkey, byte[] eFlag, Object value,
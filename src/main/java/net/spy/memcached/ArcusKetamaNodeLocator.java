@@ -42,6 +42,7 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
 
   private final TreeMap<Long, SortedSet<MemcachedNode>> ketamaNodes;
   private final Collection<MemcachedNode> allNodes;
+  private volatile HashRing<MemcachedNode> ring;
 
   /* ENABLE_MIGRATION if */
   private TreeMap<Long, SortedSet<MemcachedNode>> ketamaAlterNodes;
@@ -80,6 +81,7 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
 
     // ketamaNodes.size() < numReps*nodes.size() : hash collision
     assert ketamaNodes.size() <= numReps * nodes.size();
+    publishRing();
 
     /* ENABLE_MIGRATION if */
     existNodes = new HashSet<>();
@@ -97,6 +99,7 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
     allNodes = an;
     config = conf;
     enableShardKey = conf.isShardKeyEnabled();
+    publishRing();
 
     /* ENABLE_MIGRATION if */
     existNodes = new HashSet<>();
@@ -158,6 +161,17 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
     return getNodeForKey(hashAlg.hash(shardKey));
   }
 
+  /**
+   * Get the primary node of the key, reusing its encoded bytes and hash.
+   */
+  public MemcachedNode getPrimary(final EncodedKey k) {
+    String shardKey = getShardKey(k.getKey());
+    if (shardKey == k.getKey()) { // not a shard key extracted from the key
+      return getNodeForKey(k.getKetamaHash());
+    }
+    return getNodeForKey(hashAlg.hash(shardKey));
+  }
+
   String getShardKey(String key) {
     if (!enableShardKey) {
       return key;
@@ -180,19 +194,13 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
   }
 
   MemcachedNode getNodeForKey(long hash) {
-    lock.lock();
-    try {
-      if (ketamaNodes.isEmpty()) {
-        return null;
-      }
-      Map.Entry<Long, SortedSet<MemcachedNode>> entry = ketamaNodes.ceilingEntry(hash);
-      if (entry == null) {
-        entry = ketamaNodes.firstEntry();
-      }
-      return entry.getValue().first();
-    } finally {
-      lock.unlock();
-    }
+    // lock-free lookup on the snapshot published by the last change.
+    return ring.get(hash);
+  }
+
+  /* Publish the snapshot of ketamaNodes. It is called on construction or with the lock held. */
+  private void publishRing() {
+    ring = HashRing.of(ketamaNodes);
   }
 
   public Iterator<MemcachedNode> getSequence(String k) {
@@ -252,6 +260,7 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
         clearMigration();
       }
       /* ENABLE_MIGRATION end */
+      publishRing();
       lock.unlock();
     }
   }
@@ -463,6 +472,7 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
         getLogger().info("Migration " + migrationType + " has been finished.");
         clearMigration();
       }
+      publishRing();
       lock.unlock();
     }
   }
@@ -544,6 +554,7 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
       }
       migrationLastPoint = epoint;
     } finally {
+      publishRing();
       lock.unlock();
     }
     getLogger().info("Applied JOIN range. spoint=" + spoint + ", epoint=" + epoint);
@@ -565,6 +576,7 @@ public final class ArcusKetamaNodeLocator extends SpyObject implements NodeLocat
       }
       migrationLastPoint = spoint;
     } finally {
+      publishRing();
       lock.unlock();
     }
     getLogger().info("Applied LEAVE range. spoint=" + spoint + ", epoint=" + epoint);
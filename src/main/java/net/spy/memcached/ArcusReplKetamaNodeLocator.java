@@ -42,6 +42,7 @@ import net.spy.memcached.util.ArcusReplKetamaNodeLocatorConfiguration;
 public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeLocator {
 
   private final TreeMap<Long, SortedSet<MemcachedReplicaGroup>> ketamaGroups;
+  private volatile HashRing<MemcachedReplicaGroup> ring;
   private final ConcurrentHashMap<String, MemcachedReplicaGroup> allGroups;
   private final Collection<MemcachedNode> allNodes;
 
@@ -93,6 +94,7 @@ public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeL
     }
     // ketamaNodes.size() < numReps*nodes.size() : hash collision
     assert ketamaGroups.size() <= (numReps * allGroups.size());
+    publishRing();
 
     // prepare toDeleteGroups
     toDeleteGroups = new HashSet<>();
@@ -117,6 +119,7 @@ public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeL
     toDeleteGroups = new HashSet<>();
     config = conf;
     enableShardKey = conf.isShardKeyEnabled();
+    publishRing();
 
     /* ENABLE_MIGRATION if */
     alterNodes = new HashSet<>();
@@ -187,24 +190,41 @@ public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeL
     return getNodeForKey(hashAlg.hash(shardKey), pick);
   }
 
+  /**
+   * Get the node of the key for the replica pick, reusing its encoded bytes and hash.
+   */
+  public MemcachedNode getPrimary(final EncodedKey k, ReplicaPick pick) {
+    String shardKey = getShardKey(k.getKey());
+    if (shardKey == k.getKey()) { // not a shard key extracted from the key
+      return getNodeForKey(k.getKetamaHash(), pick);
+    }
+    return getNodeForKey(hashAlg.hash(shardKey), pick);
+  }
+
   private MemcachedNode getNodeForKey(long hash, ReplicaPick pick) {
+    // lock-free lookup on the snapshot published by the last change.
+    MemcachedReplicaGroup rg = ring.get(hash);
+    if (rg == null) {
+      return null;
+    }
+    // return a node (master / slave) for the replica pick request.
+    if (pick == ReplicaPick.MASTER) {
+      return rg.getNodeByReplicaPick(pick);
+    }
+    // the other picks move the slave index of the group.
     lock.lock();
     try {
-      if (ketamaGroups.isEmpty()) {
-        return null;
-      }
-      Map.Entry<Long, SortedSet<MemcachedReplicaGroup>> entry = ketamaGroups.ceilingEntry(hash);
-      if (entry == null) {
-        entry = ketamaGroups.firstEntry();
-      }
-      MemcachedReplicaGroup rg = entry.getValue().first();
-      // return a node (master / slave) for the replica pick request.
       return rg.getNodeByReplicaPick(pick);
     } finally {
       lock.unlock();
     }
   }
 
+  /* Publish the snapshot of ketamaGroups. It is called on construction or with the lock held. */
+  private void publishRing() {
+    ring = HashRing.of(ketamaGroups);
+  }
+
   public Iterator<MemcachedNode> getSequence(String k) {
     return new ReplKetamaIterator(k, ReplicaPick.MASTER, allGroups.size());
   }
@@ -295,6 +315,7 @@ public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeL
         clearMigration();
       }
       /* ENABLE_MIGRATION end */
+      publishRing();
       lock.unlock();
     }
   }
@@ -601,6 +622,7 @@ public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeL
         getLogger().info("Migration " + migrationType + " has been finished.");
         clearMigration();
       }
+      publishRing();
       lock.unlock();
     }
   }
@@ -699,6 +721,7 @@ public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeL
       }
       migrationLastPoint = epoint;
     } finally {
+      publishRing();
       lock.unlock();
     }
     getLogger().info("Applied JOIN range. spoint=" + spoint + ", epoint=" + epoint);
@@ -720,6 +743,7 @@ public final class ArcusReplKetamaNodeLocator extends SpyObject implements NodeL
       }
       migrationLastPoint = spoint;
     } finally {
+      publishRing();
       lock.unlock();
     }
     getLogger().info("Applied LEAVE range. spoint=" + spoint + ", epoint=" + epoint);
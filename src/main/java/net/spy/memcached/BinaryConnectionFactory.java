@@ -64,7 +64,8 @@ public class BinaryConnectionFactory extends DefaultConnectionFactory {
             createWriteOperationQueue(),
             createOperationQueue(),
             getOpQueueMaxBlockTime(),
-            doAuth);
+            doAuth,
+            useGatheringWrite());
   }
 
   @Override
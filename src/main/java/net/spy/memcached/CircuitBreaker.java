@@ -0,0 +1,157 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.spy.memcached.ops.Operation;
+
+/**
+ * Circuit breaker of a memcached node.
+ *
+ * <p>The circuit opens when the node exceeds the continuous timeout threshold,
+ * and the operations added to the node fail fast while it is not closed.
+ * Once the open time has passed, the circuit becomes half-open and a probe
+ * is sent to the node. The circuit closes if the probe succeeds in time,
+ * and opens again otherwise.</p>
+ *
+ * <p>The state is changed only by the IO thread handling the node,
+ * and may be read by any thread.</p>
+ */
+public final class CircuitBreaker {
+
+  public enum State {
+    /**
+     * Operations are sent to the node.
+     */
+    CLOSED,
+
+    /**
+     * Operations fail fast, until the open time has passed.
+     */
+    OPEN,
+
+    /**
+     * Operations fail fast, while a probe is sent to the node.
+     */
+    HALF_OPEN
+  }
+
+  private final long openNanos;
+  private volatile State state = State.CLOSED;
+  private long openedAt = 0;
+  private Operation probe = null;
+  private long probeSentAt = 0;
+  private final LongAdder rejected = new LongAdder();
+
+  public CircuitBreaker(long openMillis) {
+    if (openMillis <= 0) {
+      throw new IllegalArgumentException("Open time must be positive.");
+    }
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public boolean isClosed() {
+    return state == State.CLOSED;
+  }
+
+  /**
+   * Get the number of operations failed fast because the circuit was not closed.
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  void reject() {
+    rejected.increment();
+  }
+
+  /**
+   * Open the circuit.
+   *
+   * @return false if the circuit was already open
+   */
+  boolean open(long now) {
+    if (state == State.OPEN) {
+      return false;
+    }
+    state = State.OPEN;
+    openedAt = now;
+    probe = null;
+    return true;
+  }
+
+  /**
+   * Check whether the circuit has been open for the open time.
+   */
+  boolean isOpenTimePassed(long now) {
+    return state == State.OPEN && now - openedAt >= openNanos;
+  }
+
+  /**
+   * Make the circuit half-open with the probe sent to the node.
+   */
+  void halfOpen(Operation op, long now) {
+    state = State.HALF_OPEN;
+    probe = op;
+    probeSentAt = now;
+  }
+
+  /**
+   * Check whether the probe has not completed in the given time.
+   */
+  boolean isProbeTimedOut(long now, long timeoutNanos) {
+    return state == State.HALF_OPEN && now - probeSentAt >= timeoutNanos;
+  }
+
+  /**
+   * Close the circuit if the given operation is the current probe.
+   *
+   * @return true if the circuit is closed by this call
+   */
+  boolean close(Operation op) {
+    if (state != State.HALF_OPEN || probe != op) {
+      return false;
+    }
+    state = State.CLOSED;
+    probe = null;
+    return true;
+  }
+
+  /**
+   * Open the circuit again if the given operation is the current probe.
+   *
+   * @return true if the circuit is opened by this call
+   */
+  boolean reopen(Operation op, long now) {
+    if (state != State.HALF_OPEN || probe != op) {
+      return false;
+    }
+    return open(now);
+  }
+
+  @Override
+  public String toString() {
+    return "CircuitBreaker{" + state + ", rejected=" + getRejectedCount() + "}";
+  }
+}
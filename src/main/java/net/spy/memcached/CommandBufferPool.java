@@ -0,0 +1,168 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of the heap buffers that operations encode their commands into.
+ *
+ * <p>Buffers are kept in power of two size classes from {@link #MIN_BUFFER_SIZE}
+ * to {@link #MAX_BUFFER_SIZE}. Smaller commands are cheap to allocate and
+ * larger commands are rare, so they are not pooled.
+ * A buffer is given back by the IO thread once it is written to the channel,
+ * and the pool keeps the buffers given back up to the configured bytes.</p>
+ */
+public final class CommandBufferPool {
+
+  public static final int MIN_BUFFER_SIZE = 1024;
+  public static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+  private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+  private static final int CLASS_COUNT =
+      Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SHIFT + 1;
+
+  private final long maxPooledBytes;
+  private final List<ArrayDeque<ByteBuffer>> classes;
+
+  private final AtomicLong pooledBytes = new AtomicLong(0);
+  private final AtomicLong outstandingBytes = new AtomicLong(0);
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+
+  public CommandBufferPool(long maxPooledBytes) {
+    if (maxPooledBytes <= 0) {
+      throw new IllegalArgumentException("Max pooled bytes must be positive.");
+    }
+    this.maxPooledBytes = maxPooledBytes;
+    this.classes = new ArrayList<>(CLASS_COUNT);
+    for (int i = 0; i < CLASS_COUNT; i++) {
+      classes.add(new ArrayDeque<>());
+    }
+  }
+
+  /**
+   * Get a buffer of at least the given capacity.
+   *
+   * @param capacity bytes needed
+   * @return a cleared buffer, or null if the capacity is not pooled
+   */
+  public ByteBuffer acquire(int capacity) {
+    if (capacity < MIN_BUFFER_SIZE || capacity > MAX_BUFFER_SIZE) {
+      return null;
+    }
+    int index = classIndex(capacity);
+    ByteBuffer bb;
+    ArrayDeque<ByteBuffer> queue = classes.get(index);
+    synchronized (queue) {
+      bb = queue.pollFirst();
+    }
+    if (bb != null) {
+      pooledBytes.addAndGet(-bb.capacity());
+      ((Buffer) bb).clear();
+      hitCount.increment();
+    } else {
+      bb = ByteBuffer.allocate(MIN_BUFFER_SIZE << index);
+      missCount.increment();
+    }
+    outstandingBytes.addAndGet(bb.capacity());
+    return bb;
+  }
+
+  /**
+   * Give back a buffer got from {@link #acquire(int)} that is no longer referenced.
+   */
+  public void release(ByteBuffer bb) {
+    int capacity = bb.capacity();
+    outstandingBytes.addAndGet(-capacity);
+    if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+      pooledBytes.addAndGet(-capacity);
+      return;
+    }
+    ArrayDeque<ByteBuffer> queue = classes.get(classIndex(capacity));
+    synchronized (queue) {
+      queue.offerFirst(bb);
+    }
+  }
+
+  /**
+   * Forget a buffer got from {@link #acquire(int)} that may still be referenced.
+   * The buffer is left to the garbage collector.
+   */
+  public void discard(ByteBuffer bb) {
+    outstandingBytes.addAndGet(-bb.capacity());
+  }
+
+  /**
+   * Get the number of buffers reused from the pool.
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Get the number of buffers allocated because the pool had none of the size.
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Get the ratio of the buffers reused from the pool.
+   */
+  public double getHitRate() {
+    long hits = getHitCount();
+    long total = hits + getMissCount();
+    return total == 0 ? 0.0 : (double) hits / total;
+  }
+
+  /**
+   * Get the bytes of the buffers acquired and not given back yet.
+   */
+  public long getOutstandingBytes() {
+    return outstandingBytes.get();
+  }
+
+  /**
+   * Get the bytes of the buffers kept in the pool.
+   */
+  public long getPooledBytes() {
+    return pooledBytes.get();
+  }
+
+  public long getMaxPooledBytes() {
+    return maxPooledBytes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CommandBufferPool{hit=%d, miss=%d, outstanding=%d, pooled=%d/%d}",
+        getHitCount(), getMissCount(), getOutstandingBytes(), getPooledBytes(), maxPooledBytes);
+  }
+
+  private static int classIndex(int capacity) {
+    int shift = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    return Math.max(shift - MIN_SHIFT, 0);
+  }
+}
@@ -92,6 +92,21 @@ public interface ConnectionFactory {
    */
   long getOperationTimeout();
 
+  /**
+   * If true, operations expire by the IO threads at the operation timeout.
+   * An expired operation is cancelled if it is not written yet,
+   * and counted as a timeout of its node even if nobody waits on it.
+   */
+  boolean useOperationDeadline();
+
+  /**
+   * Get the time in milliseconds that the circuit of a node stays open
+   * after the node exceeded the continuous timeout threshold.
+   * Operations added to the node fail fast while its circuit is not closed.
+   * 0 disables the circuit breakers.
+   */
+  long getCircuitBreakerOpenTime();
+
   /**
    * If true, the IO thread should be a daemon thread.
    */
@@ -106,6 +121,17 @@ public interface ConnectionFactory {
    */
   boolean useNagleAlgorithm();
 
+  /**
+   * If true, the buffers of the queued operations are written to the socket
+   * by a gathering write instead of being copied into the write buffer.
+   *
+   * <p>
+   * See {@link java.nio.channels.GatheringByteChannel#write(java.nio.ByteBuffer[], int, int)}
+   * for more information.
+   * </p>
+   */
+  boolean useGatheringWrite();
+
   /**
    * If true, keep alive will be used on connected sockets.
    *
@@ -150,6 +176,26 @@ public interface ConnectionFactory {
    */
   Transcoder<Object> getDefaultCollectionTranscoder();
 
+  /**
+   * Get the maximum number of chunks of a piped collection operation
+   * sent to the connection before their responses.
+   * The next chunk is sent whenever a chunk completes successfully.
+   */
+  int getPipedChunkWindow();
+
+  /**
+   * Get the maximum number of chunks of a bulk get
+   * sent to the connection of each node before their responses.
+   * The next chunk of a node is sent whenever a chunk of the node completes.
+   */
+  int getBulkGetChunkWindow();
+
+  /**
+   * Get the maximum number of operations of a bulk store from an iterator
+   * in flight on each node.
+   */
+  int getBulkStoreWindow();
+
   /**
    * If true, low-level optimization is in effect.
    */
@@ -160,6 +206,24 @@ public interface ConnectionFactory {
    */
   int getReadBufSize();
 
+  /**
+   * Get the number of connections made to each memcached node.
+   * Operations of the same key are always sent through the same connection.
+   */
+  int getConnectionsPerNode();
+
+  /**
+   * Get the number of IO threads handling the connections.
+   * Each memcached node is handled by one of the IO threads.
+   */
+  int getIOThreadCount();
+
+  /**
+   * Get the maximum bytes of the command buffers kept for reuse.
+   * The command buffers of the operations are not pooled if 0.
+   */
+  int getCommandBufferPoolSize();
+
   /**
    * Get the hash algorithm to be used.
    */
@@ -235,5 +299,12 @@ public interface ConnectionFactory {
    *
    */
   ReadPriority getAPIReadPriority(APIType apiType);
+
+  /**
+   * Get the delay in milliseconds after which a read not responded yet
+   * is sent also to another node of its replica group.
+   * The first response of the two is used. 0 disables the hedged reads.
+   */
+  long getHedgedReadDelay();
   /* ENABLE_REPLICATION end */
 }
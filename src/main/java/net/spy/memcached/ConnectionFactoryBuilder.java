@@ -48,6 +48,9 @@ public class ConnectionFactoryBuilder {
 
   private Transcoder<Object> transcoder;
   private Transcoder<Object> collectionTranscoder;
+  private int pipedChunkWindow = -1;
+  private int bulkGetChunkWindow = -1;
+  private int bulkStoreWindow = -1;
 
   private FailureMode failureMode = FailureMode.Cancel;
 
@@ -61,18 +64,24 @@ public class ConnectionFactoryBuilder {
   private boolean isDaemon = true;
   private boolean shouldOptimize = false;
   private boolean useNagle = false;
+  private boolean useGatheringWrite = false;
+  private boolean useOperationDeadline = false;
   private boolean keepAlive = false;
   private boolean dnsCacheTtlCheck = true;
   private boolean enableShardKey = false;
   private long maxReconnectDelay = 1;
 
   private int readBufSize = -1;
+  private int connectionsPerNode = -1;
+  private int ioThreadCount = -1;
+  private int commandBufferPoolSize = -1;
   private HashAlgorithm hashAlg = HashAlgorithm.KETAMA_HASH;
   private AuthDescriptor authDescriptor = null;
   private long opQueueMaxBlockTime = -1;
 
   private int timeoutExceptionThreshold = 10;
   private int timeoutDurationThreshold = 1600;
+  private long circuitBreakerOpenTime = -1;
 
   private int maxFrontCacheElements = DefaultConnectionFactory.DEFAULT_MAX_FRONTCACHE_ELEMENTS;
   private int frontCacheExpireTime = DefaultConnectionFactory.DEFAULT_FRONTCACHE_EXPIRETIME;
@@ -85,6 +94,7 @@ public class ConnectionFactoryBuilder {
 
   private ReadPriority readPriority = ReadPriority.MASTER;
   private Map<APIType, ReadPriority> apiReadPriorityList = new HashMap<>();
+  private long hedgedReadDelay = -1;
   /* ENABLE_REPLICATION end */
 
   /* ENABLE_MIGRATION if */
@@ -187,6 +197,50 @@ public class ConnectionFactoryBuilder {
     return this;
   }
 
+  /**
+   * Set the maximum number of chunks of a piped collection operation
+   * in flight on the connection (defaults to 1, a chunk at a time).
+   * Once a chunk fails, the chunks not sent yet are not sent,
+   * but the chunks already in flight are still processed by the server.
+   */
+  public ConnectionFactoryBuilder setPipedChunkWindow(int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Piped chunk window must be positive.");
+    }
+
+    pipedChunkWindow = window;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of chunks of a bulk get in flight on the connection
+   * of each node (defaults to no limit, all the chunks at once).
+   * The next chunk of a node is sent whenever a chunk of the node completes,
+   * so that the other requests to the node are not queued behind a large bulk get.
+   */
+  public ConnectionFactoryBuilder setBulkGetChunkWindow(int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Bulk get chunk window must be positive.");
+    }
+
+    bulkGetChunkWindow = window;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of operations of a bulk store from an iterator
+   * in flight on each node (defaults to 1000).
+   * The iterator is not read further while the window of the node of the next key is full.
+   */
+  public ConnectionFactoryBuilder setBulkStoreWindow(int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Bulk store window must be positive.");
+    }
+
+    bulkStoreWindow = window;
+    return this;
+  }
+
   /**
    * Set the failure mode.
    */
@@ -241,6 +295,16 @@ public class ConnectionFactoryBuilder {
     return this;
   }
 
+  /**
+   * Set to true if you'd like the operations to expire at the operation timeout
+   * even if nobody waits on them. The operations not written yet are cancelled
+   * when they expire, instead of being sent to a server already too slow.
+   */
+  public ConnectionFactoryBuilder setUseOperationDeadline(boolean to) {
+    useOperationDeadline = to;
+    return this;
+  }
+
   /**
    * Set the daemon state of the IO thread (defaults to true).
    */
@@ -269,6 +333,48 @@ public class ConnectionFactoryBuilder {
     return this;
   }
 
+  /**
+   * Set the number of connections made to each memcached node.
+   * Operations of a key are sent through the connection chosen by the key,
+   * and the keys of a bulk operation are spread across the connections.
+   */
+  public ConnectionFactoryBuilder setConnectionsPerNode(int to) {
+    if (to <= 0) {
+      throw new IllegalArgumentException("Connections per node must be positive.");
+    }
+
+    connectionsPerNode = to;
+    return this;
+  }
+
+  /**
+   * Set the number of IO threads handling the connections.
+   * The memcached nodes are distributed over the IO threads,
+   * and the nodes of a replica group are handled by the same IO thread.
+   */
+  public ConnectionFactoryBuilder setIOThreadCount(int to) {
+    if (to <= 0) {
+      throw new IllegalArgumentException("IO thread count must be positive.");
+    }
+
+    ioThreadCount = to;
+    return this;
+  }
+
+  /**
+   * Set the maximum bytes of the command buffers kept for reuse.
+   * Command buffers of 1KB to 1MB are borrowed from the pool,
+   * and given back once they are written to the socket. 0 disables the pool.
+   */
+  public ConnectionFactoryBuilder setCommandBufferPoolSize(int to) {
+    if (to < 0) {
+      throw new IllegalArgumentException("Command buffer pool size must not be negative.");
+    }
+
+    commandBufferPoolSize = to;
+    return this;
+  }
+
   /**
    * Set the hash algorithm.
    */
@@ -289,6 +395,15 @@ public class ConnectionFactoryBuilder {
     return this;
   }
 
+  /**
+   * Set to true if you'd like to write the operation buffers to the socket
+   * by a gathering write instead of copying them into the write buffer.
+   */
+  public ConnectionFactoryBuilder setUseGatheringWrite(boolean to) {
+    useGatheringWrite = to;
+    return this;
+  }
+
   /**
    * Convenience method to specify the protocol to use.
    */
@@ -377,6 +492,21 @@ public class ConnectionFactoryBuilder {
     return this;
   }
 
+  /**
+   * Set the time in milliseconds that the circuit of a node stays open after
+   * the node exceeded the timeout thresholds (defaults to 0, disabled).
+   * While the circuit is not closed, operations added to the node fail fast,
+   * or go to another node of its replica group if they are reads.
+   */
+  public ConnectionFactoryBuilder setCircuitBreakerOpenTime(long to) {
+    if (to < 0) {
+      throw new IllegalArgumentException("Circuit breaker open time must not be negative.");
+    }
+
+    circuitBreakerOpenTime = to;
+    return this;
+  }
+
   /**
    * Set the maximum number of front cache elements. Should be positive number.
    */
@@ -484,6 +614,20 @@ public class ConnectionFactoryBuilder {
 
     return this;
   }
+
+  /**
+   * Set the delay in milliseconds after which a get, gets or collection get
+   * not responded yet is sent also to another node of its replica group,
+   * and the first response is used (defaults to 0, disabled).
+   */
+  public ConnectionFactoryBuilder setHedgedReadDelay(long delay) {
+    if (delay < 0) {
+      throw new IllegalArgumentException("Hedged read delay must not be negative.");
+    }
+
+    hedgedReadDelay = delay;
+    return this;
+  }
   /* ENABLE_REPLICATION end */
 
   public ConnectionFactoryBuilder setKeepAlive(boolean on) {
@@ -583,6 +727,24 @@ public class ConnectionFactoryBuilder {
                 super.getDefaultCollectionTranscoder() : collectionTranscoder;
       }
 
+      @Override
+      public int getPipedChunkWindow() {
+        return pipedChunkWindow == -1 ?
+                super.getPipedChunkWindow() : pipedChunkWindow;
+      }
+
+      @Override
+      public int getBulkGetChunkWindow() {
+        return bulkGetChunkWindow == -1 ?
+                super.getBulkGetChunkWindow() : bulkGetChunkWindow;
+      }
+
+      @Override
+      public int getBulkStoreWindow() {
+        return bulkStoreWindow == -1 ?
+                super.getBulkStoreWindow() : bulkStoreWindow;
+      }
+
       @Override
       public FailureMode getFailureMode() {
         return failureMode == null ?
@@ -610,12 +772,35 @@ public class ConnectionFactoryBuilder {
                 super.getOperationTimeout() : opTimeout;
       }
 
+      @Override
+      public boolean useOperationDeadline() {
+        return useOperationDeadline;
+      }
+
       @Override
       public int getReadBufSize() {
         return readBufSize == -1 ?
                 super.getReadBufSize() : readBufSize;
       }
 
+      @Override
+      public int getConnectionsPerNode() {
+        return connectionsPerNode == -1 ?
+                super.getConnectionsPerNode() : connectionsPerNode;
+      }
+
+      @Override
+      public int getIOThreadCount() {
+        return ioThreadCount == -1 ?
+                super.getIOThreadCount() : ioThreadCount;
+      }
+
+      @Override
+      public int getCommandBufferPoolSize() {
+        return commandBufferPoolSize == -1 ?
+                super.getCommandBufferPoolSize() : commandBufferPoolSize;
+      }
+
       @Override
       public boolean isDaemon() {
         return isDaemon;
@@ -631,6 +816,11 @@ public class ConnectionFactoryBuilder {
         return useNagle;
       }
 
+      @Override
+      public boolean useGatheringWrite() {
+        return useGatheringWrite;
+      }
+
       @Override
       public boolean getKeepAlive() {
         return keepAlive;
@@ -672,6 +862,12 @@ public class ConnectionFactoryBuilder {
         return timeoutDurationThreshold;
       }
 
+      @Override
+      public long getCircuitBreakerOpenTime() {
+        return circuitBreakerOpenTime == -1 ?
+                super.getCircuitBreakerOpenTime() : circuitBreakerOpenTime;
+      }
+
       @Override
       public int getMaxFrontCacheElements() {
         return maxFrontCacheElements;
@@ -730,6 +926,12 @@ public class ConnectionFactoryBuilder {
         }
         return readPriority;
       }
+
+      @Override
+      public long getHedgedReadDelay() {
+        return hedgedReadDelay == -1 ?
+                super.getHedgedReadDelay() : hedgedReadDelay;
+      }
       /* ENABLE_REPLICATION end */
     };
   }
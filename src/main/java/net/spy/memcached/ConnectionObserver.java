@@ -22,4 +22,14 @@ public interface ConnectionObserver {
    * @param node the node whose connection was lost
    */
   void connectionLost(MemcachedNode node);
+
+  /**
+   * The circuit breaker of the given node has changed its state.
+   *
+   * @param node  the node whose circuit breaker changed
+   * @param state the new state of the circuit breaker
+   */
+  default void circuitStateChanged(MemcachedNode node, CircuitBreaker.State state) {
+    // none
+  }
 }
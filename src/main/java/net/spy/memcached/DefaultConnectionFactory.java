@@ -89,6 +89,22 @@ public class DefaultConnectionFactory extends SpyObject
    */
   public static final int DEFAULT_READ_BUFFER_SIZE = 16384;
 
+  /**
+   * The number of connections made to each server from this factory.
+   */
+  public static final int DEFAULT_CONNECTIONS_PER_NODE = 1;
+
+  /**
+   * The number of IO threads handling the connections from this factory.
+   */
+  public static final int DEFAULT_IO_THREAD_COUNT = 1;
+
+  /**
+   * Maximum bytes of the command buffers kept for reuse.
+   * The command buffers are not pooled by default.
+   */
+  public static final int DEFAULT_COMMAND_BUFFER_POOL_SIZE = 0;
+
   /**
    * Default operation timeout in milliseconds.
    *
@@ -113,6 +129,29 @@ public class DefaultConnectionFactory extends SpyObject
    */
   public static final int DEFAULT_MAX_TIMEOUTDURATION_THRESHOLD = 0;
 
+  /**
+   * Default open time of the circuit breakers (0, disabled).
+   */
+  public static final long DEFAULT_CIRCUIT_BREAKER_OPEN_TIME = 0;
+
+  /**
+   * Default number of in-flight chunks of a piped collection operation
+   * (1, a chunk at a time).
+   */
+  public static final int DEFAULT_PIPED_CHUNK_WINDOW = 1;
+
+  /**
+   * Default number of in-flight chunks of a bulk get for each node
+   * (no limit, all the chunks at once).
+   */
+  public static final int DEFAULT_BULK_GET_CHUNK_WINDOW = Integer.MAX_VALUE;
+
+  /**
+   * Default number of in-flight operations of a bulk store
+   * from an iterator for each node.
+   */
+  public static final int DEFAULT_BULK_STORE_WINDOW = 1000;
+
   /**
    * Maximum number of Front cache elements
    */
@@ -162,6 +201,11 @@ public class DefaultConnectionFactory extends SpyObject
   public static final ReadPriority DEFAULT_READ_PRIORITY = ReadPriority.MASTER;
   private Map<APIType, ReadPriority> DEFAULT_API_READ_PRIORITY_LIST =
           new HashMap<>();
+
+  /**
+   * Default delay of the hedged reads (0, disabled).
+   */
+  public static final long DEFAULT_HEDGED_READ_DELAY = 0;
   /* ENABLE_REPLICATION end */
 
   /**
@@ -215,7 +259,8 @@ public class DefaultConnectionFactory extends SpyObject
               createWriteOperationQueue(),
               createOperationQueue(),
               getOpQueueMaxBlockTime(),
-              doAuth);
+              doAuth,
+              useGatheringWrite());
     } else if (of instanceof BinaryOperationFactory) {
       return new BinaryMemcachedNodeImpl(name,
               sa, bufSize,
@@ -223,7 +268,8 @@ public class DefaultConnectionFactory extends SpyObject
               createWriteOperationQueue(),
               createOperationQueue(),
               getOpQueueMaxBlockTime(),
-              doAuth);
+              doAuth,
+              useGatheringWrite());
     } else {
       throw new IllegalStateException(
               "Unhandled operation factory type " + of);
@@ -276,6 +322,18 @@ public class DefaultConnectionFactory extends SpyObject
     return readBufSize;
   }
 
+  public int getConnectionsPerNode() {
+    return DEFAULT_CONNECTIONS_PER_NODE;
+  }
+
+  public int getIOThreadCount() {
+    return DEFAULT_IO_THREAD_COUNT;
+  }
+
+  public int getCommandBufferPoolSize() {
+    return DEFAULT_COMMAND_BUFFER_POOL_SIZE;
+  }
+
   public HashAlgorithm getHashAlg() {
     return hashAlg;
   }
@@ -288,6 +346,14 @@ public class DefaultConnectionFactory extends SpyObject
     return DEFAULT_OPERATION_TIMEOUT;
   }
 
+  public boolean useOperationDeadline() {
+    return false;
+  }
+
+  public long getCircuitBreakerOpenTime() {
+    return DEFAULT_CIRCUIT_BREAKER_OPEN_TIME;
+  }
+
   public boolean isDaemon() {
     return false;
   }
@@ -304,9 +370,27 @@ public class DefaultConnectionFactory extends SpyObject
     return SerializingTranscoder.forCollection().build();
   }
 
+  public int getPipedChunkWindow() {
+    return DEFAULT_PIPED_CHUNK_WINDOW;
+  }
+
+  public int getBulkGetChunkWindow() {
+    return DEFAULT_BULK_GET_CHUNK_WINDOW;
+  }
+
+  public int getBulkStoreWindow() {
+    return DEFAULT_BULK_STORE_WINDOW;
+  }
+
   public boolean useNagleAlgorithm() {
     return false;
   }
+
+  @Override
+  public boolean useGatheringWrite() {
+    return false;
+  }
+
   @Override
   public boolean getKeepAlive() {
     return false;
@@ -391,5 +475,9 @@ public class DefaultConnectionFactory extends SpyObject
     }
     return readPriority;
   }
+
+  public long getHedgedReadDelay() {
+    return DEFAULT_HEDGED_READ_DELAY;
+  }
   /* ENABLE_REPLICATION end */
 }
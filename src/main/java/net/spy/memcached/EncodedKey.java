@@ -0,0 +1,60 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+/**
+ * A cache key with its UTF-8 bytes, encoded once and reused
+ * for the validation and the node lookup of the key.
+ */
+public final class EncodedKey {
+
+  private final String key;
+  private final byte[] bytes;
+  private long ketamaHash = -1;
+
+  public EncodedKey(String key) {
+    this.key = key;
+    this.bytes = KeyUtil.getKeyBytes(key);
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Get the UTF-8 bytes of the key. The returned array must not be modified.
+   */
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Get the ketama hash of the key, computed at the first call.
+   */
+  public long getKetamaHash() {
+    if (ketamaHash < 0) {
+      ketamaHash = HashAlgorithm.KETAMA_HASH.hash(key, bytes);
+    }
+    return ketamaHash;
+  }
+
+  @Override
+  public String toString() {
+    return key;
+  }
+}
@@ -70,6 +70,18 @@ public enum HashAlgorithm {
    * @return a positive integer hash
    */
   public long hash(final String k) {
+    return hash(k, null);
+  }
+
+  /**
+   * Compute the hash for the given key, reusing its UTF-8 bytes
+   * for the algorithms computed over the bytes.
+   *
+   * @param k        the key
+   * @param keyBytes the UTF-8 bytes of the key, or null to encode the key
+   * @return a positive integer hash
+   */
+  public long hash(final String k, final byte[] keyBytes) {
     long rv = 0;
     int len = k.length();
     switch (this) {
@@ -79,7 +91,7 @@ public enum HashAlgorithm {
       case CRC32_HASH:
         // return (crc32(shift) >> 16) & 0x7fff;
         CRC32 crc32 = new CRC32();
-        crc32.update(KeyUtil.getKeyBytes(k));
+        crc32.update(keyBytes != null ? keyBytes : KeyUtil.getKeyBytes(k));
         rv = (crc32.getValue() >> 16) & 0x7fff;
         break;
       case FNV1_64_HASH:
@@ -112,7 +124,7 @@ public enum HashAlgorithm {
         }
         break;
       case KETAMA_HASH:
-        byte[] bKey = computeMd5(k);
+        byte[] bKey = computeMd5(keyBytes != null ? keyBytes : KeyUtil.getKeyBytes(k));
         rv = ((long) (bKey[3] & 0xFF) << 24)
                 | ((long) (bKey[2] & 0xFF) << 16)
                 | ((long) (bKey[1] & 0xFF) << 8)
@@ -128,13 +140,20 @@ public enum HashAlgorithm {
    * Get the md5 of the given key.
    */
   public static byte[] computeMd5(String k) {
+    return computeMd5(KeyUtil.getKeyBytes(k));
+  }
+
+  /**
+   * Get the md5 of the given key bytes.
+   */
+  public static byte[] computeMd5(byte[] keyBytes) {
     MessageDigest md5;
     try {
       md5 = (MessageDigest) MD5_DIGEST.clone();
     } catch (CloneNotSupportedException e) {
       throw new RuntimeException("clone of MD5 not supported", e);
     }
-    md5.update(KeyUtil.getKeyBytes(k));
+    md5.update(keyBytes);
     return md5.digest();
   }
 }
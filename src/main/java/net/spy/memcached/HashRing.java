@@ -0,0 +1,98 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * Immutable snapshot of a ketama hash ring.
+ *
+ * <p>The hash points are kept in a sorted array, and each point is paired
+ * with the first of the values at the point, which is the one a lookup
+ * returns. A locator publishes a new snapshot whenever its ring changes,
+ * so that lookups need no lock.</p>
+ */
+final class HashRing<T> {
+
+  private static final HashRing<?> EMPTY = new HashRing<>(new long[0], new Object[0]);
+
+  private final long[] points;
+  private final Object[] values;
+
+  private HashRing(long[] points, Object[] values) {
+    this.points = points;
+    this.values = values;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> HashRing<T> empty() {
+    return (HashRing<T>) EMPTY;
+  }
+
+  /**
+   * Make a snapshot of the given ring.
+   *
+   * @param ring hash points and the values at each point
+   */
+  static <T> HashRing<T> of(SortedMap<Long, ? extends SortedSet<T>> ring) {
+    if (ring.isEmpty()) {
+      return empty();
+    }
+    long[] points = new long[ring.size()];
+    Object[] values = new Object[ring.size()];
+    int i = 0;
+    for (Map.Entry<Long, ? extends SortedSet<T>> entry : ring.entrySet()) {
+      points[i] = entry.getKey();
+      values[i] = entry.getValue().first();
+      i++;
+    }
+    return new HashRing<>(points, values);
+  }
+
+  boolean isEmpty() {
+    return points.length == 0;
+  }
+
+  int size() {
+    return points.length;
+  }
+
+  /**
+   * Get the value at the first hash point not less than the given hash,
+   * wrapping around to the first point of the ring.
+   *
+   * @return the value, or null if the ring is empty
+   */
+  @SuppressWarnings("unchecked")
+  T get(long hash) {
+    if (points.length == 0) {
+      return null;
+    }
+    int idx = Arrays.binarySearch(points, hash);
+    if (idx < 0) {
+      idx = -idx - 1;
+      if (idx == points.length) {
+        idx = 0;
+      }
+    }
+    return (T) values[idx];
+  }
+}
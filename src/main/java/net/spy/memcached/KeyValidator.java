@@ -42,9 +42,22 @@ public final class KeyValidator {
    * @throws IllegalArgumentException if the key is invalid
    */
   public void validateKey(String key) {
+    validateKey(key, KeyUtil.getKeyBytes(key));
+  }
+
+  /**
+   * Validate cache key with its encoded bytes.
+   *
+   * @param key the encoded cache key to validate
+   * @throws IllegalArgumentException if the key is invalid
+   */
+  public void validateKey(EncodedKey key) {
+    validateKey(key.getKey(), key.getBytes());
+  }
+
+  private void validateKey(String key, byte[] keyBytes) {
     boolean hasPrefix = false;
 
-    byte[] keyBytes = KeyUtil.getKeyBytes(key);
     if (keyBytes.length > MAX_KEY_LENGTH) {
       throw new IllegalArgumentException("Key is too long (maxlen = "
           + MAX_KEY_LENGTH + ")");
@@ -44,8 +44,12 @@ import java.util.stream.Collectors;
 
 import net.spy.memcached.compat.SpyThread;
 import net.spy.memcached.internal.BroadcastFuture;
+import net.spy.memcached.internal.BulkChunkWindow;
 import net.spy.memcached.internal.BulkFuture;
 import net.spy.memcached.internal.BulkGetFuture;
+import net.spy.memcached.internal.BulkGetPublisher;
+import net.spy.memcached.internal.BulkGetSubscriber;
+import net.spy.memcached.internal.BulkGetSubscription;
 import net.spy.memcached.internal.GetFuture;
 import net.spy.memcached.internal.OperationFuture;
 import net.spy.memcached.internal.SingleElementInfiniteIterator;
@@ -132,6 +136,8 @@ public class MemcachedClient extends SpyThread
 
   protected final KeyValidator keyValidator;
 
+  private final int bulkGetChunkWindow;
+
   private static final String DEFAULT_MEMCACHED_CLIENT_NAME = "MemcachedClient";
 
   public static final int GET_BULK_CHUNK_SIZE = 200;
@@ -214,6 +220,7 @@ public class MemcachedClient extends SpyThread
     assert conn != null : "Connection factory failed to make a connection";
     operationTimeout = cf.getOperationTimeout();
     keyValidator = new KeyValidator(cf.getDelimiter());
+    bulkGetChunkWindow = cf.getBulkGetChunkWindow();
     setName("Memcached IO over " + conn);
     setDaemon(cf.isDaemon());
     start();
@@ -283,6 +290,14 @@ public class MemcachedClient extends SpyThread
     return opFact;
   }
 
+  /**
+   * Make the sender of the chunks of a bulk get,
+   * keeping up to the bulk get chunk window of each node in flight.
+   */
+  public BulkChunkWindow newBulkGetChunkWindow() {
+    return new BulkChunkWindow(this, bulkGetChunkWindow);
+  }
+
   protected void checkState() {
     if (shuttingDown) {
       throw new IllegalStateException("Shutting down");
@@ -1124,50 +1139,52 @@ public class MemcachedClient extends SpyThread
     for (String key : keys) {
       if (tcIter.hasNext()) {
         tcMap.put(key, tcIter.next());
-        keyValidator.validateKey(key);
       }
     }
 
-    // Grouping keys by memcached node
+    // Validating and grouping keys by memcached node
     Collection<Map.Entry<MemcachedNode, List<String>>> arrangedKey
-            = groupingKeys(keys, GET_BULK_CHUNK_SIZE, APIType.GET);
+            = groupingKeys(keys, GET_BULK_CHUNK_SIZE, APIType.GET, true);
     final CountDownLatch latch = new CountDownLatch(arrangedKey.size());
-
-    GetOperation.Callback cb = new GetOperation.Callback() {
-      public void receivedStatus(OperationStatus status) {
-        if (!status.isSuccess()) {
-          getLogger().warn("Unsuccessful get:  %s", status);
-        }
-        // Nothing to do here because the user MUST search the result Map instance.
-      }
-
-      public void gotData(String k, int flags, byte[] data) {
-        Transcoder<T> tc = tcMap.get(k);
-        GetResult<T> result
-                = new GetResultImpl<>(new CachedData(flags, data, tc.getMaxSize()), tc);
-        rvMap.put(k, result);
-      }
-
-      public void complete() {
-        latch.countDown();
-      }
-    };
+    final BulkChunkWindow window = newBulkGetChunkWindow();
 
     checkState();
     List<Operation> ops = new ArrayList<>(arrangedKey.size());
     for (Map.Entry<MemcachedNode, List<String>> entry : arrangedKey) {
-      MemcachedNode node = entry.getKey();
+      final MemcachedNode node = entry.getKey();
       List<String> keyList = entry.getValue();
 
+      GetOperation.Callback cb = new GetOperation.Callback() {
+        public void receivedStatus(OperationStatus status) {
+          if (!status.isSuccess()) {
+            getLogger().warn("Unsuccessful get:  %s", status);
+          }
+          // Nothing to do here because the user MUST search the result Map instance.
+        }
+
+        public void gotData(String k, int flags, byte[] data) {
+          Transcoder<T> tc = tcMap.get(k);
+          GetResult<T> result
+                  = new GetResultImpl<>(new CachedData(flags, data, tc.getMaxSize()), tc);
+          rvMap.put(k, result);
+        }
+
+        public void complete() {
+          latch.countDown();
+          window.chunkCompleted(node);
+        }
+      };
+
       Operation op;
       if (node == null) {
         op = opFact.get(keyList, cb, false);
       } else {
         op = opFact.get(keyList, cb, node.enabledMGetOp());
       }
-      conn.addOperation(node, op);
+      window.add(node, op);
       ops.add(op);
     }
+    window.send();
     return new BulkGetFuture<>(rvMap, ops, latch, operationTimeout);
   }
 
@@ -1232,6 +1249,77 @@ public class MemcachedClient extends SpyThread
     return asyncGetBulk(Arrays.asList(keys), transcoder);
   }
 
+  /**
+   * Asynchronously get a bunch of objects from the cache, delivering each value
+   * to the subscriber as soon as the node of the key answers, instead of waiting
+   * for all the nodes.
+   *
+   * <p>The subscriber requests the values through the subscription given to
+   * {@link BulkGetSubscriber#onSubscribe}, and the values not requested yet are
+   * kept undecoded. The subscriber is notified of the response of each node with
+   * {@link BulkGetSubscriber#onNodeComplete}, and then of the end of the get with
+   * {@link BulkGetSubscriber#onComplete}. A node that does not answer delays only
+   * its own keys, and the get can be given up with
+   * {@link BulkGetSubscription#cancel()}.</p>
+   *
+   * <p>The chunks of the keys of a node are sent one at a time, and the next one
+   * is held while a chunk of values waits for the subscriber to request them,
+   * so that the values buffered for a slow subscriber are bounded.</p>
+   *
+   * @param <T>
+   * @param keys       the keys to request
+   * @param tc         the transcoder to deserialize values
+   * @param subscriber the subscriber to receive the values
+   * @throws IllegalStateException in the rare circumstance where queue
+   *                               is too full to accept any more requests
+   */
+  public <T> void asyncGetBulkStream(Collection<String> keys, Transcoder<T> tc,
+                                     BulkGetSubscriber<T> subscriber) {
+    // Validating and grouping keys by memcached node
+    Collection<Map.Entry<MemcachedNode, List<String>>> arrangedKey
+            = groupingKeys(keys, GET_BULK_CHUNK_SIZE, APIType.GET, true);
+
+    checkState();
+    BulkGetPublisher<T> publisher =
+            new BulkGetPublisher<>(tc, subscriber, GET_BULK_CHUNK_SIZE);
+    final BulkChunkWindow window = new BulkChunkWindow(this, 1);
+    for (Map.Entry<MemcachedNode, List<String>> entry : arrangedKey) {
+      final MemcachedNode node = entry.getKey();
+      List<String> keyList = entry.getValue();
+
+      GetOperation.Callback cb =
+              publisher.newCallback(keyList, () -> window.chunkCompleted(node));
+      Operation op;
+      if (node == null) {
+        op = opFact.get(keyList, cb, false);
+      } else {
+        op = opFact.get(keyList, cb, node.enabledMGetOp());
+      }
+      publisher.addOperation(op);
+      window.add(node, op);
+    }
+
+    publisher.start();
+    if (!publisher.isCancelled()) {
+      window.send();
+    }
+  }
+
+  /**
+   * Asynchronously get a bunch of objects from the cache with the default
+   * transcoder, delivering each value to the subscriber as it arrives.
+   *
+   * @param keys       the keys to request
+   * @param subscriber the subscriber to receive the values
+   * @throws IllegalStateException in the rare circumstance where queue
+   *                               is too full to accept any more requests
+   * @see #asyncGetBulkStream(Collection, Transcoder, BulkGetSubscriber)
+   */
+  public void asyncGetBulkStream(Collection<String> keys,
+                                 BulkGetSubscriber<Object> subscriber) {
+    asyncGetBulkStream(keys, transcoder, subscriber);
+  }
+
   /**
    * Asynchronously gets (with CAS support) a bunch of objects from the cache.
    *
@@ -1257,53 +1345,55 @@ public class MemcachedClient extends SpyThread
     for (String key : keys) {
       if (tcIter.hasNext()) {
         tcMap.put(key, tcIter.next());
-        keyValidator.validateKey(key);
       }
     }
 
-    // Grouping keys by memcached node
+    // Validating and grouping keys by memcached node
     Collection<Map.Entry<MemcachedNode, List<String>>> arrangedKey
-            = groupingKeys(keys, GET_BULK_CHUNK_SIZE, APIType.GETS);
+            = groupingKeys(keys, GET_BULK_CHUNK_SIZE, APIType.GETS, true);
 
     final CountDownLatch latch = new CountDownLatch(arrangedKey.size());
-
-    GetsOperation.Callback cb = new GetsOperation.Callback() {
-      public void receivedStatus(OperationStatus status) {
-        if (!status.isSuccess()) {
-          getLogger().warn("Unsuccessful gets:  %s", status);
-        }
-        // Nothing to do here because the user MUST search the result Map instance.
-      }
-
-      public void gotData(String k, int flags, long cas, byte[] data) {
-        Transcoder<T> tc = tcMap.get(k);
-        GetResult<CASValue<T>> result
-                = new GetsResultImpl<>(cas, new CachedData(flags, data, tc.getMaxSize()), tc);
-        rvMap.put(k, result);
-      }
-
-      public void complete() {
-        latch.countDown();
-      }
-    };
+    final BulkChunkWindow window = newBulkGetChunkWindow();
 
     // Now that we know how many servers it breaks down into, and the latch
     // is all set up, convert all of these strings collections to operations
     checkState();
     List<Operation> ops = new ArrayList<>(arrangedKey.size());
     for (Map.Entry<MemcachedNode, List<String>> entry : arrangedKey) {
-      MemcachedNode node = entry.getKey();
+      final MemcachedNode node = entry.getKey();
       List<String> keyList = entry.getValue();
 
+      GetsOperation.Callback cb = new GetsOperation.Callback() {
+        public void receivedStatus(OperationStatus status) {
+          if (!status.isSuccess()) {
+            getLogger().warn("Unsuccessful gets:  %s", status);
+          }
+          // Nothing to do here because the user MUST search the result Map instance.
+        }
+
+        public void gotData(String k, int flags, long cas, byte[] data) {
+          Transcoder<T> tc = tcMap.get(k);
+          GetResult<CASValue<T>> result
+                  = new GetsResultImpl<>(cas, new CachedData(flags, data, tc.getMaxSize()), tc);
+          rvMap.put(k, result);
+        }
+
+        public void complete() {
+          latch.countDown();
+          window.chunkCompleted(node);
+        }
+      };
+
       Operation op;
       if (node == null) {
         op = opFact.gets(keyList, cb, false);
       } else {
         op = opFact.gets(keyList, cb, node.enabledMGetsOp());
       }
-      conn.addOperation(node, op);
+      window.add(node, op);
       ops.add(op);
     }
+    window.send();
     return new BulkGetFuture<>(rvMap, ops, latch, operationTimeout);
   }
 
@@ -2229,6 +2319,42 @@ public class MemcachedClient extends SpyThread
     return conn.getAddedQueueSize();
   }
 
+  /**
+   * get the number of operations added for mbean.
+   *
+   * @return added operation count
+   */
+  long getAddedOperationCount() {
+    return conn.getAddedOperationCount();
+  }
+
+  /**
+   * get the number of selector wakeups for mbean.
+   *
+   * @return selector wakeup count
+   */
+  long getSelectorWakeupCount() {
+    return conn.getSelectorWakeupCount();
+  }
+
+  /**
+   * get the number of hedged reads for mbean.
+   *
+   * @return hedged read count
+   */
+  long getHedgedReadCount() {
+    return conn.getHedgedReadCount();
+  }
+
+  /**
+   * get the number of hedged reads won by the other node for mbean.
+   *
+   * @return hedged read win count
+   */
+  long getHedgedReadWinCount() {
+    return conn.getHedgedReadWinCount();
+  }
+
   /**
    * get all memcached nodes from node locator for mbean
    *
@@ -2260,10 +2386,40 @@ public class MemcachedClient extends SpyThread
    */
   public Collection<Map.Entry<MemcachedNode, List<String>>> groupingKeys(
           Collection<String> keyList, int maxKeyCountPerGroup, APIType apiType) {
+    return groupingKeys(keyList, maxKeyCountPerGroup, apiType, false);
+  }
+
+  /**
+   * Validate the keys and turn them into groups of keys.
+   * Each key is encoded once, and the encoded key is used for both
+   * the validation and the node lookup of the key.
+   *
+   * @param keyList   list of keys
+   * @param maxKeyCountPerGroup max size of the key group (number of keys)
+   * @return list of grouped (memcached node + keys) in the group
+   * @throws IllegalArgumentException if the key list is null, empty, or contains invalid keys
+   */
+  public Collection<Map.Entry<MemcachedNode, List<String>>> validateAndGroupKeys(
+          Collection<String> keyList, int maxKeyCountPerGroup, APIType apiType) {
+    if (keyList == null) {
+      throw new IllegalArgumentException("Key list is null.");
+    } else if (keyList.isEmpty()) {
+      throw new IllegalArgumentException("Key list is empty.");
+    }
+    return groupingKeys(keyList, maxKeyCountPerGroup, apiType, true);
+  }
+
+  private Collection<Map.Entry<MemcachedNode, List<String>>> groupingKeys(
+          Collection<String> keyList, int maxKeyCountPerGroup, APIType apiType,
+          boolean validate) {
     List<Map.Entry<MemcachedNode, List<String>>> resultList = new ArrayList<>();
     Map<MemcachedNode, List<String>> nodeMap = new HashMap<>();
     for (String key : keyList) {
-      MemcachedNode qa = conn.findNodeByKey(key, apiType);
+      EncodedKey encodedKey = new EncodedKey(key);
+      if (validate) {
+        keyValidator.validateKey(encodedKey);
+      }
+      MemcachedNode qa = conn.findNodeByKey(encodedKey, apiType);
       List<String> keyGroup = nodeMap.get(qa);
 
       if (keyGroup == null) {
@@ -9,6 +9,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import net.spy.memcached.internal.BulkFuture;
+import net.spy.memcached.internal.BulkGetSubscriber;
 import net.spy.memcached.transcoders.Transcoder;
 
 /**
@@ -110,6 +111,11 @@ public interface MemcachedClientIF {
 
   BulkFuture<Map<String, Object>> asyncGetBulk(String... keys);
 
+  <T> void asyncGetBulkStream(Collection<String> keys, Transcoder<T> tc,
+                              BulkGetSubscriber<T> subscriber);
+
+  void asyncGetBulkStream(Collection<String> keys, BulkGetSubscriber<Object> subscriber);
+
   <T> BulkFuture<Map<String, CASValue<T>>> asyncGetsBulk(Collection<String> keys,
                                                          Iterator<Transcoder<T>> tcs);
 
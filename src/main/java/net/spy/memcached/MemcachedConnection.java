@@ -30,9 +30,11 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -43,9 +45,12 @@ import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.security.sasl.SaslClient;
 
@@ -53,8 +58,13 @@ import net.spy.memcached.auth.AuthDescriptor;
 import net.spy.memcached.auth.AuthException;
 import net.spy.memcached.compat.SpyObject;
 import net.spy.memcached.compat.log.LoggerFactory;
+import net.spy.memcached.internal.OperationTimeoutWheel;
 import net.spy.memcached.internal.ReconnDelay;
 import net.spy.memcached.ops.APIType;
+import net.spy.memcached.ops.CloneAwareCallback;
+import net.spy.memcached.ops.CollectionGetOperation;
+import net.spy.memcached.ops.GetOperation;
+import net.spy.memcached.ops.GetsOperation;
 import net.spy.memcached.ops.KeyedOperation;
 import net.spy.memcached.ops.MultiOperationCallback;
 import net.spy.memcached.ops.Operation;
@@ -71,7 +81,6 @@ import static net.spy.memcached.auth.ScramSaslClient.ScramSaslClientFactory;
  */
 public final class MemcachedConnection extends SpyObject {
 
-  private int emptySelects = 0;
   // The number of empty selects we'll allow before assuming we may have
   // missed one and should check the current selectors.  This generally
   // indicates a bug, but we'll check it nonetheless.
@@ -80,22 +89,37 @@ public final class MemcachedConnection extends SpyObject {
   // easy to write a bug that causes it to loop uncontrollably.  This helps
   // find those bugs and often works around them.
   private static final int EXCESSIVE_EMPTY = 0x1000000;
+  // The tick and the size of the timing wheels expiring the operations.
+  private static final long DEADLINE_TICK_MILLIS = 10;
+  private static final int DEADLINE_TICKS_PER_WHEEL = 512;
+  // The tick and the size of the timing wheels sending the hedged reads.
+  private static final long HEDGE_TICK_MILLIS = 1;
+  private static final int HEDGE_TICKS_PER_WHEEL = 512;
+  // The interval of checking the open circuits of the nodes.
+  private static final long CIRCUIT_CHECK_MILLIS = 10;
+  // The reads that may be sent also to another node of the replica group.
+  private static final Set<APIType> HEDGED_API_TYPES = EnumSet.of(APIType.GET, APIType.GETS,
+      APIType.BOP_GET, APIType.MOP_GET, APIType.SOP_GET, APIType.LOP_GET);
 
   private final int timeoutExceptionThreshold;
   private final int timeoutDurationThreshold;
 
   private final String connName;
-  private Selector selector = null;
+  // IO shards that the nodes are distributed to.  The first one is driven by
+  // the thread of MemcachedClient, which also handles the topology changes.
+  private final IOShard[] shards;
+  private final Map<MemcachedNode, IOShard> shardByNode = new ConcurrentHashMap<>();
+  private final Map<String, IOShard> shardByAddr = new HashMap<>();
+  // the other shards are paused while the topology is changed.
+  private final Object pauseLock = new Object();
+  private volatile boolean pauseRequested = false;
+  private int pausedShards = 0;
+  private volatile boolean shutDown = false;
   private final NodeLocator locator;
   private final FailureMode failureMode;
   // If true, optimization will collapse multiple sequential get ops
   private final boolean optimizeGetOp;
 
-  // AddedQueue is used to track the QueueAttachments for which operations
-  // have recently been queued.
-  private final ConcurrentLinkedQueue<MemcachedNode> addedQueue;
-  // reconnectQueue contains the attachments that need to be reconnected
-  private final ReconnectQueue reconnectQueue;
   private final AtomicReference<List<InetSocketAddress>> cacheNodesChange
           = new AtomicReference<>(null);
   /* ENABLE_MIGRATION if */
@@ -108,9 +132,14 @@ public final class MemcachedConnection extends SpyObject {
   private final OperationFactory opFactory;
   private final ConnectionFactory connFactory;
   private final AuthDescriptor authDescriptor;
+  private final CommandBufferPool bufferPool;
+  // the operation timeout in nanoseconds if the operations expire by the IO threads, or 0.
+  private final long operationDeadline;
+  // the open time of the circuit breakers in milliseconds, or 0.
+  private final long circuitBreakerOpenTime;
+  private final long circuitProbeTimeout;
   private final Collection<ConnectionObserver> connObservers =
           new ConcurrentLinkedQueue<>();
-  private final Set<MemcachedNode> nodesNeedVersionOp = new HashSet<>();
 
   /* ENABLE_MIGRATION if */
   private boolean arcusMigrEnabled = false;
@@ -121,7 +150,10 @@ public final class MemcachedConnection extends SpyObject {
 
   /* ENABLE_REPLICATION if */
   private boolean arcusReplEnabled;
-  private final Set<MemcachedReplicaGroup> delayedSwitchoverGroups = new LinkedHashSet<>();
+  // the delay in nanoseconds of the hedged reads, or 0.
+  private final long hedgedReadDelay;
+  private final Set<MemcachedReplicaGroup> delayedSwitchoverGroups =
+          Collections.synchronizedSet(new LinkedHashSet<>());
   /* ENABLE_REPLICATION end */
 
   /**
@@ -144,19 +176,32 @@ public final class MemcachedConnection extends SpyObject {
     authDescriptor = f.getAuthDescriptor();
     connName = name;
     connObservers.addAll(obs);
-    addedQueue = new ConcurrentLinkedQueue<>();
     failureMode = fm;
     optimizeGetOp = f.shouldOptimize();
     opFactory = opfactory;
     timeoutExceptionThreshold = f.getTimeoutExceptionThreshold();
     timeoutDurationThreshold = f.getTimeoutDurationThreshold();
-    selector = Selector.open();
+    bufferPool = f.getCommandBufferPoolSize() > 0 ?
+        new CommandBufferPool(f.getCommandBufferPoolSize()) : null;
+    operationDeadline = f.useOperationDeadline() ?
+        TimeUnit.MILLISECONDS.toNanos(f.getOperationTimeout()) : 0;
+    circuitBreakerOpenTime = f.getCircuitBreakerOpenTime();
+    circuitProbeTimeout = TimeUnit.MILLISECONDS.toNanos(f.getOperationTimeout());
+    /* ENABLE_REPLICATION if */
+    hedgedReadDelay = TimeUnit.MILLISECONDS.toNanos(f.getHedgedReadDelay());
+    /* ENABLE_REPLICATION end */
+    shards = new IOShard[f.getIOThreadCount()];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = new IOShard(i, new ReconnectQueue(f.getMaxReconnectDelay()));
+    }
     List<MemcachedNode> connections = new ArrayList<>(a.size());
     for (SocketAddress sa : a) {
       connections.add(makeMemcachedNode(connName, sa));
     }
     locator = f.createLocator(connections);
-    reconnectQueue = new ReconnectQueue(f.getMaxReconnectDelay());
+    for (int i = 1; i < shards.length; i++) {
+      shards[i].start(f.isDaemon());
+    }
   }
 
   /* ENABLE_REPLICATION if */
@@ -186,35 +231,43 @@ public final class MemcachedConnection extends SpyObject {
   }
   /* ENABLE_MIGRATION end */
 
-  private boolean selectorsMakeSense() {
-    for (MemcachedNode qa : locator.getAll()) {
-      if (qa.getSk() != null && qa.getSk().isValid()) {
-        if (qa.getChannel().isConnected()) {
-          int sops = qa.getSk().interestOps();
-          int expected = 0;
-          if (qa.hasReadOp()) {
-            expected |= SelectionKey.OP_READ;
-          }
-          if (qa.hasWriteOp()) {
-            expected |= SelectionKey.OP_WRITE;
-          }
-          if (qa.getBytesRemainingToWrite() > 0) {
-            expected |= SelectionKey.OP_WRITE;
-          }
-          assert sops == expected : "Invalid ops:  "
-                  + qa + ", expected " + expected + ", got " + sops;
-        } else {
-          int sops = qa.getSk().interestOps();
-          assert sops == SelectionKey.OP_CONNECT
-                  : "Not connected, and not watching for connect: " + sops;
-        }
+  private boolean selectorsMakeSense(IOShard shard) {
+    for (SelectionKey sk : shard.selector.keys()) {
+      MemcachedNode qa = (MemcachedNode) sk.attachment();
+      if (qa != null) {
+        selectorMakesSense(qa);
       }
     }
     getLogger().debug("Checked the selectors.");
     return true;
   }
 
-  private void addVersionOpToVersionAbsentNodes() {
+  private void selectorMakesSense(MemcachedNode qa) {
+    if (qa.getSk() != null && qa.getSk().isValid()) {
+      if (qa.getChannel().isConnected()) {
+        int sops = qa.getSk().interestOps();
+        int expected = 0;
+        if (qa.hasReadOp()) {
+          expected |= SelectionKey.OP_READ;
+        }
+        if (qa.hasWriteOp()) {
+          expected |= SelectionKey.OP_WRITE;
+        }
+        if (qa.getBytesRemainingToWrite() > 0) {
+          expected |= SelectionKey.OP_WRITE;
+        }
+        assert sops == expected : "Invalid ops:  "
+                + qa + ", expected " + expected + ", got " + sops;
+      } else {
+        int sops = qa.getSk().interestOps();
+        assert sops == SelectionKey.OP_CONNECT
+                : "Not connected, and not watching for connect: " + sops;
+      }
+    }
+  }
+
+  private void addVersionOpToVersionAbsentNodes(IOShard shard) {
+    Set<MemcachedNode> nodesNeedVersionOp = shard.nodesNeedVersionOp;
     List<MemcachedNode> nodes = new ArrayList<>(nodesNeedVersionOp);
     List<MemcachedNode> retryNodes = new ArrayList<>(nodesNeedVersionOp.size());
     nodesNeedVersionOp.clear();
@@ -232,29 +285,70 @@ public final class MemcachedConnection extends SpyObject {
 
   /**
    * MemcachedClient calls this method to handle IO over the connections.
+   * The connections of the other IO shards are handled by their own threads.
    */
   public void handleIO() throws IOException {
+    IOShard shard = shards[0];
+    shard.ioThread = Thread.currentThread();
+    handleIO(shard);
+
+    // Deal with the memcached server group that's been added by CacheManager.
+    if (shards.length > 1 && hasNodesChange()) {
+      pauseShards();
+      try {
+        handleCacheNodesChange();
+      } finally {
+        resumeShards();
+      }
+    } else {
+      handleCacheNodesChange();
+    }
+
+    if (!shard.reconnectQueue.isEmpty()) {
+      attemptReconnects(shard);
+    }
+  }
+
+  private void handleIO(IOShard shard) throws IOException {
+    // the operations added from now on are not handled by this loop, so they must wake it up.
+    shard.wakeupPending.set(false);
+
     // add versionOp to the node that need it.
-    addVersionOpToVersionAbsentNodes();
+    addVersionOpToVersionAbsentNodes(shard);
 
     // Deal with all of the stuff that's been added, but may not be marked writable.
-    handleInputQueue();
+    handleInputQueue(shard);
     getLogger().debug("Done dealing with queue.");
 
     long delay = 0;
-    if (cacheNodesChange.get() != null) {
+    if (shard == shards[0] && cacheNodesChange.get() != null) {
       delay = 1;
-    } else if (!reconnectQueue.isEmpty()) {
-      delay = reconnectQueue.getMinDelayMillis();
+    } else if (!shard.reconnectQueue.isEmpty()) {
+      delay = shard.reconnectQueue.getMinDelayMillis();
     }
+    if (shard.timeoutWheel != null && !shard.timeoutWheel.isEmpty()) {
+      // wake up in time to expire the operations.
+      long tick = shard.timeoutWheel.getTickMillis();
+      delay = delay == 0 ? tick : Math.min(delay, tick);
+    }
+    if (!shard.openCircuits.isEmpty()) {
+      delay = delay == 0 ? CIRCUIT_CHECK_MILLIS : Math.min(delay, CIRCUIT_CHECK_MILLIS);
+    }
+    /* ENABLE_REPLICATION if */
+    if (shard.hedgeWheel != null && !shard.hedgeWheel.isEmpty()) {
+      long tick = shard.hedgeWheel.getTickMillis();
+      delay = delay == 0 ? tick : Math.min(delay, tick);
+    }
+    /* ENABLE_REPLICATION end */
     getLogger().debug("Selecting with delay of %sms", delay);
-    assert selectorsMakeSense() : "Selectors don't make sense.";
+    assert selectorsMakeSense(shard) : "Selectors don't make sense.";
+    Selector selector = shard.selector;
     int selected = selector.select(delay);
     Set<SelectionKey> selectedKeys = selector.selectedKeys();
 
     if (selectedKeys.isEmpty()) {
       getLogger().debug("No selectors ready, interrupted: " + Thread.interrupted());
-      if (++emptySelects > DOUBLE_CHECK_EMPTY) {
+      if (++shard.emptySelects > DOUBLE_CHECK_EMPTY) {
         getLogger().info(
             "Reached to the double check of emptySelect. Selected with delay of %dms", delay);
         for (SelectionKey sk : selector.keys()) {
@@ -268,14 +362,18 @@ public final class MemcachedConnection extends SpyObject {
                 ReconnDelay.DEFAULT, "too many empty selects");
           }
         }
-        assert emptySelects < EXCESSIVE_EMPTY : "Too many empty selects";
+        assert shard.emptySelects < EXCESSIVE_EMPTY : "Too many empty selects";
       }
     } else {
       getLogger().debug("Selected %d, selected %d keys", selected, selectedKeys.size());
-      emptySelects = 0;
+      shard.emptySelects = 0;
 
       for (SelectionKey sk : selectedKeys) {
-        handleIO(sk);
+        // attachment might be null, because the channel has been closed
+        // together with the other stripes of its node while handling IO.
+        if (sk.attachment() != null) {
+          handleIO(sk);
+        }
       }
       selectedKeys.clear();
     }
@@ -294,45 +392,303 @@ public final class MemcachedConnection extends SpyObject {
             "%s exceeded continuous timeout threshold. >%s(count), >%s(duration) (%s)",
             mn.getNodeName(),
             timeoutExceptionThreshold, timeoutDurationThreshold, mn.getOpQueueStatus());
+        openCircuit(mn.getStripes().get(0));
         lostConnection(mn, ReconnDelay.DEFAULT, "continuous timeout");
       }
     }
 
-    // Deal with the memcached server group that's been added by CacheManager.
-    handleCacheNodesChange();
+    if (shard.timeoutWheel != null) {
+      expireOperations(shard);
+    }
+    if (!shard.openCircuits.isEmpty()) {
+      probeCircuits(shard);
+    }
+    /* ENABLE_REPLICATION if */
+    if (shard.hedgeWheel != null) {
+      hedgeReads(shard);
+    }
+    /* ENABLE_REPLICATION end */
+  }
+
+  // Cancel the expired operations not written yet, so that they are not sent
+  // to the server, and count the timeout of every expired operation for its node.
+  private void expireOperations(IOShard shard) {
+    List<Operation> expired = shard.expiredOps;
+    shard.timeoutWheel.expire(System.nanoTime(), expired);
+    for (Operation op : expired) {
+      if (op.getState() == OperationState.WRITE_QUEUED &&
+          op.cancel("timed out before being written")) {
+        shard.unsentTimeouts.increment();
+      }
+      opTimedOut(op);
+    }
+    expired.clear();
+  }
 
-    if (!reconnectQueue.isEmpty()) {
-      attemptReconnects();
+  private void openCircuit(MemcachedNode node) {
+    CircuitBreaker breaker = node.getCircuitBreaker();
+    if (breaker != null && breaker.open(System.nanoTime())) {
+      shardOf(node).openCircuits.add(node);
+      circuitStateChanged(node, CircuitBreaker.State.OPEN);
     }
   }
 
-  private void handleNodesToRemove(final List<MemcachedNode> nodesToRemove) {
-    for (MemcachedNode node : nodesToRemove) {
-      getLogger().info("old memcached node removed %s", node);
-      reconnectQueue.remove(node);
-
-      /* ENABLE_MIGRATION if */
-      if (mgType == MigrationType.LEAVE) {
-        if (node.hasReadOp()) {
-          redistributeOperationsForMigration(node.destroyReadQueue(false));
+  // Probe the nodes whose circuit has been open for the open time,
+  // and open again the circuits whose probe has not completed in time.
+  private void probeCircuits(IOShard shard) {
+    long now = System.nanoTime();
+    Iterator<MemcachedNode> it = shard.openCircuits.iterator();
+    while (it.hasNext()) {
+      MemcachedNode node = it.next();
+      CircuitBreaker breaker = node.getCircuitBreaker();
+      if (breaker.isClosed()) {
+        it.remove();
+      } else if (breaker.isOpenTimePassed(now)) {
+        if (node.isConnected() && !node.isAuthInProgress()) {
+          sendCircuitProbe(shard, node, breaker, now);
         }
-        if (node.hasWriteOp()) {
-          redistributeOperationsForMigration(node.destroyWriteQueue(false));
+      } else if (breaker.isProbeTimedOut(now, circuitProbeTimeout)) {
+        breaker.open(now);
+        circuitStateChanged(node, CircuitBreaker.State.OPEN);
+        lostConnection(node, ReconnDelay.DEFAULT, "circuit probe timed out");
+      }
+    }
+  }
+
+  private void sendCircuitProbe(IOShard shard, final MemcachedNode node,
+                                final CircuitBreaker breaker, long now) {
+    final Operation[] probe = new Operation[1];
+    probe[0] = opFactory.version(new OperationCallback() {
+      private boolean success = false;
+
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        success = status.isSuccess();
+      }
+
+      @Override
+      public void complete() {
+        if (success) {
+          if (breaker.close(probe[0])) {
+            circuitStateChanged(node, CircuitBreaker.State.CLOSED);
+          }
+        } else if (breaker.reopen(probe[0], System.nanoTime())) {
+          circuitStateChanged(node, CircuitBreaker.State.OPEN);
         }
-        redistributeOperationsForMigration(node.destroyInputQueue());
-        continue;
       }
-      /* ENABLE_MIGRATION end */
+    });
+    breaker.halfOpen(probe[0], now);
+    circuitStateChanged(node, CircuitBreaker.State.HALF_OPEN);
+    node.insertOp(probe[0]);
+    shard.addedQueue.offer(node);
+    shard.wakeup();
+  }
+
+  private void circuitStateChanged(MemcachedNode node, CircuitBreaker.State state) {
+    getLogger().warn("Circuit of %s is %s.", node.getNodeName(), state);
+    for (ConnectionObserver observer : connObservers) {
+      observer.circuitStateChanged(node, state);
+    }
+  }
+
+  /* ENABLE_REPLICATION if */
+  // Send the reads not responded by the delay also to another node of the replica group.
+  private void hedgeReads(IOShard shard) {
+    List<Operation> delayed = shard.delayedReads;
+    shard.hedgeWheel.expire(System.nanoTime(), delayed);
+    for (Operation op : delayed) {
+      hedgeRead(shard, op);
+    }
+    delayed.clear();
+  }
+
+  private void hedgeRead(IOShard shard, final Operation op) {
+    MemcachedNode primary = op.getHandlingNode();
+    if (primary == null || op.getState() != OperationState.READING) {
+      return;
+    }
+    MemcachedReplicaGroup group = primary.getReplicaGroup();
+    if (group == null) {
+      return;
+    }
+    MemcachedNode node = getOtherReplicaNode(group, primary);
+    if (node == null) {
+      return;
+    }
+    final String key = ((KeyedOperation) op).getKeys().iterator().next();
+    final Operation[] duplicate = new Operation[1];
+    if (op.hedge(cb -> duplicate[0] = duplicateRead(op, key, cb),
+        shard.hedgedReadWins::increment)) {
+      shard.hedgedReads.increment();
+      addOperation(getStripe(node, key), duplicate[0]);
+    }
+  }
+
+  // Get an active node of the replica group other than the given one, whose circuit is closed.
+  private MemcachedNode getOtherReplicaNode(MemcachedReplicaGroup group, MemcachedNode primary) {
+    MemcachedNode master = group.getMasterNode();
+    if (isOtherReplicaNode(master, primary)) {
+      return master;
+    }
+    for (MemcachedNode slave : group.getSlaveNodes()) {
+      if (isOtherReplicaNode(slave, primary)) {
+        return slave;
+      }
+    }
+    return null;
+  }
+
+  private boolean isOtherReplicaNode(MemcachedNode node, MemcachedNode primary) {
+    if (node == null || !node.isActive() ||
+        node.getSocketAddress().equals(primary.getSocketAddress())) {
+      return false;
+    }
+    CircuitBreaker breaker = node.getCircuitBreaker();
+    return breaker == null || breaker.isClosed();
+  }
+
+  // Get the connection of another node of the replica group
+  // that a read of a single key goes to while the circuit of its node is open.
+  private MemcachedNode getReplicaForOpenCircuit(MemcachedNode node, Operation o) {
+    if (!arcusReplEnabled || !o.isReadOperation() || !(o instanceof KeyedOperation)) {
+      return null;
+    }
+    Collection<String> keys = ((KeyedOperation) o).getKeys();
+    MemcachedReplicaGroup group = node.getReplicaGroup();
+    if (keys.size() != 1 || group == null) {
+      return null;
+    }
+    MemcachedNode replica = getOtherReplicaNode(group, node);
+    return replica == null ? null : getStripe(replica, keys.iterator().next());
+  }
+
+  private Operation duplicateRead(Operation op, String key, OperationCallback cb) {
+    if (op instanceof GetOperation && cb instanceof GetOperation.Callback) {
+      return opFactory.get(key, (GetOperation.Callback) cb);
+    }
+    if (op instanceof GetsOperation && cb instanceof GetsOperation.Callback) {
+      return opFactory.gets(key, (GetsOperation.Callback) cb);
+    }
+    if (op instanceof CollectionGetOperation && cb instanceof CollectionGetOperation.Callback) {
+      return opFactory.collectionGet(key, ((CollectionGetOperation) op).getGet().copy(),
+          (CollectionGetOperation.Callback) cb);
+    }
+    return null;
+  }
+
+  private boolean isHedgedRead(Operation o) {
+    return arcusReplEnabled && o.isReadOperation() &&
+        HEDGED_API_TYPES.contains(o.getAPIType()) && o.isIdempotentOperation() &&
+        o instanceof KeyedOperation && ((KeyedOperation) o).getKeys().size() == 1;
+  }
+  /* ENABLE_REPLICATION end */
+
+  private boolean hasNodesChange() {
+    /* ENABLE_MIGRATION if */
+    if (alterNodesChange.get() != null) {
+      return true;
+    }
+    /* ENABLE_MIGRATION end */
+    return cacheNodesChange.get() != null;
+  }
+
+  // Park the threads of the other shards so that the nodes of every shard
+  // can be changed by the thread of the first shard.
+  private void pauseShards() {
+    synchronized (pauseLock) {
+      pauseRequested = true;
+      for (int i = 1; i < shards.length; i++) {
+        shards[i].wakeup();
+      }
+      boolean interrupted = false;
+      while (pausedShards < shards.length - 1) {
+        try {
+          pauseLock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void resumeShards() {
+    synchronized (pauseLock) {
+      pauseRequested = false;
+      pauseLock.notifyAll();
+    }
+  }
+
+  private void awaitResume() {
+    if (!pauseRequested) {
+      return;
+    }
+    synchronized (pauseLock) {
+      pausedShards++;
+      pauseLock.notifyAll();
+      boolean interrupted = false;
+      while (pauseRequested) {
+        try {
+          pauseLock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      pausedShards--;
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
 
-      // removing node is not related to failure mode.
-      // so, cancel operations regardless of failure mode.
-      String cause = "node removed.";
-      cancelOperations(node.destroyReadQueue(false), cause);
-      cancelOperations(node.destroyWriteQueue(false), cause);
-      cancelOperations(node.destroyInputQueue(), cause);
+  private void handleNodesToRemove(final List<MemcachedNode> nodesToRemove) {
+    for (MemcachedNode removed : nodesToRemove) {
+      for (MemcachedNode node : removed.getStripes()) {
+        handleStripeToRemove(node);
+      }
+      shardOf(removed).openCircuits.remove(removed);
+      IOShard shard = shardByNode.remove(removed);
+      if (shard != null) {
+        shard.nodeCount--;
+      }
     }
   }
 
+  private void handleStripeToRemove(final MemcachedNode node) {
+    getLogger().info("old memcached node removed %s", node);
+    shardOf(node).reconnectQueue.remove(node);
+    if (node != node.getStripes().get(0)) {
+      // the locator closes the channel of the first stripe only.
+      try {
+        node.closeChannel();
+      } catch (IOException e) {
+        getLogger().error("Failed to closeChannel the node : " + node);
+      }
+    }
+
+    /* ENABLE_MIGRATION if */
+    if (mgType == MigrationType.LEAVE) {
+      if (node.hasReadOp()) {
+        redistributeOperationsForMigration(node.destroyReadQueue(false));
+      }
+      if (node.hasWriteOp()) {
+        redistributeOperationsForMigration(node.destroyWriteQueue(false));
+      }
+      redistributeOperationsForMigration(node.destroyInputQueue());
+      return;
+    }
+    /* ENABLE_MIGRATION end */
+
+    // removing node is not related to failure mode.
+    // so, cancel operations regardless of failure mode.
+    String cause = "node removed.";
+    cancelOperations(node.destroyReadQueue(false), cause);
+    cancelOperations(node.destroyWriteQueue(false), cause);
+    cancelOperations(node.destroyInputQueue(), cause);
+  }
+
   private void updateConnections(List<InetSocketAddress> addrs) throws IOException {
     List<MemcachedNode> attachNodes = new ArrayList<>();
     List<MemcachedNode> removeNodes = new ArrayList<>();
@@ -456,7 +812,7 @@ public final class MemcachedConnection extends SpyObject {
           } else {
             // ZK event occurs before cache server response.
             oldGroup.setMasterCandidateByAddr(newMasterAddr.getIPPort());
-            if (oldMasterNode.hasNonIdempotentOperationInReadQ()) {
+            if (hasNonIdempotentOperationInReadQ(oldMasterNode)) {
               // delay to change role and move operations
               // by the time switchover timeout occurs or
               // "SWITCHOVER", "REPL_SLAVE" response received.
@@ -551,6 +907,9 @@ public final class MemcachedConnection extends SpyObject {
 
   /* ENABLE_REPLICATION if */
   private void moveOperations(MemcachedNode from, MemcachedNode to, boolean cancelNonIdempotent) {
+    // keep the operations of a key on the same stripe of the target node.
+    List<MemcachedNode> stripes = to.getStripes();
+    to = stripes.get(from.getStripes().indexOf(from) % stripes.size());
     if (!to.isActive()) {
       String cause = "Failed to move operations. Inactive node.";
       cancelOperations(from.destroyReadQueue(false), cause);
@@ -560,9 +919,25 @@ public final class MemcachedConnection extends SpyObject {
     }
 
     if (from.moveOperations(to, cancelNonIdempotent) > 0) {
-      addedQueue.offer(to);
+      shardOf(to).addedQueue.offer(to);
+    }
+  }
+
+  private void moveAllOperations(MemcachedNode from, MemcachedNode to,
+                                 boolean cancelNonIdempotent) {
+    for (MemcachedNode stripe : from.getStripes()) {
+      moveOperations(stripe, to, cancelNonIdempotent);
     }
   }
+
+  private boolean hasNonIdempotentOperationInReadQ(MemcachedNode node) {
+    for (MemcachedNode stripe : node.getStripes()) {
+      if (stripe.hasNonIdempotentOperationInReadQ()) {
+        return true;
+      }
+    }
+    return false;
+  }
   /* ENABLE_REPLICATION end */
 
   private MemcachedNode attachMemcachedNode(SocketAddress sa) throws IOException {
@@ -580,7 +955,61 @@ public final class MemcachedConnection extends SpyObject {
 
   private MemcachedNode makeMemcachedNode(String name,
                                           SocketAddress sa) throws IOException {
-    MemcachedNode qa = connFactory.createMemcachedNode(name, sa, connFactory.getReadBufSize());
+    int count = connFactory.getConnectionsPerNode();
+    List<MemcachedNode> stripes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      stripes.add(connFactory.createMemcachedNode(name, sa, connFactory.getReadBufSize()));
+    }
+    stripes = Collections.unmodifiableList(stripes);
+    for (MemcachedNode qa : stripes) {
+      qa.setStripes(stripes);
+      qa.setCommandBufferPool(bufferPool);
+    }
+    if (circuitBreakerOpenTime > 0) {
+      stripes.get(0).setCircuitBreaker(new CircuitBreaker(circuitBreakerOpenTime));
+    }
+    assignShard(stripes.get(0), sa);
+    for (MemcachedNode qa : stripes) {
+      openChannel(qa, sa);
+    }
+    return stripes.get(0);
+  }
+
+  // All stripes of a node, and all nodes of a replica group are handled by the same shard
+  // so that moving operations between them does not cross the threads.
+  private void assignShard(MemcachedNode node, SocketAddress sa) {
+    if (shards.length == 1) {
+      return;
+    }
+    String shardKey = AddrUtil.getSocketAddressString(sa);
+    /* ENABLE_REPLICATION if */
+    if (sa instanceof ArcusReplNodeAddress) {
+      shardKey = ((ArcusReplNodeAddress) sa).getGroupName();
+    }
+    /* ENABLE_REPLICATION end */
+    IOShard shard = shardByAddr.get(shardKey);
+    if (shard == null) {
+      shard = shards[0];
+      for (IOShard s : shards) {
+        if (s.nodeCount < shard.nodeCount) {
+          shard = s;
+        }
+      }
+      shardByAddr.put(shardKey, shard);
+    }
+    shard.nodeCount++;
+    shardByNode.put(node, shard);
+  }
+
+  private IOShard shardOf(MemcachedNode node) {
+    if (shards.length == 1) {
+      return shards[0];
+    }
+    IOShard shard = shardByNode.get(node.getStripes().get(0));
+    return shard != null ? shard : shards[0];
+  }
+
+  private void openChannel(MemcachedNode qa, SocketAddress sa) throws IOException {
     SocketChannel ch = SocketChannel.open();
     ch.configureBlocking(false);
     ch.socket().setTcpNoDelay(!connFactory.useNagleAlgorithm());
@@ -601,7 +1030,7 @@ public final class MemcachedConnection extends SpyObject {
         getLogger().info("new memcached node added %s to connect queue", qa);
         ops = SelectionKey.OP_CONNECT;
       }
-      qa.setSk(ch.register(selector, ops, qa));
+      qa.setSk(ch.register(shardOf(qa).selector, ops, qa));
       assert ch.isConnected()
               || qa.getSk().interestOps() == SelectionKey.OP_CONNECT
               : "Not connected, and not wanting to connect";
@@ -609,7 +1038,6 @@ public final class MemcachedConnection extends SpyObject {
       getLogger().warn("new memcached socket error on initial connect");
       queueReconnect(qa, ReconnDelay.DEFAULT, "initial connection error");
     }
-    return qa;
   }
 
   private void prepareAuthentication(final MemcachedNode node) {
@@ -661,7 +1089,7 @@ public final class MemcachedConnection extends SpyObject {
       @Override
       public void complete() {
         if (authDone) {
-          addedQueue.offer(node);
+          shardOf(node).addedQueue.offer(node);
           return;
         }
 
@@ -695,15 +1123,15 @@ public final class MemcachedConnection extends SpyObject {
       @Override
       public void complete() {
         if (node.getVersion() == null) {
-          nodesNeedVersionOp.add(node);
+          shardOf(node).nodesNeedVersionOp.add(node);
         }
       }
     });
 
     node.insertOp(op);
-    addedQueue.offer(node);
-    Selector s = selector.wakeup();
-    assert s == selector : "Wakeup returned the wrong selector.";
+    IOShard shard = shardOf(node);
+    shard.addedQueue.offer(node);
+    shard.wakeup();
     getLogger().debug("Added %s to writeQ of %s", op, node);
   }
 
@@ -762,7 +1190,7 @@ public final class MemcachedConnection extends SpyObject {
       alterNodesChange.set(old);
     }
     /* ENABLE_MIGRATION end */
-    selector.wakeup();
+    shards[0].wakeup();
   }
 
   /* ENABLE_MIGRATION if */
@@ -779,7 +1207,7 @@ public final class MemcachedConnection extends SpyObject {
         getLogger().info("Ignored previous alter nodes change.");
       }
       delayedAlterNodesChange.set(null);
-      selector.wakeup();
+      shards[0].wakeup();
     }
   }
 
@@ -846,8 +1274,8 @@ public final class MemcachedConnection extends SpyObject {
       group.setDelayedSwitchover(false);
       ((ArcusReplKetamaNodeLocator) locator).switchoverReplGroup(group);
 
-      moveOperations(oldMaster, group.getMasterNode(), true);
-      queueReconnect(oldMaster, ReconnDelay.IMMEDIATE,
+      moveAllOperations(oldMaster, group.getMasterNode(), true);
+      queueReconnectAll(oldMaster, ReconnDelay.IMMEDIATE,
               "Discarded all pending reading state operation to move operations.");
 
       iterator.remove();
@@ -865,7 +1293,13 @@ public final class MemcachedConnection extends SpyObject {
   }
 
   // Handle any requests that have been made against the client.
-  private void handleInputQueue() {
+  private void handleInputQueue(IOShard shard) {
+    Map.Entry<MemcachedNode, Operation> redirected;
+    while ((redirected = shard.redirectedOps.poll()) != null) {
+      redirected.getKey().addOpToWriteQ(redirected.getValue());
+      shard.addedQueue.offer(redirected.getKey());
+    }
+    ConcurrentLinkedQueue<MemcachedNode> addedQueue = shard.addedQueue;
     if (!addedQueue.isEmpty()) {
       getLogger().debug("Handling queue");
       // If there's stuff in the added queue.  Try to process it.
@@ -958,7 +1392,7 @@ public final class MemcachedConnection extends SpyObject {
         final SocketChannel channel = qa.getChannel();
         if (channel.finishConnect()) {
           connected(qa);
-          addedQueue.offer(qa);
+          shardOf(qa).addedQueue.offer(qa);
           if (qa.getWbuf().hasRemaining()) {
             handleWrites(qa);
           }
@@ -1061,16 +1495,18 @@ public final class MemcachedConnection extends SpyObject {
       if (currentOp != null && currentOp.getState() == OperationState.NEED_SWITCHOVER) {
         ((Buffer) rbuf).clear();
         MemcachedReplicaGroup group = qa.getReplicaGroup();
-        if (group.isDelayedSwitchover() && group.getMasterNode() == qa) {
+        if (group.isDelayedSwitchover() && group.getMasterNode() == qa.getStripes().get(0)) {
           clearDelayedSwitchoverGroup(group);
           ((ArcusReplKetamaNodeLocator) locator).switchoverReplGroup(group);
 
-          moveOperations(qa, group.getMasterNode(), false);
+          moveAllOperations(qa, group.getMasterNode(), false);
+          queueReconnectAll(qa, ReconnDelay.IMMEDIATE,
+                  "Discarded all pending reading state operation to move operations.");
         } else {
           moveOperations(qa, group.getMasterCandidate(), false);
+          queueReconnect(qa, ReconnDelay.IMMEDIATE,
+                  "Discarded all pending reading state operation to move operations.");
         }
-        queueReconnect(qa, ReconnDelay.IMMEDIATE,
-                "Discarded all pending reading state operation to move operations.");
         break;
       }
       /* ENABLE_REPLICATION end */
@@ -1086,12 +1522,12 @@ public final class MemcachedConnection extends SpyObject {
     if (arcusReplEnabled) {
       if (currentOp == null) { // readQ is empty
         MemcachedReplicaGroup group = qa.getReplicaGroup();
-        if (group.isDelayedSwitchover() && group.getMasterNode() == qa) {
+        if (group.isDelayedSwitchover() && group.getMasterNode() == qa.getStripes().get(0)) {
           clearDelayedSwitchoverGroup(group);
           ((ArcusReplKetamaNodeLocator) locator).switchoverReplGroup(group);
 
-          moveOperations(qa, group.getMasterNode(), false);
-          queueReconnect(qa, ReconnDelay.IMMEDIATE,
+          moveAllOperations(qa, group.getMasterNode(), false);
+          queueReconnectAll(qa, ReconnDelay.IMMEDIATE,
                   "Discarded all pending reading state operation to move operations.");
         }
       }
@@ -1119,15 +1555,10 @@ public final class MemcachedConnection extends SpyObject {
     locator.updateMigration(rh.getMigrationBasePoint(), rh.getMigrationEndPoint());
 
     // Redirect operation
-    boolean success;
     if (rh instanceof RedirectHandler.RedirectHandlerSingleKey) {
-      success = redirectSingleKeyOperation((RedirectHandler.RedirectHandlerSingleKey) rh, op);
+      redirectSingleKeyOperation((RedirectHandler.RedirectHandlerSingleKey) rh, op);
     } else {
-      success = redirectMultiKeyOperation((RedirectHandler.RedirectHandlerMultiKey) rh, op);
-    }
-    if (success) {
-      Selector s = selector.wakeup();
-      assert s == selector : "Wakeup returned the wrong selector.";
+      redirectMultiKeyOperation((RedirectHandler.RedirectHandlerMultiKey) rh, op);
     }
   }
 
@@ -1137,7 +1568,8 @@ public final class MemcachedConnection extends SpyObject {
 
     String owner = redirectHandler.getOwner();
     if (owner != null) {
-      return redirectSingleKeyOperation(findNodeByOwner(owner), op);
+      return redirectSingleKeyOperation(
+          getStripe(findNodeByOwner(owner), redirectHandler.getKey()), op);
     } else { // single key pipe operation
       return redirectSingleKeyOperation(redirectHandler.getKey(), op); // hashring lookup
     }
@@ -1156,8 +1588,7 @@ public final class MemcachedConnection extends SpyObject {
       op.cancel("Redirect failure. Inactive node.");
       return false;
     }
-    node.addOpToWriteQ(op);
-    addedQueue.offer(node);
+    redirectToNode(node, op);
     return true;
   }
 
@@ -1188,6 +1619,7 @@ public final class MemcachedConnection extends SpyObject {
       Operation clonedOp = opFactory.cloneMultiOperation(
           (KeyedOperation) op, node, entry.getValue(), mcb
       );
+      CloneAwareCallback.notifyCloned(mcb, clonedOp);
       if (node == null) {
         clonedOp.cancel("Redirect failure. No node.");
         continue;
@@ -1202,13 +1634,29 @@ public final class MemcachedConnection extends SpyObject {
       return false;
     }
     for (Map.Entry<MemcachedNode, Operation> entry : ops.entrySet()) {
-      node = entry.getKey();
-      node.addOpToWriteQ(entry.getValue());
-      addedQueue.offer(node);
+      // the cloned operations are new, and have no deadline yet.
+      scheduleDeadline(shardOf(entry.getKey()), entry.getValue());
+      redirectToNode(entry.getKey(), entry.getValue());
     }
     return true;
   }
 
+  /**
+   * Put a redirected operation into the write queue of the given node.
+   * The write queue of a node may only be touched by the thread of its IO shard,
+   * so the operation is handed over when the node belongs to another shard.
+   */
+  private void redirectToNode(MemcachedNode node, Operation op) {
+    IOShard shard = shardOf(node);
+    if (shard.ioThread == Thread.currentThread()) {
+      node.addOpToWriteQ(op);
+      shard.addedQueue.offer(node);
+    } else {
+      shard.redirectedOps.offer(new AbstractMap.SimpleImmutableEntry<>(node, op));
+      shard.wakeup();
+    }
+  }
+
   public MemcachedNode findNodeByOwner(String owner) {
     return locator.getOwnerNode(owner, mgType);
   }
@@ -1231,6 +1679,7 @@ public final class MemcachedConnection extends SpyObject {
   }
 
   private void queueReconnect(MemcachedNode qa, ReconnDelay type, String cause) {
+    ReconnectQueue reconnectQueue = shardOf(qa).reconnectQueue;
     if (reconnectQueue.contains(qa)) {
       reconnectQueue.replace(qa, type);
       return;
@@ -1239,11 +1688,17 @@ public final class MemcachedConnection extends SpyObject {
     /* ENABLE_REPLICATION if */
     if (arcusReplEnabled) {
       MemcachedReplicaGroup group = qa.getReplicaGroup();
-      if (group.isDelayedSwitchover() && group.getMasterNode() == qa) {
+      if (group.isDelayedSwitchover() && group.getMasterNode() == qa.getStripes().get(0)) {
         clearDelayedSwitchoverGroup(group);
         ((ArcusReplKetamaNodeLocator) locator).switchoverReplGroup(group);
 
-        moveOperations(qa, group.getMasterNode(), true);
+        moveAllOperations(qa, group.getMasterNode(), true);
+        for (MemcachedNode stripe : qa.getStripes()) {
+          if (stripe != qa) {
+            queueReconnect(stripe, ReconnDelay.IMMEDIATE,
+                    "Discarded all pending reading state operation to move operations.");
+          }
+        }
       }
     }
     /* ENABLE_REPLICATION end */
@@ -1274,6 +1729,14 @@ public final class MemcachedConnection extends SpyObject {
     reconnectQueue.add(qa, type);
   }
 
+  /* ENABLE_REPLICATION if */
+  private void queueReconnectAll(MemcachedNode node, ReconnDelay type, String cause) {
+    for (MemcachedNode stripe : node.getStripes()) {
+      queueReconnect(stripe, type, cause);
+    }
+  }
+  /* ENABLE_REPLICATION end */
+
   private void cancelOperations(Collection<Operation> ops, String cause) {
     for (Operation op : ops) {
       op.cancel(cause);
@@ -1287,6 +1750,7 @@ public final class MemcachedConnection extends SpyObject {
         int added = 0;
         for (String k : ko.getKeys()) {
           for (Operation newop : opFactory.clone(ko)) {
+            CloneAwareCallback.notifyCloned(ko.getCallback(), newop);
             addOperation(k, newop);
             added++;
           }
@@ -1301,7 +1765,6 @@ public final class MemcachedConnection extends SpyObject {
 
   /* ENABLE_MIGRATION if */
   private void redistributeOperationsForMigration(Collection<Operation> ops) {
-    boolean success = false;
     for (Operation op : ops) {
       if (op instanceof KeyedOperation) {
         KeyedOperation ko = (KeyedOperation) op;
@@ -1309,19 +1772,15 @@ public final class MemcachedConnection extends SpyObject {
 
         if (keys.size() == 1) {
           String key = keys.toArray()[0].toString();
-          success = success || redirectSingleKeyOperation(key, op);
+          redirectSingleKeyOperation(key, op);
         } else {
           Map<MemcachedNode, List<String>> nodeByKeys = groupKeysByNode(keys, op);
-          success = success || redirectMultiKeyOperation(nodeByKeys, op);
+          redirectMultiKeyOperation(nodeByKeys, op);
         }
       } else {
         op.cancel("by redistribution.");
       }
     }
-    if (success) {
-      Selector s = selector.wakeup();
-      assert s == selector : "Wakeup returned the wrong selector.";
-    }
   }
 
   public Map<MemcachedNode, List<String>> groupKeysByNode(Collection<String> keys,
@@ -1343,7 +1802,8 @@ public final class MemcachedConnection extends SpyObject {
   }
   /* ENABLE_MIGRATION end */
 
-  private void attemptReconnects() {
+  private void attemptReconnects(IOShard shard) {
+    final ReconnectQueue reconnectQueue = shard.reconnectQueue;
     final List<MemcachedNode> rereQueue = new ArrayList<>();
     final long nanoTime = System.nanoTime();
     SocketChannel ch = null;
@@ -1372,11 +1832,11 @@ public final class MemcachedConnection extends SpyObject {
         if (ch.connect(node.getSocketAddress())) {
           getLogger().info("Immediately reconnected to %s", node);
           connected(node);
-          addedQueue.offer(node);
+          shard.addedQueue.offer(node);
         } else {
           ops = SelectionKey.OP_CONNECT;
         }
-        node.setSk(ch.register(selector, ops, node));
+        node.setSk(ch.register(shard.selector, ops, node));
         assert node.getChannel() == ch : "Channel was lost.";
       } catch (SocketException e) {
         getLogger().warn("Error on reconnect", e);
@@ -1418,6 +1878,8 @@ public final class MemcachedConnection extends SpyObject {
         pick = ReplicaPick.SLAVE;
       } else if (readPriority == ReadPriority.RR) {
         pick = ReplicaPick.RR;
+      } else if (readPriority == ReadPriority.LEAST_OUTSTANDING) {
+        pick = ReplicaPick.LEAST_OUTSTANDING;
       }
     }
     return pick;
@@ -1431,6 +1893,8 @@ public final class MemcachedConnection extends SpyObject {
         pick = ReplicaPick.SLAVE;
       } else if (readPriority == ReadPriority.RR) {
         pick = ReplicaPick.RR;
+      } else if (readPriority == ReadPriority.LEAST_OUTSTANDING) {
+        pick = ReplicaPick.LEAST_OUTSTANDING;
       }
     }
     return pick;
@@ -1452,6 +1916,24 @@ public final class MemcachedConnection extends SpyObject {
     return locator.getPrimary(key);
   }
 
+  /**
+   * Get the primary node for the encoded key.
+   *
+   * @param key the encoded key the operation is operating upon
+   * @param apiType the type of the operation
+   */
+  public MemcachedNode getPrimaryNode(final EncodedKey key, final APIType apiType) {
+    /* ENABLE_REPLICATION if */
+    if (this.arcusReplEnabled) {
+      return ((ArcusReplKetamaNodeLocator) locator).getPrimary(key, getReplicaPick(apiType));
+    }
+    /* ENABLE_REPLICATION end */
+    if (locator instanceof ArcusKetamaNodeLocator) {
+      return ((ArcusKetamaNodeLocator) locator).getPrimary(key);
+    }
+    return locator.getPrimary(key.getKey());
+  }
+
   public MemcachedNode getPrimaryNode(final String key, final Operation op) {
     /* ENABLE_REPLICATION if */
     if (this.arcusReplEnabled) {
@@ -1502,9 +1984,11 @@ public final class MemcachedConnection extends SpyObject {
       return;
     }
     node.insertOp(o);
-    addedQueue.offer(node);
-    Selector s = selector.wakeup();
-    assert s == selector : "Wakeup returned the wrong selector.";
+    IOShard shard = shardOf(node);
+    scheduleDeadline(shard, o);
+    shard.addedQueue.offer(node);
+    shard.addedOps.increment();
+    shard.wakeup();
     getLogger().debug("Added %s to %s", o, node);
   }
 
@@ -1518,18 +2002,47 @@ public final class MemcachedConnection extends SpyObject {
       o.cancel("authentication failed");
       return;
     }
+    CircuitBreaker breaker = node.getCircuitBreaker();
+    if (breaker != null && !breaker.isClosed()) {
+      MemcachedNode replica = null;
+      /* ENABLE_REPLICATION if */
+      replica = getReplicaForOpenCircuit(node, o);
+      /* ENABLE_REPLICATION end */
+      if (replica != null) {
+        addOperation(replica, o);
+      } else {
+        breaker.reject();
+        o.setHandlingNode(node);
+        o.cancel("circuit open");
+      }
+      return;
+    }
     if (!node.isActive() && failureMode == FailureMode.Cancel) {
       o.setHandlingNode(node);
       o.cancel("inactive node");
       return;
     }
     node.addOpToInputQ(o);
-    addedQueue.offer(node);
-    Selector s = selector.wakeup();
-    assert s == selector : "Wakeup returned the wrong selector.";
+    IOShard shard = shardOf(node);
+    scheduleDeadline(shard, o);
+    /* ENABLE_REPLICATION if */
+    if (shard.hedgeWheel != null && isHedgedRead(o)) {
+      shard.hedgeWheel.schedule(o, System.nanoTime() + hedgedReadDelay);
+    }
+    /* ENABLE_REPLICATION end */
+    shard.addedQueue.offer(node);
+    shard.addedOps.increment();
+    shard.wakeup();
     getLogger().debug("Added %s to %s", o, node);
   }
 
+  // Expire the operation added to a node of the shard at its deadline, if deadlines are used.
+  private void scheduleDeadline(IOShard shard, Operation o) {
+    if (shard.timeoutWheel != null) {
+      shard.timeoutWheel.schedule(o, System.nanoTime() + operationDeadline);
+    }
+  }
+
   public void addOperations(final Map<MemcachedNode, Operation> ops) {
     for (Map.Entry<MemcachedNode, Operation> me : ops.entrySet()) {
       addOperation(me.getKey(), me.getValue());
@@ -1537,8 +2050,10 @@ public final class MemcachedConnection extends SpyObject {
   }
 
   public void wakeUpSelector() {
-    if (selector != null) {
-      selector.wakeup();
+    for (IOShard shard : shards) {
+      if (shard != null) {
+        shard.wakeup();
+      }
     }
   }
 
@@ -1546,15 +2061,24 @@ public final class MemcachedConnection extends SpyObject {
    * Shut down all the connections.
    */
   public void shutdown() throws IOException {
-    for (MemcachedNode qa : locator.getAll()) {
-      try {
-        qa.shutdown();
-      } catch (IOException e) {
-        getLogger().error("Exception closing channel: %s", qa, e);
+    shutDown = true;
+    resumeShards();
+    for (int i = 1; i < shards.length; i++) {
+      shards[i].join();
+    }
+    for (MemcachedNode node : locator.getAll()) {
+      for (MemcachedNode qa : node.getStripes()) {
+        try {
+          qa.shutdown();
+        } catch (IOException e) {
+          getLogger().error("Exception closing channel: %s", qa, e);
+        }
       }
     }
-    selector.close();
-    getLogger().debug("Shut down selector %s", selector);
+    for (IOShard shard : shards) {
+      shard.selector.close();
+      getLogger().debug("Shut down selector %s", shard.selector);
+    }
   }
 
   @Override
@@ -1570,11 +2094,15 @@ public final class MemcachedConnection extends SpyObject {
   }
 
   /**
-   * helper method: increase timeout count on node attached to this op
+   * helper method: increase timeout count on node attached to this op.
+   * A timeout of an operation is counted only once.
    *
    * @param op
    */
   public static void opTimedOut(Operation op) {
+    if (op != null && !op.timeOut()) {
+      return;
+    }
     MemcachedConnection.setTimeout(op, true);
   }
 
@@ -1588,7 +2116,7 @@ public final class MemcachedConnection extends SpyObject {
     for (Operation op : ops) {
       try {
         MemcachedNode node = op.getHandlingNode();
-        if (node == null) {
+        if (node == null || !op.timeOut()) {
           continue;
         }
         // set timeout only once for the same node.
@@ -1658,7 +2186,22 @@ public final class MemcachedConnection extends SpyObject {
    * @return a memcached node
    */
   public MemcachedNode findNodeByKey(String key, APIType apiType) {
-    MemcachedNode node = getPrimaryNode(key, apiType);
+    return findNodeByKey(getPrimaryNode(key, apiType), key, apiType);
+  }
+
+  /**
+   * find memcachednode for the encoded key before op instance created.
+   *
+   * @param key
+   * @param apiType
+   * @return a memcached node
+   */
+  public MemcachedNode findNodeByKey(EncodedKey key, APIType apiType) {
+    return findNodeByKey(getPrimaryNode(key, apiType), key.getKey(), apiType);
+  }
+
+  private MemcachedNode findNodeByKey(MemcachedNode primary, String key, APIType apiType) {
+    MemcachedNode node = getStripe(primary, key);
     if (node == null) {
       return null;
     }
@@ -1668,7 +2211,7 @@ public final class MemcachedConnection extends SpyObject {
     if (failureMode == FailureMode.Redistribute) {
       Iterator<MemcachedNode> iter = getNodeSequence(key, apiType);
       while (iter.hasNext()) {
-        MemcachedNode n = iter.next();
+        MemcachedNode n = getStripe(iter.next(), key);
         if (n != null && n.isActive()) {
           node = n;
           break;
@@ -1686,7 +2229,7 @@ public final class MemcachedConnection extends SpyObject {
    * @return a memcached node
    */
   public MemcachedNode findNodeByKey(String key, Operation op) {
-    MemcachedNode node = getPrimaryNode(key, op);
+    MemcachedNode node = getStripe(getPrimaryNode(key, op), key);
     if (node == null) {
       return null;
     }
@@ -1696,7 +2239,7 @@ public final class MemcachedConnection extends SpyObject {
     if (failureMode == FailureMode.Redistribute) {
       Iterator<MemcachedNode> iter = getNodeSequence(key, op);
       while (iter.hasNext()) {
-        MemcachedNode n = iter.next();
+        MemcachedNode n = getStripe(iter.next(), key);
         if (n != null && n.isActive()) {
           node = n;
           break;
@@ -1706,8 +2249,99 @@ public final class MemcachedConnection extends SpyObject {
     return node;
   }
 
+  /**
+   * Get the connection of the node that the operations of the key are sent through.
+   *
+   * @param node the node found by the node locator
+   * @param key the key the operation is operating upon
+   * @return a memcached node
+   */
+  private static MemcachedNode getStripe(MemcachedNode node, String key) {
+    if (node == null) {
+      return null;
+    }
+    List<MemcachedNode> stripes = node.getStripes();
+    if (stripes.size() == 1) {
+      return node;
+    }
+    return stripes.get((key.hashCode() & Integer.MAX_VALUE) % stripes.size());
+  }
+
   public int getAddedQueueSize() {
-    return addedQueue.size();
+    int size = 0;
+    for (IOShard shard : shards) {
+      size += shard.addedQueue.size();
+    }
+    return size;
+  }
+
+  /**
+   * Get the number of operations added to the nodes of this connection.
+   */
+  public long getAddedOperationCount() {
+    long count = 0;
+    for (IOShard shard : shards) {
+      count += shard.addedOps.sum();
+    }
+    return count;
+  }
+
+  /**
+   * Get the number of times the selectors were woken up.
+   * Wakeups requested while the IO thread has not yet handled the last one
+   * are coalesced, so this is usually far less than the operations added.
+   */
+  public long getSelectorWakeupCount() {
+    long count = 0;
+    for (IOShard shard : shards) {
+      count += shard.wakeups.sum();
+    }
+    return count;
+  }
+
+  /**
+   * Get the number of operations cancelled because they had expired
+   * before being written.
+   */
+  public long getUnsentTimeoutCount() {
+    long count = 0;
+    for (IOShard shard : shards) {
+      count += shard.unsentTimeouts.sum();
+    }
+    return count;
+  }
+
+  /* ENABLE_REPLICATION if */
+  /**
+   * Get the number of reads sent also to another node of their replica group.
+   */
+  public long getHedgedReadCount() {
+    long count = 0;
+    for (IOShard shard : shards) {
+      count += shard.hedgedReads.sum();
+    }
+    return count;
+  }
+
+  /**
+   * Get the number of hedged reads that the other node responded first.
+   */
+  public long getHedgedReadWinCount() {
+    long count = 0;
+    for (IOShard shard : shards) {
+      count += shard.hedgedReadWins.sum();
+    }
+    return count;
+  }
+  /* ENABLE_REPLICATION end */
+
+  /**
+   * Get the pool of the command buffers shared by the nodes of this connection.
+   *
+   * @return the buffer pool, or null if the command buffers are not pooled
+   */
+  public CommandBufferPool getCommandBufferPool() {
+    return bufferPool;
   }
 
   public static class ReconnectQueue {
@@ -1808,7 +2442,7 @@ public final class MemcachedConnection extends SpyObject {
     }
 
     public void doTask() {
-      queueReconnect(node, delay, cause);
+      queueReconnectAll(node, delay, cause);
     }
   }
 
@@ -1822,8 +2456,112 @@ public final class MemcachedConnection extends SpyObject {
     }
 
     public void doTask() {
-      moveOperations(from, to, true);
+      moveAllOperations(from, to, true);
     }
   }
   /* ENABLE_REPLICATION end */
+
+  /**
+   * A selector with the nodes handled by it.
+   * The first shard is driven by the thread of MemcachedClient,
+   * and each of the others is driven by its own thread.
+   */
+  private final class IOShard implements Runnable {
+    private final int index;
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<MemcachedNode> addedQueue =
+            new ConcurrentLinkedQueue<>();
+    private final ReconnectQueue reconnectQueue;
+    private final Set<MemcachedNode> nodesNeedVersionOp = new HashSet<>();
+    // operations redirected to the nodes of this shard by the other shards.
+    private final ConcurrentLinkedQueue<Map.Entry<MemcachedNode, Operation>> redirectedOps =
+            new ConcurrentLinkedQueue<>();
+    // set while a wakeup of the selector is not yet followed by a new loop of the IO thread.
+    private final AtomicBoolean wakeupPending = new AtomicBoolean(false);
+    private final LongAdder addedOps = new LongAdder();
+    private final LongAdder wakeups = new LongAdder();
+    // deadlines of the operations added to the nodes of this shard, if they expire.
+    private final OperationTimeoutWheel timeoutWheel;
+    private final List<Operation> expiredOps = new ArrayList<>();
+    private final LongAdder unsentTimeouts = new LongAdder();
+    // nodes of this shard whose circuit is not closed.
+    private final Set<MemcachedNode> openCircuits = new HashSet<>();
+    /* ENABLE_REPLICATION if */
+    // delays of the reads added to the nodes of this shard, if they are hedged.
+    private final OperationTimeoutWheel hedgeWheel;
+    private final List<Operation> delayedReads = new ArrayList<>();
+    private final LongAdder hedgedReads = new LongAdder();
+    private final LongAdder hedgedReadWins = new LongAdder();
+    /* ENABLE_REPLICATION end */
+    private int emptySelects = 0;
+    private int nodeCount = 0;
+    private volatile Thread ioThread;
+
+    private IOShard(int index, ReconnectQueue reconnectQueue) throws IOException {
+      this.index = index;
+      this.selector = Selector.open();
+      this.reconnectQueue = reconnectQueue;
+      this.timeoutWheel = operationDeadline > 0 ?
+          new OperationTimeoutWheel(DEADLINE_TICK_MILLIS, DEADLINE_TICKS_PER_WHEEL) : null;
+      /* ENABLE_REPLICATION if */
+      this.hedgeWheel = hedgedReadDelay > 0 ?
+          new OperationTimeoutWheel(HEDGE_TICK_MILLIS, HEDGE_TICKS_PER_WHEEL) : null;
+      /* ENABLE_REPLICATION end */
+    }
+
+    private void start(boolean daemon) {
+      Thread t = new Thread(this, "Memcached IO over " + connName + " #" + index);
+      t.setDaemon(daemon);
+      ioThread = t;
+      t.start();
+    }
+
+    private void join() {
+      Thread t = ioThread;
+      if (t == null || t == Thread.currentThread()) {
+        return;
+      }
+      wakeup();
+      try {
+        t.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void wakeup() {
+      if (!wakeupPending.get() && wakeupPending.compareAndSet(false, true)) {
+        wakeups.increment();
+        selector.wakeup();
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!shutDown) {
+          try {
+            handleIO(this);
+            if (!reconnectQueue.isEmpty()) {
+              attemptReconnects(this);
+            }
+          } catch (IOException | RuntimeException e) {
+            // no failure of handling IO may stop serving the nodes of this shard.
+            if (shutDown) {
+              getLogger().debug("Exception occurred during shutdown", e);
+            } else {
+              getLogger().warn("Problem handling memcached IO", e);
+            }
+          }
+          awaitResume();
+        }
+      } finally {
+        // never block the topology change of the first shard once this thread is gone.
+        synchronized (pauseLock) {
+          pausedShards++;
+          pauseLock.notifyAll();
+        }
+      }
+    }
+  }
 }
@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.Collection;
+import java.util.List;
 
 import net.spy.memcached.internal.ReconnDelay;
 import net.spy.memcached.ops.Operation;
@@ -285,6 +286,59 @@ public interface MemcachedNode {
    */
   String getOpQueueStatus();
 
+  /**
+   * Get the number of operations added to this connection and not completed yet,
+   * including the ones not written yet.
+   *
+   * @return outstanding operation count
+   */
+  int getOutstandingOperationCount();
+
+  /**
+   * Set the connections made to the server of this node.
+   * The first one is the node known to the node locator,
+   * and all of them share the same list.
+   *
+   * @param stripes the connections including this node
+   */
+  void setStripes(List<MemcachedNode> stripes);
+
+  /**
+   * Get the connections made to the server of this node.
+   *
+   * @return the connections including this node
+   */
+  List<MemcachedNode> getStripes();
+
+  /**
+   * Set the pool of the command buffers of the operations added to this node.
+   *
+   * @param pool the buffer pool, or null to allocate the buffers each time
+   */
+  void setCommandBufferPool(CommandBufferPool pool);
+
+  /**
+   * Get the pool of the command buffers of the operations added to this node.
+   *
+   * @return the buffer pool, or null if not pooled
+   */
+  CommandBufferPool getCommandBufferPool();
+
+  /**
+   * Set the circuit breaker of the server of this node.
+   * It is set to the first connection and shared by all of them.
+   *
+   * @param breaker the circuit breaker, or null if not used
+   */
+  void setCircuitBreaker(CircuitBreaker breaker);
+
+  /**
+   * Get the circuit breaker of the server of this node.
+   *
+   * @return the circuit breaker, or null if not used
+   */
+  CircuitBreaker getCircuitBreaker();
+
   /* ENABLE_REPLICATION if */
   void setReplicaGroup(MemcachedReplicaGroup g);
 
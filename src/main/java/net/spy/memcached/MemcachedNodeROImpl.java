@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.Collection;
+import java.util.List;
 
 import net.spy.memcached.internal.ReconnDelay;
 import net.spy.memcached.ops.Operation;
@@ -236,6 +237,34 @@ public final class MemcachedNodeROImpl implements MemcachedNode {
     throw new UnsupportedOperationException();
   }
 
+  public int getOutstandingOperationCount() {
+    throw new UnsupportedOperationException();
+  }
+
+  public void setStripes(List<MemcachedNode> stripes) {
+    throw new UnsupportedOperationException();
+  }
+
+  public List<MemcachedNode> getStripes() {
+    throw new UnsupportedOperationException();
+  }
+
+  public void setCommandBufferPool(CommandBufferPool pool) {
+    throw new UnsupportedOperationException();
+  }
+
+  public CommandBufferPool getCommandBufferPool() {
+    throw new UnsupportedOperationException();
+  }
+
+  public void setCircuitBreaker(CircuitBreaker breaker) {
+    throw new UnsupportedOperationException();
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    throw new UnsupportedOperationException();
+  }
+
   /* ENABLE_REPLICATION if */
   public void setReplicaGroup(MemcachedReplicaGroup g) {
     throw new UnsupportedOperationException();
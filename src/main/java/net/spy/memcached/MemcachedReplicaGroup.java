@@ -26,12 +26,14 @@ import net.spy.memcached.compat.SpyObject;
 
 public abstract class MemcachedReplicaGroup extends SpyObject {
   protected final String group;
-  protected MemcachedNode masterNode;
+  // the master is also read by the lock-free lookups of the locator.
+  protected volatile MemcachedNode masterNode;
   protected List<MemcachedNode> slaveNodes = new ArrayList<>(MAX_REPL_SLAVE_SIZE);
   private int nextSlaveIndex = -1;
-  protected MemcachedNode masterCandidate;
+  private int nextLeastIndex = 0;
+  protected volatile MemcachedNode masterCandidate;
   private final StringBuilder sb = new StringBuilder();
-  private boolean delayedSwitchover = false;
+  private volatile boolean delayedSwitchover = false;
 
   public static final int MAX_REPL_SLAVE_SIZE = 2;
   public static final int MAX_REPL_GROUP_SIZE = MAX_REPL_SLAVE_SIZE + 1;
@@ -122,6 +124,12 @@ public abstract class MemcachedReplicaGroup extends SpyObject {
           node = masterNode;
         }
         break;
+      case LEAST_OUTSTANDING:
+        node = getLeastOutstandingNode();
+        if (node == null) {
+          node = masterNode;
+        }
+        break;
       default: // This case never exist.
         break;
     }
@@ -176,6 +184,32 @@ public abstract class MemcachedReplicaGroup extends SpyObject {
     return node;
   }
 
+  private MemcachedNode getLeastOutstandingNode() {
+    int size = slaveNodes.size() + 1;
+    // start from the next member each time so that ties are spread evenly.
+    int start = nextLeastIndex;
+    nextLeastIndex = start + 1 >= size ? 0 : start + 1;
+
+    MemcachedNode least = null;
+    int leastCount = Integer.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      int index = (start + i) % size;
+      MemcachedNode node = index == 0 ? masterNode : slaveNodes.get(index - 1);
+      if (node == null || !node.isActive()) {
+        continue;
+      }
+      int count = 0;
+      for (MemcachedNode stripe : node.getStripes()) {
+        count += stripe.getOutstandingOperationCount();
+      }
+      if (count < leastCount) {
+        least = node;
+        leastCount = count;
+      }
+    }
+    return least;
+  }
+
   public abstract boolean changeRole();
 
   public static String getGroupNameFromNode(final MemcachedNode node) {
@@ -105,6 +105,17 @@ public interface OperationFactory {
    */
   DeleteOperation delete(String key, OperationCallback operationCallback);
 
+  /**
+   * Create a deletion operation.
+   *
+   * @param key               the key to delete
+   * @param noreply           if true, the operation completes once written
+   *                          and the server sends no response to it
+   * @param operationCallback the status callback
+   * @return the new DeleteOperation
+   */
+  DeleteOperation delete(String key, boolean noreply, OperationCallback operationCallback);
+
   /**
    * Create a flush operation.
    *
@@ -209,6 +220,22 @@ public interface OperationFactory {
   StoreOperation store(StoreType storeType, String key, int flags, int exp,
                        byte[] data, OperationCallback cb);
 
+  /**
+   * Create a store operation.
+   *
+   * @param storeType the type of store operation
+   * @param key       the key to store
+   * @param flags     the storage flags
+   * @param exp       the expiration time
+   * @param data      the data
+   * @param noreply   if true, the operation completes once written
+   *                  and the server sends no response to it
+   * @param cb        the status callback
+   * @return the new store operation
+   */
+  StoreOperation store(StoreType storeType, String key, int flags, int exp,
+                       byte[] data, boolean noreply, OperationCallback cb);
+
   /**
    * Create a touch operation.
    *
@@ -36,5 +36,10 @@ public enum ReadPriority {
    * Read RR(Round-robin) pattern.
    */
   RR,
+
+  /**
+   * Read on the node with the fewest outstanding operations.
+   */
+  LEAST_OUTSTANDING,
 }
 /* ENABLE_REPLICATION end */
@@ -36,6 +36,11 @@ enum ReplicaPick {
   /**
    * Pick any node RR(Round-robin) pattern.
    */
-  RR
+  RR,
+
+  /**
+   * Pick the active node with the fewest outstanding operations.
+   */
+  LEAST_OUTSTANDING
 }
 /* ENABLE_REPLICATION end */
@@ -39,12 +39,17 @@ import net.spy.memcached.protocol.TCPMemcachedNodeImpl;
 public class StatisticsHandler extends SpyObject implements DynamicMBean {
 
   private static final String ADDED_Q = "addedQ";
+  private static final String ADDED_OPS = "addedOps";
+  private static final String WAKEUPS = "selectorWakeups";
+  private static final String HEDGED_READS = "hedgedReads";
+  private static final String HEDGED_READ_WINS = "hedgedReadWins";
   private static final String INPUT_Q = "inputQ";
   private static final String WRITE_Q = "writeQ";
   private static final String READ_Q = "readQ";
   private static final String RECONN_CNT = "reconnectCount";
   private static final String CONT_TIMEOUT = "continuousTimeout";
   private static final String VERSION = "version";
+  private static final String CIRCUIT_STATE = "circuitState";
 
   private static final String DELIMETER = "-";
 
@@ -61,6 +66,22 @@ public class StatisticsHandler extends SpyObject implements DynamicMBean {
       return client.getAddedQueueSize();
     }
 
+    if (attribute.contains(ADDED_OPS)) {
+      return client.getAddedOperationCount();
+    }
+
+    if (attribute.contains(WAKEUPS)) {
+      return client.getSelectorWakeupCount();
+    }
+
+    if (attribute.contains(HEDGED_READS)) {
+      return client.getHedgedReadCount();
+    }
+
+    if (attribute.contains(HEDGED_READ_WINS)) {
+      return client.getHedgedReadWinCount();
+    }
+
     TCPMemcachedNodeImpl node = (TCPMemcachedNodeImpl) getNode(attribute);
 
     if (node == null) {
@@ -91,6 +112,11 @@ public class StatisticsHandler extends SpyObject implements DynamicMBean {
       return node.getVersion();
     }
 
+    if (attribute.contains(CIRCUIT_STATE)) {
+      CircuitBreaker breaker = node.getCircuitBreaker();
+      return breaker == null ? CircuitBreaker.State.CLOSED.name() : breaker.getState().name();
+    }
+
     throw new AttributeNotFoundException("Atrribute '" + attribute
             + "' is not defined.");
   }
@@ -138,6 +164,18 @@ public class StatisticsHandler extends SpyObject implements DynamicMBean {
     attributes.add(new MBeanAttributeInfo(ADDED_Q, "long",
             "added queue size", true, false, false));
 
+    // operations added and selector wakeups issued for them
+    attributes.add(new MBeanAttributeInfo(ADDED_OPS, "long",
+            "added operation count", true, false, false));
+    attributes.add(new MBeanAttributeInfo(WAKEUPS, "long",
+            "selector wakeup count", true, false, false));
+
+    // reads sent also to another node of the replica group, and won by it
+    attributes.add(new MBeanAttributeInfo(HEDGED_READS, "long",
+            "hedged read count", true, false, false));
+    attributes.add(new MBeanAttributeInfo(HEDGED_READ_WINS, "long",
+            "hedged read win count", true, false, false));
+
     // statistics information on each connection
     for (Entry<String, MemcachedNode> entry : nodes.entrySet()) {
       // reconnect count
@@ -169,6 +207,11 @@ public class StatisticsHandler extends SpyObject implements DynamicMBean {
       attributes.add(new MBeanAttributeInfo(VERSION + DELIMETER
               + entry.getValue().getSocketAddress().toString(), "String",
               "version", true, false, false));
+
+      // circuit breaker state
+      attributes.add(new MBeanAttributeInfo(CIRCUIT_STATE + DELIMETER
+              + entry.getValue().getSocketAddress().toString(), "String",
+              "circuit breaker state", true, false, false));
     }
 
     getLogger().debug("retrieve client statistics mbean informations.");
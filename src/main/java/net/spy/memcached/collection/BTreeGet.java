@@ -19,6 +19,7 @@ package net.spy.memcached.collection;
 import java.util.List;
 
 import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public class BTreeGet extends CollectionGet {
 
@@ -122,4 +123,15 @@ public class BTreeGet extends CollectionGet {
       dataLength = Integer.parseInt(tokens.get(2));
     }
   }
+
+  @Override
+  public void decodeElemHeader(ResponseTokenizer tokens) {
+    subkey = tokens.stringToken(0);
+    if (tokens.tokens() == 2) {
+      dataLength = tokens.intToken(1);
+    } else {
+      elementFlag = tokens.hexToken(1);
+      dataLength = tokens.intToken(2);
+    }
+  }
 }
@@ -19,6 +19,7 @@ package net.spy.memcached.collection;
 import java.util.List;
 
 import net.spy.memcached.MemcachedNode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public interface BTreeGetBulk<T> {
 
@@ -44,7 +45,18 @@ public interface BTreeGetBulk<T> {
 
   byte[] getEFlag();
 
-  void decodeItemHeader(String[] splited);
+  void decodeItemHeader(ResponseTokenizer header);
 
   BTreeGetBulk<T> clone(MemcachedNode node, List<String> keyList);
+
+  /**
+   * Make the request of the next elements of keys in this request,
+   * which follow the given bkey in the range.
+   *
+   * @param keys     item keys whose last fetched elements have the given bkey
+   * @param lastBkey bkey of the last element fetched from the keys
+   * @param count    number of elements to retrieve
+   * @return the request, or null if no bkey follows the given bkey in the range
+   */
+  BTreeGetBulk<T> nextPage(List<String> keys, Object lastBkey, int count);
 }
@@ -20,7 +20,7 @@ import java.util.List;
 
 import net.spy.memcached.KeyUtil;
 import net.spy.memcached.MemcachedNode;
-import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public abstract class BTreeGetBulkImpl<T> implements BTreeGetBulk<T> {
 
@@ -115,17 +115,17 @@ public abstract class BTreeGetBulkImpl<T> implements BTreeGetBulk<T> {
     return str;
   }
 
-  public void decodeItemHeader(String[] splited) {
-    if (splited.length == 3) {
+  public void decodeItemHeader(ResponseTokenizer header) {
+    if (header.tokens() == 3) {
       // ELEMENT <bkey> <bytes>
-      this.bkey = decodeBkey(splited[1]);
-      this.dataLength = Integer.parseInt(splited[2]);
+      this.bkey = decodeBkey(header, 1);
+      this.dataLength = header.intToken(2);
       this.eflag = null;
-    } else if (splited.length == 4) {
+    } else if (header.tokens() == 4) {
       // ELEMENT <bkey> <eflag> <bytes>
-      this.bkey = decodeBkey(splited[1]);
-      this.eflag = BTreeUtil.hexStringToByteArrays(splited[2].substring(2));
-      this.dataLength = Integer.parseInt(splited[3]);
+      this.bkey = decodeBkey(header, 1);
+      this.eflag = header.hexToken(2);
+      this.dataLength = header.intToken(3);
     }
   }
 
@@ -145,5 +145,13 @@ public abstract class BTreeGetBulkImpl<T> implements BTreeGetBulk<T> {
     return eflag;
   }
 
-  protected abstract Object decodeBkey(String bkey);
+  /**
+   * Get the bounds of this range, or null if the range is a single bkey.
+   */
+  protected String[] rangeBounds() {
+    int idx = range.indexOf("..");
+    return idx < 0 ? null : new String[]{range.substring(0, idx), range.substring(idx + 2)};
+  }
+
+  protected abstract Object decodeBkey(ResponseTokenizer header, int index);
 }
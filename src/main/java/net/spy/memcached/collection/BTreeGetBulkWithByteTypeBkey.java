@@ -20,6 +20,7 @@ import java.util.List;
 
 import net.spy.memcached.MemcachedNode;
 import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public class BTreeGetBulkWithByteTypeBkey<T> extends BTreeGetBulkImpl<T> {
 
@@ -42,8 +43,8 @@ public class BTreeGetBulkWithByteTypeBkey<T> extends BTreeGetBulkImpl<T> {
     return (byte[]) bkey;
   }
 
-  protected Object decodeBkey(String bkey) {
-    return BTreeUtil.hexStringToByteArrays(bkey.substring(2));
+  protected Object decodeBkey(ResponseTokenizer header, int index) {
+    return header.hexToken(index);
   }
 
   @Override
@@ -51,4 +52,22 @@ public class BTreeGetBulkWithByteTypeBkey<T> extends BTreeGetBulkImpl<T> {
     return new BTreeGetBulkWithByteTypeBkey<>(node, keyList,
             range, eFlagFilter, offset, count);
   }
+
+  @Override
+  public BTreeGetBulk<T> nextPage(List<String> keys, Object lastBkey, int count) {
+    String[] bounds = rangeBounds();
+    if (bounds == null) {
+      return null;
+    }
+    byte[] to = BTreeUtil.hexStringToByteArrays(bounds[1]);
+    int order = BTreeUtil.compareByteArraysInLexOrder(
+            BTreeUtil.hexStringToByteArrays(bounds[0]), to) > 0 ? -1 : 1;
+    // resume after the last bkey, not at it, in case its element has been deleted.
+    byte[] next = BTreeUtil.adjacentByteArrayBKey((byte[]) lastBkey, order < 0);
+    if (next == null || BTreeUtil.compareByteArraysInLexOrder(next, to) * order > 0) {
+      return null;
+    }
+    return new BTreeGetBulkWithByteTypeBkey<>(getMemcachedNode(), keys,
+            BTreeUtil.toHex(next) + ".." + bounds[1], eFlagFilter, 0, count);
+  }
 }
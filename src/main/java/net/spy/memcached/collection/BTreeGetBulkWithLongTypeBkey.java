@@ -19,6 +19,7 @@ package net.spy.memcached.collection;
 import java.util.List;
 
 import net.spy.memcached.MemcachedNode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public class BTreeGetBulkWithLongTypeBkey<T> extends BTreeGetBulkImpl<T> {
 
@@ -40,8 +41,8 @@ public class BTreeGetBulkWithLongTypeBkey<T> extends BTreeGetBulkImpl<T> {
     return (Long) bkey;
   }
 
-  protected Object decodeBkey(String bkey) {
-    return Long.parseLong(bkey);
+  protected Object decodeBkey(ResponseTokenizer header, int index) {
+    return header.longToken(index);
   }
 
   @Override
@@ -49,4 +50,17 @@ public class BTreeGetBulkWithLongTypeBkey<T> extends BTreeGetBulkImpl<T> {
     return new BTreeGetBulkWithLongTypeBkey<>(node, keyList,
             range, eFlagFilter, offset, count);
   }
+
+  @Override
+  public BTreeGetBulk<T> nextPage(List<String> keys, Object lastBkey, int count) {
+    String[] bounds = rangeBounds();
+    long last = (Long) lastBkey;
+    if (bounds == null || last == Long.parseLong(bounds[1])) {
+      return null;
+    }
+    // resume after the last bkey, not at it, in case its element has been deleted.
+    long next = Long.parseLong(bounds[0]) > Long.parseLong(bounds[1]) ? last - 1 : last + 1;
+    return new BTreeGetBulkWithLongTypeBkey<>(getMemcachedNode(), keys,
+            next + ".." + bounds[1], eFlagFilter, 0, count);
+  }
 }
@@ -20,6 +20,7 @@ package net.spy.memcached.collection;
 import java.util.List;
 
 import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Ascii protocol implementation for "bop gbp" (B+Tree get by position)
@@ -113,6 +114,22 @@ public class BTreeGetByPosition extends CollectionGet {
     }
   }
 
+  @Override
+  public void decodeElemHeader(ResponseTokenizer tokens) {
+    subkey = tokens.stringToken(0);
+    if (tokens.tokenStartsWith(0, "0x")) {
+      bkey = new BKeyObject(tokens.hexToken(0));
+    } else {
+      bkey = new BKeyObject(tokens.longToken(0));
+    }
+    if (tokens.tokens() == 2) {
+      dataLength = tokens.intToken(1);
+    } else {
+      elementFlag = tokens.hexToken(1);
+      dataLength = tokens.intToken(2);
+    }
+  }
+
   public BKeyObject getBkey() {
     return bkey;
   }
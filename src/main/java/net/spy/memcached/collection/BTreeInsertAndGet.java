@@ -20,6 +20,7 @@ package net.spy.memcached.collection;
 import java.util.List;
 
 import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Ascii protocol implementation for store and get(trimmed) operations
@@ -81,6 +82,22 @@ public class BTreeInsertAndGet<T> extends CollectionGet {
     }
   }
 
+  @Override
+  public void decodeElemHeader(ResponseTokenizer tokens) {
+    subkey = tokens.stringToken(0);
+    if (tokens.tokenStartsWith(0, "0x")) {
+      bKey = new BKeyObject(tokens.hexToken(0));
+    } else {
+      bKey = new BKeyObject(tokens.longToken(0));
+    }
+    if (tokens.tokens() == 2) {
+      dataLength = tokens.intToken(1);
+    } else {
+      elementFlag = tokens.hexToken(1);
+      dataLength = tokens.intToken(2);
+    }
+  }
+
   @Override
   public byte[] getAdditionalArgs() {
     return null;
@@ -19,6 +19,7 @@ package net.spy.memcached.collection;
 import java.util.List;
 
 import net.spy.memcached.MemcachedNode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public interface BTreeSMGet<T> {
 
@@ -48,7 +49,7 @@ public interface BTreeSMGet<T> {
 
   byte[] getEflag();
 
-  void decodeItemHeader(String itemHeader);
+  void decodeItemHeader(ResponseTokenizer header);
 
   BTreeSMGet<T> clone(MemcachedNode node, List<String> keyList);
 }
@@ -21,7 +21,7 @@ import java.util.List;
 
 import net.spy.memcached.KeyUtil;
 import net.spy.memcached.MemcachedNode;
-import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public abstract class BTreeSMGetImpl<T> implements BTreeSMGet<T> {
   private static final String COMMAND = "bop smget";
@@ -132,24 +132,23 @@ public abstract class BTreeSMGetImpl<T> implements BTreeSMGet<T> {
     return eflag;
   }
 
-  public void decodeItemHeader(String itemHeader) {
-    String[] splited = itemHeader.split(" ");
+  public void decodeItemHeader(ResponseTokenizer header) {
     // <key> <flags> <bkey> [<eflag>] <bytes>
 
-    this.key = splited[0];
-    this.flags = Integer.parseInt(splited[1]);
-    this.bkey = decodeBkey(splited[2]);
+    this.key = header.stringToken(0);
+    this.flags = header.intToken(1);
+    this.bkey = decodeBkey(header, 2);
 
-    if (splited.length == 4) {
+    if (header.tokens() == 4) {
       // <key> <flags> <bkey> <bytes>
       this.eflag = null;
-      this.dataLength = Integer.parseInt(splited[3]);
-    } else if (splited.length == 5) {
+      this.dataLength = header.intToken(3);
+    } else if (header.tokens() == 5) {
       // <key> <flags> <bkey> <eflag> <bytes>
-      this.eflag = BTreeUtil.hexStringToByteArrays(splited[3].substring(2));
-      this.dataLength = Integer.parseInt(splited[4]);
+      this.eflag = header.hexToken(3);
+      this.dataLength = header.intToken(4);
     }
   }
 
-  protected abstract Object decodeBkey(String bkey);
+  protected abstract Object decodeBkey(ResponseTokenizer header, int index);
 }
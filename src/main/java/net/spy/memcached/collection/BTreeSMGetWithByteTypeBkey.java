@@ -20,6 +20,7 @@ import java.util.List;
 
 import net.spy.memcached.MemcachedNode;
 import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public class BTreeSMGetWithByteTypeBkey<T> extends BTreeSMGetImpl<T> {
 
@@ -44,8 +45,8 @@ public class BTreeSMGetWithByteTypeBkey<T> extends BTreeSMGetImpl<T> {
   }
 
   @Override
-  protected Object decodeBkey(String bkey) {
-    return BTreeUtil.hexStringToByteArrays(bkey.substring(2));
+  protected Object decodeBkey(ResponseTokenizer header, int index) {
+    return header.hexToken(index);
   }
 
   @Override
@@ -19,6 +19,7 @@ package net.spy.memcached.collection;
 import java.util.List;
 
 import net.spy.memcached.MemcachedNode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public class BTreeSMGetWithLongTypeBkey<T> extends BTreeSMGetImpl<T> {
 
@@ -42,8 +43,8 @@ public class BTreeSMGetWithLongTypeBkey<T> extends BTreeSMGetImpl<T> {
   }
 
   @Override
-  protected Object decodeBkey(String bkey) {
-    return Long.parseLong(bkey);
+  protected Object decodeBkey(ResponseTokenizer header, int index) {
+    return header.longToken(index);
   }
 
   @Override
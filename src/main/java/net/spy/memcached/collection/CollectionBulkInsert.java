@@ -20,6 +20,7 @@ package net.spy.memcached.collection;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import net.spy.memcached.CachedData;
 import net.spy.memcached.KeyUtil;
@@ -31,6 +32,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
   protected final List<String> keyList;
   protected final CachedData cachedData;
   protected final CollectionAttributes attribute;
+  private boolean noreply = false;
 
   protected CollectionBulkInsert(MemcachedNode node, List<String> keyList,
                                  CachedData cachedData, CollectionAttributes attribute) {
@@ -53,6 +55,24 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
     return node;
   }
 
+  /**
+   * Send each command with the noreply option instead of the pipe option.
+   */
+  public void setNoreply(boolean noreply) {
+    this.noreply = noreply;
+  }
+
+  public boolean isNoreply() {
+    return noreply;
+  }
+
+  protected String getRequestMode(int index, int keyCount) {
+    if (noreply) {
+      return RequestMode.NO_REPLY.getAscii();
+    }
+    return (index < keyCount - 1) ? PIPE : "";
+  }
+
   public abstract CollectionBulkInsert<T> clone(MemcachedNode node,
                                                 List<String> keyList);
 
@@ -76,7 +96,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       this.eflag = eflag;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // estimate the buffer capacity
@@ -89,7 +109,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       capacity += eachExtraSize * keyList.size();
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       int kSize = this.keyList.size();
@@ -99,7 +119,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       for (int i = this.nextOpIndex; i < kSize; i++) {
         String key = keyList.get(i);
         setArguments(bb, COMMAND, key, bkey, (eflag != null) ? eflag : "", value.length,
-                     createOption,  (i < kSize - 1) ? PIPE : "");
+                     createOption,  getRequestMode(i, kSize));
         bb.put(value);
         bb.put(CRLF);
       }
@@ -131,7 +151,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       this.mkey = mkey;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // estimate the buffer capacity
@@ -143,7 +163,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       capacity += eachExtraSize * keyList.size();
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       int kSize = this.keyList.size();
@@ -153,7 +173,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       for (int i = this.nextOpIndex; i < kSize; i++) {
         String key = keyList.get(i);
         setArguments(bb, COMMAND, key, mkey, value.length,
-                     createOption, (i < kSize - 1) ? PIPE : "");
+                     createOption, getRequestMode(i, kSize));
         bb.put(value);
         bb.put(CRLF);
       }
@@ -183,7 +203,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       }
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // estimate the buffer capacity
@@ -194,7 +214,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       capacity += eachExtraSize * keyList.size();
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       int kSize = this.keyList.size();
@@ -204,7 +224,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       for (int i = this.nextOpIndex; i < kSize; i++) {
         String key = keyList.get(i);
         setArguments(bb, COMMAND, key, value.length,
-                     createOption, (i < kSize - 1) ? PIPE : "");
+                     createOption, getRequestMode(i, kSize));
         bb.put(value);
         bb.put(CRLF);
       }
@@ -235,7 +255,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       this.index = index;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // estimate the buffer capacity
@@ -247,7 +267,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       capacity += eachExtraSize * keyList.size();
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       int kSize = keyList.size();
@@ -257,7 +277,7 @@ public abstract class CollectionBulkInsert<T> extends CollectionPipe {
       for (int i = this.nextOpIndex; i < kSize; i++) {
         String key = this.keyList.get(i);
         setArguments(bb, COMMAND, key, index, value.length,
-                     createOption, (i < kSize - 1) ? PIPE : "");
+                     createOption, getRequestMode(i, kSize));
         bb.put(value);
         bb.put(CRLF);
       }
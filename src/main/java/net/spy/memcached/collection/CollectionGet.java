@@ -18,7 +18,10 @@ package net.spy.memcached.collection;
 
 import java.util.List;
 
-public abstract class CollectionGet {
+import net.spy.memcached.util.ResponseTokenizer;
+
+
+public abstract class CollectionGet implements Cloneable {
 
   protected boolean delete = false;
   protected boolean dropIfEmpty = false;
@@ -60,6 +63,18 @@ public abstract class CollectionGet {
     return eHeadCount;
   }
 
+  /**
+   * Copy this get for another operation, which has its own state
+   * of decoding the elements.
+   */
+  public CollectionGet copy() {
+    try {
+      return (CollectionGet) super.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   public abstract byte[] getAdditionalArgs();
 
   public abstract String stringify();
@@ -67,4 +82,11 @@ public abstract class CollectionGet {
   public abstract String getCommand();
 
   public abstract void decodeElemHeader(List<String> tokens);
+
+  /**
+   * Decode the element header from the tokens of the response.
+   */
+  public void decodeElemHeader(ResponseTokenizer tokens) {
+    decodeElemHeader(tokens.toList());
+  }
 }
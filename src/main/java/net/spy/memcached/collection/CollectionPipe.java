@@ -1,6 +1,7 @@
 package net.spy.memcached.collection;
 
 import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
 
 public abstract class CollectionPipe extends CollectionObject {
 
@@ -46,5 +47,14 @@ public abstract class CollectionPipe extends CollectionObject {
     throw new RuntimeException("not supported in binary protocol yet.");
   }
 
-  public abstract ByteBuffer getAsciiCommand();
+  public ByteBuffer getAsciiCommand() {
+    return getAsciiCommand(ByteBuffer::allocate);
+  }
+
+  /**
+   * Encode the ascii command into a buffer given by the allocator.
+   *
+   * @param allocator allocates a buffer of at least the given capacity
+   */
+  public abstract ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator);
 }
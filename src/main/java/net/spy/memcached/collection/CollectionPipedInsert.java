@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 import net.spy.memcached.CachedData;
 import net.spy.memcached.KeyUtil;
@@ -61,7 +62,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       this.list = list;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // encode values
@@ -82,7 +83,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       }
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       int eSize = encodedList.size();
@@ -124,7 +125,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       this.set = set;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // encode values
@@ -145,7 +146,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       }
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       int eSize = encodedList.size();
@@ -183,7 +184,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       this.map = map;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // encode parameters
@@ -208,7 +209,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       }
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       String createOption = attribute != null ?
@@ -246,7 +247,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       this.elements = elements;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // encode parameters
@@ -271,7 +272,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       }
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       String createOption = attribute != null ?
@@ -310,7 +311,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       this.map = map;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // encode values
@@ -335,7 +336,7 @@ public abstract class CollectionPipedInsert<T> extends CollectionPipe {
       }
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       String createOption = attribute != null ?
@@ -22,6 +22,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 import net.spy.memcached.CachedData;
 import net.spy.memcached.KeyUtil;
@@ -49,7 +50,7 @@ public abstract class CollectionPipedUpdate<T> extends CollectionPipe {
       this.elements = elements;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // encode parameters
@@ -93,7 +94,7 @@ public abstract class CollectionPipedUpdate<T> extends CollectionPipe {
       }
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       for (i = 0; i < eSize; i++) {
@@ -146,7 +147,7 @@ public abstract class CollectionPipedUpdate<T> extends CollectionPipe {
       this.elements = elements;
     }
 
-    public ByteBuffer getAsciiCommand() {
+    public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
       int capacity = 0;
 
       // encode parameters
@@ -172,7 +173,7 @@ public abstract class CollectionPipedUpdate<T> extends CollectionPipe {
       }
 
       // allocate the buffer
-      ByteBuffer bb = ByteBuffer.allocate(capacity);
+      ByteBuffer bb = allocator.apply(capacity);
 
       // create ascii operation string
       StringBuilder b;
@@ -18,6 +18,9 @@ package net.spy.memcached.collection;
 
 import java.util.List;
 
+import net.spy.memcached.util.ResponseTokenizer;
+
+
 public class ListGet extends CollectionGet {
 
   private static final String COMMAND = "lop get";
@@ -69,4 +72,9 @@ public class ListGet extends CollectionGet {
   public void decodeElemHeader(List<String> tokens) {
     this.dataLength = Integer.parseInt(tokens.get(0));
   }
+
+  @Override
+  public void decodeElemHeader(ResponseTokenizer tokens) {
+    this.dataLength = tokens.intToken(0);
+  }
 }
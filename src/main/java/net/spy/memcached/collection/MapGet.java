@@ -18,6 +18,9 @@ package net.spy.memcached.collection;
 
 import java.util.List;
 
+import net.spy.memcached.util.ResponseTokenizer;
+
+
 public class MapGet extends CollectionGet {
 
   private static final String COMMAND = "mop get";
@@ -101,4 +104,10 @@ public class MapGet extends CollectionGet {
     this.subkey = tokens.get(0);
     this.dataLength = Integer.parseInt(tokens.get(1));
   }
+
+  @Override
+  public void decodeElemHeader(ResponseTokenizer tokens) {
+    this.subkey = tokens.stringToken(0);
+    this.dataLength = tokens.intToken(1);
+  }
 }
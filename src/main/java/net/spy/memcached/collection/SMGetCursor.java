@@ -0,0 +1,106 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.collection;
+
+import java.util.Objects;
+
+import net.spy.memcached.util.BTreeUtil;
+
+/**
+ * Position of the last element of a sort-merge get page,
+ * from which the next page of the same keys and bkey range is fetched.
+ *
+ * <p>A cursor can be passed around as an opaque string by {@link #encode()}
+ * and {@link #decode(String)}.</p>
+ */
+public final class SMGetCursor {
+
+  private final String key;
+  private final BKeyObject bKeyObject;
+
+  public SMGetCursor(String key, BKeyObject bKeyObject) {
+    if (key == null || bKeyObject == null) {
+      throw new IllegalArgumentException("key or bkey cannot be null");
+    }
+    this.key = key;
+    this.bKeyObject = bKeyObject;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public BKeyObject getBkeyObject() {
+    return bKeyObject;
+  }
+
+  /**
+   * Check whether the elements of the given key at the bkey of this cursor
+   * come after this cursor in the order of the sort-merge get.
+   *
+   * @param key     item key
+   * @param reverse true if the bkeys are in descending order
+   */
+  public boolean isBefore(String key, boolean reverse) {
+    int comp = this.key.compareTo(key);
+    return (reverse) ? (comp > 0) : (comp < 0);
+  }
+
+  public String encode() {
+    return bKeyObject + ":" + key;
+  }
+
+  public static SMGetCursor decode(String token) {
+    int idx = (token == null) ? -1 : token.indexOf(':');
+    if (idx < 1 || idx == token.length() - 1) {
+      throw new IllegalArgumentException("Invalid smget cursor : " + token);
+    }
+    String bkey = token.substring(0, idx);
+    try {
+      BKeyObject bKeyObject = bkey.startsWith("0x")
+          ? new BKeyObject(BTreeUtil.hexStringToByteArrays(bkey))
+          : new BKeyObject(Long.parseLong(bkey));
+      return new SMGetCursor(token.substring(idx + 1), bKeyObject);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid smget cursor : " + token, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SMGetCursor {KEY:" + key + ", BKEY:" + bKeyObject + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SMGetCursor)) {
+      return false;
+    }
+
+    SMGetCursor that = (SMGetCursor) o;
+    return key.equals(that.key) && bKeyObject.equals(that.bKeyObject);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(key, bKeyObject);
+  }
+}
@@ -21,6 +21,7 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import net.spy.memcached.CachedData;
 import net.spy.memcached.KeyUtil;
@@ -45,7 +46,7 @@ public class SetPipedExist<T> extends CollectionPipe {
     this.tc = tc;
   }
 
-  public ByteBuffer getAsciiCommand() {
+  public ByteBuffer getAsciiCommand(IntFunction<ByteBuffer> allocator) {
     int capacity = 0;
 
     // encode values
@@ -66,7 +67,7 @@ public class SetPipedExist<T> extends CollectionPipe {
     }
 
     // allocate the buffer
-    ByteBuffer bb = ByteBuffer.allocate(capacity);
+    ByteBuffer bb = allocator.apply(capacity);
 
     // create ascii operation string
     int eSize = encodedList.size();
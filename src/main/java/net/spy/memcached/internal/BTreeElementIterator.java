@@ -0,0 +1,53 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import net.spy.memcached.collection.Element;
+
+/**
+ * Lazy iterator over the elements of a b+tree range, fetched page by page.
+ *
+ * <p>Each page is fetched from the bkey next to the last element of the previous page,
+ * so the server does not scan the elements of the previous pages again.
+ * The next page is requested as soon as a full page arrives, and a page
+ * with less elements than the page size ends the iteration.</p>
+ */
+public final class BTreeElementIterator<T> extends CollectionScanIterator<Element<T>> {
+
+  /**
+   * @param pageFetcher function requesting the page following the given last element,
+   *                    or the first page if null. It returns null if no page follows.
+   * @param pageSize    count of the elements requested by a page
+   */
+  public BTreeElementIterator(
+          Function<Element<T>, CollectionFuture<? extends Map<?, Element<T>>>> pageFetcher,
+          int pageSize) {
+    super(page -> {
+      if (page == null) {
+        return pageFetcher.apply(null);
+      }
+      if (page.size() < pageSize) {
+        return null;
+      }
+      return pageFetcher.apply(page.get(page.size() - 1));
+    }, Map::values);
+  }
+}
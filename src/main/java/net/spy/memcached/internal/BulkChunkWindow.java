@@ -0,0 +1,151 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.MemcachedNode;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationState;
+
+/**
+ * Sender of the chunk operations of a bulk request, keeping up to a window
+ * of the chunks of each node in flight.
+ *
+ * Not intended for general use.
+ *
+ * <p>The next chunk of a node is sent whenever a chunk of the node completes,
+ * so that the other requests to the node are not queued behind all the chunks
+ * of a large bulk request. Once a chunk of a node is cancelled, the chunks
+ * of the node not sent yet are cancelled instead of being sent.</p>
+ */
+public final class BulkChunkWindow {
+
+  private final MemcachedClient client;
+  private final int window;
+  private final Map<MemcachedNode, List<Operation>> chunks = new LinkedHashMap<>();
+  // chunks of the nodes having more chunks than the window.
+  private final Map<MemcachedNode, NodeChunks> pending = new HashMap<>();
+
+  public BulkChunkWindow(MemcachedClient client, int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Chunk window must be positive.");
+    }
+    this.client = client;
+    this.window = window;
+  }
+
+  /**
+   * Add a chunk operation to send to the node. All the chunks must be added
+   * before {@link #send()}, and the callback of each chunk must call
+   * {@link #chunkCompleted(MemcachedNode)} when it completes.
+   */
+  public void add(MemcachedNode node, Operation op) {
+    chunks.computeIfAbsent(node, k -> new ArrayList<>()).add(op);
+  }
+
+  /**
+   * Send the first window of the chunks of each node.
+   */
+  public void send() {
+    for (Map.Entry<MemcachedNode, List<Operation>> entry : chunks.entrySet()) {
+      List<Operation> ops = entry.getValue();
+      if (ops.size() > window) {
+        NodeChunks nodeChunks = new NodeChunks(ops.subList(window, ops.size()));
+        nodeChunks.sent.addAll(ops.subList(0, window));
+        pending.put(entry.getKey(), nodeChunks);
+      }
+    }
+    for (Map.Entry<MemcachedNode, List<Operation>> entry : chunks.entrySet()) {
+      List<Operation> ops = entry.getValue();
+      for (int i = 0; i < ops.size() && i < window; i++) {
+        client.addOp(entry.getKey(), ops.get(i));
+      }
+    }
+  }
+
+  /**
+   * Send the next chunk of the node, if any,
+   * or cancel the chunks not sent yet if a chunk of the node is cancelled.
+   */
+  public void chunkCompleted(MemcachedNode node) {
+    NodeChunks nodeChunks = pending.get(node);
+    if (nodeChunks == null) {
+      return;
+    }
+    if (!nodeChunks.stopped && nodeChunks.isSentChunkCancelled()) {
+      nodeChunks.stopped = true;
+    }
+    Operation op;
+    while (!nodeChunks.stopped && (op = nodeChunks.unsent.poll()) != null) {
+      if (op.isCancelled()) {
+        nodeChunks.stopped = true;
+        break;
+      }
+      nodeChunks.sent.add(op);
+      try {
+        client.addOp(node, op);
+        return;
+      } catch (IllegalStateException e) {
+        // the client is shut down.
+        nodeChunks.stopped = true;
+        op.cancel("bulk chunk not sent: " + e.getMessage());
+      }
+    }
+    // the chunks cancelled here call this again, so only one call drains them.
+    if (nodeChunks.stopped && nodeChunks.cancelling.compareAndSet(false, true)) {
+      while ((op = nodeChunks.unsent.poll()) != null) {
+        op.cancel("previous bulk chunk cancelled");
+      }
+    }
+  }
+
+  private static final class NodeChunks {
+    private final Queue<Operation> unsent;
+    // chunks sent and not seen completed yet.
+    private final Queue<Operation> sent = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean cancelling = new AtomicBoolean(false);
+    private volatile boolean stopped = false;
+
+    private NodeChunks(List<Operation> unsent) {
+      this.unsent = new ConcurrentLinkedQueue<>(unsent);
+    }
+
+    private boolean isSentChunkCancelled() {
+      for (Iterator<Operation> it = sent.iterator(); it.hasNext(); ) {
+        Operation op = it.next();
+        if (op.isCancelled()) {
+          return true;
+        }
+        if (op.getState() == OperationState.COMPLETE) {
+          it.remove();
+        }
+      }
+      return false;
+    }
+  }
+}
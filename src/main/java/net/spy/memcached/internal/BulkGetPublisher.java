@@ -0,0 +1,274 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.spy.memcached.CachedData;
+import net.spy.memcached.compat.log.Logger;
+import net.spy.memcached.compat.log.LoggerFactory;
+import net.spy.memcached.ops.CloneAwareCallback;
+import net.spy.memcached.ops.GetOperation;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.transcoders.Transcoder;
+
+/**
+ * Publisher of the values of a streaming bulk get.
+ *
+ * Not intended for general use.
+ *
+ * <p>The operation callbacks queue the values as received, and the values
+ * are decoded and delivered to the subscriber as they are requested,
+ * by the thread that receives a value or requests more of them.
+ * The signals are serialized so that the subscriber is called
+ * by one thread at a time.</p>
+ *
+ * <p>The next chunk of a node is sent when a chunk completes only while
+ * fewer values than the buffer limit wait for the subscriber to request them.
+ * Otherwise it is held until the subscriber has taken enough of them,
+ * so that a slow subscriber does not buffer all the values of the get.</p>
+ *
+ * @param <T> types of the values
+ */
+public class BulkGetPublisher<T> implements BulkGetSubscription {
+
+  private static final OperationStatus UNKNOWN_STATUS =
+          new OperationStatus(false, "UNDEFINED", StatusCode.UNDEFINED);
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final Transcoder<T> tc;
+  private final BulkGetSubscriber<T> subscriber;
+  private final int bufferLimit;
+  private final Queue<Object> signals = new ConcurrentLinkedQueue<>();
+  // values received and not delivered yet.
+  private final AtomicInteger buffered = new AtomicInteger();
+  // senders of the next chunks, held while the buffer is full.
+  private final Queue<Runnable> heldSends = new ConcurrentLinkedQueue<>();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final Collection<Operation> ops = new ArrayList<>();
+  // operations cloned from the operations, when their keys are redirected.
+  private final Queue<Operation> clones = new ConcurrentLinkedQueue<>();
+  private volatile boolean cancelled = false;
+  // accessed only in drain().
+  private int remaining = 0;
+  private boolean done = false;
+
+  public BulkGetPublisher(Transcoder<T> tc, BulkGetSubscriber<T> subscriber,
+                          int bufferLimit) {
+    if (bufferLimit < 1) {
+      throw new IllegalArgumentException("Buffer limit must be positive.");
+    }
+    this.tc = tc;
+    this.subscriber = subscriber;
+    this.bufferLimit = bufferLimit;
+  }
+
+  /**
+   * Make the callback of an operation getting the given keys, which runs
+   * the given sender of the next chunk when the operation completes.
+   * All the operations must be added before {@link #start()}.
+   */
+  public GetOperation.Callback newCallback(final List<String> keys, final Runnable sendNext) {
+    remaining++;
+    return new GetCallback() {
+      private OperationStatus status = UNKNOWN_STATUS;
+
+      @Override
+      public void cloned(Operation clone) {
+        clones.offer(clone);
+        if (cancelled) {
+          clone.cancel("by application.");
+        }
+      }
+
+      @Override
+      public void gotData(String key, int flags, byte[] data) {
+        buffered.incrementAndGet();
+        signals.offer(new Value(key, new CachedData(flags, data, tc.getMaxSize())));
+        drain();
+      }
+
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        this.status = status;
+      }
+
+      @Override
+      public void complete() {
+        signals.offer(new NodeComplete(keys, status));
+        drain();
+        if (buffered.get() < bufferLimit) {
+          sendNext.run();
+        } else {
+          heldSends.offer(sendNext);
+          // the subscriber may have taken the values meanwhile.
+          releaseHeldSends();
+        }
+      }
+    };
+  }
+
+  public void addOperation(Operation op) {
+    ops.add(op);
+  }
+
+  /**
+   * Subscribe the subscriber. Call this before adding the operations to the connection.
+   */
+  public void start() {
+    // hold the signals requested in onSubscribe until it returns.
+    wip.incrementAndGet();
+    subscriber.onSubscribe(this);
+    drainLoop();
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      throw new IllegalArgumentException("Request must be positive: " + n);
+    }
+    long current;
+    long next;
+    do {
+      current = requested.get();
+      if (current == Long.MAX_VALUE) {
+        return;
+      }
+      next = current + n;
+      if (next < 0) {
+        next = Long.MAX_VALUE;
+      }
+    } while (!requested.compareAndSet(current, next));
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    if (cancelled) {
+      return;
+    }
+    cancelled = true;
+    heldSends.clear();
+    for (Operation op : ops) {
+      op.cancel("by application.");
+    }
+    for (Operation clone : clones) {
+      clone.cancel("by application.");
+    }
+    drain();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    drainLoop();
+  }
+
+  private void drainLoop() {
+    int missed = 1;
+    do {
+      if (cancelled) {
+        signals.clear();
+      } else {
+        try {
+          emit();
+        } catch (RuntimeException e) {
+          logger.warn("Subscriber of bulk get failed. Cancelling the get.", e);
+          cancel();
+        }
+        releaseHeldSends();
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void releaseHeldSends() {
+    Runnable sendNext;
+    while (!cancelled && buffered.get() < bufferLimit && (sendNext = heldSends.poll()) != null) {
+      sendNext.run();
+    }
+  }
+
+  private void emit() {
+    Object signal;
+    while (!done && (signal = signals.peek()) != null) {
+      if (signal instanceof Value) {
+        long r = requested.get();
+        if (r == 0) {
+          return;
+        }
+        signals.poll();
+        buffered.decrementAndGet();
+        if (r != Long.MAX_VALUE) {
+          requested.decrementAndGet();
+        }
+        Value v = (Value) signal;
+        subscriber.onNext(v.key, tc.decode(v.data));
+      } else {
+        signals.poll();
+        NodeComplete nc = (NodeComplete) signal;
+        remaining--;
+        subscriber.onNodeComplete(nc.keys, nc.status);
+      }
+      if (cancelled) {
+        return;
+      }
+    }
+    if (!done && remaining == 0) {
+      done = true;
+      subscriber.onComplete();
+    }
+  }
+
+  private interface GetCallback extends GetOperation.Callback, CloneAwareCallback {
+  }
+
+  private static final class Value {
+    private final String key;
+    private final CachedData data;
+
+    private Value(String key, CachedData data) {
+      this.key = key;
+      this.data = data;
+    }
+  }
+
+  private static final class NodeComplete {
+    private final List<String> keys;
+    private final OperationStatus status;
+
+    private NodeComplete(List<String> keys, OperationStatus status) {
+      this.keys = keys;
+      this.status = status;
+    }
+  }
+}
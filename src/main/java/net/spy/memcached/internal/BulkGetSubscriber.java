@@ -0,0 +1,68 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.List;
+
+import net.spy.memcached.ops.OperationStatus;
+
+/**
+ * Receiver of the values of a streaming bulk get, as each node answers.
+ *
+ * <p>The signals are delivered one at a time, in the order of
+ * {@code onSubscribe}, {@code onNext} and {@code onNodeComplete}
+ * in any number, and finally {@code onComplete}.
+ * The values are delivered only as many as requested with
+ * {@link BulkGetSubscription#request(long)}.</p>
+ *
+ * <p>The signals may be delivered on an IO thread of the client,
+ * so the methods should not block.</p>
+ *
+ * @param <T> type of the values
+ */
+public interface BulkGetSubscriber<T> {
+
+  /**
+   * Called once before any other signal.
+   *
+   * @param subscription subscription to request values or to cancel the get
+   */
+  void onSubscribe(BulkGetSubscription subscription);
+
+  /**
+   * Called for each key found in the cache.
+   *
+   * @param key   the key
+   * @param value the decoded value of the key
+   */
+  void onNext(String key, T value);
+
+  /**
+   * Called when a node has answered for a chunk of the keys, after all the
+   * values of the chunk. The keys not delivered to {@link #onNext} are not found.
+   *
+   * @param keys   the keys of the chunk
+   * @param status the status of the node response
+   */
+  void onNodeComplete(List<String> keys, OperationStatus status);
+
+  /**
+   * Called once after all the nodes have answered.
+   */
+  void onComplete();
+}
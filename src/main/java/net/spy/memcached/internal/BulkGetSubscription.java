@@ -0,0 +1,38 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+/**
+ * Subscription of a streaming bulk get.
+ */
+public interface BulkGetSubscription {
+
+  /**
+   * Request more values to be delivered. The values that arrive before they
+   * are requested are kept as received, and decoded when they are delivered.
+   *
+   * @param n number of values to add to the demand, or {@link Long#MAX_VALUE} for all
+   * @throws IllegalArgumentException if n is not positive
+   */
+  void request(long n);
+
+  /**
+   * Cancel the operations not completed yet, and stop delivering signals.
+   */
+  void cancel();
+}
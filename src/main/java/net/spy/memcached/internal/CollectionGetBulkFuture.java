@@ -39,6 +39,7 @@ public class CollectionGetBulkFuture<T> implements Future<T> {
   private final long timeout;
   private final CountDownLatch latch;
   private final GetResult<T> result;
+  private volatile boolean cancelled = false;
 
   public CollectionGetBulkFuture(CountDownLatch latch, Collection<Operation> ops,
                                  GetResult<T> result,
@@ -96,6 +97,7 @@ public class CollectionGetBulkFuture<T> implements Future<T> {
 
   @Override
   public boolean cancel(boolean ign) {
+    cancelled = true;
     boolean rv = false;
     for (Operation op : ops) {
       rv |= op.cancel("by application.");
@@ -103,8 +105,19 @@ public class CollectionGetBulkFuture<T> implements Future<T> {
     return rv;
   }
 
+  /**
+   * Whether the future has been cancelled by {@link #cancel(boolean)},
+   * telling the sender of more operations to cancel them instead.
+   */
+  public boolean isCancelRequested() {
+    return cancelled;
+  }
+
   @Override
   public boolean isCancelled() {
+    if (cancelled) {
+      return true;
+    }
     for (Operation op : ops) {
       if (op.isCancelled()) {
         return true;
@@ -115,12 +128,8 @@ public class CollectionGetBulkFuture<T> implements Future<T> {
 
   @Override
   public boolean isDone() {
-    for (Operation op : ops) {
-      if (!(op.getState() == OperationState.COMPLETE || op.isCancelled())) {
-        return false;
-      }
-    }
-    return true;
+    // more operations may be added until the latch is counted down.
+    return latch.getCount() == 0;
   }
 
   /**
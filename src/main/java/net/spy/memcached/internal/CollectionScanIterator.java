@@ -0,0 +1,166 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.spy.memcached.CollectionOperationException;
+import net.spy.memcached.collection.CollectionResponse;
+import net.spy.memcached.ops.CollectionOperationStatus;
+
+/**
+ * Lazy iterator over the elements of a collection item, fetched page by page.
+ *
+ * <p>The next page is requested as soon as a page arrives, and is fetched
+ * while the elements of the current page are consumed,
+ * so that only a page or two of elements are held at a time.
+ * Without the prefetch, the next page is requested
+ * only when the elements of the current page are consumed.</p>
+ *
+ * <p>The iteration ends when no page follows, or if the item does not exist.
+ * Any other failure of a page is thrown as {@link CollectionOperationException}.</p>
+ *
+ * @param <E> the type of the elements
+ */
+public class CollectionScanIterator<E> implements Iterator<E> {
+
+  private final Function<List<E>, ? extends CollectionFuture<?>> pageFetcher;
+  private final Function<Object, Collection<E>> elementsOf;
+  private final boolean prefetch;
+
+  private Iterator<E> page = Collections.emptyIterator();
+  private List<E> lastPage;
+  private CollectionFuture<?> nextPage;
+  private boolean ended = false;
+
+  /**
+   * @param pageFetcher function requesting the page following the given page,
+   *                    or the first page if null. It returns null if no page follows.
+   * @param elementsOf  function getting the elements of the result of a page
+   */
+  public <R> CollectionScanIterator(
+          Function<List<E>, ? extends CollectionFuture<? extends R>> pageFetcher,
+          Function<? super R, ? extends Collection<E>> elementsOf) {
+    this(pageFetcher, elementsOf, true);
+  }
+
+  /**
+   * @param pageFetcher function requesting the page following the given page,
+   *                    or the first page if null. It returns null if no page follows.
+   * @param elementsOf  function getting the elements of the result of a page
+   * @param prefetch    true to request the next page as soon as a page arrives
+   */
+  @SuppressWarnings("unchecked")
+  public <R> CollectionScanIterator(
+          Function<List<E>, ? extends CollectionFuture<? extends R>> pageFetcher,
+          Function<? super R, ? extends Collection<E>> elementsOf,
+          boolean prefetch) {
+    this.pageFetcher = pageFetcher;
+    this.elementsOf = (Function<Object, Collection<E>>) elementsOf;
+    this.prefetch = prefetch;
+    if (prefetch) {
+      this.nextPage = pageFetcher.apply(null);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!page.hasNext()) {
+      if (nextPage == null && !prefetch && !ended) {
+        nextPage = pageFetcher.apply(lastPage);
+      }
+      if (nextPage == null) {
+        ended = true;
+        return false;
+      }
+      Object result = await(nextPage);
+      nextPage = null;
+      if (result == null) {
+        ended = true;
+        return false;
+      }
+
+      lastPage = new ArrayList<>(elementsOf.apply(result));
+      if (prefetch) {
+        nextPage = pageFetcher.apply(lastPage);
+      }
+      page = lastPage.iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public E next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return page.next();
+  }
+
+  /**
+   * Cancel the page being fetched. The iteration ends after the current page.
+   */
+  public void cancel() {
+    CollectionFuture<?> future = nextPage;
+    nextPage = null;
+    ended = true;
+    if (future != null) {
+      future.cancel(true);
+    }
+  }
+
+  /**
+   * Get a sequential stream of the remaining elements,
+   * which cancels the page being fetched when closed.
+   */
+  public Stream<E> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+            Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(this::cancel);
+  }
+
+  private Object await(CollectionFuture<?> future) {
+    Object result;
+    try {
+      result = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CollectionOperationException("Interrupted while fetching elements.", e);
+    } catch (ExecutionException e) {
+      throw new CollectionOperationException("Failed to fetch elements.", e.getCause());
+    }
+
+    CollectionOperationStatus status = future.getOperationStatus();
+    if (result == null && status != null
+        && status.getResponse() != CollectionResponse.NOT_FOUND) {
+      throw new CollectionOperationException(status.getMessage());
+    }
+    return result;
+  }
+}
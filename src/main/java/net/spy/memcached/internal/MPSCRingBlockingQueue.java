@@ -0,0 +1,236 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded lock-free queue for many producers and a single consumer.
+ *
+ * <p>Producers claim a slot of the ring by a CAS on the tail and publish the
+ * element through the sequence of the slot, so they never block each other
+ * on a lock. Only one thread at a time may take elements from the queue,
+ * which is the IO thread draining an operation queue.</p>
+ *
+ * <p>The blocking methods wait for space or elements by yielding and parking
+ * for short periods instead of waiting on a condition, so that the non-blocking
+ * paths stay free of locks. The capacity is rounded up to a power of two.</p>
+ */
+public final class MPSCRingBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+  private static final int YIELD_SPINS = 16;
+  private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<E> buffer;
+  // a slot for the position p has the sequence p while free, and p + 1 once filled.
+  // taking the element sets it to p + capacity, the position of the next round.
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong(0);
+  private final AtomicLong head = new AtomicLong(0);
+
+  public MPSCRingBlockingQueue(int capacity) {
+    if (capacity <= 0 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
+    // a slot needs different sequences for being filled and freed, so at least 2.
+    this.capacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = this.capacity - 1;
+    this.buffer = new AtomicReferenceArray<>(this.capacity);
+    this.sequences = new AtomicLongArray(this.capacity);
+    for (int i = 0; i < this.capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    long t = tail.get();
+    while (true) {
+      int index = (int) (t & mask);
+      long diff = sequences.get(index) - t;
+      if (diff == 0) {
+        if (tail.compareAndSet(t, t + 1)) {
+          buffer.lazySet(index, e);
+          sequences.lazySet(index, t + 1);
+          return true;
+        }
+        t = tail.get();
+      } else if (diff < 0) {
+        // the slot of the previous round is not taken yet.
+        return false;
+      } else {
+        t = tail.get();
+      }
+    }
+  }
+
+  public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+    long start = System.nanoTime();
+    long nanos = unit.toNanos(timeout);
+    int spins = 0;
+    while (!offer(e)) {
+      if (!await(start, nanos, spins++)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void put(E e) throws InterruptedException {
+    int spins = 0;
+    while (!offer(e)) {
+      await(0, Long.MAX_VALUE, spins++);
+    }
+  }
+
+  public E poll() {
+    long h = head.get();
+    int index = (int) (h & mask);
+    if (sequences.get(index) != h + 1) {
+      return null;
+    }
+    E e = buffer.get(index);
+    buffer.lazySet(index, null);
+    sequences.lazySet(index, h + capacity);
+    head.lazySet(h + 1);
+    return e;
+  }
+
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long start = System.nanoTime();
+    long nanos = unit.toNanos(timeout);
+    int spins = 0;
+    E e;
+    while ((e = poll()) == null) {
+      if (!await(start, nanos, spins++)) {
+        return null;
+      }
+    }
+    return e;
+  }
+
+  public E take() throws InterruptedException {
+    int spins = 0;
+    E e;
+    while ((e = poll()) == null) {
+      await(0, Long.MAX_VALUE, spins++);
+    }
+    return e;
+  }
+
+  public E peek() {
+    long h = head.get();
+    int index = (int) (h & mask);
+    if (sequences.get(index) != h + 1) {
+      return null;
+    }
+    return buffer.get(index);
+  }
+
+  public int drainTo(Collection<? super E> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  public int drainTo(Collection<? super E> c, int maxElements) {
+    if (c == this) {
+      throw new IllegalArgumentException();
+    }
+    int n = 0;
+    E e;
+    while (n < maxElements && (e = poll()) != null) {
+      c.add(e);
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Get the number of elements, including the ones being published by producers.
+   */
+  public int size() {
+    while (true) {
+      long h = head.get();
+      long t = tail.get();
+      if (h == head.get()) {
+        return (int) Math.max(0, Math.min(t - h, capacity));
+      }
+    }
+  }
+
+  public boolean isEmpty() {
+    return peek() == null;
+  }
+
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  /**
+   * Get a snapshot of the elements. Only the consumer thread may iterate,
+   * and the iterator does not support removal.
+   */
+  public Iterator<E> iterator() {
+    List<E> elements = new ArrayList<>();
+    long t = tail.get();
+    for (long h = head.get(); h < t; h++) {
+      int index = (int) (h & mask);
+      if (sequences.get(index) != h + 1) {
+        break;
+      }
+      elements.add(buffer.get(index));
+    }
+    return Collections.unmodifiableList(elements).iterator();
+  }
+
+  private static boolean await(long start, long nanos, int spins)
+          throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    long remaining = nanos == Long.MAX_VALUE ? nanos : nanos - (System.nanoTime() - start);
+    if (remaining <= 0) {
+      return false;
+    }
+    if (spins < YIELD_SPINS) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(Math.min(remaining, MAX_PARK_NANOS));
+    }
+    return true;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationState;
+
+/**
+ * Hashed timing wheel of the operation deadlines.
+ *
+ * <p>Operations are scheduled by any thread, and expired by the IO thread
+ * that owns the wheel each time it handles IO. A deadline is rounded up to
+ * a tick, so an operation expires at most one tick after its deadline.
+ * Deadlines further than a round of the wheel stay in their slot until
+ * the round of the deadline comes.</p>
+ */
+public final class OperationTimeoutWheel {
+
+  private final long tickNanos;
+  private final int mask;
+  private final List<List<Timeout>> slots;
+  private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+  private final long startNanos;
+  // the first tick that is not expired yet.
+  private long tick = 0;
+  private int size = 0;
+
+  public OperationTimeoutWheel(long tickMillis, int ticksPerWheel) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("Tick must be positive.");
+    }
+    if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 20)) {
+      throw new IllegalArgumentException("Invalid ticks per wheel: " + ticksPerWheel);
+    }
+    int wheelSize = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    this.mask = wheelSize - 1;
+    this.slots = new ArrayList<>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      slots.add(new ArrayList<>());
+    }
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Schedule the operation to expire at the given deadline.
+   * This may be called by any thread.
+   *
+   * @param op       the operation
+   * @param deadline the deadline in {@link System#nanoTime()}
+   */
+  public void schedule(Operation op, long deadline) {
+    scheduled.offer(new Timeout(op, deadline));
+  }
+
+  /**
+   * Collect the operations whose deadline has passed.
+   * The operations completed or cancelled before their deadline are dropped.
+   * Only the IO thread owning this wheel may call this.
+   *
+   * @param now     the current time in {@link System#nanoTime()}
+   * @param expired the collection to add the expired operations to
+   */
+  public void expire(long now, Collection<Operation> expired) {
+    long nowTick = (now - startNanos) / tickNanos;
+    Timeout t;
+    while ((t = scheduled.poll()) != null) {
+      // a deadline already passed is expired by the current tick.
+      t.deadlineTick = Math.max(ceilTick(t.deadline), tick);
+      slots.get((int) (t.deadlineTick & mask)).add(t);
+      size++;
+    }
+    if (nowTick < tick) {
+      return;
+    }
+    // every slot is visited at most once even if the ticks passed exceed a round.
+    for (long i = Math.max(tick, nowTick - mask); i <= nowTick; i++) {
+      List<Timeout> slot = slots.get((int) (i & mask));
+      // keep the timeouts of the later rounds in place.
+      int kept = 0;
+      for (int j = 0; j < slot.size(); j++) {
+        Timeout timeout = slot.get(j);
+        if (timeout.deadlineTick > nowTick) {
+          slot.set(kept++, timeout);
+          continue;
+        }
+        Operation op = timeout.op;
+        if (!op.isCancelled() && op.getState() != OperationState.COMPLETE) {
+          expired.add(op);
+        }
+      }
+      size -= slot.size() - kept;
+      slot.subList(kept, slot.size()).clear();
+    }
+    tick = nowTick + 1;
+  }
+
+  /**
+   * Check whether no operation is scheduled.
+   */
+  public boolean isEmpty() {
+    return size == 0 && scheduled.isEmpty();
+  }
+
+  /**
+   * Get the number of the operations in the wheel, not including
+   * the ones scheduled after the last {@link #expire(long, Collection)}.
+   */
+  public int size() {
+    return size;
+  }
+
+  public long getTickMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+  }
+
+  private long ceilTick(long deadline) {
+    long elapsed = deadline - startNanos;
+    if (elapsed <= 0) {
+      return 0;
+    }
+    return (elapsed + tickNanos - 1) / tickNanos;
+  }
+
+  private static final class Timeout {
+    private final Operation op;
+    private final long deadline;
+    private long deadlineTick;
+
+    private Timeout(Operation op, long deadline) {
+      this.op = op;
+      this.deadline = deadline;
+    }
+  }
+}
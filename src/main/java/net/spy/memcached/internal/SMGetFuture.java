@@ -29,6 +29,7 @@ import java.util.concurrent.TimeoutException;
 
 import net.spy.memcached.MemcachedConnection;
 import net.spy.memcached.OperationTimeoutException;
+import net.spy.memcached.collection.SMGetCursor;
 import net.spy.memcached.collection.SMGetTrimKey;
 import net.spy.memcached.internal.result.SMGetResult;
 import net.spy.memcached.ops.CollectionOperationStatus;
@@ -145,4 +146,12 @@ public final class SMGetFuture<T extends List<?>> implements Future<T> {
   public CollectionOperationStatus getOperationStatus() {
     return result.getOperationStatus();
   }
+
+  /**
+   * Get the cursor to fetch the next page of the elements,
+   * which is null if no more elements are in the bkey range.
+   */
+  public SMGetCursor getNextCursor() {
+    return result.getNextCursor();
+  }
 }
@@ -0,0 +1,156 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.spy.memcached.MemcachedConnection;
+import net.spy.memcached.OperationTimeoutException;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationCallback;
+
+/**
+ * Future for a bulk request whose operations are made from a stream
+ * while earlier operations are in flight.
+ *
+ * Not intended for general use.
+ *
+ * <p>Only the operations in flight are kept, so the memory of the future
+ * does not grow with the number of the operations. The future is done when
+ * the stream has ended and all the operations have completed, and its value
+ * is false if any of the operations has failed. As the stream may last longer
+ * than the timeout, {@link #get()} times out only when no operation
+ * completes within the timeout.</p>
+ */
+public class StreamingBulkFuture implements Future<Boolean> {
+
+  private final Map<OperationCallback, Operation> inFlight = new ConcurrentHashMap<>();
+  private final CountDownLatch latch = new CountDownLatch(1);
+  // the operations not completed, plus one until the end of the stream.
+  private final AtomicInteger pending = new AtomicInteger(1);
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicBoolean result = new AtomicBoolean(true);
+  private final long timeout;
+  private volatile boolean cancelled = false;
+
+  public StreamingBulkFuture(long timeout) {
+    this.timeout = timeout;
+  }
+
+  /**
+   * Add an operation made from the stream, before adding it to the connection.
+   *
+   * @param cb the callback of the operation, passed to {@link #complete(OperationCallback)}
+   * @param op the operation
+   */
+  public void addOperation(OperationCallback cb, Operation op) {
+    pending.incrementAndGet();
+    inFlight.put(cb, op);
+  }
+
+  /**
+   * Called by the callback of an operation when it completes.
+   */
+  public void complete(OperationCallback cb) {
+    inFlight.remove(cb);
+    completed.incrementAndGet();
+    countDown();
+  }
+
+  /**
+   * Called when the stream has ended.
+   */
+  public void endOfStream() {
+    countDown();
+  }
+
+  public void fail() {
+    result.set(false);
+  }
+
+  private void countDown() {
+    if (pending.decrementAndGet() == 0) {
+      latch.countDown();
+    }
+  }
+
+  @Override
+  public boolean cancel(boolean ign) {
+    cancelled = true;
+    boolean rv = false;
+    for (Operation op : inFlight.values()) {
+      rv |= op.cancel("by application.");
+    }
+    return rv;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public boolean isDone() {
+    return latch.getCount() == 0;
+  }
+
+  @Override
+  public Boolean get() throws InterruptedException, ExecutionException {
+    long beforeAwait = System.currentTimeMillis();
+    long progress;
+    do {
+      progress = completed.get();
+      if (latch.await(timeout, TimeUnit.MILLISECONDS)) {
+        return result.get();
+      }
+    } while (completed.get() != progress);
+    throw new OperationTimeoutException(
+        timeoutException(timeout, TimeUnit.MILLISECONDS, beforeAwait));
+  }
+
+  @Override
+  public Boolean get(long duration, TimeUnit unit)
+          throws InterruptedException, ExecutionException, TimeoutException {
+    long beforeAwait = System.currentTimeMillis();
+    if (!latch.await(duration, unit)) {
+      throw timeoutException(duration, unit, beforeAwait);
+    }
+    return result.get();
+  }
+
+  private TimeoutException timeoutException(long duration, TimeUnit unit, long beforeAwait) {
+    Collection<Operation> timedOutOps = new ArrayList<>(inFlight.values());
+    if (timedOutOps.isEmpty()) {
+      return new TimeoutException("Timed out waiting for the end of the stream.");
+    }
+    MemcachedConnection.opsTimedOut(timedOutOps);
+    long elapsed = System.currentTimeMillis() - beforeAwait;
+    return new CheckedOperationTimeoutException(duration, unit, elapsed, timedOutOps);
+  }
+}
@@ -2,12 +2,17 @@ package net.spy.memcached.internal.result;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import net.spy.memcached.collection.BKeyObject;
 import net.spy.memcached.collection.CollectionResponse;
+import net.spy.memcached.collection.SMGetCursor;
 import net.spy.memcached.collection.SMGetElement;
 import net.spy.memcached.collection.SMGetTrimKey;
 import net.spy.memcached.ops.CollectionOperationStatus;
@@ -21,6 +26,7 @@ public final class SMGetResult<T> {
   private final Map<String, BKeyObject> trimmedKeyMap;
   private volatile List<SMGetTrimKey> mergedTrimmedKeys;
 
+  private final Queue<List<SMGetElement<T>>> eachResults;
   private volatile List<SMGetElement<T>> mergedResult;
   private volatile CollectionOperationStatus resultOperationStatus = null;
   private volatile CollectionOperationStatus failedOperationStatus = null;
@@ -34,6 +40,7 @@ public final class SMGetResult<T> {
     this.trimmedKeyMap = new ConcurrentHashMap<>();
     this.mergedTrimmedKeys = new ArrayList<>();
 
+    this.eachResults = new ConcurrentLinkedQueue<>();
     this.mergedResult = new ArrayList<>(count);
   }
 
@@ -80,90 +87,110 @@ public final class SMGetResult<T> {
     return resultOperationStatus;
   }
 
-  private boolean hasDuplicatedBKeyResult() {
-    for (int i = 1; i < mergedResult.size(); i++) {
-      if (mergedResult.get(i).compareBkeyTo(mergedResult.get(i - 1)) == 0) {
-        return true;
-      }
-    }
-    return false;
-  }
-
   public List<SMGetElement<T>> getFinalResult() {
     return mergedResult;
   }
 
+  /**
+   * Get the cursor of the last element if the count of elements are fetched.
+   *
+   * @return the cursor of the next page, or null if no more elements are in the range
+   */
+  public SMGetCursor getNextCursor() {
+    if (failedOperationStatus != null || mergedResult.size() < count) {
+      return null;
+    }
+    SMGetElement<T> last = mergedResult.get(mergedResult.size() - 1);
+    return new SMGetCursor(last.getKey(), last.getBkeyObject());
+  }
+
   public void setFailedOperationStatus(CollectionOperationStatus status) {
     if (failedOperationStatus == null) {
       failedOperationStatus = status;
     }
+    eachResults.clear();
     mergedResult.clear();
     trimmedKeyMap.clear();
     missedKeyMap.clear();
   }
 
-  public void mergeSMGetElements(final List<SMGetElement<T>> eachResult) {
-    if (mergedResult.isEmpty()) {
-      // merged result is empty, add all.
-      mergedResult.addAll(eachResult);
+  /**
+   * Add the elements of a smget request, which are sorted by the server.
+   * The elements of all the requests are merged by {@link #makeResultOperationStatus()}.
+   */
+  public void addSMGetElements(final List<SMGetElement<T>> eachResult) {
+    if (!eachResult.isEmpty()) {
+      eachResults.add(eachResult);
+    }
+  }
 
-      while (mergedResult.size() > count) {
-        mergedResult.remove(count);
-      }
-      return;
+  /**
+   * Merge the sorted element lists with a heap of the head of each list,
+   * until the count of elements is reached.
+   * The trimmed keys are walked in the same order, and those not ordered before
+   * the last element are removed once the count is reached, because the elements
+   * are sufficient without retrieving the data of those keys further.
+   *
+   * @return true if the merged elements have a duplicated bkey
+   */
+  private boolean mergeSMGetElements() {
+    final Comparator<SMGetElement<T>> order = (reverse)
+        ? Comparator.reverseOrder() : Comparator.naturalOrder();
+    final PriorityQueue<Cursor<T>> heap = new PriorityQueue<>(
+        Math.max(1, eachResults.size()), (c1, c2) -> order.compare(c1.head(), c2.head()));
+    for (List<SMGetElement<T>> eachResult : eachResults) {
+      heap.add(new Cursor<>(eachResult));
     }
+    final Comparator<BKeyObject> bkeyOrder = (reverse)
+        ? Comparator.reverseOrder() : Comparator.naturalOrder();
+    final List<Map.Entry<String, BKeyObject>> trimmed =
+        new ArrayList<>(trimmedKeyMap.entrySet());
+    trimmed.sort(Map.Entry.comparingByValue(bkeyOrder));
+    // the number of the trimmed keys ordered before the last element.
+    int trimmedBefore = 0;
 
-    final int eachSize = eachResult.size();
-    final int oldMergedSize = mergedResult.size();
     final List<SMGetElement<T>> newMergedResult = new ArrayList<>(count);
-
-    int eachPos = 0, oldMergedPos = 0, comp;
-    boolean bkeyDuplicated;
-
-    while (eachPos < eachSize && oldMergedPos < oldMergedSize && newMergedResult.size() < count) {
-      final SMGetElement<T> eachElem = eachResult.get(eachPos);
-      final SMGetElement<T> oldMergedElem = mergedResult.get(oldMergedPos);
-
-      comp = eachElem.compareBkeyTo(oldMergedElem);
-      bkeyDuplicated = (comp == 0);
-      if (bkeyDuplicated) {
-        // Duplicated bkey. Compare the "cache key".
-        comp = eachElem.compareKeyTo(oldMergedElem);
-        assert comp != 0 : "Unexpected smget elements. Duplicated cache key : " + eachElem.getKey();
-      }
-      if ((reverse) ? (comp > 0) : (comp < 0)) {
-        newMergedResult.add(eachElem);
-        eachPos++;
-
-        if (unique && bkeyDuplicated) {
+    SMGetElement<T> last = null;
+    boolean duplicated = false;
+    while (!heap.isEmpty() && newMergedResult.size() < count) {
+      Cursor<T> cursor = heap.poll();
+      SMGetElement<T> elem = cursor.head();
+      if (last != null && elem.compareBkeyTo(last) == 0) {
+        if (unique) {
           // NOT the first cache key with the same bkey. do NOT insert.
-          oldMergedPos++;
+          elem = null;
+        } else {
+          duplicated = true;
         }
-      } else {
-        newMergedResult.add(oldMergedElem);
-        oldMergedPos++;
-
-        if (unique && bkeyDuplicated) {
-          // NOT the first cache key with the same bkey. do NOT insert.
-          eachPos++;
+      }
+      if (elem != null) {
+        newMergedResult.add(elem);
+        last = elem;
+        while (trimmedBefore < trimmed.size() && bkeyOrder.compare(
+            trimmed.get(trimmedBefore).getValue(), elem.getBkeyObject()) < 0) {
+          trimmedBefore++;
         }
       }
+      if (cursor.next()) {
+        heap.add(cursor);
+      }
     }
 
-    while (eachPos < eachSize && newMergedResult.size() < count) {
-      newMergedResult.add(eachResult.get(eachPos++));
-    }
-    while (oldMergedPos < oldMergedSize && newMergedResult.size() < count) {
-      newMergedResult.add(mergedResult.get(oldMergedPos++));
+    if (newMergedResult.size() >= count) {
+      for (Map.Entry<String, BKeyObject> entry : trimmed.subList(trimmedBefore, trimmed.size())) {
+        trimmedKeyMap.remove(entry.getKey());
+      }
     }
 
+    eachResults.clear();
     mergedResult = newMergedResult;
+    return duplicated;
   }
 
   public void makeResultOperationStatus() {
-    refineTrimmedKeys();
+    boolean duplicated = mergeSMGetElements();
 
-    if (!unique && hasDuplicatedBKeyResult()) {
+    if (duplicated) {
       resultOperationStatus = new CollectionOperationStatus(true, "DUPLICATED",
               CollectionResponse.DUPLICATED);
     } else {
@@ -171,20 +198,20 @@ public final class SMGetResult<T> {
     }
   }
 
-  /**
-   * Trimmed keys that are larger/smaller(depends on unique variable) than last element of
-   * {@link SMGetResult#mergedResult} should be removed when result's size reached to the count.
-   * Because the results are sufficient and don't need to retrieve the data further
-   * using trimmed keys.
-   */
-  private void refineTrimmedKeys() {
-    if (!trimmedKeyMap.isEmpty() && count <= mergedResult.size()) {
-      BKeyObject lastBKey = mergedResult.get(mergedResult.size() - 1).getBkeyObject();
-
-      trimmedKeyMap.entrySet().removeIf(entry -> {
-        int comp = entry.getValue().compareTo(lastBKey);
-        return (reverse) ? (comp <= 0) : (comp >= 0);
-      });
+  private static final class Cursor<T> {
+    private final List<SMGetElement<T>> elements;
+    private int pos = 0;
+
+    private Cursor(List<SMGetElement<T>> elements) {
+      this.elements = elements;
+    }
+
+    private SMGetElement<T> head() {
+      return elements.get(pos);
+    }
+
+    private boolean next() {
+      return ++pos < elements.size();
     }
   }
 }
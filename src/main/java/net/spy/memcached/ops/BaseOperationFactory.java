@@ -66,7 +66,7 @@ public abstract class BaseOperationFactory implements OperationFactory {
               cop.getCasValue(), cop.getFlags(), cop.getExpiration(),
               cop.getBytes(), cop.getCallback()));
     } else if (op instanceof DeleteOperation) {
-      rv.add(delete(first(op.getKeys()), op.getCallback()));
+      rv.add(delete(first(op.getKeys()), op.isNoreplyOperation(), op.getCallback()));
     } else if (op instanceof MutatorOperation) {
       MutatorOperation mo = (MutatorOperation) op;
       rv.add(mutate(mo.getType(), first(op.getKeys()),
@@ -75,7 +75,7 @@ public abstract class BaseOperationFactory implements OperationFactory {
     } else if (op instanceof StoreOperation) {
       StoreOperation so = (StoreOperation) op;
       rv.add(store(so.getStoreType(), first(op.getKeys()), so.getFlags(),
-              so.getExpiration(), so.getData(), op.getCallback()));
+              so.getExpiration(), so.getData(), op.isNoreplyOperation(), op.getCallback()));
     } else if (op instanceof ConcatenationOperation) {
       ConcatenationOperation c = (ConcatenationOperation) op;
       rv.add(cat(c.getStoreType(), c.getCasValue(), first(op.getKeys()),
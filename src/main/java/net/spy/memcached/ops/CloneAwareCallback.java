@@ -0,0 +1,44 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.ops;
+
+/**
+ * A callback that is told of the operations cloned from its operation
+ * when the keys of the operation are redirected or redistributed to other nodes,
+ * so that the clones can be cancelled together with the operation.
+ */
+public interface CloneAwareCallback extends OperationCallback {
+
+  /**
+   * Called before the clone is added to the connection.
+   */
+  void cloned(Operation clone);
+
+  /**
+   * Tell the clone to the callback that the given callback of the clone
+   * dispatches to, if it is a {@link CloneAwareCallback}.
+   */
+  static void notifyCloned(OperationCallback cb, Operation clone) {
+    while (cb instanceof MultiOperationCallback) {
+      cb = ((MultiOperationCallback) cb).originalCallback;
+    }
+    if (cb instanceof CloneAwareCallback) {
+      ((CloneAwareCallback) cb).cloned(clone);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package net.spy.memcached.ops;
+
+import java.util.concurrent.BlockingQueue;
+
+import net.spy.memcached.internal.MPSCRingBlockingQueue;
+
+/**
+ * OperationQueueFactory that creates bounded lock-free queues for many
+ * producer threads and a single consumer thread.
+ *
+ * <p>Suitable for the input queue where many application threads add
+ * operations and the IO thread drains them. The capacity is rounded up
+ * to a power of two.</p>
+ */
+public class MPSCRingOperationQueueFactory implements OperationQueueFactory {
+
+  private final int capacity;
+
+  /**
+   * Create an MPSCRingOperationQueueFactory that creates queues with
+   * the given capacity.
+   *
+   * @param cap maximum size of a queue produced by this factory
+   */
+  public MPSCRingOperationQueueFactory(int cap) {
+    super();
+    capacity = cap;
+  }
+
+  public BlockingQueue<Operation> create() {
+    return new MPSCRingBlockingQueue<>(capacity);
+  }
+
+}
@@ -19,6 +19,7 @@ package net.spy.memcached.ops;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.function.Function;
 
 import net.spy.memcached.MemcachedNode;
 import net.spy.memcached.RedirectHandler;
@@ -59,6 +60,30 @@ public interface Operation {
    */
   String getCancelCause();
 
+  /**
+   * Hedge this read operation, written and waiting for the response,
+   * with a duplicate of it to be sent to another node.
+   * Only the one of the two that responds first delivers to the callback,
+   * and the other one is cancelled if it is not written yet.
+   *
+   * @param duplicator     makes the duplicate with the given callback, or returns null
+   * @param onDuplicateWon run when the duplicate responds first
+   * @return false if this operation has started to respond or cannot be duplicated
+   */
+  boolean hedge(Function<OperationCallback, Operation> duplicator, Runnable onDuplicateWon);
+
+  /**
+   * Mark this operation as timed out.
+   *
+   * @return true if this operation was not marked before
+   */
+  boolean timeOut();
+
+  /**
+   * Has this operation been marked as timed out?
+   */
+  boolean isTimedOut();
+
   /**
    * Get the current state of this operation.
    */
@@ -88,6 +113,13 @@ public interface Operation {
    */
   void writeComplete();
 
+  /**
+   * Invoked when the given write buffer of this operation is no longer used,
+   * so that a pooled buffer can be given back.
+   * Nothing is done if the operation has moved on to another buffer.
+   */
+  void releaseBuffer(ByteBuffer buffer);
+
   /**
    * Initialize this operation.  This is used to prepare output byte buffers
    * and stuff.
@@ -129,6 +161,12 @@ public interface Operation {
 
   boolean isIdempotentOperation();
 
+  /**
+   * If true, the operation is sent with the noreply option.
+   * It completes once written and is never read from the server.
+   */
+  boolean isNoreplyOperation();
+
   /* ENABLE_MIGRATION if */
   RedirectHandler getAndClearRedirectHandler();
   /* ENABLE_MIGRATION end */
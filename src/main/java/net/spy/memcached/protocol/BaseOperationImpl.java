@@ -21,7 +21,9 @@ import java.io.IOException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
+import net.spy.memcached.CommandBufferPool;
 import net.spy.memcached.MemcachedNode;
 import net.spy.memcached.MemcachedReplicaGroup;
 import net.spy.memcached.RedirectHandler;
@@ -54,13 +56,26 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
           new CollectionOperationStatus(false, "collection canceled",
                   CollectionResponse.CANCELED);
 
+  /**
+   * Status object for noreply operations completed on write.
+   */
+  public static final OperationStatus NOREPLY =
+          new OperationStatus(true, "NOREPLY", StatusCode.SUCCESS);
+
   private OperationState state = OperationState.WRITE_QUEUED;
   private ByteBuffer cmd = null;
+  // the write buffer borrowed from the pool and the pool to give it back.
+  private ByteBuffer pooledBuffer = null;
+  private CommandBufferPool bufferPool = null;
   private boolean cancelled = false;
   private final AtomicBoolean callbacked = new AtomicBoolean(false);
+  private final AtomicBoolean timedOut = new AtomicBoolean(false);
   private String cancelCause = null;
   protected OperationException exception = null;
   private OperationCallback callback = null;
+  // set once the callback is handed out, that is, the response may be delivered.
+  private final AtomicBoolean callbackUsed = new AtomicBoolean(false);
+  private volatile HedgedRead hedgedRead = null;
   private volatile MemcachedNode handlingNode = null;
 
   private OperationType opType = OperationType.UNDEFINED;
@@ -78,6 +93,12 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
    * Get the operation callback associated with this operation.
    */
   public final OperationCallback getCallback() {
+    // set before looking at the hedge, so that a hedge made meanwhile backs off.
+    callbackUsed.set(true);
+    HedgedRead h = hedgedRead;
+    if (h != null) {
+      return h.getCallback(this);
+    }
     return callback;
   }
 
@@ -107,8 +128,10 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
         cause += " @ " + handlingNode.getNodeName();
       }
       cancelCause = "Cancelled (" + cause + ")";
-      callback.receivedStatus(CANCELLED);
-      callback.complete();
+      HedgedRead h = hedgedRead;
+      OperationCallback cb = h == null ? callback : h.getCancelCallback(this);
+      cb.receivedStatus(CANCELLED);
+      cb.complete();
       return true;
     }
     return false;
@@ -124,10 +147,11 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
    */
   protected final void complete(OperationStatus status) {
     boolean needComplete = callbacked.compareAndSet(false, true);
-    callback.receivedStatus(status);
+    OperationCallback cb = getCallback();
+    cb.receivedStatus(status);
     transitionState(OperationState.COMPLETE);
     if (needComplete) {
-      callback.complete();
+      cb.complete();
     }
   }
 
@@ -135,6 +159,35 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
     return cancelCause;
   }
 
+  public final boolean hedge(Function<OperationCallback, Operation> duplicator,
+                             Runnable onDuplicateWon) {
+    if (callbackUsed.get() || callbacked.get() || hedgedRead != null
+        || getState() != OperationState.READING) {
+      return false;
+    }
+    BaseOperationImpl duplicate = (BaseOperationImpl) duplicator.apply(callback);
+    if (duplicate == null) {
+      return false;
+    }
+    HedgedRead h = new HedgedRead(this, duplicate, callback, onDuplicateWon);
+    duplicate.hedgedRead = h;
+    hedgedRead = h;
+    if (callbackUsed.get() || callbacked.get()) {
+      // the response started or the operation was cancelled meanwhile.
+      hedgedRead = null;
+      return false;
+    }
+    return true;
+  }
+
+  public final boolean timeOut() {
+    return timedOut.compareAndSet(false, true);
+  }
+
+  public final boolean isTimedOut() {
+    return timedOut.get();
+  }
+
   public final OperationState getState() {
     return state;
   }
@@ -226,6 +279,37 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
     ((Buffer) cmd).mark();
   }
 
+  /**
+   * Allocate a write buffer of the given capacity.
+   * The buffer is borrowed from the pool of the handling node if any,
+   * and its capacity may be larger than requested.
+   */
+  protected final ByteBuffer allocateBuffer(int capacity) {
+    if (pooledBuffer != null) {
+      // a re-initialized buffer may still be held by the node.
+      bufferPool.discard(pooledBuffer);
+      pooledBuffer = null;
+      bufferPool = null;
+    }
+    MemcachedNode node = handlingNode;
+    CommandBufferPool pool = node == null ? null : node.getCommandBufferPool();
+    ByteBuffer bb = pool == null ? null : pool.acquire(capacity);
+    if (bb == null) {
+      return ByteBuffer.allocate(capacity);
+    }
+    pooledBuffer = bb;
+    bufferPool = pool;
+    return bb;
+  }
+
+  public final void releaseBuffer(ByteBuffer buffer) {
+    if (buffer != null && buffer == pooledBuffer) {
+      bufferPool.release(pooledBuffer);
+      pooledBuffer = null;
+      bufferPool = null;
+    }
+  }
+
   /**
    * Transition the state of this operation to the given state.
    */
@@ -244,6 +328,10 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
   }
 
   public final void writeComplete() {
+    if (isNoreplyOperation()) {
+      complete(NOREPLY);
+      return;
+    }
     transitionState(OperationState.READING);
   }
 
@@ -259,6 +347,8 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
       byte[] bytes = new byte[cmd.remaining()];
       cmd.get(bytes);
 
+      releaseBuffer(cmd);
+
       String[] cmdLines = new String(bytes).split("\r\n");
       getLogger().error("Bad command: %s", cmdLines[0]);
     }
@@ -314,4 +404,8 @@ public abstract class BaseOperationImpl extends SpyObject implements Operation {
   public boolean isIdempotentOperation() {
     return true;
   }
+
+  public boolean isNoreplyOperation() {
+    return false;
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.protocol;
+
+import net.spy.memcached.ops.CollectionGetOperation;
+import net.spy.memcached.ops.GetOperation;
+import net.spy.memcached.ops.GetsOperation;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationState;
+import net.spy.memcached.ops.OperationStatus;
+
+/**
+ * A read operation and its duplicate sent to another node,
+ * of which only the first one to respond delivers to the callback.
+ *
+ * <p>The other one keeps reading its response, which is delivered
+ * to a callback doing nothing. A cancelled duplicate gives way to the primary,
+ * and the duplicate is cancelled together with the primary.</p>
+ */
+final class HedgedRead {
+
+  private final BaseOperationImpl primary;
+  private final BaseOperationImpl duplicate;
+  private final OperationCallback callback;
+  private final Runnable onDuplicateWon;
+
+  private final OperationCallback discarding;
+
+  private BaseOperationImpl winner = null;
+
+  HedgedRead(BaseOperationImpl primary, BaseOperationImpl duplicate,
+             OperationCallback callback, Runnable onDuplicateWon) {
+    this.primary = primary;
+    this.duplicate = duplicate;
+    this.callback = callback;
+    this.onDuplicateWon = onDuplicateWon;
+    this.discarding = getDiscardingCallback(callback);
+  }
+
+  /**
+   * Get the callback for the response of the given operation.
+   */
+  OperationCallback getCallback(BaseOperationImpl op) {
+    boolean won;
+    synchronized (this) {
+      won = winner == null;
+      if (won) {
+        winner = op;
+      } else if (winner != op) {
+        return discarding;
+      }
+    }
+    if (won) {
+      if (op == duplicate) {
+        onDuplicateWon.run();
+      } else if (duplicate.getState() == OperationState.WRITE_QUEUED) {
+        duplicate.cancel("hedged read lost");
+      }
+    }
+    return callback;
+  }
+
+  /**
+   * Get the callback for the cancellation of the given operation.
+   */
+  OperationCallback getCancelCallback(BaseOperationImpl op) {
+    if (op == primary) {
+      // the duplicate must not deliver to the callback after the cancel.
+      duplicate.cancel("hedged read cancelled");
+    }
+    synchronized (this) {
+      if (winner == null) {
+        if (op == duplicate) {
+          // the primary may still respond.
+          return discarding;
+        }
+        winner = op;
+      }
+      return winner == op ? callback : discarding;
+    }
+  }
+
+  private static OperationCallback getDiscardingCallback(OperationCallback callback) {
+    if (callback instanceof GetOperation.Callback) {
+      return new DiscardingGetCallback();
+    }
+    if (callback instanceof GetsOperation.Callback) {
+      return new DiscardingGetsCallback();
+    }
+    if (callback instanceof CollectionGetOperation.Callback) {
+      return new DiscardingCollectionGetCallback();
+    }
+    return new DiscardingCallback();
+  }
+
+  private static class DiscardingCallback implements OperationCallback {
+    public void receivedStatus(OperationStatus status) {
+      // discarded
+    }
+
+    public void complete() {
+      // discarded
+    }
+  }
+
+  private static final class DiscardingGetCallback extends DiscardingCallback
+      implements GetOperation.Callback {
+    public void gotData(String key, int flags, byte[] data) {
+      // discarded
+    }
+  }
+
+  private static final class DiscardingGetsCallback extends DiscardingCallback
+      implements GetsOperation.Callback {
+    public void gotData(String key, int flags, long cas, byte[] data) {
+      // discarded
+    }
+  }
+
+  private static final class DiscardingCollectionGetCallback extends DiscardingCallback
+      implements CollectionGetOperation.Callback {
+    public void gotData(String subkey, int flags, byte[] data, byte[] eflag) {
+      // discarded
+    }
+  }
+}
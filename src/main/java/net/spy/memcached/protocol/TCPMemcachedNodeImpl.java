@@ -25,7 +25,9 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.StringTokenizer;
 import java.util.concurrent.BlockingQueue;
@@ -36,6 +38,8 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import net.spy.memcached.AddrUtil;
 import net.spy.memcached.ArcusReplNodeAddress;
+import net.spy.memcached.CircuitBreaker;
+import net.spy.memcached.CommandBufferPool;
 import net.spy.memcached.MemcachedNode;
 import net.spy.memcached.MemcachedReplicaGroup;
 import net.spy.memcached.compat.SpyObject;
@@ -50,6 +54,9 @@ import net.spy.memcached.ops.OperationState;
 public abstract class TCPMemcachedNodeImpl extends SpyObject
         implements MemcachedNode {
 
+  // maximum number of operation buffers handed to a single gathering write.
+  private static final int MAX_GATHER_BUFFERS = 64;
+
   private final String name;
   private SocketAddress socketAddress;
   private final ByteBuffer rbuf;
@@ -62,6 +69,12 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
   private volatile ReconnDelay reconnDelay = ReconnDelay.IMMEDIATE;
   private SocketChannel channel;
   private int toWrite = 0;
+  // operation buffers waiting to be written by a gathering write.
+  private final boolean gatheringWrite;
+  private final ByteBuffer[] gatherBufs;
+  private final Operation[] gatherOps;
+  private int gatherOffset = 0;
+  private int gatherCount = 0;
   protected Operation optimizedOp = null;
   private volatile SelectionKey sk = null;
   private final boolean shouldAuth;
@@ -81,6 +94,13 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
   // # of operations added into inputQueue as a hint.
   private final AtomicLong addOpCount;
 
+  // connections made to the same server, the first one is known to the locator.
+  private volatile List<MemcachedNode> stripes;
+
+  // pool of the command buffers of the operations, shared by the nodes of a connection.
+  private volatile CommandBufferPool bufferPool = null;
+  private volatile CircuitBreaker circuitBreaker = null;
+
   /* ENABLE_REPLICATION if */
   private MemcachedReplicaGroup replicaGroup;
   /* ENABLE_REPLICATION end */
@@ -91,6 +111,16 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
                               BlockingQueue<Operation> wq, BlockingQueue<Operation> iq,
                               long opQueueMaxBlockTime, boolean waitForAuth,
                               boolean asciiProtocol) {
+    this(name, sa, bufSize, rq, wq, iq, opQueueMaxBlockTime, waitForAuth,
+        asciiProtocol, false);
+  }
+
+  public TCPMemcachedNodeImpl(String name,
+                              SocketAddress sa,
+                              int bufSize, BlockingQueue<Operation> rq,
+                              BlockingQueue<Operation> wq, BlockingQueue<Operation> iq,
+                              long opQueueMaxBlockTime, boolean waitForAuth,
+                              boolean asciiProtocol, boolean gatheringWrite) {
     super();
     assert sa != null : "No SocketAddress";
     assert bufSize > 0 : "Invalid buffer size: " + bufSize;
@@ -111,6 +141,10 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
     shouldAuth = waitForAuth;
     isAsciiProtocol = asciiProtocol;
     authInProgress = false;
+    this.gatheringWrite = gatheringWrite;
+    gatherBufs = gatheringWrite ? new ByteBuffer[MAX_GATHER_BUFFERS] : null;
+    gatherOps = gatheringWrite ? new Operation[MAX_GATHER_BUFFERS] : null;
+    stripes = Collections.singletonList(this);
   }
 
   public final void copyInputQueue() {
@@ -149,6 +183,8 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
   }
 
   public Collection<Operation> destroyReadQueue(boolean resend) {
+    // the gathered operations are in the read queue, and will not be written.
+    clearGatherBuffers();
     return destroyQueue(readQ, resend);
   }
 
@@ -178,6 +214,7 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
 
     ((Buffer) getWbuf()).clear();
     ((Buffer) getRbuf()).clear();
+    clearGatherBuffers();
     toWrite = 0;
   }
 
@@ -192,11 +229,16 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
     while (nextOp != null && nextOp.isCancelled()) {
       getLogger().info("Removing cancelled operation: %s", nextOp);
       removeCurrentWriteOp();
+      nextOp.releaseBuffer(nextOp.getBuffer());
       nextOp = getCurrentWriteOp();
     }
   }
 
   public final void fillWriteBuffer(boolean shouldOptimize) {
+    if (gatheringWrite) {
+      fillGatherBuffers(shouldOptimize);
+      return;
+    }
     if (toWrite == 0 && readQ.remainingCapacity() > 0) {
       ((Buffer) getWbuf()).clear();
       Operation o = getNextWritableOp();
@@ -207,13 +249,16 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
         assert obuf != null : "Didn't get a write buffer from " + o;
         int bytesToCopy = Math.min(getWbuf().remaining(),
                 obuf.remaining());
-        byte[] b = new byte[bytesToCopy];
-        obuf.get(b);
-        getWbuf().put(b);
+        // copy through a bounded view of obuf instead of a temporary array.
+        int obufLimit = obuf.limit();
+        ((Buffer) obuf).limit(obuf.position() + bytesToCopy);
+        getWbuf().put(obuf);
+        ((Buffer) obuf).limit(obufLimit);
         getLogger().debug("After copying stuff from %s: %s",
                 o, getWbuf());
         if (!obuf.hasRemaining()) {
           o.writeComplete();
+          o.releaseBuffer(obuf);
 
           Operation op = removeCurrentWriteOp();
           assert o == op;
@@ -222,6 +267,8 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
           preparePending();
           if (shouldOptimize) {
             optimize();
+          } else {
+            optimizeBulk();
           }
 
           if (readQ.remainingCapacity() > 0) {
@@ -243,8 +290,76 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
     }
   }
 
+  /*
+   * Collect the buffers of the next writable operations so that they can be
+   * written to the channel as they are, without being copied into wbuf.
+   * An operation is considered to be written once its buffer is collected,
+   * the same as an operation copied into wbuf.
+   */
+  private void fillGatherBuffers(boolean shouldOptimize) {
+    if (toWrite == 0 && readQ.remainingCapacity() > 0) {
+      clearGatherBuffers();
+      Operation o = getNextWritableOp();
+      while (o != null && gatherCount < MAX_GATHER_BUFFERS
+              && toWrite < getWbuf().capacity()) {
+        assert o.getState() == OperationState.WRITING;
+
+        ByteBuffer obuf = o.getBuffer();
+        assert obuf != null : "Didn't get a write buffer from " + o;
+        gatherOps[gatherCount] = o;
+        gatherBufs[gatherCount++] = obuf;
+        toWrite += obuf.remaining();
+        o.writeComplete();
+
+        Operation op = removeCurrentWriteOp();
+        assert o == op;
+        getLogger().debug("Finished gathering %s", op);
+
+        preparePending();
+        if (shouldOptimize) {
+          optimize();
+        } else {
+          optimizeBulk();
+        }
+
+        if (readQ.remainingCapacity() > 0) {
+          o = getNextWritableOp();
+        } else {
+          o = null;
+        }
+      }
+    } else {
+      getLogger().debug("Buffer is full, skipping");
+    }
+  }
+
+  /*
+   * Drop the buffers not written yet, giving them back to the pool
+   * as no one refers to them once they are dropped.
+   */
+  private void clearGatherBuffers() {
+    if (gatherBufs != null) {
+      for (int i = gatherOffset; i < gatherCount; i++) {
+        gatherOps[i].releaseBuffer(gatherBufs[i]);
+        gatherBufs[i] = null;
+        gatherOps[i] = null;
+      }
+      toWrite = 0;
+    }
+    gatherOffset = 0;
+    gatherCount = 0;
+  }
+
   protected abstract void optimize();
 
+  /**
+   * Merge the operations at the head of the write queue that are worth
+   * merging even if the optimization is disabled.
+   */
+  protected void optimizeBulk() {
+    // nothing to merge by default
+  }
+
   public final Operation getCurrentReadOp() {
     return readQ.peek();
   }
@@ -264,9 +379,12 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
         getLogger().debug("Not writing cancelled op.");
         Operation cancelledOp = removeCurrentWriteOp();
         assert o == cancelledOp;
+        o.releaseBuffer(o.getBuffer());
       } else {
         o.writing();
-        readQ.add(o);
+        if (!o.isNoreplyOperation()) {
+          readQ.add(o);
+        }
         return o;
       }
       o = getCurrentWriteOp();
@@ -500,7 +618,17 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
   }
 
   public final int writeSome() throws IOException {
-    int wrote = channel.write(wbuf);
+    int wrote;
+    if (gatheringWrite) {
+      wrote = (int) channel.write(gatherBufs, gatherOffset, gatherCount - gatherOffset);
+      while (gatherOffset < gatherCount && !gatherBufs[gatherOffset].hasRemaining()) {
+        gatherOps[gatherOffset].releaseBuffer(gatherBufs[gatherOffset]);
+        gatherOps[gatherOffset] = null;
+        gatherBufs[gatherOffset++] = null;
+      }
+    } else {
+      wrote = channel.write(wbuf);
+    }
     assert wrote >= 0 : "Wrote negative bytes?";
     toWrite -= wrote;
     assert toWrite >= 0
@@ -623,6 +751,10 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
     return readQ.size();
   }
 
+  public int getOutstandingOperationCount() {
+    return getInputQueueSize() + getWriteQueueSize() + getReadQueueSize();
+  }
+
   @Override
   public String getOpQueueStatus() {
     return "#Tops=" + addOpCount +
@@ -633,18 +765,51 @@ public abstract class TCPMemcachedNodeImpl extends SpyObject
         " #TD=" + getTimeoutDuration();
   }
 
+  public void setStripes(List<MemcachedNode> to) {
+    assert to.contains(this) : "Not a stripe of the given connections";
+    MemcachedNode first = to.get(0);
+    if (first != this) {
+      // share the address so that a role change of the first one is seen by all stripes.
+      socketAddress = first.getSocketAddress();
+    }
+    stripes = to;
+  }
+
+  public List<MemcachedNode> getStripes() {
+    return stripes;
+  }
+
+  public void setCommandBufferPool(CommandBufferPool pool) {
+    bufferPool = pool;
+  }
+
+  public CommandBufferPool getCommandBufferPool() {
+    return bufferPool;
+  }
+
+  public void setCircuitBreaker(CircuitBreaker breaker) {
+    circuitBreaker = breaker;
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    MemcachedNode first = stripes.get(0);
+    return first == this ? circuitBreaker : first.getCircuitBreaker();
+  }
+
   /* ENABLE_REPLICATION if */
   public void setReplicaGroup(MemcachedReplicaGroup g) {
     replicaGroup = g;
   }
 
   public MemcachedReplicaGroup getReplicaGroup() {
-    return replicaGroup;
+    MemcachedNode first = stripes.get(0);
+    return first == this ? replicaGroup : first.getReplicaGroup();
   }
 
   private BlockingQueue<Operation> getAllOperations(boolean cancelNonIdempotent) {
     BlockingQueue<Operation> allOp = new LinkedBlockingQueue<>();
 
+    clearGatherBuffers();
     while (hasReadOp()) {
       Operation op = removeCurrentReadOp();
       if (op == getCurrentWriteOp()) {
@@ -38,8 +38,17 @@ public final class AsciiMemcachedNodeImpl extends TCPMemcachedNodeImpl {
                                 int bufSize, BlockingQueue<Operation> rq,
                                 BlockingQueue<Operation> wq, BlockingQueue<Operation> iq,
                                 Long opQueueMaxBlockTimeNs, boolean waitForAuth) {
+    this(name, sa, bufSize, rq, wq, iq, opQueueMaxBlockTimeNs, waitForAuth, false);
+  }
+
+  public AsciiMemcachedNodeImpl(String name,
+                                SocketAddress sa,
+                                int bufSize, BlockingQueue<Operation> rq,
+                                BlockingQueue<Operation> wq, BlockingQueue<Operation> iq,
+                                Long opQueueMaxBlockTimeNs, boolean waitForAuth,
+                                boolean gatheringWrite) {
     super(name, sa, bufSize, rq, wq, iq, opQueueMaxBlockTimeNs,
-            waitForAuth, true /* ascii protocol */);
+            waitForAuth, true /* ascii protocol */, gatheringWrite);
   }
 
   @Override
@@ -89,6 +89,10 @@ public class AsciiOperationFactory extends BaseOperationFactory {
     return new DeleteOperationImpl(key, cb);
   }
 
+  public DeleteOperation delete(String key, boolean noreply, OperationCallback cb) {
+    return new DeleteOperationImpl(key, noreply, cb);
+  }
+
   public FlushOperation flush(int delay, OperationCallback cb) {
     return new FlushOperationImpl(delay, cb);
   }
@@ -131,6 +135,11 @@ public class AsciiOperationFactory extends BaseOperationFactory {
     return new StoreOperationImpl(storeType, key, flags, exp, data, cb);
   }
 
+  public StoreOperation store(StoreType storeType, String key, int flags,
+                              int exp, byte[] data, boolean noreply, OperationCallback cb) {
+    return new StoreOperationImpl(storeType, key, flags, exp, data, noreply, cb);
+  }
+
   public TouchOperation touch(String key, int expiration, OperationCallback cb) {
     return new TouchOperationImpl(key, expiration, cb);
   }
@@ -32,6 +32,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public final class BTreeFindPositionOperationImpl extends OperationImpl implements
         BTreeFindPositionOperation {
@@ -67,7 +68,7 @@ public final class BTreeFindPositionOperationImpl extends OperationImpl implemen
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Got line %s", line);
 
     /* ENABLE_MIGRATION if */
@@ -80,12 +81,8 @@ public final class BTreeFindPositionOperationImpl extends OperationImpl implemen
 
     OperationStatus status;
     if (line.startsWith("POSITION=")) {
-      String[] stuff = line.split("=");
-      assert stuff.length == 2;
-      assert "POSITION".equals(stuff[0]);
-
       // POSITION=<position>\r\n
-      int position = Integer.parseInt(stuff[1]);
+      int position = line.parseInt("POSITION=".length(), line.length());
       BTreeFindPositionOperation.Callback cb =
               (BTreeFindPositionOperation.Callback) getCallback();
       cb.gotData(position);
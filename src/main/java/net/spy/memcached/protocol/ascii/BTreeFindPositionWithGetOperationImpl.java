@@ -16,13 +16,10 @@
  */
 package net.spy.memcached.protocol.ascii;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 import net.spy.memcached.KeyUtil;
 import net.spy.memcached.collection.BTreeFindPositionWithGet;
@@ -34,11 +31,12 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public final class BTreeFindPositionWithGetOperationImpl extends OperationImpl implements
         BTreeFindPositionWithGetOperation {
 
-  private final ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
+  private final ResponseTokenizer header = new ResponseTokenizer();
 
   private static final OperationStatus END = new CollectionOperationStatus(
           true, "END", CollectionResponse.END);
@@ -65,7 +63,6 @@ public final class BTreeFindPositionWithGetOperationImpl extends OperationImpl i
   private byte[] data = null;
   private int readOffset = 0;
   private byte lookingFor = '\0';
-  private final List<String> tokens = new ArrayList<>();
   private int eHeadCount;
   private int eFlagIndex;
 
@@ -86,7 +83,7 @@ public final class BTreeFindPositionWithGetOperationImpl extends OperationImpl i
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Got line %s", line);
 
     /* ENABLE_MIGRATION if */
@@ -104,13 +101,12 @@ public final class BTreeFindPositionWithGetOperationImpl extends OperationImpl i
       END\r\n
      */
     if (line.startsWith("VALUE ")) {
-      String[] stuff = line.split(" ");
-      assert stuff.length == 5;
+      assert line.tokens() == 5;
 
-      position = Integer.parseInt(stuff[1]);
-      flags = Integer.parseInt(stuff[2]);
-      count = Integer.parseInt(stuff[3]);
-      index = Integer.parseInt(stuff[4]);
+      position = line.intToken(1);
+      flags = line.intToken(2);
+      count = line.intToken(3);
+      index = line.intToken(4);
 
       assert count > 0;
       // position counter
@@ -131,42 +127,31 @@ public final class BTreeFindPositionWithGetOperationImpl extends OperationImpl i
   public void handleRead(ByteBuffer bb) {
     // Decode a data header.
     if (lookingFor == '\0' && data == null) {
-      while (bb.hasRemaining()) {
-        byte b = bb.get();
-
-        // Handle spaces.
-        if (b == ' ') {
-           // btree: <bkey> [<eflag>] <bytes> <data>\r\n
-          tokens.add(byteBuffer.toString());
-          byteBuffer.reset();
-
-          if (eFlagIndex >= 0) {
-            if (tokens.size() == eFlagIndex + 1 && tokens.get(eFlagIndex).startsWith("0x")) {
-              eHeadCount++;
-            }
-          }
-          if (tokens.size() == eHeadCount) {
-            get.decodeElemHeader(tokens);
-            data = new byte[get.getDataLength()];
-            tokens.clear();
-            eHeadCount = get.getEHeadCount();
-            break;
-          }
-          continue;
-        } else if (b == '\r') { // Ready to finish.
-          continue;
-        } else if (b == '\n') { // Finish the operation.
-          OperationStatus status = matchStatus(byteBuffer.toString(), END,
-                  NOT_FOUND, NOT_FOUND_ELEMENT, UNREADABLE, TYPE_MISMATCH, BKEY_MISMATCH);
-
+      while (true) {
+        int read = header.readToken(bb);
+        if (read == ResponseTokenizer.MORE) {
+          break;
+        }
+        if (read == ResponseTokenizer.LINE) { // Finish the operation.
+          OperationStatus status = matchStatus(header, END, NOT_FOUND, NOT_FOUND_ELEMENT,
+                  UNREADABLE, TYPE_MISMATCH, BKEY_MISMATCH);
           getLogger().debug("Get complete!");
           complete(status);
           data = null;
           break;
         }
-
-        // Write to the result ByteBuffer
-        byteBuffer.write(b);
+        // btree: <bkey> [<eflag>] <bytes> <data>\r\n
+        if (eFlagIndex >= 0 && header.tokens() == eFlagIndex + 1
+                && header.tokenStartsWith(eFlagIndex, "0x")) {
+          eHeadCount++;
+        }
+        if (header.tokens() == eHeadCount) {
+          get.decodeElemHeader(header);
+          data = new byte[get.getDataLength()];
+          header.clear();
+          eHeadCount = get.getEHeadCount();
+          break;
+        }
       }
       return;
     }
@@ -17,7 +17,6 @@
  */
 package net.spy.memcached.protocol.ascii;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.Collection;
@@ -32,6 +31,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to retrieve b+tree data with multiple keys
@@ -39,7 +39,7 @@ import net.spy.memcached.ops.OperationType;
 public final class BTreeGetBulkOperationImpl extends OperationImpl implements
         BTreeGetBulkOperation {
 
-  private final ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
+  private final ResponseTokenizer header = new ResponseTokenizer();
 
   private static final OperationStatus END = new CollectionOperationStatus(
           true, "END", CollectionResponse.END);
@@ -71,7 +71,6 @@ public final class BTreeGetBulkOperationImpl extends OperationImpl implements
   private byte[] data = null;
   private int readOffset = 0;
   private byte lookingFor = '\0';
-  private int spaceCount = 0;
 
   public BTreeGetBulkOperationImpl(BTreeGetBulk<?> getBulk, OperationCallback cb) {
     super(cb);
@@ -80,7 +79,7 @@ public final class BTreeGetBulkOperationImpl extends OperationImpl implements
     setOperationType(OperationType.READ);
   }
 
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Got line %s", line);
 
     /*
@@ -90,23 +89,21 @@ public final class BTreeGetBulkOperationImpl extends OperationImpl implements
       END\r\n
     */
     if (line.startsWith("VALUE ")) {
-      String[] chunk = line.split(" ");
-
       /* ENABLE_MIGRATION if */
-      if (hasNotMyKey(chunk[2])) {
-        addRedirectMultiKeyOperation(getNotMyKey(line), chunk[1]);
+      if (line.tokenStartsWith(2, "NOT_MY_KEY")) {
+        addRedirectMultiKeyOperation(getNotMyKey(line), line.stringToken(1));
         return;
       }
       /* ENABLE_MIGRATION end */
 
-      OperationStatus status = matchStatus(chunk[2], OK, TRIMMED, NOT_FOUND,
+      OperationStatus status = matchStatus(line, 2, OK, TRIMMED, NOT_FOUND,
           NOT_FOUND_ELEMENT, OUT_OF_RANGE, TYPE_MISMATCH, BKEY_MISMATCH,
           UNREADABLE);
 
-      key = chunk[1];
-      if (chunk.length > 3) {
-        flags = Integer.parseInt(chunk[3]);
-        elementCount = Integer.parseInt(chunk[4]);
+      key = line.stringToken(1);
+      if (line.tokens() > 3) {
+        flags = line.intToken(3);
+        elementCount = line.intToken(4);
       }
 
       BTreeGetBulkOperation.Callback cb = ((BTreeGetBulkOperation.Callback) getCallback());
@@ -129,34 +126,16 @@ public final class BTreeGetBulkOperationImpl extends OperationImpl implements
   @Override
   public void handleRead(ByteBuffer bb) {
     if (lookingFor == '\0' && data == null) {
-      while (bb.hasRemaining()) {
-        byte b = bb.get();
-
-        // Handle spaces.
-        if (b == ' ') {
-          spaceCount++;
-
-          if (getBulk.headerReady(spaceCount)) {
-            // ELEMENT <bkey> [<eflag>] <bytes> <data>\r\n
-            String itemHeader = byteBuffer.toString();
-
-            String[] chunk = itemHeader.split(" ");
-            if (chunk.length == BTreeGetBulk.HEADER_COUNT
-                    && chunk[2].startsWith("0x")) {
-              spaceCount--;
-              byteBuffer.write(b);
-              continue;
-            }
-
-            getBulk.decodeItemHeader(chunk);
-            data = new byte[getBulk.getDataLength()];
-            byteBuffer.reset();
-            spaceCount = 0;
-            break;
-          }
+      while (header.readToken(bb) == ResponseTokenizer.TOKEN) {
+        // ELEMENT <bkey> [<eflag>] <bytes> <data>\r\n
+        if ((getBulk.headerReady(header.tokens())
+                && !header.tokenStartsWith(BTreeGetBulk.HEADER_COUNT - 1, "0x"))
+                || getBulk.headerReady(header.tokens() - 1)) {
+          getBulk.decodeItemHeader(header);
+          data = new byte[getBulk.getDataLength()];
+          header.clear();
+          break;
         }
-
-        byteBuffer.write(b);
       }
       return;
     }
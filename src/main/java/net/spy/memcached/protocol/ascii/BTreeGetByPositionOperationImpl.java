@@ -17,13 +17,10 @@
  */
 package net.spy.memcached.protocol.ascii;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 import net.spy.memcached.KeyUtil;
 import net.spy.memcached.collection.BTreeGetByPosition;
@@ -35,11 +32,12 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public final class BTreeGetByPositionOperationImpl extends OperationImpl implements
         BTreeGetByPositionOperation {
 
-  private final ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
+  private final ResponseTokenizer header = new ResponseTokenizer();
 
   private static final OperationStatus END = new CollectionOperationStatus(
           true, "END", CollectionResponse.END);
@@ -62,7 +60,6 @@ public final class BTreeGetByPositionOperationImpl extends OperationImpl impleme
   private byte[] data = null;
   private int readOffset = 0;
   private byte lookingFor = '\0';
-  private final List<String> tokens = new ArrayList<>();
   private int eHeadCount;
   private int eFlagIndex;
 
@@ -83,7 +80,7 @@ public final class BTreeGetByPositionOperationImpl extends OperationImpl impleme
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Got line %s", line);
 
     /* ENABLE_MIGRATION if */
@@ -101,12 +98,11 @@ public final class BTreeGetByPositionOperationImpl extends OperationImpl impleme
       END\r\n
      */
     if (line.startsWith("VALUE ")) {
-      String[] stuff = line.split(" ");
-      assert stuff.length == 3;
-      assert "VALUE".equals(stuff[0]);
+      assert line.tokens() == 3;
+      assert line.tokenIs(0, "VALUE");
 
-      flags = Integer.parseInt(stuff[1]);
-      count = Integer.parseInt(stuff[2]);
+      flags = line.intToken(1);
+      count = line.intToken(2);
 
       if (count > 0) {
         // position counter
@@ -128,47 +124,31 @@ public final class BTreeGetByPositionOperationImpl extends OperationImpl impleme
   public void handleRead(ByteBuffer bb) {
     // Decode a data header.
     if (lookingFor == '\0' && data == null) {
-      while (bb.hasRemaining()) {
-        byte b = bb.get();
-        // Handle spaces to parse the header.
-        if (b == ' ') {
-          // btree: <bkey> [<eflag>] <bytes> <data>\r\n
-          tokens.add(byteBuffer.toString());
-          byteBuffer.reset();
-
-          if (eFlagIndex >= 0) {
-            if (tokens.size() == eFlagIndex + 1 && tokens.get(eFlagIndex).startsWith("0x")) {
-              eHeadCount++;
-            }
-          }
-          if (tokens.size() == eHeadCount) {
-            get.decodeElemHeader(tokens);
-            data = new byte[get.getDataLength()];
-            tokens.clear();
-            eHeadCount = get.getEHeadCount();
-            break;
-          }
-          continue;
-        }
-
-        // Ready to finish.
-        if (b == '\r') {
-          continue;
+      while (true) {
+        int read = header.readToken(bb);
+        if (read == ResponseTokenizer.MORE) {
+          break;
         }
-
-        // Finish the operation.
-        if (b == '\n') {
-          OperationStatus status = matchStatus(byteBuffer.toString(),
-                  END, NOT_FOUND, UNREADABLE, TYPE_MISMATCH,
+        if (read == ResponseTokenizer.LINE) { // Finish the operation.
+          OperationStatus status = matchStatus(header, END, NOT_FOUND, UNREADABLE, TYPE_MISMATCH,
                   NOT_FOUND_ELEMENT);
-
           getLogger().debug("Get complete!");
           complete(status);
           data = null;
           break;
         }
-        // Write to the result ByteBuffer
-        byteBuffer.write(b);
+        // btree: <bkey> [<eflag>] <bytes> <data>\r\n
+        if (eFlagIndex >= 0 && header.tokens() == eFlagIndex + 1
+                && header.tokenStartsWith(eFlagIndex, "0x")) {
+          eHeadCount++;
+        }
+        if (header.tokens() == eHeadCount) {
+          get.decodeElemHeader(header);
+          data = new byte[get.getDataLength()];
+          header.clear();
+          eHeadCount = get.getEHeadCount();
+          break;
+        }
       }
       return;
     }
@@ -17,13 +17,10 @@
  */
 package net.spy.memcached.protocol.ascii;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 import net.spy.memcached.KeyUtil;
 import net.spy.memcached.collection.BTreeInsertAndGet;
@@ -35,13 +32,14 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public final class BTreeInsertAndGetOperationImpl extends OperationImpl implements
         BTreeInsertAndGetOperation {
 
   private static final int OVERHEAD = 32;
 
-  private final ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
+  private final ResponseTokenizer header = new ResponseTokenizer();
 
   private static final OperationStatus CREATED_STORED = new CollectionOperationStatus(
           true, "CREATED_STORED", CollectionResponse.CREATED_STORED);
@@ -85,7 +83,6 @@ public final class BTreeInsertAndGetOperationImpl extends OperationImpl implemen
   private byte[] data = null;
   private int readOffset = 0;
   private byte lookingFor = '\0';
-  private final List<String> tokens = new ArrayList<>();
   private int eHeadCount;
   private int eFlagIndex;
 
@@ -111,7 +108,7 @@ public final class BTreeInsertAndGetOperationImpl extends OperationImpl implemen
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Got line %s", line);
 
     /* ENABLE_REPLICATION if */
@@ -134,12 +131,11 @@ public final class BTreeInsertAndGetOperationImpl extends OperationImpl implemen
       TRIMMED\r\n
     */
     if (line.startsWith("VALUE ")) {
-      String[] stuff = line.split(" ");
-      assert stuff.length == 3;
-      assert "VALUE".equals(stuff[0]);
+      assert line.tokens() == 3;
+      assert line.tokenIs(0, "VALUE");
 
-      flags = Integer.parseInt(stuff[1]);
-      count = Integer.parseInt(stuff[2]);
+      flags = line.intToken(1);
+      count = line.intToken(2);
 
       if (count > 0) {
         // start to read actual data
@@ -161,41 +157,30 @@ public final class BTreeInsertAndGetOperationImpl extends OperationImpl implemen
   public void handleRead(ByteBuffer bb) {
     // Decode a data header.
     if (lookingFor == '\0' && data == null) {
-      while (bb.hasRemaining()) {
-        byte b = bb.get();
-        // Handle spaces to parse the header.
-        if (b == ' ') {
-          // btree: <bkey> [<eflag>] <bytes> <data>\r\n
-          tokens.add(byteBuffer.toString());
-          byteBuffer.reset();
-
-          if (eFlagIndex >= 0) {
-            if (tokens.size() == eFlagIndex + 1 && tokens.get(eFlagIndex).startsWith("0x")) {
-              eHeadCount++;
-            }
-          }
-          if (tokens.size() == eHeadCount) {
-            get.decodeElemHeader(tokens);
-            data = new byte[get.getDataLength()];
-            tokens.clear();
-            eHeadCount = get.getEHeadCount();
-            break;
-          }
-          continue;
-        }
-        if (b == '\r') { // Ready to finish.
-          continue;
+      while (true) {
+        int read = header.readToken(bb);
+        if (read == ResponseTokenizer.MORE) {
+          break;
         }
-
-        if (b == '\n') { // Finish the operation.
-          OperationStatus status = matchStatus(byteBuffer.toString(), STORE_AND_GET_ON_DATA);
+        if (read == ResponseTokenizer.LINE) { // Finish the operation.
+          OperationStatus status = matchStatus(header, STORE_AND_GET_ON_DATA);
           getLogger().debug("Get complete!");
           complete(status);
           data = null;
           break;
         }
-        // Write to the result ByteBuffer
-        byteBuffer.write(b);
+        // btree: <bkey> [<eflag>] <bytes> <data>\r\n
+        if (eFlagIndex >= 0 && header.tokens() == eFlagIndex + 1
+                && header.tokenStartsWith(eFlagIndex, "0x")) {
+          eHeadCount++;
+        }
+        if (header.tokens() == eHeadCount) {
+          get.decodeElemHeader(header);
+          data = new byte[get.getDataLength()];
+          header.clear();
+          eHeadCount = get.getEHeadCount();
+          break;
+        }
       }
       return;
     }
@@ -257,7 +242,7 @@ public final class BTreeInsertAndGetOperationImpl extends OperationImpl implemen
   @Override
   public void initialize() {
     String args = get.stringify();
-    ByteBuffer bb = ByteBuffer.allocate(dataToStore.length
+    ByteBuffer bb = allocateBuffer(dataToStore.length
             + KeyUtil.getKeyBytes(key).length
             + KeyUtil.getKeyBytes(get.getBkeyObject().toString()).length
             + KeyUtil.getKeyBytes(get.getElementFlagByHex()).length
@@ -272,7 +257,7 @@ public final class BTreeInsertAndGetOperationImpl extends OperationImpl implemen
 
     if (getLogger().isDebugEnabled()) {
       getLogger().debug("Request in ascii protocol: %s",
-              (new String(bb.array())).replace("\r\n", "\\r\\n"));
+              (new String(bb.array(), 0, bb.limit())).replace("\r\n", "\\r\\n"));
     }
   }
 
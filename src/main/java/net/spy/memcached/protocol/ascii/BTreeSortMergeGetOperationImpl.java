@@ -17,7 +17,6 @@
  */
 package net.spy.memcached.protocol.ascii;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.Collection;
@@ -34,7 +33,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
-import net.spy.memcached.util.BTreeUtil;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to retrieve b+tree data with multiple keys
@@ -42,7 +41,7 @@ import net.spy.memcached.util.BTreeUtil;
 public final class BTreeSortMergeGetOperationImpl extends OperationImpl implements
         BTreeSortMergeGetOperation {
 
-  private final ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
+  private final ResponseTokenizer header = new ResponseTokenizer();
 
   private static final OperationStatus END = new CollectionOperationStatus(
           true, "END", CollectionResponse.END);
@@ -73,7 +72,6 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
   private byte[] data = null;
   private int readOffset = 0;
   private byte lookingFor = '\0';
-  private int spaceCount = 0;
 
   private ReadState readState = ReadState.ELEMENTS;
 
@@ -85,7 +83,7 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
     setOperationType(OperationType.READ);
   }
 
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     // Response header
     getLogger().debug("Got line %s", line);
 
@@ -104,19 +102,16 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
     if (line.startsWith("ELEMENTS ") || line.startsWith("VALUE ")) {
       readState = ReadState.ELEMENTS;
 
-      String[] stuff = line.split(" ");
-      assert "ELEMENTS".equals(stuff[0]) || "VALUE".equals(stuff[0]);
+      assert line.tokenIs(0, "ELEMENTS") || line.tokenIs(0, "VALUE");
 
-      lineCount = Integer.parseInt(stuff[1]);
+      lineCount = line.intToken(1);
       if (lineCount > 0) {
         setReadType(OperationReadType.DATA);
       }
     } else if (line.startsWith("MISSED_KEYS")) {
       readState = ReadState.MISSED_KEYS;
 
-      String[] stuff = line.split(" ");
-
-      lineCount = Integer.parseInt(stuff[1]);
+      lineCount = line.intToken(1);
       if (lineCount > 0) {
         setReadType(OperationReadType.DATA);
       }
@@ -124,10 +119,9 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
     } else if (line.startsWith("TRIMMED_KEYS")) {
       readState = ReadState.TRIMMED_KEYS;
 
-      String[] stuff = line.split(" ");
-      assert "TRIMMED_KEYS".equals(stuff[0]);
+      assert line.tokenIs(0, "TRIMMED_KEYS");
 
-      lineCount = Integer.parseInt(stuff[1]);
+      lineCount = line.intToken(1);
       if (lineCount > 0) {
         setReadType(OperationReadType.DATA);
       }
@@ -159,52 +153,20 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
   private void readElements(ByteBuffer bb) {
     // Decode a collection data header.
     if (lookingFor == '\0' && data == null) {
-      while (bb.remaining() > 0) {
-        byte b = bb.get();
-
-        // Handle spaces.
-        if (b == ' ') {
-          spaceCount++;
-          if (smGet.headerReady(spaceCount)) {
-            // Adjust space count if item header has a element flag.
-            String itemHeader = byteBuffer.toString();
-            String[] chunk = itemHeader.split(" ");
-            if (chunk.length == BTreeSMGet.HEADER_COUNT
-                    && chunk[3].startsWith("0x")) {
-              spaceCount--;
-              byteBuffer.write(b);
-              continue;
-            }
-
-            // <key> <flags> <bkey> [<eflag>] <bytes> <data>\r\n
-            smGet.decodeItemHeader(itemHeader);
-            data = new byte[smGet.getDataLength()];
-            byteBuffer.reset();
-            spaceCount = 0;
-            break;
-          }
-        }
-
-        // Ready to finish.
-        if (b == '\r') {
-          continue;
+      while (true) {
+        int read = header.readToken(bb);
+        if (read == ResponseTokenizer.MORE) {
+          break;
         }
-
-        // Finish the operation.
-        if (b == '\n') {
-          String sep = byteBuffer.toString();
-          if (sep.startsWith("MISSED_KEYS")) {
+        if (read == ResponseTokenizer.LINE) { // Finish the operation.
+          if (header.startsWith("MISSED_KEYS")) {
             readState = ReadState.MISSED_KEYS;
-            byteBuffer.reset();
-            spaceCount = 0;
-
-            String[] stuff = sep.split(" ");
-            lineCount = Integer.parseInt(stuff[1]);
+            lineCount = header.intToken(1);
             readCount = 0;
             return;
           }
 
-          OperationStatus status = matchStatus(byteBuffer.toString(),
+          OperationStatus status = matchStatus(header,
                   END, TRIMMED, DUPLICATED, DUPLICATED_TRIMMED,
                   OUT_OF_RANGE, ATTR_MISMATCH, TYPE_MISMATCH,
                   BKEY_MISMATCH);
@@ -214,8 +176,16 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
           data = null;
           break;
         }
-
-        byteBuffer.write(b);
+        // <key> <flags> <bkey> [<eflag>] <bytes> <data>\r\n
+        // the header has one more token if the element flag exists.
+        if ((smGet.headerReady(header.tokens())
+                && !header.tokenStartsWith(BTreeSMGet.HEADER_COUNT - 1, "0x"))
+                || smGet.headerReady(header.tokens() - 1)) {
+          smGet.decodeItemHeader(header);
+          data = new byte[smGet.getDataLength()];
+          header.clear();
+          break;
+        }
       }
       return;
     }
@@ -276,63 +246,43 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
 
   private void readMissedKeys(ByteBuffer bb) {
     if (lookingFor == '\0' && data == null) {
-      while (bb.remaining() > 0) {
-        byte b = bb.get();
-
-        // Ready to finish.
-        if (b == '\r') {
-          continue;
+      while (header.read(bb)) {
+        if (header.startsWith("TRIMMED_KEYS")) {
+          readState = ReadState.TRIMMED_KEYS;
+          lineCount = header.intToken(1);
+          readCount = 0;
+          return;
         }
 
-        // Finish the operation.
-        if (b == '\n') {
-          String sep = byteBuffer.toString();
-          if (sep.startsWith("TRIMMED_KEYS")) {
-            readState = ReadState.TRIMMED_KEYS;
-            byteBuffer.reset();
-            spaceCount = 0;
-
-            String[] stuff = sep.split(" ");
-            lineCount = Integer.parseInt(stuff[1]);
-            readCount = 0;
-            return;
-          }
-
-          if (readCount < lineCount) {
-            // <key> [<cause>]\r\n
-            String line = byteBuffer.toString();
-            String[] chunk = line.split(" ");
-            if (chunk.length == 2) {
-              ((BTreeSortMergeGetOperation.Callback) getCallback())
-                      .gotMissedKey(chunk[0], matchStatus(chunk[1],
-                              NOT_FOUND, UNREADABLE, OUT_OF_RANGE));
-              /* ENABLE_MIGRATION if */
-            } else if (hasNotMyKey(chunk[1])) {
-              addRedirectMultiKeyOperation(getNotMyKey(line), chunk[0]);
-              /* ENABLE_MIGRATION end */
-            } else {
-              ((BTreeSortMergeGetOperation.Callback) getCallback())
-                      .gotMissedKey(chunk[0], new CollectionOperationStatus(false,
-                              "UNDEFINED", CollectionResponse.UNDEFINED));
-            }
-            readCount++;
-          } else {
+        if (readCount < lineCount) {
+          // <key> [<cause>]\r\n
+          if (header.tokens() == 2) {
+            ((BTreeSortMergeGetOperation.Callback) getCallback())
+                    .gotMissedKey(header.stringToken(0), matchStatus(header, 1,
+                            NOT_FOUND, UNREADABLE, OUT_OF_RANGE));
             /* ENABLE_MIGRATION if */
-            if (needRedirect()) {
-              transitionState(OperationState.REDIRECT);
-              return;
-            }
+          } else if (header.tokenStartsWith(1, "NOT_MY_KEY")) {
+            addRedirectMultiKeyOperation(getNotMyKey(header), header.stringToken(0));
             /* ENABLE_MIGRATION end */
-            OperationStatus status = matchStatus(byteBuffer.toString(),
-                    END, TRIMMED, DUPLICATED, DUPLICATED_TRIMMED,
-                    OUT_OF_RANGE, ATTR_MISMATCH, TYPE_MISMATCH,
-                    BKEY_MISMATCH);
-            complete(status);
-            return;
+          } else {
+            ((BTreeSortMergeGetOperation.Callback) getCallback())
+                    .gotMissedKey(header.stringToken(0), new CollectionOperationStatus(false,
+                            "UNDEFINED", CollectionResponse.UNDEFINED));
           }
-          byteBuffer.reset();
+          readCount++;
         } else {
-          byteBuffer.write(b);
+          /* ENABLE_MIGRATION if */
+          if (needRedirect()) {
+            transitionState(OperationState.REDIRECT);
+            return;
+          }
+          /* ENABLE_MIGRATION end */
+          OperationStatus status = matchStatus(header,
+                  END, TRIMMED, DUPLICATED, DUPLICATED_TRIMMED,
+                  OUT_OF_RANGE, ATTR_MISMATCH, TYPE_MISMATCH,
+                  BKEY_MISMATCH);
+          complete(status);
+          return;
         }
       }
     }
@@ -340,45 +290,29 @@ public final class BTreeSortMergeGetOperationImpl extends OperationImpl implemen
 
   private void readTrimmedKeys(ByteBuffer bb) {
     if (lookingFor == '\0' && data == null) {
-      while (bb.remaining() > 0) {
-        byte b = bb.get();
-
-        // Ready to finish.
-        if (b == '\r') {
-          continue;
-        }
-
-        // Finish the operation.
-        if (b == '\n') {
-
-          if (readCount < lineCount) {
-            // <key> <bkey>\r\n
-            String[] chunk = byteBuffer.toString().split(" ");
-            if (smGet instanceof BTreeSMGetWithLongTypeBkey) {
-              ((BTreeSortMergeGetOperation.Callback) getCallback())
-                  .gotTrimmedKey(chunk[0], Long.parseLong(chunk[1]));
-            } else if (smGet instanceof BTreeSMGetWithByteTypeBkey) {
-              ((BTreeSortMergeGetOperation.Callback) getCallback())
-                  .gotTrimmedKey(chunk[0],
-                      BTreeUtil.hexStringToByteArrays(chunk[1].substring(2)));
-            }
-            readCount++;
-          } else {
-            /* ENABLE_MIGRATION if */
-            if (needRedirect()) {
-              transitionState(OperationState.REDIRECT);
-              return;
-            }
-            /* ENABLE_MIGRATION end */
-            OperationStatus status = matchStatus(byteBuffer.toString(),
-                    END, DUPLICATED, OUT_OF_RANGE, ATTR_MISMATCH,
-                    TYPE_MISMATCH, BKEY_MISMATCH);
-            complete(status);
-            return;
+      while (header.read(bb)) {
+        if (readCount < lineCount) {
+          // <key> <bkey>\r\n
+          if (smGet instanceof BTreeSMGetWithLongTypeBkey) {
+            ((BTreeSortMergeGetOperation.Callback) getCallback())
+                .gotTrimmedKey(header.stringToken(0), header.longToken(1));
+          } else if (smGet instanceof BTreeSMGetWithByteTypeBkey) {
+            ((BTreeSortMergeGetOperation.Callback) getCallback())
+                .gotTrimmedKey(header.stringToken(0), header.hexToken(1));
           }
-          byteBuffer.reset();
+          readCount++;
         } else {
-          byteBuffer.write(b);
+          /* ENABLE_MIGRATION if */
+          if (needRedirect()) {
+            transitionState(OperationState.REDIRECT);
+            return;
+          }
+          /* ENABLE_MIGRATION end */
+          OperationStatus status = matchStatus(header,
+                  END, DUPLICATED, OUT_OF_RANGE, ATTR_MISMATCH,
+                  TYPE_MISMATCH, BKEY_MISMATCH);
+          complete(status);
+          return;
         }
       }
     }
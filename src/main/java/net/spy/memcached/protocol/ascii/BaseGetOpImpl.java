@@ -29,6 +29,7 @@ import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Base class for get and gets handlers.
@@ -80,7 +81,7 @@ abstract class BaseGetOpImpl extends OperationImpl {
   }
 
   @Override
-  public final void handleLine(String line) {
+  public final void handleLine(ResponseTokenizer line) {
     /*
       VALUE <key> <flags> <bytes> [<cas unique>]\r\n
       <data block>\r\n
@@ -93,7 +94,7 @@ abstract class BaseGetOpImpl extends OperationImpl {
       return;
     }
     /* ENABLE_REPLICATION end */
-    if (line.equals("END")) {
+    if (line.is("END")) {
       getLogger().debug("Get complete!");
       /* ENABLE_MIGRATION if */
       notMyKeyLine = null;
@@ -106,22 +107,21 @@ abstract class BaseGetOpImpl extends OperationImpl {
       data = null;
     } else if (line.startsWith("VALUE ")) {
       getLogger().debug("Got line %s", line);
-      String[] stuff = line.split(" ");
-      assert stuff[0].equals("VALUE");
-      currentKey = stuff[1];
-      currentFlags = Integer.parseInt(stuff[2]);
-      data = new byte[Integer.parseInt(stuff[3])];
-      if (stuff.length > 4) {
-        casValue = Long.parseLong(stuff[4]);
+      assert line.tokenIs(0, "VALUE");
+      currentKey = line.stringToken(1);
+      currentFlags = line.intToken(2);
+      data = new byte[line.intToken(3)];
+      if (line.tokens() > 4) {
+        casValue = line.longToken(4);
       }
       readOffset = 0;
       getLogger().debug("Set read type to data");
       setReadType(OperationReadType.DATA);
     /* ENABLE_MIGRATION if */
     } else if (hasNotMyKey(line)) {
-      notMyKeyLine = line;
+      notMyKeyLine = line.toString();
     } else if (notMyKeyLine != null) {
-      addRedirectMultiKeyOperation(notMyKeyLine, line.trim());
+      addRedirectMultiKeyOperation(notMyKeyLine, line.toString().trim());
     /* ENABLE_MIGRATION end */
     } else {
       complete(matchStatus(line));
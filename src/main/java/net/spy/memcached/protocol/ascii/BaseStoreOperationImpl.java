@@ -28,6 +28,7 @@ import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Base class for ascii store operations (add, set, replace, append, prepend).
@@ -52,20 +53,27 @@ abstract class BaseStoreOperationImpl extends OperationImpl {
   protected final int flags;
   protected final int exp;
   protected final byte[] data;
+  private final boolean noreply;
 
   public BaseStoreOperationImpl(String t, String k, int f, int e,
                                 byte[] d, OperationCallback cb) {
+    this(t, k, f, e, d, false, cb);
+  }
+
+  public BaseStoreOperationImpl(String t, String k, int f, int e,
+                                byte[] d, boolean noreply, OperationCallback cb) {
     super(cb);
     type = t;
     key = k;
     flags = f;
     exp = e;
     data = d;
+    this.noreply = noreply;
     setOperationType(OperationType.WRITE);
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     assert getState() == OperationState.READING
             : "Read ``" + line + "'' when in " + getState() + " state";
     /* ENABLE_REPLICATION if */
@@ -86,9 +94,9 @@ abstract class BaseStoreOperationImpl extends OperationImpl {
 
   @Override
   public void initialize() {
-    ByteBuffer bb = ByteBuffer.allocate(data.length
+    ByteBuffer bb = allocateBuffer(data.length
             + KeyUtil.getKeyBytes(key).length + OVERHEAD);
-    setArguments(bb, type, key, flags, exp, data.length);
+    setArguments(bb, type, key, flags, exp, data.length, noreply ? "noreply" : "");
     assert bb.remaining() >= data.length + 2
             : "Not enough room in buffer, need another "
             + (2 + data.length - bb.remaining());
@@ -99,7 +107,7 @@ abstract class BaseStoreOperationImpl extends OperationImpl {
 
     if (getLogger().isDebugEnabled()) {
       getLogger().debug("Request in ascii protocol: %s",
-              (new String(bb.array())).replace("\r\n", "\\r\\n"));
+              (new String(bb.array(), 0, bb.limit())).replace("\r\n", "\\r\\n"));
     }
   }
 
@@ -118,4 +126,9 @@ abstract class BaseStoreOperationImpl extends OperationImpl {
   public byte[] getData() {
     return data;
   }
+
+  @Override
+  public boolean isNoreplyOperation() {
+    return noreply;
+  }
 }
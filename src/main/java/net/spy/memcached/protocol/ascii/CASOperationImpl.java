@@ -33,6 +33,7 @@ import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
 import net.spy.memcached.ops.StoreType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 class CASOperationImpl extends OperationImpl implements CASOperation {
 
@@ -73,7 +74,7 @@ class CASOperationImpl extends OperationImpl implements CASOperation {
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     assert getState() == OperationState.READING
             : "Read ``" + line + "'' when in " + getState() + " state";
     /* ENABLE_REPLICATION if */
@@ -94,7 +95,7 @@ class CASOperationImpl extends OperationImpl implements CASOperation {
 
   @Override
   public void initialize() {
-    ByteBuffer bb = ByteBuffer.allocate(data.length
+    ByteBuffer bb = allocateBuffer(data.length
             + KeyUtil.getKeyBytes(key).length + OVERHEAD);
     setArguments(bb, "cas", key, flags, exp, data.length, casValue);
     assert bb.remaining() >= data.length + 2
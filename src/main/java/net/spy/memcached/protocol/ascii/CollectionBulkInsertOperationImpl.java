@@ -23,6 +23,7 @@ import net.spy.memcached.ops.CollectionBulkInsertOperation;
 import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to store collection data in a memcached server.
@@ -45,7 +46,7 @@ public final class CollectionBulkInsertOperationImpl extends MultiKeyPipeOperati
   }
 
   @Override
-  protected OperationStatus checkStatus(String line) {
+  protected OperationStatus checkStatus(ResponseTokenizer line) {
     return matchStatus(line, STORED, CREATED_STORED,
             NOT_FOUND, ELEMENT_EXISTS, OVERFLOWED, OUT_OF_RANGE,
             TYPE_MISMATCH, BKEY_MISMATCH);
@@ -61,4 +62,9 @@ public final class CollectionBulkInsertOperationImpl extends MultiKeyPipeOperati
     return true;
   }
 
+  @Override
+  public boolean isNoreplyOperation() {
+    return getInsert().isNoreply();
+  }
+
 }
@@ -33,6 +33,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to get exists item count from collection in a memcached server.
@@ -65,7 +66,7 @@ public final class CollectionCountOperationImpl extends OperationImpl implements
     setOperationType(OperationType.READ);
   }
 
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     /* ENABLE_MIGRATION if */
     if (hasNotMyKey(line)) {
       addRedirectSingleKeyOperation(line, key);
@@ -79,9 +80,7 @@ public final class CollectionCountOperationImpl extends OperationImpl implements
       // COUNT=<count>\r\n
       getLogger().debug("Got line %s", line);
 
-      String[] stuff = line.split("=");
-      assert "COUNT".equals(stuff[0]);
-      count = Integer.parseInt(stuff[1]);
+      count = line.parseInt("COUNT=".length(), line.length());
 
       status = new CollectionOperationStatus(true, String.valueOf(count), CollectionResponse.END);
     } else {
@@ -36,6 +36,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to delete collection data in a memcached server.
@@ -79,7 +80,7 @@ public final class CollectionDeleteOperationImpl extends OperationImpl
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     assert getState() == OperationState.READING
             : "Read ``" + line + "'' when in " + getState() + " state";
     /* ENABLE_REPLICATION if */
@@ -17,13 +17,10 @@
  */
 package net.spy.memcached.protocol.ascii;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 import net.spy.memcached.KeyUtil;
 import net.spy.memcached.collection.BTreeGet;
@@ -39,6 +36,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to retrieve collection data in a memcached server.
@@ -46,7 +44,7 @@ import net.spy.memcached.ops.OperationType;
 public final class CollectionGetOperationImpl extends OperationImpl
         implements CollectionGetOperation {
 
-  private final ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
+  private final ResponseTokenizer header = new ResponseTokenizer();
 
   private static final OperationStatus END = new CollectionOperationStatus(
           true, "END", CollectionResponse.END);
@@ -77,7 +75,6 @@ public final class CollectionGetOperationImpl extends OperationImpl
   private byte[] data = null;
   private int readOffset = 0;
   private byte lookingFor = '\0';
-  private final List<String> tokens = new ArrayList<>();
   private int eHeadCount;
   private int eFlagIndex;
 
@@ -104,7 +101,7 @@ public final class CollectionGetOperationImpl extends OperationImpl
     }
   }
 
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     /* ENABLE_REPLICATION if */
     if (hasSwitchedOver(line)) {
       prepareSwitchover(line);
@@ -128,11 +125,10 @@ public final class CollectionGetOperationImpl extends OperationImpl
       // Response header
       getLogger().debug("Got line %s", line);
 
-      String[] stuff = line.split(" ");
-      assert "VALUE".equals(stuff[0]);
+      assert line.tokenIs(0, "VALUE");
 
-      flags = Integer.parseInt(stuff[1]);
-      count = Integer.parseInt(stuff[2]);
+      flags = line.intToken(1);
+      count = line.intToken(2);
 
       setReadType(OperationReadType.DATA);
     } else {
@@ -148,52 +144,37 @@ public final class CollectionGetOperationImpl extends OperationImpl
   public void handleRead(ByteBuffer bb) {
     // Decode a collection data header.
     if (lookingFor == '\0' && data == null) {
-      while (bb.hasRemaining()) {
-        byte b = bb.get();
-
-        // Handle spaces.
-        if (b == ' ') {
-           /*
-             btree: <bkey> [<eflag>] <bytes> <data>\r\n
-             list:  <bytes> <data>\r\n
-             set:   <bytes> <data>\r\n
-             map:   <field> <bytes> <data>\r\n
-           */
-          tokens.add(byteBuffer.toString());
-          byteBuffer.reset();
-
-          if (eFlagIndex >= 0 &&
-                  tokens.size() == eFlagIndex + 1 && tokens.get(eFlagIndex).startsWith("0x")) {
-            eHeadCount++;
-          }
-          if (tokens.size() == eHeadCount) {
-            collectionGet.decodeElemHeader(tokens);
-            data = new byte[collectionGet.getDataLength()];
-            tokens.clear();
-            eHeadCount = collectionGet.getEHeadCount();
-            break;
-          }
-          continue;
-        }
-
-        // Ready to finish.
-        if (b == '\r') {
-          continue;
+      while (true) {
+        int read = header.readToken(bb);
+        if (read == ResponseTokenizer.MORE) {
+          break;
         }
-
-        // Finish the operation.
-        if (b == '\n') {
-          OperationStatus status = matchStatus(byteBuffer.toString(),
-                  END, TRIMMED, DELETED, DELETED_DROPPED, NOT_FOUND,
-                  NOT_FOUND_ELEMENT, OUT_OF_RANGE, TYPE_MISMATCH,
-                  BKEY_MISMATCH, UNREADABLE);
-
+        if (read == ResponseTokenizer.LINE) { // Finish the operation.
+          OperationStatus status = matchStatus(header, END, TRIMMED, DELETED, DELETED_DROPPED,
+                  NOT_FOUND, NOT_FOUND_ELEMENT, OUT_OF_RANGE, TYPE_MISMATCH, BKEY_MISMATCH,
+                  UNREADABLE);
           getLogger().debug("Get complete!");
           complete(status);
           data = null;
           break;
         }
-        byteBuffer.write(b);
+        /*
+          btree: <bkey> [<eflag>] <bytes> <data>\r\n
+          list:  <bytes> <data>\r\n
+          set:   <bytes> <data>\r\n
+          map:   <field> <bytes> <data>\r\n
+        */
+        if (eFlagIndex >= 0 && header.tokens() == eFlagIndex + 1
+                && header.tokenStartsWith(eFlagIndex, "0x")) {
+          eHeadCount++;
+        }
+        if (header.tokens() == eHeadCount) {
+          collectionGet.decodeElemHeader(header);
+          data = new byte[collectionGet.getDataLength()];
+          header.clear();
+          eHeadCount = collectionGet.getEHeadCount();
+          break;
+        }
       }
       return;
     }
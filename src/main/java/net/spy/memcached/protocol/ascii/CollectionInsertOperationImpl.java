@@ -38,6 +38,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to store collection data in a memcached server.
@@ -96,7 +97,7 @@ public final class CollectionInsertOperationImpl extends OperationImpl
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     assert getState() == OperationState.READING
             : "Read ``" + line + "'' when in " + getState() + " state";
     /* ENABLE_REPLICATION if */
@@ -122,7 +123,7 @@ public final class CollectionInsertOperationImpl extends OperationImpl
   @Override
   public void initialize() {
     String args = collectionInsert.stringify();
-    ByteBuffer bb = ByteBuffer.allocate(data.length
+    ByteBuffer bb = allocateBuffer(data.length
             + KeyUtil.getKeyBytes(key).length
             + KeyUtil.getKeyBytes(subkey).length
             + KeyUtil.getKeyBytes(collectionInsert.getElementFlagByHex()).length
@@ -137,7 +138,7 @@ public final class CollectionInsertOperationImpl extends OperationImpl
 
     if (getLogger().isDebugEnabled()) {
       getLogger().debug("Request in ascii protocol: %s",
-              (new String(bb.array())).replace("\r\n", "\\r\\n"));
+              (new String(bb.array(), 0, bb.limit())).replace("\r\n", "\\r\\n"));
     }
   }
 
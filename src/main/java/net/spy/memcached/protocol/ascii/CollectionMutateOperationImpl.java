@@ -34,6 +34,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to incr/decr item value from collection in a memcached server.
@@ -76,7 +77,7 @@ public final class CollectionMutateOperationImpl extends OperationImpl implement
     setOperationType(OperationType.WRITE);
   }
 
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
 
     /* ENABLE_REPLICATION if */
     if (hasSwitchedOver(line)) {
@@ -93,10 +94,9 @@ public final class CollectionMutateOperationImpl extends OperationImpl implement
     /* ENABLE_MIGRATION end */
 
     // <result value>\r\n
-    boolean allDigit = line.chars().allMatch(Character::isDigit);
     OperationStatus status;
-    if (allDigit) {
-      status = new CollectionOperationStatus(true, line, CollectionResponse.END);
+    if (line.isDigits()) {
+      status = new CollectionOperationStatus(true, line.toString(), CollectionResponse.END);
     } else {
       status = matchStatus(line, NOT_FOUND, NOT_FOUND_ELEMENT,
               UNREADABLE, OVERFLOWED, OUT_OF_RANGE,
@@ -23,6 +23,7 @@ import net.spy.memcached.ops.CollectionPipedExistOperation;
 import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 public final class CollectionPipedExistOperationImpl extends SingleKeyPipeOperationImpl implements
         CollectionPipedExistOperation {
@@ -35,7 +36,7 @@ public final class CollectionPipedExistOperationImpl extends SingleKeyPipeOperat
   }
 
   @Override
-  protected OperationStatus checkStatus(String line) {
+  protected OperationStatus checkStatus(ResponseTokenizer line) {
     return matchStatus(line, EXIST, NOT_EXIST,
             NOT_FOUND, TYPE_MISMATCH, UNREADABLE);
   }
@@ -25,6 +25,7 @@ import net.spy.memcached.ops.CollectionPipedUpdateOperation;
 import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to update collection data in a memcached server.
@@ -44,7 +45,7 @@ public final class CollectionPipedUpdateOperationImpl extends SingleKeyPipeOpera
   }
 
   @Override
-  protected OperationStatus checkStatus(String line) {
+  protected OperationStatus checkStatus(ResponseTokenizer line) {
     return matchStatus(line, UPDATED, NOT_FOUND,
             NOT_FOUND_ELEMENT, NOTHING_TO_UPDATE, TYPE_MISMATCH,
             BKEY_MISMATCH, EFLAG_MISMATCH);
@@ -35,6 +35,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to update collection data in a memcached server.
@@ -81,7 +82,7 @@ public final class CollectionUpdateOperationImpl extends OperationImpl implement
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     assert getState() == OperationState.READING : "Read ``" + line
             + "'' when in " + getState() + " state";
     /* ENABLE_REPLICATION if */
@@ -118,12 +119,11 @@ public final class CollectionUpdateOperationImpl extends OperationImpl implement
     }
     String eflagStr = b.toString();
 
-    ByteBuffer bb = ByteBuffer
-            .allocate(((data != null) ? data.length : 0)
-                    + KeyUtil.getKeyBytes(key).length
-                    + KeyUtil.getKeyBytes(subkey).length
-                    + eflagStr.length() + args.length()
-                    + OVERHEAD);
+    ByteBuffer bb = allocateBuffer(((data != null) ? data.length : 0)
+            + KeyUtil.getKeyBytes(key).length
+            + KeyUtil.getKeyBytes(subkey).length
+            + eflagStr.length() + args.length()
+            + OVERHEAD);
 
     setArguments(bb, collectionUpdate.getCommand(), key, subkey,
             eflagStr, (data != null ? data.length : "-1"), args);
@@ -138,7 +138,7 @@ public final class CollectionUpdateOperationImpl extends OperationImpl implement
     if (getLogger().isDebugEnabled()) {
       getLogger().debug(
               "Request in ascii protocol: '%s'",
-              (new String(bb.array())).replace("\r\n", "\\r\\n"));
+              (new String(bb.array(), 0, bb.limit())).replace("\r\n", "\\r\\n"));
     }
   }
 
@@ -32,6 +32,7 @@ import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to delete an item from the cache.
@@ -47,16 +48,22 @@ final class DeleteOperationImpl extends OperationImpl
           new OperationStatus(false, "NOT_FOUND", StatusCode.ERR_NOT_FOUND);
 
   private final String key;
+  private final boolean noreply;
 
   public DeleteOperationImpl(String k, OperationCallback cb) {
+    this(k, false, cb);
+  }
+
+  public DeleteOperationImpl(String k, boolean noreply, OperationCallback cb) {
     super(cb);
     key = k;
+    this.noreply = noreply;
     setAPIType(APIType.DELETE);
     setOperationType(OperationType.WRITE);
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Delete of %s returned %s", key, line);
     /* ENABLE_REPLICATION if */
     if (hasSwitchedOver(line)) {
@@ -78,7 +85,7 @@ final class DeleteOperationImpl extends OperationImpl
   public void initialize() {
     ByteBuffer bb = ByteBuffer.allocate(
             KeyUtil.getKeyBytes(key).length + OVERHEAD);
-    setArguments(bb, "delete", key);
+    setArguments(bb, "delete", key, noreply ? "noreply" : "");
     ((Buffer) bb).flip();
     setBuffer(bb);
   }
@@ -87,4 +94,9 @@ final class DeleteOperationImpl extends OperationImpl
     return Collections.singleton(key);
   }
 
+  @Override
+  public boolean isNoreplyOperation() {
+    return noreply;
+  }
+
 }
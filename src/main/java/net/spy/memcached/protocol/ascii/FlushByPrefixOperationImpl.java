@@ -26,6 +26,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Arcus flush by prefix operation.
@@ -53,7 +54,7 @@ final class FlushByPrefixOperationImpl extends OperationImpl implements
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Flush completed successfully");
     /* ENABLE_REPLICATION if */
     if (hasSwitchedOver(line)) {
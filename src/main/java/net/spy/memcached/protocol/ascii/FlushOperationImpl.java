@@ -28,6 +28,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Memcached flush_all operation.
@@ -50,7 +51,7 @@ final class FlushOperationImpl extends OperationImpl
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     getLogger().debug("Flush completed successfully");
     /* ENABLE_REPLICATION if */
     if (hasSwitchedOver(line)) {
@@ -30,6 +30,7 @@ import net.spy.memcached.ops.GetAttrOperation;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Implementation of the gets operation.
@@ -58,7 +59,7 @@ class GetAttrOperationImpl extends OperationImpl implements GetAttrOperation {
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     /* ENABLE_MIGRATION if */
     if (hasNotMyKey(line)) {
       addRedirectSingleKeyOperation(line, key);
@@ -76,12 +77,10 @@ class GetAttrOperationImpl extends OperationImpl implements GetAttrOperation {
     if (line.startsWith("ATTR ")) {
       getLogger().debug("Got line %s", line);
 
-      String[] stuff = line.split(" ");
+      assert line.tokens() == 2;
+      assert line.tokenIs(0, "ATTR");
 
-      assert stuff.length == 2;
-      assert stuff[0].equals("ATTR");
-
-      cb.gotAttribute(key, stuff[1]);
+      cb.gotAttribute(key, line.stringToken(1));
     } else {
       OperationStatus status = matchStatus(line, END, NOT_FOUND, ATTR_ERROR_NOT_FOUND);
       getLogger().debug(status);
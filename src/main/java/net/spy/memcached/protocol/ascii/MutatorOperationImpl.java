@@ -33,6 +33,7 @@ import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation for mutating integers inside of memcached.
@@ -70,7 +71,7 @@ final class MutatorOperationImpl extends OperationImpl
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     /* ENABLE_REPLICATION if */
     if (hasSwitchedOver(line)) {
       prepareSwitchover(line);
@@ -86,10 +87,9 @@ final class MutatorOperationImpl extends OperationImpl
     /* ENABLE_MIGRATION end */
 
     // <result value>\r\n
-    boolean allDigit = line.chars().allMatch(Character::isDigit);
     OperationStatus status;
-    if (allDigit) {
-      status = new OperationStatus(true, line, StatusCode.SUCCESS);
+    if (line.isDigits()) {
+      status = new OperationStatus(true, line.toString(), StatusCode.SUCCESS);
     } else {
       status = matchStatus(line, NOT_FOUND, TYPE_MISMATCH);
     }
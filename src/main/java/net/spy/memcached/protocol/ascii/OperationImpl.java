@@ -18,9 +18,7 @@
 
 package net.spy.memcached.protocol.ascii;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 
 import net.spy.memcached.KeyUtil;
@@ -30,6 +28,7 @@ import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.StatusCode;
 import net.spy.memcached.protocol.BaseOperationImpl;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operations on a memcached connection.
@@ -37,11 +36,9 @@ import net.spy.memcached.protocol.BaseOperationImpl;
 abstract class OperationImpl extends BaseOperationImpl {
 
   protected static final byte[] CRLF = {'\r', '\n'};
-  private static final String CHARSET = "UTF-8";
 
-  private final ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
+  private final ResponseTokenizer line = new ResponseTokenizer();
   private OperationReadType readType = OperationReadType.LINE;
-  private boolean foundCr = false;
 
   protected OperationImpl() {
     super();
@@ -61,19 +58,37 @@ abstract class OperationImpl extends BaseOperationImpl {
    * @param statii several status objects
    * @return the appropriate status object
    */
-  protected final OperationStatus matchStatus(String line,
+  protected final OperationStatus matchStatus(ResponseTokenizer line,
                                               OperationStatus... statii) {
-    OperationStatus rv = null;
     for (OperationStatus status : statii) {
-      if (line.equals(status.getMessage())) {
-        rv = status;
+      if (line.is(status.getMessage())) {
+        return status;
       }
     }
-    if (rv == null) {
-      getLogger().info("Unhandled state: " + line);
-      rv = new OperationStatus(false, line, StatusCode.fromAsciiLine(line));
+    String message = line.toString();
+    getLogger().info("Unhandled state: " + message);
+    return new OperationStatus(false, message, StatusCode.fromAsciiLine(message));
+  }
+
+  /**
+   * Match a token of the line against one of the given OperationStatus objects.
+   * If none match, return a failure status with the token.
+   *
+   * @param line   the current line
+   * @param index  index of the status token
+   * @param statii several status objects
+   * @return the appropriate status object
+   */
+  protected final OperationStatus matchStatus(ResponseTokenizer line, int index,
+                                              OperationStatus... statii) {
+    for (OperationStatus status : statii) {
+      if (line.tokenIs(index, status.getMessage())) {
+        return status;
+      }
     }
-    return rv;
+    String message = line.stringToken(index);
+    getLogger().info("Unhandled state: " + message);
+    return new OperationStatus(false, message, StatusCode.fromAsciiLine(message));
   }
 
   protected final OperationReadType getReadType() {
@@ -104,31 +119,7 @@ abstract class OperationImpl extends BaseOperationImpl {
     bb.put(CRLF);
   }
 
-  private String getLineFromBuffer(ByteBuffer data) throws UnsupportedEncodingException {
-    boolean lineFound = false;
-    while (data.remaining() > 0) {
-      byte b = data.get();
-      if (b == '\r') {
-        foundCr = true;
-      } else if (b == '\n') {
-        assert foundCr : "got a \\n without a \\r";
-        foundCr = false;
-        lineFound = true;
-        break;
-      } else {
-        assert !foundCr : "got a \\r without a \\n";
-        byteBuffer.write(b);
-      }
-    }
-    if (lineFound) {
-      String line = byteBuffer.toString(CHARSET);
-      byteBuffer.reset();
-      return line;
-    }
-    return null;
-  }
-
-  private OperationErrorType classifyError(String line) {
+  private OperationErrorType classifyError(ResponseTokenizer line) {
     OperationErrorType rv = null;
     if (line.startsWith("ERROR")) {
       rv = OperationErrorType.GENERAL;
@@ -150,13 +141,12 @@ abstract class OperationImpl extends BaseOperationImpl {
         return;
       }
       if (readType == OperationReadType.LINE) {
-        String line = getLineFromBuffer(data);
-        if (line == null) {
+        if (!line.read(data)) {
           continue;
         }
         OperationErrorType eType = classifyError(line);
         if (eType != null) {
-          handleError(eType, line);
+          handleError(eType, line.toString());
         } else {
           handleLine(line);
         }
@@ -169,19 +159,41 @@ abstract class OperationImpl extends BaseOperationImpl {
     }
   }
 
-  public abstract void handleLine(String line);
+  /**
+   * Handle a response line.
+   * The line may refer to the read buffer, so it must not be kept after this returns.
+   */
+  public abstract void handleLine(ResponseTokenizer line);
+
+  /**
+   * Handle a response line given as a String.
+   */
+  public final void handleLine(String line) {
+    ResponseTokenizer tokenizer = new ResponseTokenizer();
+    tokenizer.set(line);
+    handleLine(tokenizer);
+  }
 
-  protected boolean hasSwitchedOver(String line) {
+  protected boolean hasSwitchedOver(ResponseTokenizer line) {
     return line.startsWith("SWITCHOVER") || line.startsWith("REPL_SLAVE");
   }
 
+  protected final void prepareSwitchover(ResponseTokenizer line) {
+    prepareSwitchover(line.toString());
+  }
+
   /* ENABLE_MIGRATION if */
-  protected boolean hasNotMyKey(String line) {
+  protected boolean hasNotMyKey(ResponseTokenizer line) {
     return line.startsWith("NOT_MY_KEY");
   }
 
-  protected String getNotMyKey(String line) {
-    return line.substring(line.indexOf("NOT_MY_KEY"));
+  protected String getNotMyKey(ResponseTokenizer line) {
+    String response = line.toString();
+    return response.substring(response.indexOf("NOT_MY_KEY"));
+  }
+
+  protected final void addRedirectSingleKeyOperation(ResponseTokenizer line, String key) {
+    addRedirectSingleKeyOperation(line.toString(), key);
   }
   /* ENABLE_MIGRATION end */
 }
@@ -14,6 +14,7 @@ import net.spy.memcached.ops.OperationException;
 import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 abstract class PipeOperationImpl extends OperationImpl {
 
@@ -70,7 +71,7 @@ abstract class PipeOperationImpl extends OperationImpl {
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     assert getState() == OperationState.READING
             : "Read ``" + line + "'' when in " + getState() + " state";
 
@@ -85,7 +86,7 @@ abstract class PipeOperationImpl extends OperationImpl {
     /* ENABLE_MIGRATION if */
     if (hasNotMyKey(line)) {
       if (isBulkOperation()) {
-        addRedirectMultiKeyOperation(line, getKey(index));
+        addRedirectMultiKeyOperation(line.toString(), getKey(index));
         if (collectionPipe.isNotPiped()) {
           transitionState(OperationState.REDIRECT);
         } else {
@@ -140,12 +141,8 @@ abstract class PipeOperationImpl extends OperationImpl {
     } else if (line.startsWith("RESPONSE ")) {
       getLogger().debug("Got line %s", line);
 
-      // TODO server should be fixed
-      line = line.replace("   ", " ");
-      line = line.replace("  ", " ");
-
-      String[] stuff = line.split(" ");
-      assert "RESPONSE".equals(stuff[0]);
+      // the server may put several spaces between the tokens.
+      assert line.tokenIs(0, "RESPONSE");
       readUntilLastLine = true;
     } else {
       OperationStatus status = checkStatus(line);
@@ -182,17 +179,17 @@ abstract class PipeOperationImpl extends OperationImpl {
    * @param line line that is read from the server
    * @return status that is matched with the line
    */
-  protected abstract OperationStatus checkStatus(String line);
+  protected abstract OperationStatus checkStatus(ResponseTokenizer line);
 
   @Override
   public void initialize() {
-    ByteBuffer buffer = collectionPipe.getAsciiCommand();
+    ByteBuffer buffer = collectionPipe.getAsciiCommand(this::allocateBuffer);
     setBuffer(buffer);
     readUntilLastLine = false;
 
     if (getLogger().isDebugEnabled()) {
       getLogger().debug("Request in ascii protocol: %s",
-              (new String(buffer.array())).replace("\r\n", "\\r\\n"));
+              (new String(buffer.array(), 0, buffer.limit())).replace("\r\n", "\\r\\n"));
     }
   }
 
@@ -27,6 +27,7 @@ import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Base class for ascii SASL operation handlers.
@@ -67,7 +68,7 @@ abstract class SASLBaseOperationImpl extends OperationImpl {
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     /**
      * The server can respond with one of the following:
      *  - SASL_CONTINUE {vlen}\r\n{value}\r\n
@@ -76,7 +77,7 @@ abstract class SASLBaseOperationImpl extends OperationImpl {
      *  - AUTH_ERROR {message}\r\n
      */
     if (line.startsWith("SASL_CONTINUE")) {
-      challengeLength = Integer.parseInt(line.substring("SASL_CONTINUE".length()).trim());
+      challengeLength = line.intToken(1);
       challenge = new byte[challengeLength];
       readOffset = 0;
       setReadType(OperationReadType.DATA);
@@ -85,11 +86,11 @@ abstract class SASLBaseOperationImpl extends OperationImpl {
     } else if (line.startsWith("NOT_SUPPORTED")) {
       complete(matchStatus(line, SASL_NOT_SUPPORTED));
     } else if (line.startsWith("AUTH_ERROR")) {
-      complete(new OperationStatus(false, line, StatusCode.ERR_AUTH));
-      throw new AuthException(line);
+      complete(new OperationStatus(false, line.toString(), StatusCode.ERR_AUTH));
+      throw new AuthException(line.toString());
     } else {
       complete(matchStatus(line));
-      throw new AuthException(line);
+      throw new AuthException(line.toString());
     }
   }
 
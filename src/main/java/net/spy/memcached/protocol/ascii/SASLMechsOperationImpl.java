@@ -29,6 +29,7 @@ import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.SASLMechsOperation;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to request the list of supported SASL mechanisms.
@@ -57,7 +58,7 @@ final class SASLMechsOperationImpl extends OperationImpl implements SASLMechsOpe
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     /**
      * The server can respond with one of the following:
      *  - SASL_MECH {mech 1} {mech 2} {mech 3} ...\r\n
@@ -70,9 +71,10 @@ final class SASLMechsOperationImpl extends OperationImpl implements SASLMechsOpe
     } else if (line.startsWith("NOT_SUPPORTED")) {
       complete(SASL_NOT_SUPPORTED);
     } else {
-      complete(new OperationStatus(false, line, StatusCode.fromAsciiLine(line)));
+      String response = line.toString();
+      complete(new OperationStatus(false, response, StatusCode.fromAsciiLine(response)));
       if (isInternal) {
-        throw new AuthException(line);
+        throw new AuthException(response);
       }
     }
   }
@@ -33,6 +33,7 @@ import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.SetAttrOperation;
+import net.spy.memcached.util.ResponseTokenizer;
 
 class SetAttrOperationImpl extends OperationImpl
         implements SetAttrOperation {
@@ -65,7 +66,7 @@ class SetAttrOperationImpl extends OperationImpl
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     assert getState() == OperationState.READING
             : "Read ``" + line + "'' when in " + getState() + " state";
     /* ENABLE_REPLICATION if */
@@ -26,6 +26,7 @@ import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatsOperation;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to retrieve statistics from a memcached server.
@@ -54,11 +55,12 @@ final class StatsOperationImpl extends OperationImpl
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     if (line.startsWith("STAT") || line.startsWith("PREFIX") || line.startsWith("ITEM")) {
-      String[] parts = line.split(" ", 3);
-      assert parts.length == 3;
-      cb.gotStat(parts[1], parts[2]);
+      int nameStart = line.indexOf(' ', 0) + 1;
+      int valueStart = line.indexOf(' ', nameStart) + 1;
+      assert nameStart > 0 && valueStart > 0;
+      cb.gotStat(line.substring(nameStart, valueStart - 1), line.substring(valueStart));
     } else if (line.startsWith("END")) {
       complete(END);
     } else {
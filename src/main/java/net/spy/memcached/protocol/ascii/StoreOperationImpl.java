@@ -34,7 +34,12 @@ final class StoreOperationImpl extends BaseStoreOperationImpl
 
   public StoreOperationImpl(StoreType t, String k, int f, int e,
                             byte[] d, OperationCallback cb) {
-    super(t.name(), k, f, e, d, cb);
+    this(t, k, f, e, d, false, cb);
+  }
+
+  public StoreOperationImpl(StoreType t, String k, int f, int e,
+                            byte[] d, boolean noreply, OperationCallback cb) {
+    super(t.name(), k, f, e, d, noreply, cb);
     storeType = t;
     if (t == StoreType.add) {
       setAPIType(APIType.ADD);
@@ -24,6 +24,7 @@ import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.StatusCode;
 import net.spy.memcached.ops.TouchOperation;
+import net.spy.memcached.util.ResponseTokenizer;
 
 import java.nio.ByteBuffer;
 import java.util.Collection;
@@ -55,7 +56,7 @@ final class TouchOperationImpl extends OperationImpl implements TouchOperation {
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     /* ENABLE_REPLICATION if */
     if (hasSwitchedOver(line)) {
       prepareSwitchover(line);
@@ -28,6 +28,7 @@ import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.OperationType;
 import net.spy.memcached.ops.StatusCode;
 import net.spy.memcached.ops.VersionOperation;
+import net.spy.memcached.util.ResponseTokenizer;
 
 /**
  * Operation to request the version of a memcached server.
@@ -44,12 +45,13 @@ final class VersionOperationImpl extends OperationImpl
   }
 
   @Override
-  public void handleLine(String line) {
+  public void handleLine(ResponseTokenizer line) {
     OperationStatus status;
     if (line.startsWith("VERSION ")) {
       status = new OperationStatus(true, line.substring("VERSION ".length()), StatusCode.SUCCESS);
     } else {
-      status = new OperationStatus(false, line, StatusCode.fromAsciiLine(line));
+      String response = line.toString();
+      status = new OperationStatus(false, response, StatusCode.fromAsciiLine(response));
     }
     complete(status);
   }
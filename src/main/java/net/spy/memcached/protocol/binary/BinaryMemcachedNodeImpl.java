@@ -20,11 +20,9 @@ package net.spy.memcached.protocol.binary;
 import java.net.SocketAddress;
 import java.util.concurrent.BlockingQueue;
 
-import net.spy.memcached.ops.CASOperation;
 import net.spy.memcached.ops.GetOperation;
 import net.spy.memcached.ops.Operation;
 import net.spy.memcached.ops.OperationState;
-import net.spy.memcached.ops.StoreOperation;
 import net.spy.memcached.protocol.ProxyCallback;
 import net.spy.memcached.protocol.TCPMemcachedNodeImpl;
 
@@ -41,8 +39,17 @@ public class BinaryMemcachedNodeImpl extends TCPMemcachedNodeImpl {
                                  int bufSize, BlockingQueue<Operation> rq,
                                  BlockingQueue<Operation> wq, BlockingQueue<Operation> iq,
                                  Long opQueueMaxBlockTimeNs, boolean waitForAuth) {
+    this(name, sa, bufSize, rq, wq, iq, opQueueMaxBlockTimeNs, waitForAuth, false);
+  }
+
+  public BinaryMemcachedNodeImpl(String name,
+                                 SocketAddress sa,
+                                 int bufSize, BlockingQueue<Operation> rq,
+                                 BlockingQueue<Operation> wq, BlockingQueue<Operation> iq,
+                                 Long opQueueMaxBlockTimeNs, boolean waitForAuth,
+                                 boolean gatheringWrite) {
     super(name, sa, bufSize, rq, wq, iq, opQueueMaxBlockTimeNs,
-            waitForAuth, false /* binary protocol */);
+            waitForAuth, false /* binary protocol */, gatheringWrite);
   }
 
   @Override
@@ -51,8 +58,17 @@ public class BinaryMemcachedNodeImpl extends TCPMemcachedNodeImpl {
     Operation firstOp = writeQ.peek();
     if (firstOp instanceof GetOperation) {
       optimizeGets();
-    } else if (firstOp instanceof CASOperation) {
-      optimizeSets();
+    } else if (OptimizedMutationImpl.canMerge(firstOp)) {
+      optimizeMutations();
+    }
+  }
+
+  @Override
+  protected void optimizeBulk() {
+    // consecutive stores and deletes, such as those of a bulk request,
+    // are always sent as quiet commands.
+    if (OptimizedMutationImpl.canMerge(writeQ.peek())) {
+      optimizeMutations();
     }
   }
 
@@ -81,25 +97,24 @@ public class BinaryMemcachedNodeImpl extends TCPMemcachedNodeImpl {
     }
   }
 
-  private void optimizeSets() {
-    // make sure there are at least two get operations in a row before
+  private void optimizeMutations() {
+    // make sure there are at least two mutations in a row before
     // attempting to optimize them.
     optimizedOp = writeQ.remove();
-    if (writeQ.peek() instanceof CASOperation) {
-      OptimizedSetImpl og = new OptimizedSetImpl(
-              (CASOperation) optimizedOp);
-      optimizedOp = og;
+    if (OptimizedMutationImpl.canMerge(writeQ.peek())) {
+      OptimizedMutationImpl om = new OptimizedMutationImpl(optimizedOp);
+      optimizedOp = om;
 
-      while (writeQ.peek() instanceof StoreOperation
-              && og.size() < MAX_SET_OPTIMIZATION_COUNT
-              && og.bytes() < MAX_SET_OPTIMIZATION_BYTES) {
-        CASOperation o = (CASOperation) writeQ.remove();
+      while (OptimizedMutationImpl.canMerge(writeQ.peek())
+              && om.size() < MAX_SET_OPTIMIZATION_COUNT
+              && om.bytes() < MAX_SET_OPTIMIZATION_BYTES) {
+        Operation o = writeQ.remove();
         if (!o.isCancelled()) {
-          og.addOperation(o);
+          om.addOperation(o);
         }
       }
 
-      // Initialize the new mega set
+      // Initialize the new mega mutation
       optimizedOp.initialize();
       assert optimizedOp.getState() == OperationState.WRITE_QUEUED;
     }
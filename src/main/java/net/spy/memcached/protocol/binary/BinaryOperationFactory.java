@@ -91,6 +91,15 @@ public class BinaryOperationFactory extends BaseOperationFactory {
     return new DeleteOperationImpl(key, operationCallback);
   }
 
+  public DeleteOperation delete(String key, boolean noreply,
+                                OperationCallback operationCallback) {
+    if (noreply) {
+      throw new RuntimeException(
+              "noreply DeleteOperation is not supported in binary protocol yet.");
+    }
+    return delete(key, operationCallback);
+  }
+
   public FlushOperation flush(int delay, OperationCallback cb) {
     return new FlushOperationImpl(cb);
   }
@@ -137,6 +146,15 @@ public class BinaryOperationFactory extends BaseOperationFactory {
     return new StoreOperationImpl(storeType, key, flags, exp, data, 0, cb);
   }
 
+  public StoreOperation store(StoreType storeType, String key, int flags,
+                              int exp, byte[] data, boolean noreply, OperationCallback cb) {
+    if (noreply) {
+      throw new RuntimeException(
+              "noreply StoreOperation is not supported in binary protocol yet.");
+    }
+    return store(storeType, key, flags, exp, data, cb);
+  }
+
   public TouchOperation touch(String key, int expiration, OperationCallback cb) {
     throw new RuntimeException(
             "TouchOperation is not supported in binary protocol yet.");
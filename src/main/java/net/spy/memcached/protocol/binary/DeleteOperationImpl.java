@@ -29,6 +29,8 @@ class DeleteOperationImpl extends OperationImpl implements
 
   private static final int CMD = 4;
 
+  static final int DELETEQ = 0x14;
+
   private final String key;
   private final long cas;
 
@@ -56,4 +58,8 @@ class DeleteOperationImpl extends OperationImpl implements
     return Collections.singleton(key);
   }
 
+  long getCasValue() {
+    return cas;
+  }
+
 }
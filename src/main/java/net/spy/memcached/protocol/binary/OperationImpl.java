@@ -195,6 +195,24 @@ abstract class OperationImpl extends BaseOperationImpl {
     complete(STATUS_OK);
   }
 
+  /**
+   * Complete this operation with the response received by the operation
+   * it was merged into.
+   *
+   * @param errCode the error code of the response, 0 if succeeded
+   * @param errPl   the payload of the response
+   */
+  void completeMerged(int errCode, byte[] errPl) {
+    OperationStatus status = STATUS_OK;
+    if (errCode != 0) {
+      status = getStatusForErrorCode(errCode, errPl);
+      if (status == null) {
+        status = new OperationStatus(false, new String(errPl), StatusCode.ERR_INTERNAL);
+      }
+    }
+    complete(status);
+  }
+
   /**
    * Validate an opaque value from the header.
    * This may be overridden from a subclass where the opaque isn't expected
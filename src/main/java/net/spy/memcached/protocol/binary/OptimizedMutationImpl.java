@@ -0,0 +1,213 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.protocol.binary;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.spy.memcached.KeyUtil;
+import net.spy.memcached.ops.KeyedOperation;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.ops.StoreType;
+
+/**
+ * Store and delete operations merged into a batch of quiet commands.
+ *
+ * <p>Each operation is sent with its quiet opcode and its own opaque,
+ * and a noop is sent at the end. The server responds only to the failed
+ * operations, and each response is mapped back to its operation by opaque.
+ * The response of the noop means that the rest have succeeded.</p>
+ */
+public final class OptimizedMutationImpl extends OperationImpl {
+
+  private static final OperationCallback NOOP_CALLBACK = new NoopCallback();
+
+  private final int terminalOpaque = generateOpaque();
+  private final List<OperationImpl> ops = new ArrayList<>();
+  private final Map<Integer, OperationImpl> pending = new LinkedHashMap<>();
+
+  // If nothing else, this will be a NOOP.
+  private int byteCount = MIN_RECV_PACKET;
+
+  /**
+   * Construct an optimized mutation starting with the given operation.
+   */
+  public OptimizedMutationImpl(Operation firstOp) {
+    super(-1, -1, NOOP_CALLBACK);
+    addOperation(firstOp);
+  }
+
+  /**
+   * Check whether the given operation can be merged as a quiet command.
+   */
+  public static boolean canMerge(Operation op) {
+    return (op instanceof StoreOperationImpl || op instanceof DeleteOperationImpl)
+            && !op.isNoreplyOperation();
+  }
+
+  public void addOperation(Operation op) {
+    assert canMerge(op) : "Cannot merge " + op;
+    OperationImpl o = (OperationImpl) op;
+    ops.add(o);
+
+    // Count the bytes required by this operation.
+    int keylen = KeyUtil.getKeyBytes(getKey(o)).length;
+    if (o instanceof StoreOperationImpl) {
+      byteCount += MIN_RECV_PACKET + StoreOperationImpl.EXTRA_LEN
+              + keylen + ((StoreOperationImpl) o).getBytes().length;
+    } else {
+      byteCount += MIN_RECV_PACKET + keylen;
+    }
+  }
+
+  public int size() {
+    return ops.size();
+  }
+
+  public int bytes() {
+    return byteCount;
+  }
+
+  @Override
+  public void initialize() {
+    // Now create a buffer.
+    ByteBuffer bb = ByteBuffer.allocate(byteCount);
+    pending.clear();
+    for (OperationImpl o : ops) {
+      byte[] keyBytes = KeyUtil.getKeyBytes(getKey(o));
+      pending.put(o.opaque, o);
+
+      if (o instanceof StoreOperationImpl) {
+        StoreOperationImpl so = (StoreOperationImpl) o;
+        byte[] data = so.getBytes();
+
+        // Custom header
+        bb.put(REQ_MAGIC);
+        bb.put((byte) cmdMap(so.getStoreType()));
+        bb.putShort((short) keyBytes.length);
+        bb.put((byte) StoreOperationImpl.EXTRA_LEN); // extralen
+        bb.put((byte) 0); // data type
+        bb.putShort((short) 0); // reserved
+        bb.putInt(keyBytes.length + data.length +
+                StoreOperationImpl.EXTRA_LEN);
+        bb.putInt(so.opaque);
+        bb.putLong(so.getCasValue()); // cas
+        // Extras
+        bb.putInt(so.getFlags());
+        bb.putInt(so.getExpiration());
+        // the actual key
+        bb.put(keyBytes);
+        // And the value
+        bb.put(data);
+      } else {
+        DeleteOperationImpl dop = (DeleteOperationImpl) o;
+
+        // Custom header
+        bb.put(REQ_MAGIC);
+        bb.put((byte) DeleteOperationImpl.DELETEQ);
+        bb.putShort((short) keyBytes.length);
+        bb.put((byte) 0); // extralen
+        bb.put((byte) 0); // data type
+        bb.putShort((short) 0); // reserved
+        bb.putInt(keyBytes.length);
+        bb.putInt(dop.opaque);
+        bb.putLong(dop.getCasValue()); // cas
+        // the actual key
+        bb.put(keyBytes);
+      }
+    }
+    // Add the noop
+    bb.put(REQ_MAGIC);
+    bb.put((byte) NoopOperationImpl.CMD);
+    bb.putShort((short) 0);
+    bb.put((byte) 0); // extralen
+    bb.put((byte) 0); // data type
+    bb.putShort((short) 0); // reserved
+    bb.putInt(0);
+    bb.putInt(terminalOpaque);
+    bb.putLong(0); // cas
+
+    ((Buffer) bb).flip();
+    setBuffer(bb);
+  }
+
+  private static String getKey(OperationImpl o) {
+    return ((KeyedOperation) o).getKeys().iterator().next();
+  }
+
+  private static int cmdMap(StoreType t) {
+    int rv = -1;
+    switch (t) {
+      case set:
+        rv = StoreOperationImpl.SETQ;
+        break;
+      case add:
+        rv = StoreOperationImpl.ADDQ;
+        break;
+      case replace:
+        rv = StoreOperationImpl.REPLACEQ;
+        break;
+    }
+    // Check fall-through.
+    assert rv != -1 : "Unhandled store type:  " + t;
+    return rv;
+  }
+
+  @Override
+  protected void finishedPayload(byte[] pl) throws IOException {
+    if (responseOpaque == terminalOpaque) {
+      for (OperationImpl o : pending.values()) {
+        o.completeMerged(0, pl);
+      }
+      pending.clear();
+      complete(STATUS_OK);
+    } else {
+      OperationImpl o = pending.remove(responseOpaque);
+      assert o != null : "No operation for " + responseOpaque;
+      assert errorCode != 0 : "Got no error on a quiet mutation.";
+      o.completeMerged(errorCode, pl);
+    }
+    resetInput();
+  }
+
+  @Override
+  protected boolean opaqueIsValid() {
+    return responseOpaque == terminalOpaque
+            || pending.containsKey(responseOpaque);
+  }
+
+  static class NoopCallback implements OperationCallback {
+
+    public void complete() {
+      // noop
+    }
+
+    public void receivedStatus(OperationStatus status) {
+      // noop
+    }
+
+  }
+
+}
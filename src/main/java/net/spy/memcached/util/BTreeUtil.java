@@ -17,6 +17,8 @@
  */
 package net.spy.memcached.util;
 
+import java.util.Arrays;
+
 import net.spy.memcached.CachedData;
 import net.spy.memcached.collection.BKeyObject;
 import net.spy.memcached.collection.Element;
@@ -25,6 +27,7 @@ import net.spy.memcached.transcoders.Transcoder;
 public final class BTreeUtil {
 
   private static final String HEXES = "0123456789ABCDEF";
+  private static final int MAX_BKEY_BYTE_ARRAY_LENGTH = 31;
 
   private BTreeUtil() {
   }
@@ -101,4 +104,39 @@ public final class BTreeUtil {
     }
     return element;
   }
+
+  /**
+   * Get the byte array bkey adjacent to the given bkey in lexicographical order,
+   * which is the next one, or the previous one if reverse.
+   *
+   * @param bkey    byte array bkey
+   * @param reverse true to get the previous bkey
+   * @return the adjacent bkey, or null if there is none
+   */
+  public static byte[] adjacentByteArrayBKey(byte[] bkey, boolean reverse) {
+    if (!reverse) {
+      if (bkey.length < MAX_BKEY_BYTE_ARRAY_LENGTH) {
+        return Arrays.copyOf(bkey, bkey.length + 1);
+      }
+      for (int i = bkey.length - 1; i >= 0; i--) {
+        if (bkey[i] != (byte) 0xFF) {
+          byte[] next = Arrays.copyOf(bkey, i + 1);
+          next[i]++;
+          return next;
+        }
+      }
+      return null;
+    }
+
+    if (bkey.length == 0 || (bkey.length == 1 && bkey[0] == 0)) {
+      return null;
+    }
+    if (bkey[bkey.length - 1] == 0) {
+      return Arrays.copyOf(bkey, bkey.length - 1);
+    }
+    byte[] prev = Arrays.copyOf(bkey, MAX_BKEY_BYTE_ARRAY_LENGTH);
+    prev[bkey.length - 1]--;
+    Arrays.fill(prev, bkey.length, prev.length, (byte) 0xFF);
+    return prev;
+  }
 }
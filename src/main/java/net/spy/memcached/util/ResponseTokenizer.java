@@ -0,0 +1,457 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte level tokenizer of the text response lines of the ASCII protocol.
+ *
+ * <p>It is kept out of the protocol packages, since the collection commands
+ * decode their element headers with it.</p>
+ *
+ * <p>Keywords are matched and numbers are parsed on the bytes of the read buffer,
+ * so that a response line is never converted to a String on the common paths.
+ * A line read entirely from a heap buffer refers to the buffer itself,
+ * so a line is valid only until the next read from the buffer.</p>
+ *
+ * <p>Tokens are separated by one or more spaces.</p>
+ */
+public final class ResponseTokenizer {
+
+  /**
+   * {@link #readToken(ByteBuffer)} needs more bytes.
+   */
+  public static final int MORE = 0;
+  /**
+   * {@link #readToken(ByteBuffer)} has read a token followed by a space.
+   */
+  public static final int TOKEN = 1;
+  /**
+   * {@link #readToken(ByteBuffer)} has read the end of a line.
+   */
+  public static final int LINE = 2;
+
+  private static final byte[] EMPTY = new byte[0];
+  private static final int INITIAL_BUFFER_SIZE = 64;
+  private static final int INITIAL_TOKEN_SIZE = 8;
+
+  // bytes of a line spanning over reads.
+  private byte[] buf = EMPTY;
+  private int bufLen = 0;
+
+  // the line completed by the last read.
+  private byte[] src = EMPTY;
+  private int off = 0;
+  private int len = 0;
+  private boolean complete = false;
+
+  // token boundaries relative to off, computed lazily for a line.
+  private int[] tokenStart = null;
+  private int[] tokenEnd = null;
+  private int tokenCount = 0;
+  private boolean tokenized = false;
+
+  private String string = null;
+
+  /**
+   * Read bytes from the buffer until the end of a line.
+   *
+   * @param data buffer to read
+   * @return true if a line is completed, false if more bytes are needed
+   */
+  public boolean read(ByteBuffer data) {
+    if (complete) {
+      clear();
+    }
+    if (data.hasArray()) {
+      byte[] a = data.array();
+      int base = data.arrayOffset();
+      int pos = data.position();
+      int lim = data.limit();
+      for (int i = pos; i < lim; i++) {
+        if (a[base + i] == '\n') {
+          data.position(i + 1);
+          if (bufLen == 0) {
+            setLine(a, base + pos, i - pos);
+          } else {
+            append(a, base + pos, i - pos);
+            setLine(buf, 0, bufLen);
+          }
+          return true;
+        }
+      }
+      append(a, base + pos, lim - pos);
+      data.position(lim);
+      return false;
+    }
+    while (data.hasRemaining()) {
+      byte b = data.get();
+      if (b == '\n') {
+        setLine(buf, 0, bufLen);
+        return true;
+      }
+      append(b);
+    }
+    return false;
+  }
+
+  /**
+   * Read bytes from the buffer until a space or the end of a line.
+   * The tokens read are kept until {@link #clear()} is called.
+   *
+   * @param data buffer to read
+   * @return {@link #TOKEN}, {@link #LINE} or {@link #MORE}
+   */
+  public int readToken(ByteBuffer data) {
+    if (complete) {
+      clear();
+    }
+    while (data.hasRemaining()) {
+      byte b = data.get();
+      if (b == '\n') {
+        setLine(buf, 0, bufLen);
+        return LINE;
+      }
+      if (b == ' ') {
+        if (bufLen > 0 && buf[bufLen - 1] != ' ') {
+          int start = bufLen - 1;
+          while (start > 0 && buf[start - 1] != ' ') {
+            start--;
+          }
+          addToken(start, bufLen);
+          append(b);
+          src = buf;
+          return TOKEN;
+        }
+        append(b);
+        continue;
+      }
+      append(b);
+    }
+    return MORE;
+  }
+
+  /**
+   * Set the line to the given string.
+   */
+  public void set(String line) {
+    clear();
+    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+    setLine(bytes, 0, bytes.length);
+    string = line;
+  }
+
+  /**
+   * Forget the current line and tokens.
+   */
+  public void clear() {
+    bufLen = 0;
+    src = buf;
+    off = 0;
+    len = 0;
+    complete = false;
+    tokenCount = 0;
+    tokenized = false;
+    string = null;
+  }
+
+  /**
+   * Get the length of the line in bytes.
+   */
+  public int length() {
+    return len;
+  }
+
+  /**
+   * Get the byte at the given index of the line.
+   */
+  public byte byteAt(int index) {
+    return src[off + index];
+  }
+
+  /**
+   * Check whether the line is the given ASCII keyword.
+   */
+  public boolean is(String keyword) {
+    return len == keyword.length() && regionMatches(0, keyword);
+  }
+
+  /**
+   * Check whether the line starts with the given ASCII prefix.
+   */
+  public boolean startsWith(String prefix) {
+    return len >= prefix.length() && regionMatches(0, prefix);
+  }
+
+  /**
+   * Check whether the line consists of digits only.
+   */
+  public boolean isDigits() {
+    if (len == 0) {
+      return false;
+    }
+    for (int i = off; i < off + len; i++) {
+      if (src[i] < '0' || src[i] > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the index of the first given byte at or after the index, or -1.
+   */
+  public int indexOf(char c, int from) {
+    for (int i = off + from; i < off + len; i++) {
+      if (src[i] == c) {
+        return i - off;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parse the decimal number in the given range of the line.
+   */
+  public int parseInt(int from, int to) {
+    long value = parseLong(from, to);
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new NumberFormatException("Out of int range: " + substring(from, to));
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parse the decimal number in the given range of the line.
+   */
+  public long parseLong(int from, int to) {
+    int i = off + from;
+    int end = off + to;
+    boolean negative = false;
+    if (i < end && src[i] == '-') {
+      negative = true;
+      i++;
+    }
+    if (i == end) {
+      throw new NumberFormatException("Not a number: " + substring(from, to));
+    }
+    // accumulate negatively like Long.parseLong() to cover Long.MIN_VALUE.
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long value = 0;
+    for (; i < end; i++) {
+      int d = src[i] - '0';
+      if (d < 0 || d > 9 || value < limit / 10 || value * 10 < limit + d) {
+        throw new NumberFormatException("Not a number: " + substring(from, to));
+      }
+      value = value * 10 - d;
+    }
+    return negative ? value : -value;
+  }
+
+  /**
+   * Get the number of tokens of the line.
+   */
+  public int tokens() {
+    if (complete && !tokenized) {
+      tokenize();
+    }
+    return tokenCount;
+  }
+
+  /**
+   * Check whether the token at the index is the given ASCII keyword.
+   */
+  public boolean tokenIs(int index, String keyword) {
+    checkToken(index);
+    return tokenEnd[index] - tokenStart[index] == keyword.length()
+            && regionMatches(tokenStart[index], keyword);
+  }
+
+  /**
+   * Check whether the token at the index starts with the given ASCII prefix.
+   */
+  public boolean tokenStartsWith(int index, String prefix) {
+    checkToken(index);
+    return tokenEnd[index] - tokenStart[index] >= prefix.length()
+            && regionMatches(tokenStart[index], prefix);
+  }
+
+  /**
+   * Parse the token at the index as a decimal int.
+   */
+  public int intToken(int index) {
+    checkToken(index);
+    return parseInt(tokenStart[index], tokenEnd[index]);
+  }
+
+  /**
+   * Parse the token at the index as a decimal long.
+   */
+  public long longToken(int index) {
+    checkToken(index);
+    return parseLong(tokenStart[index], tokenEnd[index]);
+  }
+
+  /**
+   * Get the token at the index as a String.
+   */
+  public String stringToken(int index) {
+    checkToken(index);
+    return substring(tokenStart[index], tokenEnd[index]);
+  }
+
+  /**
+   * Decode the token at the index written as a hex string with or without "0x".
+   */
+  public byte[] hexToken(int index) {
+    checkToken(index);
+    int i = off + tokenStart[index];
+    int end = off + tokenEnd[index];
+    if (end - i >= 2 && src[i] == '0' && src[i + 1] == 'x') {
+      i += 2;
+    }
+    if ((end - i) % 2 != 0) {
+      throw new IllegalArgumentException("Invalid hex string.");
+    }
+    byte[] bytes = new byte[(end - i) / 2];
+    for (int j = 0; j < bytes.length; j++, i += 2) {
+      bytes[j] = (byte) ((Character.digit(src[i], 16) << 4) + Character.digit(src[i + 1], 16));
+    }
+    return bytes;
+  }
+
+  /**
+   * Get the tokens as Strings.
+   */
+  public List<String> toList() {
+    int count = tokens();
+    List<String> list = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      list.add(stringToken(i));
+    }
+    return list;
+  }
+
+  /**
+   * Get a part of the line as a String.
+   */
+  public String substring(int from, int to) {
+    return new String(src, off + from, to - from, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Get a part of the line as a String.
+   */
+  public String substring(int from) {
+    return substring(from, len);
+  }
+
+  @Override
+  public String toString() {
+    if (string == null) {
+      string = substring(0, len);
+    }
+    return string;
+  }
+
+  private void setLine(byte[] bytes, int offset, int length) {
+    if (length > 0 && bytes[offset + length - 1] == '\r') {
+      length--;
+    }
+    src = bytes;
+    off = offset;
+    len = length;
+    complete = true;
+    string = null;
+  }
+
+  private boolean regionMatches(int from, String s) {
+    int base = off + from;
+    for (int i = 0; i < s.length(); i++) {
+      if (src[base + i] != (byte) s.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void checkToken(int index) {
+    if (index >= tokens()) {
+      throw new IndexOutOfBoundsException("No token " + index + " in " + this);
+    }
+  }
+
+  // tokens read by readToken() are kept, and the rest of the line is scanned.
+  private void tokenize() {
+    int i = tokenCount > 0 ? tokenEnd[tokenCount - 1] : 0;
+    tokenized = true;
+    while (i < len) {
+      while (i < len && src[off + i] == ' ') {
+        i++;
+      }
+      if (i == len) {
+        break;
+      }
+      int start = i;
+      while (i < len && src[off + i] != ' ') {
+        i++;
+      }
+      addToken(start, i);
+    }
+  }
+
+  private void addToken(int start, int end) {
+    if (tokenStart == null) {
+      tokenStart = new int[INITIAL_TOKEN_SIZE];
+      tokenEnd = new int[INITIAL_TOKEN_SIZE];
+    } else if (tokenCount == tokenStart.length) {
+      int[] newStart = new int[tokenCount * 2];
+      int[] newEnd = new int[tokenCount * 2];
+      System.arraycopy(tokenStart, 0, newStart, 0, tokenCount);
+      System.arraycopy(tokenEnd, 0, newEnd, 0, tokenCount);
+      tokenStart = newStart;
+      tokenEnd = newEnd;
+    }
+    tokenStart[tokenCount] = start;
+    tokenEnd[tokenCount] = end;
+    tokenCount++;
+  }
+
+  private void append(byte b) {
+    ensureCapacity(bufLen + 1);
+    buf[bufLen++] = b;
+  }
+
+  private void append(byte[] bytes, int offset, int length) {
+    ensureCapacity(bufLen + length);
+    System.arraycopy(bytes, offset, buf, bufLen, length);
+    bufLen += length;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > buf.length) {
+      byte[] newBuf = new byte[Math.max(capacity, Math.max(INITIAL_BUFFER_SIZE, buf.length * 2))];
+      System.arraycopy(buf, 0, newBuf, 0, bufLen);
+      buf = newBuf;
+    }
+  }
+}
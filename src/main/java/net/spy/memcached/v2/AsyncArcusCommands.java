@@ -21,10 +21,14 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import net.spy.memcached.ArcusClient;
@@ -48,8 +52,27 @@ import net.spy.memcached.collection.BTreeInsert;
 import net.spy.memcached.collection.BTreeInsertAndGet;
 import net.spy.memcached.collection.CollectionAttributes;
 import net.spy.memcached.collection.CollectionCreate;
+import net.spy.memcached.collection.CollectionDelete;
+import net.spy.memcached.collection.CollectionGet;
 import net.spy.memcached.collection.CollectionInsert;
 import net.spy.memcached.collection.ElementValueType;
+import net.spy.memcached.collection.ListCreate;
+import net.spy.memcached.collection.ListDelete;
+import net.spy.memcached.collection.ListGet;
+import net.spy.memcached.collection.ListInsert;
+import net.spy.memcached.collection.MapCreate;
+import net.spy.memcached.collection.MapDelete;
+import net.spy.memcached.collection.MapGet;
+import net.spy.memcached.collection.MapInsert;
+import net.spy.memcached.collection.MapUpdate;
+import net.spy.memcached.collection.MapUpsert;
+import net.spy.memcached.collection.SetCreate;
+import net.spy.memcached.collection.SetDelete;
+import net.spy.memcached.collection.SetExist;
+import net.spy.memcached.collection.SetGet;
+import net.spy.memcached.collection.SetInsert;
+import net.spy.memcached.internal.BulkChunkWindow;
+import net.spy.memcached.internal.BulkGetSubscriber;
 import net.spy.memcached.ops.APIType;
 import net.spy.memcached.ops.BTreeInsertAndGetOperation;
 import net.spy.memcached.ops.CollectionCreateOperation;
@@ -67,6 +90,7 @@ import net.spy.memcached.v2.vo.BKey;
 import net.spy.memcached.v2.vo.BTreeElement;
 import net.spy.memcached.v2.vo.BTreeElements;
 import net.spy.memcached.v2.vo.BopGetArgs;
+import net.spy.memcached.v2.vo.CollectionGetArgs;
 import net.spy.memcached.v2.vo.SMGetElements;
 
 public class AsyncArcusCommands<T> implements AsyncArcusCommandsIF<T> {
@@ -178,6 +202,82 @@ public class AsyncArcusCommands<T> implements AsyncArcusCommandsIF<T> {
     });
   }
 
+  public ArcusFuture<Boolean> multiSetNoreply(List<String> keys, int exp, T value,
+                                              boolean sync) {
+    ArcusClient client = arcusClientSupplier.get();
+    Collection<Map.Entry<MemcachedNode, List<String>>> arrangedKeys
+        = client.validateAndGroupKeys(keys, keys.size(), APIType.SET);
+    CachedData co = tc.encode(value);
+
+    Collection<CompletableFuture<?>> futures = new ArrayList<>();
+    for (Map.Entry<MemcachedNode, List<String>> entry : arrangedKeys) {
+      MemcachedNode node = entry.getKey();
+      for (String key : entry.getValue()) {
+        futures.add(noreply(client, node, cb -> client.getOpFact()
+            .store(StoreType.set, key, co.getFlags(), exp, co.getData(), true, cb))
+            .toCompletableFuture());
+      }
+      if (sync) {
+        // the response of the version operation follows those of the operations before it.
+        futures.add(noreply(client, node, cb -> client.getOpFact().version(cb))
+            .toCompletableFuture());
+      }
+    }
+
+    /*
+     * Combine all futures. Returns true if all operations succeed.
+     * Returns false if any operation fails.
+     */
+    return new ArcusMultiFuture<>(futures, () -> {
+      for (CompletableFuture<?> future : futures) {
+        if (future.isCompletedExceptionally()) {
+          return false;
+        }
+        Boolean result = (Boolean) future.join();
+        if (result == null || !result) {
+          return false;
+        }
+      }
+      return true;
+    });
+  }
+
+  /**
+   * Use only in noreply methods.
+   *
+   * @param client the ArcusClient instance to use
+   * @param node   the MemcachedNode to send the operation
+   * @param makeOp makes the operation with the given callback
+   * @return ArcusFuture with whether the operation succeeded
+   */
+  private ArcusFuture<Boolean> noreply(ArcusClient client, MemcachedNode node,
+                                       Function<OperationCallback, Operation> makeOp) {
+    AbstractArcusResult<Boolean> result = new AbstractArcusResult<>(new AtomicReference<>());
+    ArcusFutureImpl<Boolean> future = new ArcusFutureImpl<>(result);
+
+    OperationCallback cb = new OperationCallback() {
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        if (status.getStatusCode() == StatusCode.CANCELLED) {
+          future.internalCancel();
+          return;
+        }
+        result.set(status.isSuccess());
+      }
+
+      @Override
+      public void complete() {
+        future.complete();
+      }
+    };
+
+    Operation op = makeOp.apply(cb);
+    future.setOp(op);
+    client.addOp(node, op);
+
+    return future;
+  }
+
   public ArcusFuture<T> get(String key) {
     AbstractArcusResult<CachedData> result = new AbstractArcusResult<>(new AtomicReference<>());
     ArcusFutureImpl<T> future = new ArcusFutureImpl<>(result,
@@ -222,14 +322,17 @@ public class AsyncArcusCommands<T> implements AsyncArcusCommandsIF<T> {
 
     Collection<CompletableFuture<?>> futures = new ArrayList<>();
     Map<CompletableFuture<Map<String, T>>, List<String>> futureToKeys = new HashMap<>();
+    BulkChunkWindow window = client.newBulkGetChunkWindow();
 
     for (Map.Entry<MemcachedNode, List<String>> entry : arrangedKeys) {
       MemcachedNode node = entry.getKey();
       List<String> keyList = entry.getValue();
-      CompletableFuture<Map<String, T>> future = get(client, node, keyList).toCompletableFuture();
+      CompletableFuture<Map<String, T>> future
+          = get(client, node, keyList, window).toCompletableFuture();
       futureToKeys.put(future, keyList);
       futures.add(future);
     }
+    window.send();
 
     /*
      * Combine all futures. If any future fails exceptionally,
@@ -255,14 +358,19 @@ public class AsyncArcusCommands<T> implements AsyncArcusCommandsIF<T> {
     });
   }
 
+  public void multiGetStream(List<String> keys, BulkGetSubscriber<T> subscriber) {
+    arcusClientSupplier.get().asyncGetBulkStream(keys, tc, subscriber);
+  }
+
   /**
    * Use only in multiGet method.
    *
    * @param keyList key list to get from single node
+   * @param window  sender of the chunks of the multiGet
    * @return ArcusFuture with results
    */
   private ArcusFuture<Map<String, T>> get(ArcusClient client, MemcachedNode node,
-                                          List<String> keyList) {
+                                          List<String> keyList, BulkChunkWindow window) {
     AbstractArcusResult<Map<String, CachedData>> result
         = new AbstractArcusResult<>((new AtomicReference<>(new HashMap<>())));
     @SuppressWarnings("unchecked")
@@ -301,11 +409,12 @@ public class AsyncArcusCommands<T> implements AsyncArcusCommandsIF<T> {
       @Override
       public void complete() {
         future.complete();
+        window.chunkCompleted(node);
       }
     };
     Operation op = client.getOpFact().get(keyList, cb, node.enabledMGetOp());
     future.setOp(op);
-    client.addOp(node, op);
+    window.add(node, op);
 
     return future;
   }
@@ -963,4 +1072,366 @@ public class AsyncArcusCommands<T> implements AsyncArcusCommandsIF<T> {
           args.getCount(), unique);
     }
   }
+
+  public ArcusFuture<Boolean> lopCreate(String key, ElementValueType type,
+                                        CollectionAttributes attributes) {
+    if (attributes == null) {
+      throw new IllegalArgumentException("CollectionAttributes cannot be null");
+    }
+
+    CollectionCreate create = new ListCreate(TranscoderUtils.examineFlags(type),
+        attributes.getExpireTime(), attributes.getMaxCount(),
+        attributes.getOverflowAction(), attributes.getReadable(), false);
+
+    return collectionCreate(key, create);
+  }
+
+  public ArcusFuture<Boolean> lopInsert(String key, int index, T value,
+                                        CollectionAttributes attributes) {
+    ListInsert<T> insert = new ListInsert<>(value, null, attributes);
+    return collectionInsert(key, String.valueOf(index), insert);
+  }
+
+  public ArcusFuture<Boolean> lopInsert(String key, int index, T value) {
+    return lopInsert(key, index, value, null);
+  }
+
+  public ArcusFuture<Map<String, Boolean>> lopMultiInsert(List<String> keys, int index, T value,
+                                                          CollectionAttributes attributes) {
+    return fanOut(keys, key -> lopInsert(key, index, value, attributes));
+  }
+
+  public ArcusFuture<List<T>> lopGet(String key, int from, int to, CollectionGetArgs args) {
+    List<T> values = new ArrayList<>();
+    ListGet get = new ListGet(from, to, args.isWithDelete(), args.isDropIfEmpty());
+    return collectionGet(key, get, values, (subkey, value) -> values.add(value));
+  }
+
+  public ArcusFuture<Map<String, List<T>>> lopMultiGet(List<String> keys, int from, int to,
+                                                       CollectionGetArgs args) {
+    return fanOut(keys, key -> lopGet(key, from, to, args));
+  }
+
+  public ArcusFuture<Boolean> lopDelete(String key, int from, int to, boolean dropIfEmpty) {
+    return collectionDelete(key, new ListDelete(from, to, dropIfEmpty, false));
+  }
+
+  public ArcusFuture<Boolean> sopCreate(String key, ElementValueType type,
+                                        CollectionAttributes attributes) {
+    if (attributes == null) {
+      throw new IllegalArgumentException("CollectionAttributes cannot be null");
+    }
+
+    CollectionCreate create = new SetCreate(TranscoderUtils.examineFlags(type),
+        attributes.getExpireTime(), attributes.getMaxCount(),
+        attributes.getReadable(), false);
+
+    return collectionCreate(key, create);
+  }
+
+  public ArcusFuture<Boolean> sopInsert(String key, T value, CollectionAttributes attributes) {
+    SetInsert<T> insert = new SetInsert<>(value, null, attributes);
+    return collectionInsert(key, "", insert);
+  }
+
+  public ArcusFuture<Boolean> sopInsert(String key, T value) {
+    return sopInsert(key, value, null);
+  }
+
+  public ArcusFuture<Map<String, Boolean>> sopMultiInsert(List<String> keys, T value,
+                                                          CollectionAttributes attributes) {
+    return fanOut(keys, key -> sopInsert(key, value, attributes));
+  }
+
+  public ArcusFuture<Boolean> sopExist(String key, T value) {
+    AbstractArcusResult<Boolean> result = new AbstractArcusResult<>(new AtomicReference<>());
+    ArcusFutureImpl<Boolean> future = new ArcusFutureImpl<>(result);
+    SetExist<T> exist = new SetExist<>(value, tcForCollection);
+    ArcusClient client = arcusClientSupplier.get();
+
+    OperationCallback cb = new OperationCallback() {
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        switch (status.getStatusCode()) {
+          case EXIST:
+            result.set(true);
+            break;
+          case NOT_EXIST:
+            result.set(false);
+            break;
+          case ERR_NOT_FOUND:
+            result.set(null);
+            break;
+          case CANCELLED:
+            future.internalCancel();
+            break;
+          default:
+            // TYPE_MISMATCH / UNREADABLE / NOT_SUPPORTED or unknown statement
+            result.addError(key, status);
+        }
+      }
+
+      @Override
+      public void complete() {
+        future.complete();
+      }
+    };
+    Operation op = client.getOpFact().collectionExist(key, "", exist, cb);
+    future.setOp(op);
+    client.addOp(key, op);
+
+    return future;
+  }
+
+  public ArcusFuture<Map<String, Boolean>> sopMultiExist(List<String> keys, T value) {
+    return fanOut(keys, key -> sopExist(key, value));
+  }
+
+  public ArcusFuture<Set<T>> sopGet(String key, int count, CollectionGetArgs args) {
+    Set<T> values = new HashSet<>();
+    SetGet get = new SetGet(count, args.isWithDelete(), args.isDropIfEmpty());
+    return collectionGet(key, get, values, (subkey, value) -> values.add(value));
+  }
+
+  public ArcusFuture<Map<String, Set<T>>> sopMultiGet(List<String> keys, int count,
+                                                      CollectionGetArgs args) {
+    return fanOut(keys, key -> sopGet(key, count, args));
+  }
+
+  public ArcusFuture<Boolean> sopDelete(String key, T value, boolean dropIfEmpty) {
+    return collectionDelete(key, new SetDelete<>(value, dropIfEmpty, false, tcForCollection));
+  }
+
+  public ArcusFuture<Boolean> mopCreate(String key, ElementValueType type,
+                                        CollectionAttributes attributes) {
+    if (attributes == null) {
+      throw new IllegalArgumentException("CollectionAttributes cannot be null");
+    }
+
+    CollectionCreate create = new MapCreate(TranscoderUtils.examineFlags(type),
+        attributes.getExpireTime(), attributes.getMaxCount(),
+        attributes.getReadable(), false);
+
+    return collectionCreate(key, create);
+  }
+
+  public ArcusFuture<Boolean> mopInsert(String key, String mkey, T value,
+                                        CollectionAttributes attributes) {
+    keyValidator.validateMKey(mkey);
+    MapInsert<T> insert = new MapInsert<>(value, null, attributes);
+    return collectionInsert(key, mkey, insert);
+  }
+
+  public ArcusFuture<Boolean> mopInsert(String key, String mkey, T value) {
+    return mopInsert(key, mkey, value, null);
+  }
+
+  public ArcusFuture<Map<String, Boolean>> mopMultiInsert(List<String> keys, String mkey,
+                                                          T value,
+                                                          CollectionAttributes attributes) {
+    return fanOut(keys, key -> mopInsert(key, mkey, value, attributes));
+  }
+
+  public ArcusFuture<Boolean> mopUpsert(String key, String mkey, T value,
+                                        CollectionAttributes attributes) {
+    keyValidator.validateMKey(mkey);
+    MapUpsert<T> upsert = new MapUpsert<>(value, attributes);
+    return collectionInsert(key, mkey, upsert);
+  }
+
+  public ArcusFuture<Boolean> mopUpsert(String key, String mkey, T value) {
+    return mopUpsert(key, mkey, value, null);
+  }
+
+  public ArcusFuture<Boolean> mopUpdate(String key, String mkey, T value) {
+    keyValidator.validateMKey(mkey);
+    AbstractArcusResult<Boolean> result = new AbstractArcusResult<>(new AtomicReference<>());
+    ArcusFutureImpl<Boolean> future = new ArcusFutureImpl<>(result);
+    MapUpdate<T> update = new MapUpdate<>(value, false);
+    CachedData co = tcForCollection.encode(value);
+    update.setFlags(co.getFlags());
+    ArcusClient client = arcusClientSupplier.get();
+
+    OperationCallback cb = new OperationCallback() {
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        switch (status.getStatusCode()) {
+          case SUCCESS:
+            result.set(true);
+            break;
+          case ERR_NOT_FOUND_ELEMENT:
+            result.set(false);
+            break;
+          case ERR_NOT_FOUND:
+            result.set(null);
+            break;
+          case CANCELLED:
+            future.internalCancel();
+            break;
+          default:
+            // TYPE_MISMATCH / NOTHING_TO_UPDATE / NOT_SUPPORTED or unknown statement
+            result.addError(key, status);
+        }
+      }
+
+      @Override
+      public void complete() {
+        future.complete();
+      }
+    };
+    Operation op = client.getOpFact().collectionUpdate(key, mkey, update, co.getData(), cb);
+    future.setOp(op);
+    client.addOp(key, op);
+
+    return future;
+  }
+
+  public ArcusFuture<Map<String, T>> mopGet(String key, List<String> mkeys,
+                                            CollectionGetArgs args) {
+    if (!mkeys.isEmpty()) {
+      keyValidator.validateMKey(mkeys);
+    }
+    Map<String, T> values = new HashMap<>();
+    MapGet get = new MapGet(mkeys, args.isWithDelete(), args.isDropIfEmpty());
+    return collectionGet(key, get, values, values::put);
+  }
+
+  public ArcusFuture<Map<String, Map<String, T>>> mopMultiGet(List<String> keys,
+                                                              List<String> mkeys,
+                                                              CollectionGetArgs args) {
+    return fanOut(keys, key -> mopGet(key, mkeys, args));
+  }
+
+  public ArcusFuture<Boolean> mopDelete(String key, List<String> mkeys, boolean dropIfEmpty) {
+    if (!mkeys.isEmpty()) {
+      keyValidator.validateMKey(mkeys);
+    }
+    return collectionDelete(key, new MapDelete(mkeys, dropIfEmpty, false));
+  }
+
+  /**
+   * Use only in lop, sop and mop get methods.
+   *
+   * @param values     the empty values of the result
+   * @param addElement adds the subkey and the value of an element to the values
+   * @return ArcusFuture with the values, or null if key is not found
+   */
+  private <R> ArcusFuture<R> collectionGet(String key, CollectionGet get, R values,
+                                           BiConsumer<String, T> addElement) {
+    AbstractArcusResult<R> result = new AbstractArcusResult<>(new AtomicReference<>(values));
+    ArcusFutureImpl<R> future = new ArcusFutureImpl<>(result);
+    ArcusClient client = arcusClientSupplier.get();
+
+    CollectionGetOperation.Callback cb = new CollectionGetOperation.Callback() {
+      public void receivedStatus(OperationStatus status) {
+        if (!status.isSuccess()) {
+          switch (status.getStatusCode()) {
+            case ERR_NOT_FOUND:
+              result.set(null);
+              break;
+            case ERR_NOT_FOUND_ELEMENT:
+              break;
+            case CANCELLED:
+              future.internalCancel();
+              break;
+            default:
+              /*
+               * TYPE_MISMATCH / OUT_OF_RANGE / UNREADABLE / NOT_SUPPORTED
+               * or unknown statement
+               */
+              result.addError(key, status);
+          }
+        }
+      }
+
+      public void complete() {
+        future.complete();
+      }
+
+      public void gotData(String subkey, int flags, byte[] data, byte[] eflag) {
+        addElement.accept(subkey,
+            tcForCollection.decode(new CachedData(flags, data, tc.getMaxSize())));
+      }
+    };
+    Operation op = client.getOpFact().collectionGet(key, get, cb);
+    future.setOp(op);
+    client.addOp(key, op);
+
+    return future;
+  }
+
+  private ArcusFuture<Boolean> collectionDelete(String key, CollectionDelete collectionDelete) {
+    AbstractArcusResult<Boolean> result = new AbstractArcusResult<>(new AtomicReference<>());
+    ArcusFutureImpl<Boolean> future = new ArcusFutureImpl<>(result);
+    ArcusClient client = arcusClientSupplier.get();
+
+    OperationCallback cb = new OperationCallback() {
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        switch (status.getStatusCode()) {
+          case SUCCESS:
+            result.set(true);
+            break;
+          case ERR_NOT_FOUND_ELEMENT:
+            result.set(false);
+            break;
+          case ERR_NOT_FOUND:
+            result.set(null);
+            break;
+          case CANCELLED:
+            future.internalCancel();
+            break;
+          default:
+            // TYPE_MISMATCH / OUT_OF_RANGE / NOT_SUPPORTED or unknown statement
+            result.addError(key, status);
+        }
+      }
+
+      @Override
+      public void complete() {
+        future.complete();
+      }
+    };
+    Operation op = client.getOpFact().collectionDelete(key, collectionDelete, cb);
+    future.setOp(op);
+    client.addOp(key, op);
+
+    return future;
+  }
+
+  /**
+   * Send an operation for each of the keys, as the lop, sop and mop commands
+   * have no multi-key form.
+   *
+   * @param keys   keys to send the operation
+   * @param sendOp sends the operation for the given key
+   * @return ArcusFuture with Map of key to result. If an operation fails exceptionally,
+   * the corresponding value in the map will be null. If key is not found,
+   * the corresponding key will not be present in the map.
+   */
+  private <R> ArcusFuture<Map<String, R>> fanOut(List<String> keys,
+                                                 Function<String, ArcusFuture<R>> sendOp) {
+    keyValidator.validateKey(keys);
+    keyValidator.checkDupKey(keys);
+
+    Map<String, CompletableFuture<R>> keyToFuture = new HashMap<>(keys.size());
+    for (String key : keys) {
+      keyToFuture.put(key, sendOp.apply(key).toCompletableFuture());
+    }
+
+    return new ArcusMultiFuture<>(new ArrayList<>(keyToFuture.values()), () -> {
+      Map<String, R> results = new HashMap<>();
+      for (Map.Entry<String, CompletableFuture<R>> entry : keyToFuture.entrySet()) {
+        if (entry.getValue().isCompletedExceptionally()) {
+          results.put(entry.getKey(), null);
+        } else {
+          R result = entry.getValue().join();
+          if (result != null) {
+            results.put(entry.getKey(), result);
+          }
+        }
+      }
+      return results;
+    });
+  }
 }
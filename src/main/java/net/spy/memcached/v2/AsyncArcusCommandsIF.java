@@ -19,13 +19,16 @@ package net.spy.memcached.v2;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import net.spy.memcached.collection.CollectionAttributes;
 import net.spy.memcached.collection.ElementValueType;
+import net.spy.memcached.internal.BulkGetSubscriber;
 import net.spy.memcached.v2.vo.BKey;
 import net.spy.memcached.v2.vo.BTreeElement;
 import net.spy.memcached.v2.vo.BTreeElements;
 import net.spy.memcached.v2.vo.BopGetArgs;
+import net.spy.memcached.v2.vo.CollectionGetArgs;
 import net.spy.memcached.v2.vo.SMGetElements;
 
 public interface AsyncArcusCommandsIF<T> {
@@ -90,6 +93,19 @@ public interface AsyncArcusCommandsIF<T> {
    */
   ArcusFuture<Map<String, Boolean>> multiReplace(List<String> keys, int exp, T value);
 
+  /**
+   * Set values for multiple keys in the noreply mode.
+   * The operations complete once written to the servers, and their failures are not known.
+   *
+   * @param keys  list of keys to store
+   * @param exp   expiration time in seconds
+   * @param value the value to store for all keys
+   * @param sync  if true, a version request is sent behind the operations on each connection,
+   *              and the future completes when the servers have processed all of them
+   * @return {@code Boolean.True} if all the operations are sent, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> multiSetNoreply(List<String> keys, int exp, T value, boolean sync);
+
   /**
    * Get a value for the given key.
    *
@@ -106,6 +122,16 @@ public interface AsyncArcusCommandsIF<T> {
    */
   ArcusFuture<Map<String, T>> multiGet(List<String> keys);
 
+  /**
+   * Get values for multiple keys, delivering each value to the subscriber
+   * as soon as the node of the key answers.
+   *
+   * @param keys       list of keys to get
+   * @param subscriber the subscriber to receive the values and
+   *                   the completion of each node
+   */
+  void multiGetStream(List<String> keys, BulkGetSubscriber<T> subscriber);
+
   /**
    * Flush all items from all servers.
    *
@@ -261,4 +287,300 @@ public interface AsyncArcusCommandsIF<T> {
    */
   ArcusFuture<SMGetElements<T>> bopSortMergeGet(List<String> keys, BKey from, BKey to,
                                                 boolean unique, BopGetArgs args);
+
+  /**
+   * Create a list item.
+   *
+   * @param key        key to create
+   * @param type       list element value type
+   * @param attributes collection attributes (must not be null)
+   * @return {@code Boolean.True} if created, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> lopCreate(String key, ElementValueType type,
+                                 CollectionAttributes attributes);
+
+  /**
+   * Insert an element into a list item.
+   *
+   * @param key        key to insert
+   * @param index      list index to insert at. -1 to append
+   * @param value      value to insert
+   * @param attributes collection attributes for creation when the list does not exist
+   * @return {@code Boolean.True} if inserted, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> lopInsert(String key, int index, T value,
+                                 CollectionAttributes attributes);
+
+  /**
+   * Insert an element into a list item.
+   *
+   * @param key   key to insert
+   * @param index list index to insert at. -1 to append
+   * @param value value to insert
+   * @return {@code Boolean.True} if inserted, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> lopInsert(String key, int index, T value);
+
+  /**
+   * Insert an element into multiple list items.
+   *
+   * @param keys       list of keys to insert
+   * @param index      list index to insert at. -1 to append
+   * @param value      value to insert for all keys
+   * @param attributes collection attributes for creation when the list does not exist
+   * @return Map of key to Boolean result
+   */
+  ArcusFuture<Map<String, Boolean>> lopMultiInsert(List<String> keys, int index, T value,
+                                                   CollectionAttributes attributes);
+
+  /**
+   * Get elements from a list item.
+   *
+   * @param key  key to get
+   * @param from list index range start
+   * @param to   list index range end
+   * @param args arguments for get operation
+   * @return the values in the index range. If element is not found but key exists,
+   * empty list will be returned. If key is not found, {@code null} will be returned.
+   */
+  ArcusFuture<List<T>> lopGet(String key, int from, int to, CollectionGetArgs args);
+
+  /**
+   * Get elements from multiple list items.
+   *
+   * @param keys list of keys to get
+   * @param from list index range start
+   * @param to   list index range end
+   * @param args arguments for get operation
+   * @return Map of key to values. If element is not found but key exists,
+   * empty list will be set for entry value. If key is not found,
+   * the corresponding entry will not be present in the map.
+   */
+  ArcusFuture<Map<String, List<T>>> lopMultiGet(List<String> keys, int from, int to,
+                                                CollectionGetArgs args);
+
+  /**
+   * Delete elements from a list item.
+   *
+   * @param key         key to delete
+   * @param from        list index range start
+   * @param to          list index range end
+   * @param dropIfEmpty whether to delete the list when it becomes empty
+   * @return {@code Boolean.True} if deleted, {@code Boolean.False} if element is not found,
+   * {@code null} if key is not found
+   */
+  ArcusFuture<Boolean> lopDelete(String key, int from, int to, boolean dropIfEmpty);
+
+  /**
+   * Create a set item.
+   *
+   * @param key        key to create
+   * @param type       set element value type
+   * @param attributes collection attributes (must not be null)
+   * @return {@code Boolean.True} if created, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> sopCreate(String key, ElementValueType type,
+                                 CollectionAttributes attributes);
+
+  /**
+   * Insert an element into a set item.
+   *
+   * @param key        key to insert
+   * @param value      value to insert
+   * @param attributes collection attributes for creation when the set does not exist
+   * @return {@code Boolean.True} if inserted, {@code Boolean.False} if element exists
+   * or key is not found
+   */
+  ArcusFuture<Boolean> sopInsert(String key, T value, CollectionAttributes attributes);
+
+  /**
+   * Insert an element into a set item.
+   *
+   * @param key   key to insert
+   * @param value value to insert
+   * @return {@code Boolean.True} if inserted, {@code Boolean.False} if element exists
+   * or key is not found
+   */
+  ArcusFuture<Boolean> sopInsert(String key, T value);
+
+  /**
+   * Insert an element into multiple set items.
+   *
+   * @param keys       list of keys to insert
+   * @param value      value to insert for all keys
+   * @param attributes collection attributes for creation when the set does not exist
+   * @return Map of key to Boolean result
+   */
+  ArcusFuture<Map<String, Boolean>> sopMultiInsert(List<String> keys, T value,
+                                                   CollectionAttributes attributes);
+
+  /**
+   * Check whether an element exists in a set item.
+   *
+   * @param key   key to check
+   * @param value value to check
+   * @return {@code Boolean.True} if exists, {@code Boolean.False} if not exists,
+   * {@code null} if key is not found
+   */
+  ArcusFuture<Boolean> sopExist(String key, T value);
+
+  /**
+   * Check whether an element exists in multiple set items.
+   *
+   * @param keys  list of keys to check
+   * @param value value to check
+   * @return Map of key to Boolean result. If key is not found,
+   * the corresponding entry will not be present in the map.
+   */
+  ArcusFuture<Map<String, Boolean>> sopMultiExist(List<String> keys, T value);
+
+  /**
+   * Get random elements from a set item.
+   *
+   * @param key   key to get
+   * @param count number of elements to get
+   * @param args  arguments for get operation
+   * @return the values. If element is not found but key exists,
+   * empty set will be returned. If key is not found, {@code null} will be returned.
+   */
+  ArcusFuture<Set<T>> sopGet(String key, int count, CollectionGetArgs args);
+
+  /**
+   * Get random elements from multiple set items.
+   *
+   * @param keys  list of keys to get
+   * @param count number of elements to get from each set item
+   * @param args  arguments for get operation
+   * @return Map of key to values. If element is not found but key exists,
+   * empty set will be set for entry value. If key is not found,
+   * the corresponding entry will not be present in the map.
+   */
+  ArcusFuture<Map<String, Set<T>>> sopMultiGet(List<String> keys, int count,
+                                               CollectionGetArgs args);
+
+  /**
+   * Delete an element from a set item.
+   *
+   * @param key         key to delete
+   * @param value       value to delete
+   * @param dropIfEmpty whether to delete the set when it becomes empty
+   * @return {@code Boolean.True} if deleted, {@code Boolean.False} if element is not found,
+   * {@code null} if key is not found
+   */
+  ArcusFuture<Boolean> sopDelete(String key, T value, boolean dropIfEmpty);
+
+  /**
+   * Create a map item.
+   *
+   * @param key        key to create
+   * @param type       map element value type
+   * @param attributes collection attributes (must not be null)
+   * @return {@code Boolean.True} if created, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> mopCreate(String key, ElementValueType type,
+                                 CollectionAttributes attributes);
+
+  /**
+   * Insert an element into a map item.
+   *
+   * @param key        key to insert
+   * @param mkey       mkey of the element
+   * @param value      value to insert
+   * @param attributes collection attributes for creation when the map does not exist
+   * @return {@code Boolean.True} if inserted, {@code Boolean.False} if element exists
+   * or key is not found
+   */
+  ArcusFuture<Boolean> mopInsert(String key, String mkey, T value,
+                                 CollectionAttributes attributes);
+
+  /**
+   * Insert an element into a map item.
+   *
+   * @param key   key to insert
+   * @param mkey  mkey of the element
+   * @param value value to insert
+   * @return {@code Boolean.True} if inserted, {@code Boolean.False} if element exists
+   * or key is not found
+   */
+  ArcusFuture<Boolean> mopInsert(String key, String mkey, T value);
+
+  /**
+   * Insert an element into multiple map items.
+   *
+   * @param keys       list of keys to insert
+   * @param mkey       mkey of the element
+   * @param value      value to insert for all keys
+   * @param attributes collection attributes for creation when the map does not exist
+   * @return Map of key to Boolean result
+   */
+  ArcusFuture<Map<String, Boolean>> mopMultiInsert(List<String> keys, String mkey, T value,
+                                                   CollectionAttributes attributes);
+
+  /**
+   * Upsert an element into a map item.
+   *
+   * @param key        key to upsert
+   * @param mkey       mkey of the element
+   * @param value      value to upsert
+   * @param attributes collection attributes for creation when the map does not exist
+   * @return {@code Boolean.True} if upserted, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> mopUpsert(String key, String mkey, T value,
+                                 CollectionAttributes attributes);
+
+  /**
+   * Upsert an element into a map item.
+   *
+   * @param key   key to upsert
+   * @param mkey  mkey of the element
+   * @param value value to upsert
+   * @return {@code Boolean.True} if upserted, otherwise {@code Boolean.False}
+   */
+  ArcusFuture<Boolean> mopUpsert(String key, String mkey, T value);
+
+  /**
+   * Update the value of an element in a map item.
+   *
+   * @param key   key to update
+   * @param mkey  mkey of the element
+   * @param value new value
+   * @return {@code Boolean.True} if updated, {@code Boolean.False} if element is not found,
+   * {@code null} if key is not found
+   */
+  ArcusFuture<Boolean> mopUpdate(String key, String mkey, T value);
+
+  /**
+   * Get elements from a map item.
+   *
+   * @param key   key to get
+   * @param mkeys mkeys of the elements to get. empty to get all elements
+   * @param args  arguments for get operation
+   * @return Map of mkey to value. If element is not found but key exists,
+   * empty map will be returned. If key is not found, {@code null} will be returned.
+   */
+  ArcusFuture<Map<String, T>> mopGet(String key, List<String> mkeys, CollectionGetArgs args);
+
+  /**
+   * Get elements from multiple map items.
+   *
+   * @param keys  list of keys to get
+   * @param mkeys mkeys of the elements to get. empty to get all elements
+   * @param args  arguments for get operation
+   * @return Map of key to Map of mkey to value. If element is not found but key exists,
+   * empty map will be set for entry value. If key is not found,
+   * the corresponding entry will not be present in the map.
+   */
+  ArcusFuture<Map<String, Map<String, T>>> mopMultiGet(List<String> keys, List<String> mkeys,
+                                                       CollectionGetArgs args);
+
+  /**
+   * Delete elements from a map item.
+   *
+   * @param key         key to delete
+   * @param mkeys       mkeys of the elements to delete. empty to delete all elements
+   * @param dropIfEmpty whether to delete the map when it becomes empty
+   * @return {@code Boolean.True} if deleted, {@code Boolean.False} if element is not found,
+   * {@code null} if key is not found
+   */
+  ArcusFuture<Boolean> mopDelete(String key, List<String> mkeys, boolean dropIfEmpty);
 }
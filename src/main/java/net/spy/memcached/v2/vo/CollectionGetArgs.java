@@ -0,0 +1,44 @@
+package net.spy.memcached.v2.vo;
+
+/**
+ * Arguments of the get operations of list, set and map items.
+ */
+public final class CollectionGetArgs {
+
+  public static final CollectionGetArgs DEFAULT = new CollectionGetArgs.Builder().build();
+
+  private final boolean withDelete;
+  private final boolean dropIfEmpty;
+
+  private CollectionGetArgs(boolean withDelete, boolean dropIfEmpty) {
+    this.withDelete = withDelete;
+    this.dropIfEmpty = dropIfEmpty;
+  }
+
+  public boolean isWithDelete() {
+    return withDelete;
+  }
+
+  public boolean isDropIfEmpty() {
+    return dropIfEmpty;
+  }
+
+  public static final class Builder {
+    private boolean withDelete = false;
+    private boolean dropIfEmpty = false;
+
+    public Builder withDelete() {
+      this.withDelete = true;
+      return this;
+    }
+
+    public Builder dropIfEmpty() {
+      this.dropIfEmpty = true;
+      return this;
+    }
+
+    public CollectionGetArgs build() {
+      return new CollectionGetArgs(withDelete, dropIfEmpty);
+    }
+  }
+}
@@ -36,11 +36,7 @@ public final class SMGetElements<V> {
     mergeSMGetElements(smGetElementsList, elements, missedKeys, trimmedKeys,
             ascending, unique, count);
 
-    // 2) Sort missed keys, and trimmed keys
-    Collections.sort(missedKeys);
-    Collections.sort(trimmedKeys);
-
-    // 3) Remove trimmed keys outside the final element range
+    // 2) Remove trimmed keys outside the final element range
     if (!elements.isEmpty()) {
       BKey lastBKey = elements.get(elements.size() - 1).getbTreeElement().getBkey();
       trimmedKeys.removeIf(trimmedKey -> {
@@ -49,6 +45,10 @@ public final class SMGetElements<V> {
       });
     }
 
+    // 3) Sort missed keys, and the remaining trimmed keys
+    Collections.sort(missedKeys);
+    Collections.sort(trimmedKeys);
+
     return new SMGetElements<>(elements, missedKeys, trimmedKeys);
   }
 
@@ -62,7 +62,8 @@ public final class SMGetElements<V> {
     Comparator<ElementWithIndex<T>> comparator = ascending
             ? Comparator.naturalOrder()
             : Comparator.reverseOrder();
-    PriorityQueue<ElementWithIndex<T>> pq = new PriorityQueue<>(comparator);
+    PriorityQueue<ElementWithIndex<T>> pq =
+            new PriorityQueue<>(Math.max(1, smGetElementsList.size()), comparator);
 
     // 2) Initialize the priority queue with the first element from each list
     //    and collect missed keys and trimmed keys
@@ -13,6 +13,7 @@ import net.spy.memcached.util.ArcusKetamaNodeLocatorConfiguration;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ArcusKetamaHashingTest {
@@ -60,6 +61,19 @@ class ArcusKetamaHashingTest {
     runThisManyNodes(stringNode1, stringNode2);
   }
 
+  @Test
+  void testEncodedKeyLookups() {
+    ArcusKetamaNodeLocatorConfiguration conf = new ArcusKetamaNodeLocatorConfiguration();
+    conf.enableShardKey(true);
+    ArcusKetamaNodeLocator locator = new ArcusKetamaNodeLocator(
+            createNodes(AddrUtil.getAddresses(generateAddresses(10)[1])), conf);
+
+    String[] keys = {"dustin", "some other key", "data:{myGroup}:1", "user:{}", "\ud55c\uae00"};
+    for (String key : keys) {
+      assertSame(locator.getPrimary(key), locator.getPrimary(new EncodedKey(key)));
+    }
+  }
+
   /**
    * Simulate dropping from stringNode1 to stringNode2.
    * Ensure hashing is consistent between the the two scenarios.
@@ -22,6 +22,7 @@ import java.nio.ByteBuffer;
 import net.spy.memcached.ops.OperationCallback;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.protocol.ascii.ExtensibleOperationImpl;
+import net.spy.memcached.util.ResponseTokenizer;
 
 import org.junit.jupiter.api.Test;
 
@@ -43,7 +44,7 @@ class AsciiClientTest extends ProtocolBaseCase {
     }) {
 
       @Override
-      public void handleLine(String line) {
+      public void handleLine(ResponseTokenizer line) {
         System.out.println("Woo! A line!");
       }
 
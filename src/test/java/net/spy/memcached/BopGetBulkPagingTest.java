@@ -0,0 +1,274 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.collection.BTreeElement;
+import net.spy.memcached.collection.BTreeGetResult;
+import net.spy.memcached.collection.ByteArrayBKey;
+import net.spy.memcached.collection.CollectionResponse;
+import net.spy.memcached.collection.ElementFlagFilter;
+import net.spy.memcached.internal.CollectionGetBulkFuture;
+import net.spy.memcached.transcoders.IntegerTranscoder;
+import net.spy.memcached.util.BTreeUtil;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BopGetBulkPagingTest {
+
+  private static final String KEY1 = "BopGetBulkPagingTest1";
+  private static final String KEY2 = "BopGetBulkPagingTest2";
+  private static final String KEY3 = "BopGetBulkPagingTest3";
+  private static final String KEY4 = "BopGetBulkPagingTest4";
+
+  // element counts of the b+trees with the bkeys 0, 2, 4, ...
+  private static final int KEY1_COUNT = 130;
+  private static final int KEY2_COUNT = 30;
+
+  private final IntegerTranscoder tc = new IntegerTranscoder();
+  // bkeys deleted, and whether the last element of the first page is deleted once served.
+  private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+  private volatile boolean deleteLastOfFirstPage = false;
+  // the number of keys of each bop mget received.
+  private final List<Integer> requestKeys = new CopyOnWriteArrayList<>();
+  // while set, a request of a next page is answered once this is counted down.
+  private volatile CountDownLatch holdNextPage = null;
+  private final CountDownLatch nextPageReceived = new CountDownLatch(1);
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new FakeArcusServer(this::respond);
+    client = server.connect();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testCountOverPageSize() throws Exception {
+    Map<String, BTreeGetResult<Long, Integer>> results = client.asyncBopGetBulk(
+            Arrays.asList(KEY1, KEY2, KEY3), 10L, 1000L, ElementFlagFilter.DO_NOT_FILTER,
+            1, 120, tc).get(5, TimeUnit.SECONDS);
+
+    assertEquals(3, results.size());
+    // the bkeys from 12, skipping 10 by the offset.
+    assertElements(results.get(KEY1), 120, 12L);
+    assertEquals(CollectionResponse.OK, results.get(KEY1).getCollectionResponse().getResponse());
+    assertElements(results.get(KEY2), KEY2_COUNT - 6, 12L);
+    assertEquals(CollectionResponse.NOT_FOUND,
+            results.get(KEY3).getCollectionResponse().getResponse());
+    assertNull(results.get(KEY3).getElements());
+  }
+
+  @Test
+  void testReverseRange() throws Exception {
+    Map<String, BTreeGetResult<Long, Integer>> results = client.asyncBopGetBulk(
+            Collections.singletonList(KEY1), 1000L, 0L, ElementFlagFilter.DO_NOT_FILTER,
+            0, 1000, tc).get(5, TimeUnit.SECONDS);
+
+    BTreeGetResult<Long, Integer> result = results.get(KEY1);
+    assertEquals(KEY1_COUNT, result.getElements().size());
+    long expected = (KEY1_COUNT - 1) * 2;
+    for (Map.Entry<Long, BTreeElement<Long, Integer>> entry : result.getElements().entrySet()) {
+      assertEquals(expected, entry.getKey().longValue());
+      assertEquals((int) expected, entry.getValue().getValue().intValue());
+      expected -= 2;
+    }
+  }
+
+  @Test
+  void testByteArrayBkey() throws Exception {
+    Map<String, BTreeGetResult<ByteArrayBKey, Integer>> results = client.asyncBopGetBulk(
+            Collections.singletonList(KEY1), new byte[]{0}, new byte[]{(byte) 0xFF},
+            ElementFlagFilter.DO_NOT_FILTER, 0, 75, tc).get(5, TimeUnit.SECONDS);
+
+    BTreeGetResult<ByteArrayBKey, Integer> result = results.get(KEY1);
+    assertEquals(75, result.getElements().size());
+    int expected = 0;
+    for (ByteArrayBKey bkey : result.getElements().keySet()) {
+      assertEquals(expected, bkey.getBytes()[0] & 0xFF);
+      expected += 2;
+    }
+  }
+
+  @Test
+  void testLastElementDeletedBetweenPages() throws Exception {
+    deleteLastOfFirstPage = true;
+
+    Map<String, BTreeGetResult<Long, Integer>> results = client.asyncBopGetBulk(
+            Collections.singletonList(KEY1), 0L, 1000L, ElementFlagFilter.DO_NOT_FILTER,
+            0, 120, tc).get(5, TimeUnit.SECONDS);
+
+    // the element following the deleted one is not skipped.
+    assertEquals(1, deleted.size());
+    assertElements(results.get(KEY1), 120, 0L);
+  }
+
+  @Test
+  void testNextPagesShareRequest() throws Exception {
+    Map<String, BTreeGetResult<Long, Integer>> results = client.asyncBopGetBulk(
+            Arrays.asList(KEY1, KEY4), 0L, 1000L, ElementFlagFilter.DO_NOT_FILTER,
+            0, 120, tc).get(5, TimeUnit.SECONDS);
+
+    assertElements(results.get(KEY1), 120, 0L);
+    assertElements(results.get(KEY4), 120, 0L);
+    // both keys resume after the same bkey, so each page is a single request.
+    assertEquals(Arrays.asList(2, 2, 2), requestKeys);
+  }
+
+  @Test
+  void testCancelStopsPages() throws Exception {
+    // given
+    CountDownLatch hold = new CountDownLatch(1);
+    holdNextPage = hold;
+    CollectionGetBulkFuture<Map<String, BTreeGetResult<Long, Integer>>> future =
+            client.asyncBopGetBulk(Collections.singletonList(KEY1), 0L, 1000L,
+                    ElementFlagFilter.DO_NOT_FILTER, 0, 120, tc);
+    assertTrue(nextPageReceived.await(5, TimeUnit.SECONDS));
+    assertFalse(future.isDone());
+
+    // when
+    future.cancel(true);
+    hold.countDown();
+
+    // then
+    assertTrue(future.isCancelled());
+    assertTrue(future.isDone());
+    Thread.sleep(200);
+    assertEquals(2, requestKeys.size());
+  }
+
+  private static void assertElements(BTreeGetResult<Long, Integer> result,
+                                     int count, long first) {
+    assertEquals(count, result.getElements().size());
+    long expected = first;
+    for (Map.Entry<Long, BTreeElement<Long, Integer>> entry : result.getElements().entrySet()) {
+      assertEquals(expected, entry.getKey().longValue());
+      assertEquals((int) expected, entry.getValue().getValue().intValue());
+      expected += 2;
+    }
+  }
+
+  private static int elementCount(String key) {
+    if (KEY1.equals(key) || KEY4.equals(key)) {
+      return KEY1_COUNT;
+    }
+    if (KEY2.equals(key)) {
+      return KEY2_COUNT;
+    }
+    return -1;
+  }
+
+  /**
+   * Answer the bop mget commands of the b+trees,
+   * which have the element of the value n at the bkey n.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    // bop mget <lenkeys> <numkeys> <from>..<to> [<offset>] <count>
+    String[] tokens = line.split(" ");
+    String[] range = tokens[4].split("\\.\\.");
+    boolean hex = range[0].startsWith("0x");
+    // byte array bkeys are compared in lexicographical order.
+    byte[] fromBytes = hex ? BTreeUtil.hexStringToByteArrays(range[0]) : null;
+    byte[] toBytes = hex ? BTreeUtil.hexStringToByteArrays(range[1]) : null;
+    long from = hex ? 0 : Long.parseLong(range[0]);
+    long to = hex ? 0 : Long.parseLong(range[1]);
+    boolean ascending = hex
+            ? BTreeUtil.compareByteArraysInLexOrder(fromBytes, toBytes) <= 0 : from <= to;
+    int offset = tokens.length > 6 ? Integer.parseInt(tokens[5]) : 0;
+    int count = Integer.parseInt(tokens[tokens.length - 1]);
+    requestKeys.add(Integer.parseInt(tokens[3]));
+    CountDownLatch hold = holdNextPage;
+    if (hold != null && requestKeys.size() > 1) {
+      nextPageReceived.countDown();
+      hold.await();
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (String key : in.readLine().split("[ ,]")) {
+      int size = elementCount(key);
+      if (size < 0) {
+        sb.append("VALUE ").append(key).append(" NOT_FOUND\r\n");
+        continue;
+      }
+      List<Long> bkeys = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        long bkey = ascending ? i * 2 : (size - 1 - i) * 2;
+        boolean inRange = hex
+                ? inLexRange(new byte[]{(byte) bkey}, fromBytes, toBytes)
+                : bkey >= Math.min(from, to) && bkey <= Math.max(from, to);
+        if (inRange && !deleted.contains(bkey)) {
+          bkeys.add(bkey);
+        }
+      }
+      bkeys = bkeys.subList(Math.min(offset, bkeys.size()),
+              Math.min(offset + count, bkeys.size()));
+      if (bkeys.isEmpty()) {
+        sb.append("VALUE ").append(key).append(" NOT_FOUND_ELEMENT\r\n");
+        continue;
+      }
+      if (deleteLastOfFirstPage && deleted.isEmpty()) {
+        deleted.add(bkeys.get(bkeys.size() - 1));
+      }
+      sb.append("VALUE ").append(key).append(" OK ")
+              .append(tc.encode(0).getFlags()).append(" ").append(bkeys.size()).append("\r\n");
+      for (long bkey : bkeys) {
+        byte[] data = tc.encode((int) bkey).getData();
+        sb.append("ELEMENT ")
+                .append(hex ? String.format("0x%02X", bkey) : String.valueOf(bkey))
+                .append(" ").append(data.length).append(" ")
+                .append(new String(data, StandardCharsets.ISO_8859_1)).append("\r\n");
+      }
+    }
+    sb.append("END\r\n");
+    return sb.toString();
+  }
+
+  private static boolean inLexRange(byte[] bkey, byte[] from, byte[] to) {
+    boolean ascending = BTreeUtil.compareByteArraysInLexOrder(from, to) <= 0;
+    byte[] min = ascending ? from : to;
+    byte[] max = ascending ? to : from;
+    return BTreeUtil.compareByteArraysInLexOrder(bkey, min) >= 0
+            && BTreeUtil.compareByteArraysInLexOrder(bkey, max) <= 0;
+  }
+}
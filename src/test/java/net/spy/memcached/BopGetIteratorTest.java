@@ -0,0 +1,199 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.spy.memcached.collection.Element;
+import net.spy.memcached.collection.ElementFlagFilter;
+import net.spy.memcached.internal.BTreeElementIterator;
+import net.spy.memcached.transcoders.IntegerTranscoder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BopGetIteratorTest {
+
+  // the b+tree has the element of the value n at the bkey n, for the multiples of 3.
+  private static final String KEY = "BopGetIteratorTest";
+  private static final String NOT_BTREE_KEY = "BopGetIteratorTestList";
+  private static final int ELEMENT_COUNT = 25;
+
+  private final IntegerTranscoder tc = new IntegerTranscoder();
+  private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new FakeArcusServer(this::respond);
+    client = server.connect();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testPagesByBkey() {
+    BTreeElementIterator<Integer> iterator = client.bopGetIterator(KEY, 0L, 1000L,
+            ElementFlagFilter.DO_NOT_FILTER, 10, tc);
+
+    List<Integer> values = new ArrayList<>();
+    iterator.forEachRemaining(element -> {
+      assertEquals(element.getValue().longValue(), element.getLongBkey());
+      values.add(element.getValue());
+    });
+
+    assertEquals(expectedValues(0, ELEMENT_COUNT - 1), values);
+    // each page starts from the bkey next to the last one of the previous page.
+    assertEquals("bop get " + KEY + " 0..1000 10", requests.get(0));
+    assertEquals("bop get " + KEY + " 28..1000 10", requests.get(1));
+    assertEquals("bop get " + KEY + " 58..1000 10", requests.get(2));
+    assertEquals(3, requests.size());
+  }
+
+  @Test
+  void testPagesInReverse() {
+    List<Integer> values = client.bopGetIterator(KEY, 50L, 0L,
+            ElementFlagFilter.DO_NOT_FILTER, 4, tc).stream()
+        .map(Element::getValue)
+        .collect(Collectors.toList());
+
+    List<Integer> expected = expectedValues(0, 16);
+    Collections.reverse(expected);
+    assertEquals(expected, values);
+  }
+
+  @Test
+  void testByteArrayBkeys() {
+    List<Integer> values = client.bopGetIterator(KEY, new byte[]{0}, new byte[]{(byte) 0xFF},
+            ElementFlagFilter.DO_NOT_FILTER, 7, tc).stream()
+        .map(Element::getValue)
+        .collect(Collectors.toList());
+
+    assertEquals(expectedValues(0, ELEMENT_COUNT - 1), values);
+    assertEquals("bop get " + KEY + " 0x1200..0xFF 7", requests.get(1));
+  }
+
+  @Test
+  void testStreamCancelsNextPage() throws Exception {
+    BTreeElementIterator<Integer> iterator = client.bopGetIterator(KEY, 0L, 1000L,
+            ElementFlagFilter.DO_NOT_FILTER, 5, tc);
+    try (Stream<Element<Integer>> stream = iterator.stream()) {
+      assertEquals(expectedValues(0, 2),
+              stream.limit(3).map(Element::getValue).collect(Collectors.toList()));
+    }
+
+    // the prefetched page has been cancelled, and the rest of the current page remains.
+    List<Integer> values = new ArrayList<>();
+    iterator.forEachRemaining(element -> values.add(element.getValue()));
+    assertEquals(expectedValues(3, 4), values);
+    Thread.sleep(50);
+    assertTrue(requests.size() <= 2);
+  }
+
+  @Test
+  void testMissingKey() {
+    assertFalse(client.bopGetIterator("BopGetIteratorTestMissing", 0L, 1000L,
+            ElementFlagFilter.DO_NOT_FILTER, 10, tc).hasNext());
+  }
+
+  @Test
+  void testFailedPage() {
+    BTreeElementIterator<Integer> iterator = client.bopGetIterator(NOT_BTREE_KEY, 0L, 1000L,
+            ElementFlagFilter.DO_NOT_FILTER, 10, tc);
+    assertThrows(CollectionOperationException.class, iterator::hasNext);
+  }
+
+  private static List<Integer> expectedValues(int first, int last) {
+    List<Integer> values = new ArrayList<>();
+    for (int i = first; i <= last; i++) {
+      values.add(i * 3);
+    }
+    return values;
+  }
+
+  /**
+   * Answer the bop get commands of the b+tree without the offset and the filter.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    requests.add(line);
+    // bop get <key> <from>..<to> <count>
+    String[] tokens = line.split(" ");
+    if (tokens[2].equals(NOT_BTREE_KEY)) {
+      return "TYPE_MISMATCH\r\n";
+    }
+    if (!tokens[2].equals(KEY)) {
+      return "NOT_FOUND\r\n";
+    }
+    String[] range = tokens[3].split("\\.\\.");
+    boolean hex = range[0].startsWith("0x");
+    long from = parseBkey(range[0]);
+    long to = parseBkey(range[1]);
+    int count = Integer.parseInt(tokens[4]);
+
+    List<Long> bkeys = new ArrayList<>();
+    for (int i = 0; i < ELEMENT_COUNT; i++) {
+      long bkey = (from <= to) ? i * 3 : (ELEMENT_COUNT - 1 - i) * 3;
+      if (bkey >= Math.min(from, to) && bkey <= Math.max(from, to) && bkeys.size() < count) {
+        bkeys.add(bkey);
+      }
+    }
+    if (bkeys.isEmpty()) {
+      return "NOT_FOUND_ELEMENT\r\n";
+    }
+
+    StringBuilder sb = new StringBuilder();
+    sb.append("VALUE ").append(tc.encode(0).getFlags()).append(" ")
+            .append(bkeys.size()).append("\r\n");
+    for (long bkey : bkeys) {
+      byte[] data = tc.encode((int) bkey).getData();
+      sb.append(hex ? String.format("0x%02X", bkey) : String.valueOf(bkey))
+              .append(" ").append(data.length).append(" ")
+              .append(new String(data, StandardCharsets.ISO_8859_1)).append("\r\n");
+    }
+    sb.append("END\r\n");
+    return sb.toString();
+  }
+
+  private static long parseBkey(String bkey) {
+    if (bkey.startsWith("0x")) {
+      // the adjacent bkey of a 1-byte bkey has a trailing zero byte.
+      String hex = bkey.substring(2);
+      long value = Long.parseLong(hex.substring(0, 2), 16);
+      return (hex.length() > 2) ? value + 1 : value;
+    }
+    return Long.parseLong(bkey);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.spy.memcached.internal.BulkChunkWindow;
+import net.spy.memcached.ops.GetOperation;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationStatus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkGetChunkWindowTest {
+
+  private static final int KEY_COUNT = 3 * MemcachedClient.GET_BULK_CHUNK_SIZE;
+
+  private final List<String> keys = new ArrayList<>();
+  // number of the requests received while a previous request was pending.
+  private final AtomicInteger pipelined = new AtomicInteger();
+  private final AtomicInteger requests = new AtomicInteger();
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys.add("BulkGetChunkWindowTest" + i);
+    }
+
+    server = new FakeArcusServer(this::respond);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testChunkAtATime() throws Exception {
+    // given
+    client = server.connect(new ConnectionFactoryBuilder().setBulkGetChunkWindow(1));
+
+    // when
+    Map<String, Object> values = client.asyncGetBulk(keys).get(5, TimeUnit.SECONDS);
+
+    // then
+    assertEquals(KEY_COUNT, values.size());
+    assertEquals(3, requests.get());
+    assertEquals(0, pipelined.get());
+  }
+
+  @Test
+  void testAllChunksAtOnce() throws Exception {
+    // given
+    client = server.connect();
+
+    // when
+    Map<String, Object> values = client.asyncGetBulk(keys).get(5, TimeUnit.SECONDS);
+
+    // then
+    assertEquals(KEY_COUNT, values.size());
+    assertEquals(3, requests.get());
+    assertTrue(pipelined.get() > 0);
+  }
+
+  @Test
+  void testStopAfterCancel() throws Exception {
+    // given
+    client = server.connect();
+    MemcachedNode node = client.getMemcachedConnection().getLocator().getAll().iterator().next();
+    BulkChunkWindow window = new BulkChunkWindow(client, 1);
+    List<Operation> ops = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Operation op = client.getOpFact().get(keys.subList(i, i + 1), new GetOperation.Callback() {
+        public void receivedStatus(OperationStatus status) {
+        }
+
+        public void gotData(String key, int flags, byte[] data) {
+        }
+
+        public void complete() {
+          window.chunkCompleted(node);
+        }
+      }, false);
+      window.add(node, op);
+      ops.add(op);
+    }
+    window.send();
+    long start = System.currentTimeMillis();
+    while (requests.get() < 1 && System.currentTimeMillis() - start < 5000) {
+      Thread.sleep(10);
+    }
+
+    // when
+    ops.get(0).cancel("by application.");
+
+    // then
+    Thread.sleep(300);
+    assertEquals(1, requests.get());
+    assertTrue(ops.get(1).isCancelled());
+    assertTrue(ops.get(2).isCancelled());
+  }
+
+  /**
+   * Answer every key with the key as the value, a while after each request
+   * so that the requests sent before the response can be seen.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    String[] requested;
+    if (line.startsWith("mget ")) {
+      requested = in.readLine().split(" ");
+    } else {
+      requested = line.substring("get ".length()).split(" ");
+    }
+    requests.incrementAndGet();
+    Thread.sleep(100);
+    if (in.ready()) {
+      pipelined.incrementAndGet();
+    }
+    StringBuilder response = new StringBuilder();
+    for (String key : requested) {
+      response.append("VALUE ").append(key).append(" 0 ").append(key.length())
+              .append("\r\n").append(key).append("\r\n");
+    }
+    response.append("END\r\n");
+    return response.toString();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final CircuitBreaker breaker = new CircuitBreaker(100);
+
+  @Test
+  void testInvalidOpenTime() {
+    assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0));
+  }
+
+  @Test
+  void testProbeSucceeded() {
+    assertTrue(breaker.isClosed());
+    assertTrue(breaker.open(0));
+    assertFalse(breaker.open(10 * MS));
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    assertFalse(breaker.isOpenTimePassed(99 * MS));
+    assertTrue(breaker.isOpenTimePassed(100 * MS));
+
+    Operation probe = probe();
+    breaker.halfOpen(probe, 100 * MS);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertFalse(breaker.isOpenTimePassed(200 * MS));
+    assertFalse(breaker.close(probe()));
+    assertTrue(breaker.close(probe));
+    assertTrue(breaker.isClosed());
+  }
+
+  @Test
+  void testProbeFailed() {
+    breaker.open(0);
+    Operation probe = probe();
+    breaker.halfOpen(probe, 100 * MS);
+    assertFalse(breaker.isProbeTimedOut(150 * MS, 100 * MS));
+    assertTrue(breaker.isProbeTimedOut(200 * MS, 100 * MS));
+
+    assertTrue(breaker.reopen(probe, 200 * MS));
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertFalse(breaker.isOpenTimePassed(250 * MS));
+    assertTrue(breaker.isOpenTimePassed(300 * MS));
+
+    // the late completion of the previous probe is ignored.
+    assertFalse(breaker.close(probe));
+    assertFalse(breaker.reopen(probe, 300 * MS));
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+  }
+
+  private static Operation probe() {
+    return new AsciiOperationFactory().version(new OperationCallback() {
+      public void receivedStatus(OperationStatus status) {
+      }
+
+      public void complete() {
+      }
+    });
+  }
+}
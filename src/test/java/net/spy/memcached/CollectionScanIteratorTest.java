@@ -0,0 +1,253 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.spy.memcached.transcoders.IntegerTranscoder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CollectionScanIteratorTest {
+
+  private static final String LIST_KEY = "CollectionScanIteratorTestList";
+  private static final String SET_KEY = "CollectionScanIteratorTestSet";
+  private static final String MAP_KEY = "CollectionScanIteratorTestMap";
+  private static final int ELEMENT_COUNT = 23;
+
+  private final IntegerTranscoder tc = new IntegerTranscoder();
+  private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+  // the list has the values from 0, the set has the same values,
+  // and the map has the fields "f0".."f9" except "f4" with the value of the field number.
+  private final Set<Integer> set = new HashSet<>();
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    for (int i = 0; i < ELEMENT_COUNT; i++) {
+      set.add(i);
+    }
+
+    server = new FakeArcusServer(this::respond);
+    client = server.connect();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testListPagesByIndex() {
+    List<Integer> values = client.lopGetIterator(LIST_KEY, 10, tc).stream()
+        .collect(Collectors.toList());
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < ELEMENT_COUNT; i++) {
+      expected.add(i);
+    }
+    assertEquals(expected, values);
+    assertEquals(Arrays.asList("lop get " + LIST_KEY + " 0..9",
+            "lop get " + LIST_KEY + " 10..19",
+            "lop get " + LIST_KEY + " 20..29"), requests);
+  }
+
+  @Test
+  void testListMissingKey() {
+    assertFalse(client.lopGetIterator("CollectionScanIteratorTestMissing", 10, tc).hasNext());
+  }
+
+  @Test
+  void testSetRemovesFetchedElements() {
+    List<Integer> values = new ArrayList<>();
+    client.sopGetIterator(SET_KEY, 10, true, true, tc).forEachRemaining(values::add);
+
+    assertEquals(ELEMENT_COUNT, values.size());
+    assertEquals(ELEMENT_COUNT, new HashSet<>(values).size());
+    assertEquals(3, requests.size());
+    for (String request : requests) {
+      assertEquals("sop get " + SET_KEY + " 10 drop", request);
+    }
+  }
+
+  @Test
+  void testSetEndsAtDroppedKey() {
+    // a full last batch drops the set, and the next batch finds no key.
+    List<Integer> values = client.sopGetIterator(SET_KEY, ELEMENT_COUNT, true, true, tc).stream()
+        .collect(Collectors.toList());
+
+    assertEquals(ELEMENT_COUNT, values.size());
+    assertEquals(2, requests.size());
+  }
+
+  @Test
+  void testSetStopsWithoutPrefetch() {
+    try (Stream<Integer> stream = client.sopGetIterator(SET_KEY, 10, true, false, tc).stream()) {
+      assertEquals(5, stream.limit(5).count());
+      // the list get is answered after any set get sent before it.
+      assertEquals(ELEMENT_COUNT, client.lopGetIterator(LIST_KEY, 30, tc).stream().count());
+    }
+
+    assertEquals(Arrays.asList("sop get " + SET_KEY + " 10 delete",
+            "lop get " + LIST_KEY + " 0..29"), requests);
+  }
+
+  @Test
+  void testSetWithoutDelete() {
+    List<Integer> values = client.sopGetIterator(SET_KEY, 10, false, false, tc).stream()
+        .collect(Collectors.toList());
+
+    assertEquals(10, values.size());
+    assertEquals(Collections.singletonList("sop get " + SET_KEY + " 10"), requests);
+  }
+
+  @Test
+  void testMapBatchesOfFields() {
+    List<String> mkeyList = new ArrayList<>();
+    for (int i = 0; i < 15; i++) {
+      mkeyList.add("f" + i);
+    }
+
+    Map<String, Integer> entries = new TreeMap<>();
+    Iterator<Map.Entry<String, Integer>> iterator =
+        client.mopGetIterator(MAP_KEY, mkeyList, 5, tc);
+    iterator.forEachRemaining(entry -> entries.put(entry.getKey(), entry.getValue()));
+
+    Map<String, Integer> expected = new TreeMap<>();
+    for (int i = 0; i < 10; i++) {
+      if (i != 4) {
+        expected.put("f" + i, i);
+      }
+    }
+    assertEquals(expected, entries);
+    // the last batch has none of the fields.
+    assertEquals(3, requests.size());
+  }
+
+  @Test
+  void testInvalidPageSize() {
+    assertThrows(IllegalArgumentException.class, () -> client.lopGetIterator(LIST_KEY, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> client.sopGetIterator(SET_KEY, 0, false, false));
+    assertThrows(IllegalArgumentException.class,
+        () -> client.mopGetIterator(MAP_KEY, Collections.singletonList("f0"), 0));
+  }
+
+  /**
+   * Answer the lop, sop and mop get commands, removing the elements fetched from the set
+   * if the sop get has the delete option.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    requests.add(line);
+    String[] tokens = line.split(" ");
+    if (line.startsWith("lop get " + LIST_KEY + " ")) {
+      return listGet(tokens[3]);
+    }
+    if (line.startsWith("sop get " + SET_KEY + " ")) {
+      return setGet(Integer.parseInt(tokens[3]), tokens.length > 4);
+    }
+    if (line.startsWith("mop get " + MAP_KEY + " ")) {
+      return mapGet(in.readLine().split("[ ,]"));
+    }
+    if (line.startsWith("mop get ")) {
+      in.readLine(); // fields
+    }
+    return "NOT_FOUND\r\n";
+  }
+
+  private String listGet(String range) {
+    String[] indexes = range.split("\\.\\.");
+    int from = Integer.parseInt(indexes[0]);
+    int to = Integer.parseInt(indexes[1]);
+    List<String> elements = new ArrayList<>();
+    for (int i = from; i <= Math.min(to, ELEMENT_COUNT - 1); i++) {
+      elements.add(element(null, i));
+    }
+    return values(elements, "END");
+  }
+
+  private String setGet(int count, boolean delete) {
+    if (set.isEmpty()) {
+      return "NOT_FOUND\r\n";
+    }
+    List<String> elements = new ArrayList<>();
+    Iterator<Integer> iterator = set.iterator();
+    while (iterator.hasNext() && elements.size() < count) {
+      elements.add(element(null, iterator.next()));
+      if (delete) {
+        iterator.remove();
+      }
+    }
+    if (!delete) {
+      return values(elements, "END");
+    }
+    return values(elements, set.isEmpty() ? "DELETED_DROPPED" : "DELETED");
+  }
+
+  private String mapGet(String[] fields) {
+    List<String> elements = new ArrayList<>();
+    for (String field : fields) {
+      int number = Integer.parseInt(field.substring(1));
+      if (number < 10 && number != 4) {
+        elements.add(element(field, number));
+      }
+    }
+    return values(elements, "END");
+  }
+
+  private String element(String field, int value) {
+    byte[] data = tc.encode(value).getData();
+    return ((field == null) ? "" : field + " ") + data.length + " "
+        + new String(data, StandardCharsets.ISO_8859_1) + "\r\n";
+  }
+
+  private String values(List<String> elements, String end) {
+    if (elements.isEmpty()) {
+      return "NOT_FOUND_ELEMENT\r\n";
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append("VALUE ").append(tc.encode(0).getFlags()).append(" ")
+        .append(elements.size()).append("\r\n");
+    for (String element : elements) {
+      sb.append(element);
+    }
+    sb.append(end).append("\r\n");
+    return sb.toString();
+  }
+}
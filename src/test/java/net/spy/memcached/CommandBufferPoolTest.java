@@ -0,0 +1,92 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CommandBufferPoolTest {
+
+  @Test
+  void testSizeClasses() {
+    CommandBufferPool pool = new CommandBufferPool(16 * 1024);
+
+    assertNull(pool.acquire(CommandBufferPool.MIN_BUFFER_SIZE - 1));
+    assertNull(pool.acquire(CommandBufferPool.MAX_BUFFER_SIZE + 1));
+    assertEquals(1024, pool.acquire(1024).capacity());
+    assertEquals(2048, pool.acquire(1025).capacity());
+    assertEquals(CommandBufferPool.MAX_BUFFER_SIZE,
+        pool.acquire(CommandBufferPool.MAX_BUFFER_SIZE).capacity());
+    assertEquals(1024 + 2048 + CommandBufferPool.MAX_BUFFER_SIZE, pool.getOutstandingBytes());
+    assertEquals(3, pool.getMissCount());
+  }
+
+  @Test
+  void testReuse() {
+    CommandBufferPool pool = new CommandBufferPool(16 * 1024);
+
+    ByteBuffer bb = pool.acquire(3000);
+    bb.put(new byte[3000]).flip();
+    pool.release(bb);
+    assertEquals(0, pool.getOutstandingBytes());
+    assertEquals(4096, pool.getPooledBytes());
+
+    ByteBuffer reused = pool.acquire(2500);
+    assertSame(bb, reused);
+    assertEquals(0, reused.position());
+    assertEquals(4096, reused.limit());
+    assertEquals(1, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+    assertEquals(0.5, pool.getHitRate());
+    assertEquals(0, pool.getPooledBytes());
+
+    // a discarded buffer is not reused.
+    pool.discard(reused);
+    assertEquals(0, pool.getOutstandingBytes());
+    assertNotSame(bb, pool.acquire(3000));
+  }
+
+  @Test
+  void testMaxPooledBytes() {
+    CommandBufferPool pool = new CommandBufferPool(6 * 1024);
+
+    ByteBuffer b1 = pool.acquire(4096);
+    ByteBuffer b2 = pool.acquire(4096);
+    ByteBuffer b3 = pool.acquire(2048);
+    pool.release(b1);
+    pool.release(b2);
+    pool.release(b3);
+
+    assertEquals(0, pool.getOutstandingBytes());
+    assertEquals(6 * 1024, pool.getPooledBytes());
+    assertSame(b1, pool.acquire(4096));
+    assertSame(b3, pool.acquire(2048));
+  }
+
+  @Test
+  void testInvalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> new CommandBufferPool(0));
+  }
+}
@@ -68,6 +68,12 @@ class ConnectionFactoryBuilderTest {
             f.getOperationTimeout());
     assertEquals(DefaultConnectionFactory.DEFAULT_READ_BUFFER_SIZE,
             f.getReadBufSize());
+    assertEquals(DefaultConnectionFactory.DEFAULT_CONNECTIONS_PER_NODE,
+            f.getConnectionsPerNode());
+    assertEquals(DefaultConnectionFactory.DEFAULT_IO_THREAD_COUNT,
+            f.getIOThreadCount());
+    assertEquals(DefaultConnectionFactory.DEFAULT_COMMAND_BUFFER_POOL_SIZE,
+            f.getCommandBufferPoolSize());
     assertSame(HashAlgorithm.KETAMA_HASH, f.getHashAlg());
     assertInstanceOf(SerializingTranscoder.class, f.getDefaultTranscoder());
     assertInstanceOf(SerializingTranscoder.class, f.getDefaultCollectionTranscoder());
@@ -97,8 +103,15 @@ class ConnectionFactoryBuilderTest {
     assertTrue(f.isDaemon());
     assertFalse(f.shouldOptimize());
     assertFalse(f.useNagleAlgorithm());
+    assertFalse(f.useGatheringWrite());
+    assertFalse(f.useOperationDeadline());
     assertFalse(f.getKeepAlive());
     assertTrue(f.getDnsCacheTtlCheck());
+    assertEquals(0, f.getHedgedReadDelay());
+    assertEquals(0, f.getCircuitBreakerOpenTime());
+    assertEquals(1, f.getPipedChunkWindow());
+    assertEquals(Integer.MAX_VALUE, f.getBulkGetChunkWindow());
+    assertEquals(1000, f.getBulkStoreWindow());
     assertEquals(DefaultConnectionFactory.DEFAULT_OP_QUEUE_MAX_BLOCK_TIME,
             f.getOpQueueMaxBlockTime());
   }
@@ -131,23 +144,37 @@ class ConnectionFactoryBuilderTest {
             .setInitialObservers(Collections.singleton(testObserver))
             .setOpFact(new BinaryOperationFactory())
             .setOpTimeout(4225)
+            .setUseOperationDeadline(true)
             .setOpQueueFactory(opQueueFactory)
             .setReadOpQueueFactory(rQueueFactory)
             .setWriteOpQueueFactory(wQueueFactory)
             .setReadBufferSize(19)
+            .setConnectionsPerNode(4)
+            .setIOThreadCount(2)
+            .setCommandBufferPoolSize(4 * 1024 * 1024)
             .setTranscoder(new WhalinTranscoder())
             .setCollectionTranscoder(SerializingTranscoder.forCollection()
                     .maxSize(SerializingTranscoder.MAX_COLLECTION_ELEMENT_SIZE - 1).build())
             .setUseNagleAlgorithm(true)
+            .setUseGatheringWrite(true)
             .setKeepAlive(true)
             .setDnsCacheTtlCheck(false)
             .setLocatorType(Locator.CONSISTENT)
             .setOpQueueMaxBlockTime(19)
             .setAuthDescriptor(anAuthDescriptor)
+            .setHedgedReadDelay(20)
+            .setCircuitBreakerOpenTime(3000)
+            .setPipedChunkWindow(4)
+            .setBulkGetChunkWindow(2)
+            .setBulkStoreWindow(50)
             .build();
 
     assertEquals(4225, f.getOperationTimeout());
+    assertTrue(f.useOperationDeadline());
     assertEquals(19, f.getReadBufSize());
+    assertEquals(4, f.getConnectionsPerNode());
+    assertEquals(2, f.getIOThreadCount());
+    assertEquals(4 * 1024 * 1024, f.getCommandBufferPoolSize());
     assertSame(HashAlgorithm.KETAMA_HASH, f.getHashAlg());
     assertInstanceOf(WhalinTranscoder.class, f.getDefaultTranscoder());
     assertEquals(SerializingTranscoder.MAX_COLLECTION_ELEMENT_SIZE - 1,
@@ -162,10 +189,16 @@ class ConnectionFactoryBuilderTest {
     assertTrue(f.isDaemon());
     assertFalse(f.shouldOptimize());
     assertTrue(f.useNagleAlgorithm());
+    assertTrue(f.useGatheringWrite());
     assertTrue(f.getKeepAlive());
     assertFalse(f.getDnsCacheTtlCheck());
     assertEquals(19, f.getOpQueueMaxBlockTime());
     assertSame(anAuthDescriptor, f.getAuthDescriptor());
+    assertEquals(20, f.getHedgedReadDelay());
+    assertEquals(3000, f.getCircuitBreakerOpenTime());
+    assertEquals(4, f.getPipedChunkWindow());
+    assertEquals(2, f.getBulkGetChunkWindow());
+    assertEquals(50, f.getBulkStoreWindow());
 
     MemcachedNode n = new MockMemcachedNode(
             InetSocketAddress.createUnresolved("localhost", 11211));
@@ -197,10 +230,16 @@ class ConnectionFactoryBuilderTest {
             defaultConnectionFactory.getOperationFactory().getClass());
     assertEquals(connectionFactory.getOperationTimeout(),
             defaultConnectionFactory.getOperationTimeout());
+    assertEquals(connectionFactory.useOperationDeadline(),
+            defaultConnectionFactory.useOperationDeadline());
+    assertEquals(connectionFactory.getCircuitBreakerOpenTime(),
+            defaultConnectionFactory.getCircuitBreakerOpenTime());
     assertTrue(connectionFactory.isDaemon());
     assertFalse(defaultConnectionFactory.isDaemon());
     assertEquals(connectionFactory.useNagleAlgorithm(),
             defaultConnectionFactory.useNagleAlgorithm());
+    assertEquals(connectionFactory.useGatheringWrite(),
+            defaultConnectionFactory.useGatheringWrite());
     assertEquals(connectionFactory.getKeepAlive(),
             defaultConnectionFactory.getKeepAlive());
     assertEquals(connectionFactory.getDnsCacheTtlCheck(),
@@ -215,6 +254,12 @@ class ConnectionFactoryBuilderTest {
             defaultConnectionFactory.shouldOptimize());
     assertEquals(connectionFactory.getReadBufSize(),
             defaultConnectionFactory.getReadBufSize());
+    assertEquals(connectionFactory.getConnectionsPerNode(),
+            defaultConnectionFactory.getConnectionsPerNode());
+    assertEquals(connectionFactory.getIOThreadCount(),
+            defaultConnectionFactory.getIOThreadCount());
+    assertEquals(connectionFactory.getCommandBufferPoolSize(),
+            defaultConnectionFactory.getCommandBufferPoolSize());
     assertEquals(connectionFactory.getAuthDescriptor(),
             defaultConnectionFactory.getAuthDescriptor());
     assertEquals(connectionFactory.getMaxFrontCacheElements(),
@@ -229,6 +274,14 @@ class ConnectionFactoryBuilderTest {
             defaultConnectionFactory.getDelimiter());
     assertEquals(connectionFactory.getReadPriority(),
             defaultConnectionFactory.getReadPriority());
+    assertEquals(connectionFactory.getHedgedReadDelay(),
+            defaultConnectionFactory.getHedgedReadDelay());
+    assertEquals(connectionFactory.getPipedChunkWindow(),
+            defaultConnectionFactory.getPipedChunkWindow());
+    assertEquals(connectionFactory.getBulkGetChunkWindow(),
+            defaultConnectionFactory.getBulkGetChunkWindow());
+    assertEquals(connectionFactory.getBulkStoreWindow(),
+            defaultConnectionFactory.getBulkStoreWindow());
   }
 
   @Test
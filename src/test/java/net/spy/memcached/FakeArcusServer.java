@@ -0,0 +1,113 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * Server on the loopback address for the tests of the client, answering the version
+ * command itself and the other commands with the handler given by the test.
+ * Each connection is served by its own thread.
+ */
+final class FakeArcusServer implements Closeable {
+
+  /**
+   * Handler of a command other than version, called by the thread of the connection.
+   */
+  interface Handler {
+    /**
+     * @param line the command line
+     * @param in   the reader of the connection, to read the data lines of the command
+     * @return the response, or null to answer nothing now
+     */
+    String respond(String line, BufferedReader in) throws Exception;
+  }
+
+  private final ServerSocket server;
+  private final Handler handler;
+
+  FakeArcusServer(Handler handler) throws IOException {
+    this.handler = handler;
+    this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread acceptor = new Thread(() -> {
+      while (!server.isClosed()) {
+        try {
+          Socket socket = server.accept();
+          Thread reader = new Thread(() -> {
+            try {
+              serve(socket);
+            } catch (Exception e) {
+              // closed
+            }
+          });
+          reader.setDaemon(true);
+          reader.start();
+        } catch (Exception e) {
+          return;
+        }
+      }
+    });
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Make a client of this server with the operation timeout of 5 seconds.
+   */
+  ArcusClient connect() throws IOException {
+    return connect(new ConnectionFactoryBuilder());
+  }
+
+  /**
+   * Make a client of this server with the given settings
+   * and the operation timeout of 5 seconds.
+   */
+  ArcusClient connect(ConnectionFactoryBuilder cfb) throws IOException {
+    return new ArcusClient(cfb.setOpTimeout(5000).build(),
+            AddrUtil.getAddresses(Collections.singletonList(
+                    "127.0.0.1:" + server.getLocalPort())));
+  }
+
+  @Override
+  public void close() throws IOException {
+    server.close();
+  }
+
+  private void serve(Socket socket) throws Exception {
+    BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+    OutputStream out = socket.getOutputStream();
+    String line;
+    while ((line = in.readLine()) != null) {
+      String response = line.equals("version") ? "VERSION 1.13.0\r\n" : handler.respond(line, in);
+      if (response != null) {
+        out.write(response.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+      }
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.spy.memcached.internal.BulkGetSubscriber;
+import net.spy.memcached.internal.BulkGetSubscription;
+import net.spy.memcached.ops.OperationStatus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GetBulkStreamTest {
+
+  private static final int KEY_COUNT = 450;
+
+  private final List<String> keys = new ArrayList<>();
+  private final AtomicInteger answered = new AtomicInteger();
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys.add("GetBulkStreamTest" + i);
+    }
+
+    server = new FakeArcusServer(this::respond);
+    client = server.connect();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testGetBulkStream() throws Exception {
+    // given
+    final Map<String, Object> values = new ConcurrentHashMap<>();
+    final AtomicInteger nodeKeys = new AtomicInteger();
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    // when
+    client.asyncGetBulkStream(keys, new BulkGetSubscriber<Object>() {
+      @Override
+      public void onSubscribe(BulkGetSubscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public void onNext(String key, Object value) {
+        values.put(key, value);
+      }
+
+      @Override
+      public void onNodeComplete(List<String> keys, OperationStatus status) {
+        assertTrue(status.isSuccess());
+        nodeKeys.addAndGet(keys.size());
+      }
+
+      @Override
+      public void onComplete() {
+        latch.countDown();
+      }
+    });
+
+    // then
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(KEY_COUNT, nodeKeys.get());
+    assertEquals(KEY_COUNT / 2, values.size());
+    assertEquals("GetBulkStreamTest0", values.get("GetBulkStreamTest0"));
+  }
+
+  @Test
+  void testSlowSubscriberBuffersBounded() throws Exception {
+    // given
+    List<String> manyKeys = new ArrayList<>();
+    for (int i = 0; i < 20 * MemcachedClient.GET_BULK_CHUNK_SIZE; i++) {
+      manyKeys.add("GetBulkStreamTest" + i);
+    }
+    final BulkGetSubscription[] subscription = new BulkGetSubscription[1];
+    final AtomicInteger delivered = new AtomicInteger();
+    final CountDownLatch first = new CountDownLatch(1);
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    // when
+    client.asyncGetBulkStream(manyKeys, new BulkGetSubscriber<Object>() {
+      @Override
+      public void onSubscribe(BulkGetSubscription s) {
+        subscription[0] = s;
+        s.request(1);
+      }
+
+      @Override
+      public void onNext(String key, Object value) {
+        delivered.incrementAndGet();
+        first.countDown();
+      }
+
+      @Override
+      public void onNodeComplete(List<String> keys, OperationStatus status) {
+      }
+
+      @Override
+      public void onComplete() {
+        latch.countDown();
+      }
+    });
+
+    // then
+    assertTrue(first.await(5, TimeUnit.SECONDS));
+    Thread.sleep(500);
+    // up to the buffer limit and a chunk in flight are buffered.
+    assertEquals(1, delivered.get());
+    assertTrue(answered.get() <= 2 * MemcachedClient.GET_BULK_CHUNK_SIZE,
+        "answered " + answered.get());
+
+    subscription[0].request(Long.MAX_VALUE);
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(manyKeys.size() / 2, delivered.get());
+  }
+
+  /**
+   * Answer the keys whose number is even with the key as the value.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    String[] requested;
+    if (line.startsWith("mget ")) {
+      requested = in.readLine().split(" ");
+    } else {
+      requested = line.substring("get ".length()).split(" ");
+    }
+    StringBuilder response = new StringBuilder();
+    for (String key : requested) {
+      if (Integer.parseInt(key.substring("GetBulkStreamTest".length())) % 2 == 0) {
+        answered.incrementAndGet();
+        response.append("VALUE ").append(key).append(" 0 ").append(key.length())
+                .append("\r\n").append(key).append("\r\n");
+      }
+    }
+    response.append("END\r\n");
+    return response.toString();
+  }
+}
@@ -24,6 +24,17 @@ class HashAlgorithmTest {
     assertHash(HashAlgorithm.NATIVE_HASH, key, Math.abs(key.hashCode()));
   }
 
+  @Test
+  void testHashWithKeyBytes() {
+    for (HashAlgorithm ha : HashAlgorithm.values()) {
+      for (String k : new String[]{"Test1", "UDATA:edevil@sapo.pt", "\ud55c\uae00"}) {
+        assertEquals(ha.hash(k), ha.hash(k, KeyUtil.getKeyBytes(k)));
+      }
+    }
+    assertEquals(HashAlgorithm.KETAMA_HASH.hash("Test1"),
+            new EncodedKey("Test1").getKetamaHash());
+  }
+
   @Test
   void testNativeHash() {
     for (String k : new String[]{"Test1", "Test2", "Test3", "Test4"}) {
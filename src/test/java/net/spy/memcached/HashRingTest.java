@@ -0,0 +1,77 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashRingTest {
+
+  @Test
+  void testEmpty() {
+    HashRing<String> ring = HashRing.of(new TreeMap<Long, SortedSet<String>>());
+
+    assertTrue(ring.isEmpty());
+    assertNull(ring.get(0));
+  }
+
+  @Test
+  void testLookups() {
+    TreeMap<Long, SortedSet<String>> map = new TreeMap<>();
+    map.put(100L, new TreeSet<>(Arrays.asList("b", "a")));
+    map.put(200L, new TreeSet<>(Arrays.asList("c")));
+    HashRing<String> ring = HashRing.of(map);
+
+    assertEquals(2, ring.size());
+    assertEquals("a", ring.get(0));
+    assertEquals("a", ring.get(100));
+    assertEquals("c", ring.get(101));
+    assertEquals("c", ring.get(200));
+    // wrap around to the first point.
+    assertEquals("a", ring.get(201));
+    assertEquals("a", ring.get(0xFFFFFFFFL));
+  }
+
+  @Test
+  void testSameAsCeilingEntry() {
+    Random random = new Random(0);
+    TreeMap<Long, SortedSet<Integer>> map = new TreeMap<>();
+    for (int i = 0; i < 1000; i++) {
+      map.computeIfAbsent(random.nextLong() & 0xFFFFFFFFL, k -> new TreeSet<>()).add(i);
+    }
+    HashRing<Integer> ring = HashRing.of(map);
+
+    for (int i = 0; i < 10000; i++) {
+      long hash = random.nextLong() & 0xFFFFFFFFL;
+      Long point = map.ceilingKey(hash);
+      if (point == null) {
+        point = map.firstKey();
+      }
+      assertEquals(map.get(point).first(), ring.get(hash));
+    }
+  }
+}
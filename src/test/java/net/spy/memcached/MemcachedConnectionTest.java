@@ -17,17 +17,36 @@
  */
 package net.spy.memcached;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import net.spy.memcached.internal.ReconnDelay;
+import net.spy.memcached.ops.APIType;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,7 +54,9 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -160,6 +181,320 @@ class MemcachedConnectionTest {
   void testAddOperations() throws Exception {
   }
 
+  @Test
+  void testConnectionsPerNode() throws Exception {
+    ConnectionFactory cf = new ConnectionFactoryBuilder()
+            .setReadBufferSize(1024).setConnectionsPerNode(4).build();
+    MemcachedConnection stripedConn = new MemcachedConnection("striped connection test", cf,
+            AddrUtil.getAddresses(Arrays.asList("0.0.0.0:11211", "0.0.0.0:11212")),
+            cf.getInitialObservers(), cf.getFailureMode(), cf.getOperationFactory());
+    try {
+      // the locator knows the first stripe of each node only.
+      Collection<MemcachedNode> nodes = stripedConn.getLocator().getAll();
+      assertEquals(2, nodes.size());
+      for (MemcachedNode node : nodes) {
+        assertEquals(4, node.getStripes().size());
+        assertSame(node, node.getStripes().get(0));
+        for (MemcachedNode stripe : node.getStripes()) {
+          assertSame(node.getStripes(), stripe.getStripes());
+          assertEquals(node.getSocketAddress(), stripe.getSocketAddress());
+        }
+      }
+
+      // a key is always sent through the same stripe of its node.
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        keys.add("stripe_key" + i);
+      }
+      Set<MemcachedNode> usedStripes = new HashSet<>();
+      for (String key : keys) {
+        MemcachedNode stripe = stripedConn.findNodeByKey(key, APIType.GET);
+        assertSame(stripe, stripedConn.findNodeByKey(key, APIType.GET));
+        assertSame(stripedConn.getPrimaryNode(key, APIType.GET), stripe.getStripes().get(0));
+        usedStripes.add(stripe);
+      }
+      assertEquals(8, usedStripes.size());
+
+      // the keys of a bulk operation are spread across the stripes.
+      Map<MemcachedNode, List<String>> keysByNode = stripedConn.groupKeysByNode(keys, null);
+      assertEquals(usedStripes, keysByNode.keySet());
+    } finally {
+      stripedConn.shutdown();
+    }
+  }
+
+  @Test
+  void testIOThreadCount() throws Exception {
+    ConnectionFactory cf = new ConnectionFactoryBuilder()
+            .setReadBufferSize(1024).setIOThreadCount(2).build();
+    MemcachedConnection shardedConn = new MemcachedConnection("sharded connection test", cf,
+            AddrUtil.getAddresses(Arrays.asList("0.0.0.0:11211", "0.0.0.0:11212")),
+            cf.getInitialObservers(), cf.getFailureMode(), cf.getOperationFactory());
+    Thread ioThread = null;
+    for (Thread t : Thread.getAllStackTraces().keySet()) {
+      if (t.getName().equals("Memcached IO over sharded connection test #1")) {
+        ioThread = t;
+      }
+    }
+    assertNotNull(ioThread);
+    try {
+      // the nodes are changed while the other IO thread is paused.
+      shardedConn.setCacheNodesChange(AddrUtil.getAddresses(
+              Arrays.asList("0.0.0.0:11211", "0.0.0.0:11212", "0.0.0.0:11213")));
+      shardedConn.handleIO();
+      assertEquals(3, shardedConn.getLocator().getAll().size());
+
+      shardedConn.setCacheNodesChange(AddrUtil.getAddresses(
+              Collections.singletonList("0.0.0.0:11213")));
+      shardedConn.handleIO();
+      assertEquals(1, shardedConn.getLocator().getAll().size());
+      assertTrue(ioThread.isAlive());
+    } finally {
+      shardedConn.shutdown();
+    }
+    assertFalse(ioThread.isAlive());
+  }
+
+  @Test
+  void testCoalescedWakeups() throws Exception {
+    // the nodes change wakes up the selector.
+    conn.setCacheNodesChange(AddrUtil.getAddresses(Collections.singletonList("0.0.0.0:11211")));
+    conn.handleCacheNodesChange();
+    assertEquals(1, conn.getSelectorWakeupCount());
+
+    // the operations added before the next IO loop need no more wakeups.
+    MemcachedNode node = locator.getAll().iterator().next();
+    OperationFactory opFact = new AsciiOperationFactory();
+    OperationCallback cb = new OperationCallback() {
+      public void receivedStatus(OperationStatus status) {
+      }
+
+      public void complete() {
+      }
+    };
+    for (int i = 0; i < 10; i++) {
+      conn.addOperation(node, opFact.noop(cb));
+    }
+    assertEquals(10, conn.getAddedOperationCount());
+    assertEquals(1, conn.getSelectorWakeupCount());
+
+    // the next IO loop is woken up once again.
+    conn.handleIO();
+    conn.wakeUpSelector();
+    conn.wakeUpSelector();
+    assertEquals(2, conn.getSelectorWakeupCount());
+  }
+
+  @Test
+  void testOperationDeadline() throws Exception {
+    ConnectionFactory cf = new ConnectionFactoryBuilder()
+            .setReadBufferSize(1024).setOpTimeout(100).setUseOperationDeadline(true).build();
+    MemcachedConnection deadlineConn = new MemcachedConnection("deadline connection test", cf,
+            AddrUtil.getAddresses(Collections.singletonList("0.0.0.0:11211")),
+            cf.getInitialObservers(), FailureMode.Retry, cf.getOperationFactory());
+    try {
+      MemcachedNode node = deadlineConn.getLocator().getAll().iterator().next();
+      Operation op = new AsciiOperationFactory().noop(new OperationCallback() {
+        public void receivedStatus(OperationStatus status) {
+        }
+
+        public void complete() {
+        }
+      });
+      deadlineConn.addOperation(node, op);
+
+      // the operation never written expires without anyone waiting on it.
+      long start = System.currentTimeMillis();
+      while (!op.isCancelled() && System.currentTimeMillis() - start < 5000) {
+        deadlineConn.handleIO();
+      }
+      assertTrue(op.isCancelled());
+      assertTrue(op.getCancelCause().contains("timed out before being written"));
+      assertTrue(op.isTimedOut());
+      assertEquals(1, deadlineConn.getUnsentTimeoutCount());
+
+      // an operation inserted at the head of the write queue expires as well.
+      Operation inserted = new AsciiOperationFactory().noop(new OperationCallback() {
+        public void receivedStatus(OperationStatus status) {
+        }
+
+        public void complete() {
+        }
+      });
+      Method insertOperation = MemcachedConnection.class.getDeclaredMethod(
+          "insertOperation", MemcachedNode.class, Operation.class);
+      insertOperation.setAccessible(true);
+      insertOperation.invoke(deadlineConn, node, inserted);
+      start = System.currentTimeMillis();
+      while (!inserted.isCancelled() && System.currentTimeMillis() - start < 5000) {
+        deadlineConn.handleIO();
+      }
+      assertTrue(inserted.isTimedOut());
+      assertEquals(2, deadlineConn.getUnsentTimeoutCount());
+    } finally {
+      deadlineConn.shutdown();
+    }
+  }
+
+  @Test
+  void testCircuitBreaker() throws Exception {
+    // a server that does not respond until told to.
+    AtomicBoolean respond = new AtomicBoolean(false);
+    ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread acceptor = new Thread(() -> {
+      while (!server.isClosed()) {
+        try {
+          Socket socket = server.accept();
+          Thread reader = new Thread(() -> serveVersion(socket, respond));
+          reader.setDaemon(true);
+          reader.start();
+        } catch (Exception e) {
+          return;
+        }
+      }
+    });
+    acceptor.setDaemon(true);
+    acceptor.start();
+
+    List<CircuitBreaker.State> states = Collections.synchronizedList(new ArrayList<>());
+    ConnectionFactory cf = new ConnectionFactoryBuilder()
+            .setReadBufferSize(1024).setOpTimeout(100).setUseOperationDeadline(true)
+            .setTimeoutExceptionThreshold(2).setTimeoutDurationThreshold(0)
+            .setCircuitBreakerOpenTime(200)
+            .setInitialObservers(Collections.singleton(new ConnectionObserver() {
+              public void connectionEstablished(MemcachedNode node, int reconnectCount) {
+              }
+
+              public void connectionLost(MemcachedNode node) {
+              }
+
+              public void circuitStateChanged(MemcachedNode node, CircuitBreaker.State state) {
+                states.add(state);
+              }
+            })).build();
+    MemcachedConnection circuitConn = new MemcachedConnection("circuit connection test", cf,
+            AddrUtil.getAddresses(Collections.singletonList(
+                    "127.0.0.1:" + server.getLocalPort())),
+            cf.getInitialObservers(), FailureMode.Retry, cf.getOperationFactory());
+    try {
+      MemcachedNode node = circuitConn.getLocator().getAll().iterator().next();
+      CircuitBreaker breaker = node.getCircuitBreaker();
+      AsciiOperationFactory factory = new AsciiOperationFactory();
+      OperationCallback callback = new OperationCallback() {
+        public void receivedStatus(OperationStatus status) {
+        }
+
+        public void complete() {
+        }
+      };
+
+      // the circuit opens once the node exceeds the timeout threshold.
+      long start = System.currentTimeMillis();
+      while (breaker.isClosed() && System.currentTimeMillis() - start < 5000) {
+        // keep adding operations, which also wake up the IO loop.
+        circuitConn.addOperation(node, factory.noop(callback));
+        circuitConn.handleIO();
+      }
+      assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+      // operations fail fast while the circuit is open.
+      long rejected = breaker.getRejectedCount();
+      Operation op = factory.noop(callback);
+      circuitConn.addOperation(node, op);
+      assertTrue(op.isCancelled());
+      assertTrue(op.getCancelCause().contains("circuit open"));
+      assertEquals(rejected + 1, breaker.getRejectedCount());
+
+      // the circuit closes once the probe succeeds.
+      respond.set(true);
+      start = System.currentTimeMillis();
+      while (!breaker.isClosed() && System.currentTimeMillis() - start < 10000) {
+        circuitConn.handleIO();
+      }
+      assertTrue(breaker.isClosed());
+      assertEquals(CircuitBreaker.State.OPEN, states.get(0));
+      assertTrue(states.contains(CircuitBreaker.State.HALF_OPEN));
+      assertEquals(CircuitBreaker.State.CLOSED, states.get(states.size() - 1));
+    } finally {
+      circuitConn.shutdown();
+      server.close();
+    }
+  }
+
+  @Test
+  void testIOThreadSurvivesRuntimeException() throws Exception {
+    ConnectionFactory cf = new ConnectionFactoryBuilder()
+            .setReadBufferSize(1024).setOpTimeout(100).setUseOperationDeadline(true)
+            .setIOThreadCount(2).build();
+    MemcachedConnection shardedConn = new MemcachedConnection("failing callback test", cf,
+            AddrUtil.getAddresses(Arrays.asList("0.0.0.0:11211", "0.0.0.0:11212")),
+            cf.getInitialObservers(), FailureMode.Retry, cf.getOperationFactory());
+    Thread ioThread = null;
+    for (Thread t : Thread.getAllStackTraces().keySet()) {
+      if (t.getName().equals("Memcached IO over failing callback test #1")) {
+        ioThread = t;
+      }
+    }
+    assertNotNull(ioThread);
+    try {
+      // the second node is handled by the IO thread of the second shard.
+      MemcachedNode node = null;
+      for (MemcachedNode n : shardedConn.getLocator().getAll()) {
+        if (((InetSocketAddress) n.getSocketAddress()).getPort() == 11212) {
+          node = n;
+        }
+      }
+      assertNotNull(node);
+      AsciiOperationFactory factory = new AsciiOperationFactory();
+      Operation failing = factory.noop(new OperationCallback() {
+        public void receivedStatus(OperationStatus status) {
+          throw new IllegalArgumentException("failing callback");
+        }
+
+        public void complete() {
+        }
+      });
+      shardedConn.addOperation(node, failing);
+      long start = System.currentTimeMillis();
+      while (!failing.isCancelled() && System.currentTimeMillis() - start < 5000) {
+        Thread.sleep(10);
+      }
+      assertTrue(failing.isCancelled());
+
+      // the IO thread keeps expiring the operations after the callback failed.
+      CountDownLatch latch = new CountDownLatch(1);
+      shardedConn.addOperation(node, factory.noop(new OperationCallback() {
+        public void receivedStatus(OperationStatus status) {
+        }
+
+        public void complete() {
+          latch.countDown();
+        }
+      }));
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+      assertTrue(ioThread.isAlive());
+    } finally {
+      shardedConn.shutdown();
+    }
+  }
+
+  private static void serveVersion(Socket socket, AtomicBoolean respond) {
+    try (Socket s = socket;
+         BufferedReader in = new BufferedReader(
+                 new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII))) {
+      OutputStream out = s.getOutputStream();
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (respond.get() && line.startsWith("version")) {
+          out.write("VERSION 1.0\r\n".getBytes(StandardCharsets.US_ASCII));
+          out.flush();
+        }
+      }
+    } catch (Exception e) {
+      // the connection is closed.
+    }
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   void testReconnectQueue_delayReconnect() throws Exception {
@@ -0,0 +1,94 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MemcachedReplicaGroupTest {
+
+  private LoadedNode master;
+  private LoadedNode slave1;
+  private LoadedNode slave2;
+  private MemcachedReplicaGroup group;
+
+  @BeforeEach
+  void setUp() {
+    master = new LoadedNode(ArcusReplNodeAddress.create("g0", true, "127.0.0.1:11211"));
+    slave1 = new LoadedNode(ArcusReplNodeAddress.create("g0", false, "127.0.0.1:11212"));
+    slave2 = new LoadedNode(ArcusReplNodeAddress.create("g0", false, "127.0.0.1:11213"));
+    group = new MemcachedReplicaGroupImpl(master);
+    group.setMemcachedNode(slave1);
+    group.setMemcachedNode(slave2);
+  }
+
+  @Test
+  void testLeastOutstanding() {
+    master.outstanding = 10;
+    slave1.outstanding = 3;
+    slave2.outstanding = 7;
+    for (int i = 0; i < 5; i++) {
+      assertSame(slave1, group.getNodeByReplicaPick(ReplicaPick.LEAST_OUTSTANDING));
+    }
+
+    slave1.active = false;
+    assertSame(slave2, group.getNodeByReplicaPick(ReplicaPick.LEAST_OUTSTANDING));
+  }
+
+  @Test
+  void testLeastOutstandingSpreadsTies() {
+    Set<MemcachedNode> picked = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      picked.add(group.getNodeByReplicaPick(ReplicaPick.LEAST_OUTSTANDING));
+    }
+    assertEquals(3, picked.size());
+  }
+
+  @Test
+  void testLeastOutstandingWithoutActiveNode() {
+    master.active = false;
+    slave1.active = false;
+    slave2.active = false;
+    assertSame(master, group.getNodeByReplicaPick(ReplicaPick.LEAST_OUTSTANDING));
+  }
+
+  private static final class LoadedNode extends MockMemcachedNode {
+    private int outstanding = 0;
+    private boolean active = true;
+
+    private LoadedNode(ArcusReplNodeAddress address) {
+      super(address);
+    }
+
+    @Override
+    public boolean isActive() {
+      return active;
+    }
+
+    @Override
+    public int getOutstandingOperationCount() {
+      return outstanding;
+    }
+  }
+}
@@ -24,6 +24,8 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import net.spy.memcached.internal.ReconnDelay;
 import net.spy.memcached.ops.Operation;
@@ -253,8 +255,37 @@ public class MockMemcachedNode implements MemcachedNode {
   public String getOpQueueStatus() {
     return "MOCK_STATE";
   }
+
+  public int getOutstandingOperationCount() {
+    return 0;
+  }
+
+  public void setStripes(List<MemcachedNode> stripes) {
+    // noop
+  }
+
+  public List<MemcachedNode> getStripes() {
+    return Collections.singletonList(this);
+  }
+
+  public void setCommandBufferPool(CommandBufferPool pool) {
+    // noop
+  }
+
+  public CommandBufferPool getCommandBufferPool() {
+    return null;
+  }
+
   /* ENABLE_REPLICATION if */
 
+  public void setCircuitBreaker(CircuitBreaker breaker) {
+    // noop
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    return null;
+  }
+
   @Override
   public void setReplicaGroup(MemcachedReplicaGroup g) {
     // noop
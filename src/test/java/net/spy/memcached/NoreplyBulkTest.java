@@ -0,0 +1,114 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.collection.CollectionAttributes;
+import net.spy.memcached.ops.StoreType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoreplyBulkTest {
+
+  private static final int KEY_COUNT = 10;
+
+  private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+  private final List<String> keys = new ArrayList<>();
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys.add("NoreplyBulkTest" + i);
+    }
+
+    server = new FakeArcusServer(this::respond);
+    client = server.connect();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testStoreBulkNoreply() throws Exception {
+    Future<Boolean> future = client.asyncStoreBulkNoreply(StoreType.set, keys, 0, "value", true);
+
+    // the version request is answered after all the noreply commands have been read.
+    assertTrue(future.get(5, TimeUnit.SECONDS));
+    assertEquals(KEY_COUNT, countReceived("set ", " noreply"));
+  }
+
+  @Test
+  void testDeleteBulkNoreply() throws Exception {
+    Future<Boolean> future = client.asyncDeleteBulkNoreply(keys, false);
+
+    assertTrue(future.get(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 100 && countReceived("delete ", " noreply") < KEY_COUNT; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(KEY_COUNT, countReceived("delete ", " noreply"));
+  }
+
+  @Test
+  void testBopInsertBulkNoreply() throws Exception {
+    Future<Boolean> future = client.asyncBopInsertBulkNoreply(keys, 1L, null, "value",
+            new CollectionAttributes(), true);
+
+    assertTrue(future.get(5, TimeUnit.SECONDS));
+    assertEquals(KEY_COUNT, countReceived("bop insert ", " noreply"));
+  }
+
+  private int countReceived(String prefix, String suffix) {
+    int count = 0;
+    synchronized (received) {
+      for (String line : received) {
+        if (line.startsWith(prefix) && line.endsWith(suffix)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Answer nothing, reading the value line of the storage commands.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    if (!line.startsWith("delete ")) {
+      in.readLine(); // value
+    }
+    received.add(line);
+    return null;
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.spy.memcached.collection.CollectionAttributes;
+import net.spy.memcached.collection.CollectionResponse;
+import net.spy.memcached.internal.CollectionFuture;
+import net.spy.memcached.ops.CollectionOperationStatus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipedChunkWindowTest {
+
+  private static final String KEY = "PipedChunkWindowTest";
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  private final AtomicInteger receivedChunks = new AtomicInteger();
+  // the responses held, and the commands of the chunk being read.
+  private final List<Integer> pending = new ArrayList<>();
+  private int pipedCount = 0;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (client != null) {
+      client.shutdown();
+    }
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  @Test
+  void testChunksInFlight() throws Exception {
+    // the server responds only after two chunks have arrived.
+    startClient(2, 2, "STORED");
+
+    CollectionFuture<Map<Integer, CollectionOperationStatus>> future =
+            client.asyncSopPipedInsertBulk(KEY, values(ArcusClient.MAX_PIPED_ITEM_COUNT * 2 + 1),
+                    new CollectionAttributes());
+
+    assertTrue(future.get(5, TimeUnit.SECONDS).isEmpty());
+    assertTrue(future.getOperationStatus().isSuccess());
+    assertEquals(3, receivedChunks.get());
+  }
+
+  @Test
+  void testStopAfterFailedChunk() throws Exception {
+    startClient(2, 2, "NOT_FOUND");
+
+    CollectionFuture<Map<Integer, CollectionOperationStatus>> future =
+            client.asyncSopPipedInsertBulk(KEY, values(ArcusClient.MAX_PIPED_ITEM_COUNT * 2 + 1),
+                    new CollectionAttributes());
+
+    Map<Integer, CollectionOperationStatus> result = future.get(5, TimeUnit.SECONDS);
+    assertEquals(ArcusClient.MAX_PIPED_ITEM_COUNT * 2, result.size());
+    assertEquals(CollectionResponse.NOT_FOUND,
+            result.get(ArcusClient.MAX_PIPED_ITEM_COUNT * 2 - 1).getResponse());
+    assertEquals(CollectionResponse.FAILED_END, future.getOperationStatus().getResponse());
+
+    // the chunk not sent yet is not sent after the failure.
+    Thread.sleep(100);
+    assertEquals(2, receivedChunks.get());
+  }
+
+  @Test
+  void testCancelWhileChunksInFlight() throws Exception {
+    // the server never responds.
+    startClient(2, Integer.MAX_VALUE, "STORED");
+
+    CollectionFuture<Map<Integer, CollectionOperationStatus>> future =
+            client.asyncSopPipedInsertBulk(KEY, values(ArcusClient.MAX_PIPED_ITEM_COUNT * 4),
+                    new CollectionAttributes());
+    long start = System.currentTimeMillis();
+    while (receivedChunks.get() < 2 && System.currentTimeMillis() - start < 5000) {
+      Thread.sleep(10);
+    }
+    assertEquals(2, receivedChunks.get());
+
+    assertTrue(future.cancel(true));
+    assertTrue(future.isCancelled());
+
+    // the chunks not sent yet are not sent after the cancel.
+    Thread.sleep(100);
+    assertEquals(2, receivedChunks.get());
+  }
+
+  private void startClient(int window, int respondAfter, String status) throws Exception {
+    server = new FakeArcusServer((line, in) -> respondSopInsert(line, in, respondAfter, status));
+    client = server.connect(new ConnectionFactoryBuilder().setPipedChunkWindow(window));
+    // the version sent on connect must be answered before the responses are held.
+    client.getVersions();
+  }
+
+  /**
+   * Read the piped "sop insert" commands, holding the responses
+   * until the given number of chunks have arrived.
+   */
+  private String respondSopInsert(String line, BufferedReader in,
+                                  int respondAfter, String status) throws Exception {
+    in.readLine(); // value
+    pipedCount++;
+    if (line.endsWith(" pipe")) {
+      return null;
+    }
+    receivedChunks.incrementAndGet();
+    pending.add(pipedCount);
+    pipedCount = 0;
+    if (receivedChunks.get() < respondAfter) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (int each : pending) {
+      if (each == 1) {
+        sb.append(status).append("\r\n");
+        continue;
+      }
+      sb.append("RESPONSE ").append(each).append("\r\n");
+      for (int i = 0; i < each; i++) {
+        sb.append(status).append("\r\n");
+      }
+      sb.append("END\r\n");
+    }
+    pending.clear();
+    return sb.toString();
+  }
+
+  private static List<Object> values(int count) {
+    List<Object> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add("value" + i);
+    }
+    return values;
+  }
+}
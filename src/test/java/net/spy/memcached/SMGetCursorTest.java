@@ -0,0 +1,278 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import net.spy.memcached.collection.BKeyObject;
+import net.spy.memcached.collection.BTreeSMGet;
+import net.spy.memcached.collection.ElementFlagFilter;
+import net.spy.memcached.collection.SMGetCursor;
+import net.spy.memcached.collection.SMGetElement;
+import net.spy.memcached.internal.SMGetFuture;
+import net.spy.memcached.ops.BTreeSortMergeGetOperation;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+import net.spy.memcached.transcoders.Transcoder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SMGetCursorTest {
+
+  private static final List<String> KEYS = Arrays.asList("A", "B", "C");
+
+  // bkeys of the elements of each b+tree, whose values are the key and the bkey.
+  private static final Map<String, long[]> TREES = new HashMap<>();
+
+  static {
+    TREES.put("A", new long[]{1, 2, 3, 5});
+    TREES.put("B", new long[]{2, 3, 4, 5});
+    TREES.put("C", new long[]{3, 5, 6});
+  }
+
+  private final Transcoder<Object> tc =
+          new ConnectionFactoryBuilder().build().getDefaultCollectionTranscoder();
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new FakeArcusServer(this::respond);
+    client = server.connect();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testPagesWithDuplicatedBkeys() throws Exception {
+    assertEquals(Arrays.asList("A1", "A2", "B2", "A3", "B3", "C3", "B4", "A5", "B5", "C5", "C6"),
+            fetchAll(0, 100, false, 2));
+  }
+
+  @Test
+  void testPagesInReverse() throws Exception {
+    assertEquals(Arrays.asList("C6", "C5", "B5", "A5", "B4", "C3", "B3", "A3", "B2", "A2"),
+            fetchAll(100, 2, false, 3));
+  }
+
+  @Test
+  void testPagesWithUniqueBkeys() throws Exception {
+    assertEquals(Arrays.asList("A1", "A2", "A3", "B4", "A5", "C6"),
+            fetchAll(0, 100, true, 2));
+  }
+
+  @Test
+  void testLastPageAtEndOfRange() throws Exception {
+    SMGetFuture<List<SMGetElement<Object>>> future = client.asyncBopSortMergeGet(
+            KEYS, 0, 5, ElementFlagFilter.DO_NOT_FILTER, 10, false,
+            new SMGetCursor("C", new BKeyObject(5L)));
+
+    assertEquals(Collections.emptyList(), future.get(5, TimeUnit.SECONDS));
+    assertNull(future.getNextCursor());
+  }
+
+  @Test
+  void testEncodedCursor() {
+    SMGetCursor cursor = new SMGetCursor("prefix:key", new BKeyObject(10L));
+    assertEquals(cursor, SMGetCursor.decode(cursor.encode()));
+
+    SMGetCursor byteCursor = new SMGetCursor("key", new BKeyObject(new byte[]{1, 2}));
+    assertEquals(byteCursor, SMGetCursor.decode(byteCursor.encode()));
+
+    assertThrows(IllegalArgumentException.class, () -> SMGetCursor.decode("10"));
+    assertThrows(IllegalArgumentException.class, () -> SMGetCursor.decode("x:key"));
+  }
+
+  @Test
+  void testCursorOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> client.asyncBopSortMergeGet(
+            KEYS, 0, 5, ElementFlagFilter.DO_NOT_FILTER, 10, false,
+            new SMGetCursor("A", new BKeyObject(6L))));
+    assertThrows(IllegalArgumentException.class, () -> client.asyncBopSortMergeGet(
+            KEYS, 0, 5, ElementFlagFilter.DO_NOT_FILTER, 10, false,
+            new SMGetCursor("A", new BKeyObject(new byte[]{1}))));
+  }
+
+  @Test
+  void testChunksCompletedConcurrently() throws Exception {
+    // keep the callback of each chunk to complete the chunks by the threads of the test.
+    List<BTreeSortMergeGetOperation.Callback> callbacks = new CopyOnWriteArrayList<>();
+    ArcusClient chunkClient = server.connect(new ConnectionFactoryBuilder()
+            .setOpFact(new AsciiOperationFactory() {
+              @Override
+              public BTreeSortMergeGetOperation bopsmget(BTreeSMGet<?> smGet,
+                                                         BTreeSortMergeGetOperation.Callback cb) {
+                callbacks.add(cb);
+                return super.bopsmget(smGet, new IgnoredCallback());
+              }
+            }));
+    try {
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; i < 2 * ArcusClient.SMGET_CHUNK_SIZE; i++) {
+        keys.add("key" + i);
+      }
+      SMGetFuture<List<SMGetElement<Object>>> future = chunkClient.asyncBopSortMergeGet(
+              keys, 0, 100, ElementFlagFilter.DO_NOT_FILTER, 100, false);
+      assertEquals(2, callbacks.size());
+
+      // the first chunk is being completed while the second chunk is completed.
+      CountDownLatch firstCompleting = new CountDownLatch(1);
+      CountDownLatch secondCompleted = new CountDownLatch(1);
+      Thread first = completeChunk(callbacks.get(0), 1, new OperationStatus(true, "END") {
+        @Override
+        public boolean isSuccess() {
+          firstCompleting.countDown();
+          try {
+            secondCompleted.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return true;
+        }
+      });
+      assertTrue(firstCompleting.await(5, TimeUnit.SECONDS));
+      completeChunk(callbacks.get(1), 2, new OperationStatus(true, "END")).join();
+      secondCompleted.countDown();
+      first.join();
+
+      assertEquals(Arrays.asList("key1", "key2"), future.get(5, TimeUnit.SECONDS).stream()
+              .map(SMGetElement::getValue).collect(Collectors.toList()));
+    } finally {
+      chunkClient.shutdown();
+    }
+  }
+
+  private List<Object> fetchAll(long from, long to, boolean unique, int count) throws Exception {
+    List<Object> values = new ArrayList<>();
+    SMGetCursor cursor = null;
+    do {
+      SMGetFuture<List<SMGetElement<Object>>> future = client.asyncBopSortMergeGet(
+              KEYS, from, to, ElementFlagFilter.DO_NOT_FILTER, count, unique, cursor);
+      for (SMGetElement<Object> element : future.get(5, TimeUnit.SECONDS)) {
+        values.add(element.getValue());
+      }
+      cursor = future.getNextCursor();
+    } while (cursor != null);
+    return values;
+  }
+
+  private Thread completeChunk(BTreeSortMergeGetOperation.Callback cb, long bkey,
+                               OperationStatus status) {
+    Thread thread = new Thread(() -> {
+      CachedData data = tc.encode("key" + bkey);
+      cb.gotData("key" + bkey, data.getFlags(), bkey, null, data.getData());
+      cb.receivedStatus(status);
+      cb.complete();
+    });
+    thread.start();
+    return thread;
+  }
+
+  private static final class IgnoredCallback implements BTreeSortMergeGetOperation.Callback {
+    @Override
+    public void receivedStatus(OperationStatus status) {
+    }
+
+    @Override
+    public void complete() {
+    }
+
+    @Override
+    public void gotData(String key, int flags, Object bkey, byte[] eflag, byte[] data) {
+    }
+
+    @Override
+    public void gotMissedKey(String key, OperationStatus cause) {
+    }
+
+    @Override
+    public void gotTrimmedKey(String key, Object bkey) {
+    }
+  }
+
+  /**
+   * Answer the bop smget commands, sorting the elements by the bkey and the key.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    // bop smget <lenkeys> <numkeys> <from>..<to> <count> <unique|duplicate>
+    String[] tokens = line.split(" ");
+    String[] range = tokens[4].split("\\.\\.");
+    long from = Long.parseLong(range[0]);
+    long to = Long.parseLong(range[1]);
+    int count = Integer.parseInt(tokens[5]);
+    boolean unique = tokens[6].equals("unique");
+
+    List<Object[]> elements = new ArrayList<>();
+    for (String key : in.readLine().split("[ ,]")) {
+      for (long bkey : TREES.getOrDefault(key, new long[0])) {
+        if (bkey >= Math.min(from, to) && bkey <= Math.max(from, to)) {
+          elements.add(new Object[]{bkey, key});
+        }
+      }
+    }
+    Comparator<Object[]> order = Comparator.<Object[], Long>comparing(e -> (Long) e[0])
+            .thenComparing(e -> (String) e[1]);
+    elements.sort(from <= to ? order : order.reversed());
+
+    List<Object[]> page = new ArrayList<>();
+    for (Object[] element : elements) {
+      if (page.size() == count) {
+        break;
+      }
+      if (unique && !page.isEmpty() && page.get(page.size() - 1)[0].equals(element[0])) {
+        continue;
+      }
+      page.add(element);
+    }
+
+    StringBuilder sb = new StringBuilder();
+    sb.append("ELEMENTS ").append(page.size()).append("\r\n");
+    for (Object[] element : page) {
+      CachedData data = tc.encode(element[1] + String.valueOf(element[0]));
+      sb.append(element[1]).append(" ").append(data.getFlags()).append(" ")
+              .append(element[0]).append(" ").append(data.getData().length).append(" ")
+              .append(new String(data.getData(), StandardCharsets.ISO_8859_1)).append("\r\n");
+    }
+    sb.append("MISSED_KEYS 0\r\nTRIMMED_KEYS 0\r\nEND\r\n");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached;
+
+import java.io.BufferedReader;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.ops.StoreType;
+import net.spy.memcached.transcoders.SerializingTranscoder;
+import net.spy.memcached.transcoders.Transcoder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreBulkStreamTest {
+
+  private static final int KEY_COUNT = 20;
+  private static final int WINDOW = 5;
+
+  private final List<Map.Entry<String, Object>> entries = new ArrayList<>();
+  private final Map<String, OperationStatus> failures = new ConcurrentHashMap<>();
+  // the largest number of commands received before answering them.
+  private final AtomicInteger maxBatch = new AtomicInteger();
+  private final AtomicInteger stored = new AtomicInteger();
+  private final AtomicInteger received = new AtomicInteger();
+  private volatile boolean answering = true;
+  // the responses not written yet, used by the thread of the connection only.
+  private final StringBuilder pending = new StringBuilder();
+  private int batch;
+
+  private FakeArcusServer server;
+  private ArcusClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    for (int i = 0; i < KEY_COUNT; i++) {
+      entries.add(new AbstractMap.SimpleEntry<>("StoreBulkStreamTest" + i, "value" + i));
+    }
+
+    server = new FakeArcusServer(this::respond);
+    client = server.connect(new ConnectionFactoryBuilder().setBulkStoreWindow(WINDOW));
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.shutdown();
+    server.close();
+  }
+
+  @Test
+  void testStoreWithinWindow() throws Exception {
+    // when
+    Future<Boolean> future = client.asyncStoreBulk(StoreType.set, entries.iterator(), 0,
+        failures::put);
+
+    // then
+    assertFalse(future.get(5, TimeUnit.SECONDS));
+    assertEquals(WINDOW, maxBatch.get());
+    assertEquals(KEY_COUNT / 2, stored.get());
+    assertEquals(KEY_COUNT / 2, failures.size());
+    assertEquals(StatusCode.ERR_NOT_STORED,
+            failures.get("StoreBulkStreamTest1").getStatusCode());
+  }
+
+  @Test
+  void testInvalidKey() throws Exception {
+    // given
+    List<Map.Entry<String, Object>> someEntries = new ArrayList<>();
+    someEntries.add(new AbstractMap.SimpleEntry<>("invalid key", "value"));
+    someEntries.add(entries.get(0));
+
+    // when
+    Future<Boolean> future = client.asyncStoreBulk(StoreType.set, someEntries.iterator(), 0,
+        failures::put);
+
+    // then
+    assertFalse(future.get(5, TimeUnit.SECONDS));
+    assertEquals(1, stored.get());
+    assertEquals(1, failures.size());
+    assertEquals(StatusCode.ERR_CLIENT, failures.get("invalid key").getStatusCode());
+  }
+
+  @Test
+  void testAllStored() throws Exception {
+    // given
+    List<Map.Entry<String, Object>> evenEntries = new ArrayList<>();
+    for (int i = 0; i < KEY_COUNT; i += 2) {
+      evenEntries.add(entries.get(i));
+    }
+
+    // when
+    Future<Boolean> future = client.asyncStoreBulk(StoreType.set, evenEntries.iterator(), 0,
+        failures::put);
+
+    // then
+    assertTrue(future.get(5, TimeUnit.SECONDS));
+    assertEquals(KEY_COUNT / 2, stored.get());
+    assertTrue(failures.isEmpty());
+  }
+
+  @Test
+  void testNotWaitingForFullWindow() throws Exception {
+    // given
+    answering = false;
+
+    // when
+    long start = System.currentTimeMillis();
+    Future<Boolean> future = client.asyncStoreBulk(StoreType.set, entries.iterator(), 0,
+        failures::put);
+
+    // then
+    assertTrue(System.currentTimeMillis() - start < 1000);
+    assertThrows(TimeoutException.class, () -> future.get(500, TimeUnit.MILLISECONDS));
+    assertEquals(WINDOW, received.get());
+
+    // the entries held for the window are not sent after the cancel.
+    future.cancel(true);
+    assertTrue(future.isDone());
+    assertEquals(WINDOW, failures.size());
+    assertEquals(WINDOW, received.get());
+  }
+
+  @Test
+  void testEncodeFailureReleasesWindow() throws Exception {
+    // given
+    Transcoder<Object> tc = new SerializingTranscoder() {
+      @Override
+      public CachedData encode(Object o) {
+        if (o == null) {
+          throw new IllegalArgumentException("null value");
+        }
+        return super.encode(o);
+      }
+    };
+    List<Map.Entry<String, Object>> someEntries = new ArrayList<>();
+    for (int i = 0; i < WINDOW + 1; i++) {
+      someEntries.add(new AbstractMap.SimpleEntry<>("StoreBulkStreamTest" + (100 + i * 2), null));
+    }
+    someEntries.add(entries.get(0));
+
+    // when
+    Future<Boolean> future = client.asyncStoreBulk(StoreType.set, someEntries.iterator(), 0,
+        tc, failures::put);
+
+    // then
+    assertFalse(future.get(5, TimeUnit.SECONDS));
+    assertEquals(1, stored.get());
+    assertEquals(WINDOW + 1, failures.size());
+    assertEquals(StatusCode.ERR_CLIENT, failures.get("StoreBulkStreamTest100").getStatusCode());
+  }
+
+  /**
+   * Answer the commands received so far once no more command comes for a while,
+   * storing the keys whose number is even.
+   */
+  private String respond(String line, BufferedReader in) throws Exception {
+    in.readLine(); // value
+    received.incrementAndGet();
+    String key = line.split(" ")[1];
+    if (Integer.parseInt(key.substring("StoreBulkStreamTest".length())) % 2 == 0) {
+      stored.incrementAndGet();
+      pending.append("STORED\r\n");
+    } else {
+      pending.append("NOT_STORED\r\n");
+    }
+    batch++;
+    if (!in.ready()) {
+      Thread.sleep(100);
+    }
+    if (!answering || in.ready() && !versionFollows(in)) {
+      return null;
+    }
+    maxBatch.set(Math.max(maxBatch.get(), batch));
+    batch = 0;
+    String response = pending.toString();
+    pending.setLength(0);
+    return response;
+  }
+
+  /**
+   * The version command is answered by the server at once,
+   * so the responses held before it have to be written first.
+   */
+  private boolean versionFollows(BufferedReader in) throws Exception {
+    in.mark(64);
+    String next = in.readLine();
+    in.reset();
+    return "version".equals(next);
+  }
+}
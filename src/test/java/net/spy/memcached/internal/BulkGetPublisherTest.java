@@ -0,0 +1,223 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.spy.memcached.CachedData;
+import net.spy.memcached.ops.CloneAwareCallback;
+import net.spy.memcached.ops.GetOperation;
+import net.spy.memcached.ops.MultiGetOperationCallback;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+import net.spy.memcached.transcoders.SerializingTranscoder;
+import net.spy.memcached.transcoders.Transcoder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkGetPublisherTest {
+
+  private static final OperationStatus END =
+          new OperationStatus(true, "END", StatusCode.SUCCESS);
+
+  private static final int LIMIT = 2;
+
+  private final Transcoder<Object> tc = new SerializingTranscoder();
+  private final List<String> signals = new ArrayList<>();
+  private int sends = 0;
+
+  @Test
+  void testDeliverAsRequested() {
+    // given
+    BulkGetSubscription[] subscription = new BulkGetSubscription[1];
+    BulkGetPublisher<Object> publisher =
+            new BulkGetPublisher<>(tc, subscriber(subscription, 1), LIMIT);
+    GetOperation.Callback cb1 = publisher.newCallback(Arrays.asList("a", "b"), this::sendNext);
+    GetOperation.Callback cb2 = publisher.newCallback(Arrays.asList("c"), this::sendNext);
+    publisher.start();
+
+    // when
+    gotData(cb1, "a", "1");
+    gotData(cb1, "b", "2");
+    gotData(cb2, "c", "3");
+    cb2.receivedStatus(END);
+    cb2.complete();
+
+    // then
+    assertEquals(Arrays.asList("next a=1"), signals);
+
+    subscription[0].request(1);
+    assertEquals(Arrays.asList("next a=1", "next b=2"), signals);
+
+    cb1.receivedStatus(END);
+    cb1.complete();
+    subscription[0].request(Long.MAX_VALUE);
+    // the signals are delivered in the order received.
+    assertEquals(Arrays.asList("next a=1", "next b=2", "next c=3",
+            "node [c] SUCCESS", "node [a, b] SUCCESS", "complete"), signals);
+  }
+
+  @Test
+  void testNodeCompleteWithoutDemand() {
+    // given
+    BulkGetPublisher<Object> publisher = new BulkGetPublisher<>(tc, subscriber(null, 0), LIMIT);
+    GetOperation.Callback cb = publisher.newCallback(Arrays.asList("a"), this::sendNext);
+    publisher.start();
+
+    // when
+    cb.receivedStatus(END);
+    cb.complete();
+
+    // then
+    assertEquals(Arrays.asList("node [a] SUCCESS", "complete"), signals);
+  }
+
+  @Test
+  void testCompleteWithoutOperations() {
+    BulkGetPublisher<Object> publisher = new BulkGetPublisher<>(tc, subscriber(null, 0), LIMIT);
+    publisher.start();
+
+    assertEquals(Arrays.asList("complete"), signals);
+  }
+
+  @Test
+  void testCancel() {
+    // given
+    BulkGetSubscription[] subscription = new BulkGetSubscription[1];
+    BulkGetPublisher<Object> publisher =
+            new BulkGetPublisher<>(tc, subscriber(subscription, 0), LIMIT);
+    GetOperation.Callback cb = publisher.newCallback(Arrays.asList("a", "b"), this::sendNext);
+    publisher.start();
+    gotData(cb, "a", "1");
+
+    // when
+    subscription[0].cancel();
+    subscription[0].request(Long.MAX_VALUE);
+    gotData(cb, "b", "2");
+    cb.complete();
+
+    // then
+    assertTrue(publisher.isCancelled());
+    assertTrue(signals.isEmpty());
+  }
+
+  @Test
+  void testCancelClones() {
+    // given
+    BulkGetSubscription[] subscription = new BulkGetSubscription[1];
+    BulkGetPublisher<Object> publisher =
+            new BulkGetPublisher<>(tc, subscriber(subscription, 0), LIMIT);
+    GetOperation.Callback cb = publisher.newCallback(Arrays.asList("a", "b"), this::sendNext);
+    publisher.start();
+    AsciiOperationFactory opFact = new AsciiOperationFactory();
+    MultiGetOperationCallback mcb = new MultiGetOperationCallback(cb, 2);
+    Operation redirected = opFact.get(Arrays.asList("a"), mcb, false);
+    CloneAwareCallback.notifyCloned(mcb, redirected);
+
+    // when
+    subscription[0].cancel();
+    Operation redirectedAfterCancel = opFact.get(Arrays.asList("b"), mcb, false);
+    CloneAwareCallback.notifyCloned(mcb, redirectedAfterCancel);
+
+    // then
+    assertTrue(redirected.isCancelled());
+    assertTrue(redirectedAfterCancel.isCancelled());
+    assertTrue(signals.isEmpty());
+  }
+
+  @Test
+  void testHoldNextChunkWhileBufferFull() {
+    // given
+    BulkGetSubscription[] subscription = new BulkGetSubscription[1];
+    BulkGetPublisher<Object> publisher =
+            new BulkGetPublisher<>(tc, subscriber(subscription, 0), LIMIT);
+    GetOperation.Callback cb1 = publisher.newCallback(Arrays.asList("a"), this::sendNext);
+    GetOperation.Callback cb2 = publisher.newCallback(Arrays.asList("b", "c"), this::sendNext);
+    publisher.start();
+
+    // when
+    gotData(cb1, "a", "1");
+    cb1.complete();
+    gotData(cb2, "b", "2");
+    gotData(cb2, "c", "3");
+    cb2.complete();
+
+    // then
+    assertEquals(1, sends);
+
+    subscription[0].request(1);
+    assertEquals(1, sends);
+    subscription[0].request(1);
+    assertEquals(2, sends);
+    assertEquals(Arrays.asList("next a=1", "node [a] UNDEFINED", "next b=2"), signals);
+  }
+
+  @Test
+  void testInvalidRequest() {
+    BulkGetPublisher<Object> publisher = new BulkGetPublisher<>(tc, subscriber(null, 0), LIMIT);
+
+    assertThrows(IllegalArgumentException.class, () -> publisher.request(0));
+  }
+
+  private void sendNext() {
+    sends++;
+  }
+
+  private void gotData(GetOperation.Callback cb, String key, String value) {
+    CachedData data = tc.encode(value);
+    cb.gotData(key, data.getFlags(), data.getData());
+  }
+
+  private BulkGetSubscriber<Object> subscriber(final BulkGetSubscription[] subscription,
+                                               final long initialRequest) {
+    return new BulkGetSubscriber<Object>() {
+      @Override
+      public void onSubscribe(BulkGetSubscription s) {
+        if (subscription != null) {
+          subscription[0] = s;
+        }
+        if (initialRequest > 0) {
+          s.request(initialRequest);
+        }
+      }
+
+      @Override
+      public void onNext(String key, Object value) {
+        signals.add("next " + key + "=" + value);
+      }
+
+      @Override
+      public void onNodeComplete(List<String> keys, OperationStatus status) {
+        signals.add("node " + keys + " " + status.getStatusCode());
+      }
+
+      @Override
+      public void onComplete() {
+        signals.add("complete");
+      }
+    };
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MPSCRingBlockingQueueTest {
+
+  @Test
+  void testCapacity() {
+    assertEquals(2, new MPSCRingBlockingQueue<>(1).capacity());
+    assertEquals(4, new MPSCRingBlockingQueue<>(3).capacity());
+    assertEquals(16384, new MPSCRingBlockingQueue<>(16384).capacity());
+    assertThrows(IllegalArgumentException.class, () -> new MPSCRingBlockingQueue<>(0));
+  }
+
+  @Test
+  void testOfferAndPoll() {
+    MPSCRingBlockingQueue<Integer> queue = new MPSCRingBlockingQueue<>(4);
+    assertTrue(queue.isEmpty());
+    assertNull(queue.peek());
+    assertNull(queue.poll());
+
+    // go around the ring several times.
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 4; i++) {
+        assertTrue(queue.offer(i));
+      }
+      assertFalse(queue.offer(4));
+      assertEquals(4, queue.size());
+      assertEquals(0, queue.remainingCapacity());
+
+      List<Integer> elements = new ArrayList<>();
+      Iterator<Integer> it = queue.iterator();
+      while (it.hasNext()) {
+        elements.add(it.next());
+      }
+      assertEquals(4, elements.size());
+
+      assertEquals(0, queue.peek());
+      for (int i = 0; i < 4; i++) {
+        assertEquals(i, queue.poll());
+      }
+      assertNull(queue.poll());
+      assertEquals(0, queue.size());
+    }
+    assertThrows(NullPointerException.class, () -> queue.offer(null));
+  }
+
+  @Test
+  void testDrainTo() {
+    MPSCRingBlockingQueue<Integer> queue = new MPSCRingBlockingQueue<>(8);
+    for (int i = 0; i < 5; i++) {
+      queue.add(i);
+    }
+    List<Integer> drained = new ArrayList<>();
+    assertEquals(3, queue.drainTo(drained, 3));
+    assertEquals(2, queue.drainTo(drained));
+    for (int i = 0; i < 5; i++) {
+      assertEquals(i, drained.get(i));
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void testBlockingOffer() throws Exception {
+    MPSCRingBlockingQueue<Integer> queue = new MPSCRingBlockingQueue<>(2);
+    queue.put(0);
+    queue.put(1);
+
+    long start = System.nanoTime();
+    assertFalse(queue.offer(2, 50, TimeUnit.MILLISECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+    Thread consumer = new Thread(() -> {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        return;
+      }
+      queue.poll();
+    });
+    consumer.start();
+    assertTrue(queue.offer(2, 5, TimeUnit.SECONDS));
+    consumer.join();
+    assertEquals(1, queue.take());
+    assertEquals(2, queue.poll(1, TimeUnit.SECONDS));
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testManyProducers() throws Exception {
+    final int producers = 8;
+    final int perProducer = 100000;
+    final MPSCRingBlockingQueue<long[]> queue = new MPSCRingBlockingQueue<>(1024);
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicBoolean failed = new AtomicBoolean(false);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      final int id = p;
+      Thread t = new Thread(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < perProducer; i++) {
+            if (!queue.offer(new long[]{id, i}, 10, TimeUnit.SECONDS)) {
+              failed.set(true);
+              return;
+            }
+          }
+        } catch (InterruptedException e) {
+          failed.set(true);
+        }
+      });
+      t.start();
+      threads.add(t);
+    }
+
+    // the elements of a producer are taken in the order they are added.
+    long[] next = new long[producers];
+    List<long[]> drained = new ArrayList<>();
+    start.countDown();
+    int total = 0;
+    while (total < producers * perProducer && !failed.get()) {
+      drained.clear();
+      total += queue.drainTo(drained, 256);
+      for (long[] e : drained) {
+        assertEquals(next[(int) e[0]]++, e[1]);
+      }
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertFalse(failed.get());
+    assertEquals(producers * perProducer, total);
+    assertTrue(queue.isEmpty());
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationTimeoutWheelTest {
+
+  private static final AsciiOperationFactory FACTORY = new AsciiOperationFactory();
+
+  private static final OperationCallback CB = new OperationCallback() {
+    public void receivedStatus(OperationStatus status) {
+    }
+
+    public void complete() {
+    }
+  };
+
+  private static long millis(long ms) {
+    return TimeUnit.MILLISECONDS.toNanos(ms);
+  }
+
+  @Test
+  void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new OperationTimeoutWheel(0, 8));
+    assertThrows(IllegalArgumentException.class, () -> new OperationTimeoutWheel(10, 0));
+  }
+
+  @Test
+  void testExpire() {
+    OperationTimeoutWheel wheel = new OperationTimeoutWheel(10, 8);
+    long now = System.nanoTime();
+    Operation first = FACTORY.noop(CB);
+    Operation second = FACTORY.noop(CB);
+    wheel.schedule(first, now + millis(50));
+    wheel.schedule(second, now + millis(30));
+    assertFalse(wheel.isEmpty());
+
+    List<Operation> expired = new ArrayList<>();
+    wheel.expire(now + millis(20), expired);
+    assertTrue(expired.isEmpty());
+    assertEquals(2, wheel.size());
+
+    wheel.expire(now + millis(40), expired);
+    assertEquals(Collections.singletonList(second), expired);
+
+    expired.clear();
+    wheel.expire(now + millis(70), expired);
+    assertEquals(Collections.singletonList(first), expired);
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  void testExpireAfterRounds() {
+    OperationTimeoutWheel wheel = new OperationTimeoutWheel(10, 4);
+    long now = System.nanoTime();
+    Operation near = FACTORY.noop(CB);
+    Operation far = FACTORY.noop(CB);
+    wheel.schedule(near, now + millis(10));
+    wheel.schedule(far, now + millis(100));
+
+    // the slot of the far deadline is passed over in the earlier rounds.
+    List<Operation> expired = new ArrayList<>();
+    for (int ms = 0; ms <= 90; ms += 10) {
+      wheel.expire(now + millis(ms), expired);
+    }
+    assertEquals(Collections.singletonList(near), expired);
+
+    // many ticks passed at once.
+    wheel.expire(now + millis(1000), expired);
+    assertEquals(Arrays.asList(near, far), expired);
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  void testPassedDeadline() {
+    OperationTimeoutWheel wheel = new OperationTimeoutWheel(10, 8);
+    long now = System.nanoTime();
+    List<Operation> expired = new ArrayList<>();
+    wheel.expire(now + millis(100), expired);
+
+    // a deadline already passed expires at the next tick.
+    Operation op = FACTORY.noop(CB);
+    wheel.schedule(op, now);
+    wheel.expire(now + millis(110), expired);
+    assertEquals(Collections.singletonList(op), expired);
+  }
+
+  @Test
+  void testDropFinishedOperations() {
+    OperationTimeoutWheel wheel = new OperationTimeoutWheel(10, 8);
+    long now = System.nanoTime();
+    Operation cancelled = FACTORY.noop(CB);
+    Operation pending = FACTORY.noop(CB);
+    wheel.schedule(cancelled, now + millis(10));
+    wheel.schedule(pending, now + millis(10));
+    cancelled.cancel("by test");
+
+    List<Operation> expired = new ArrayList<>();
+    wheel.expire(now + millis(30), expired);
+    assertEquals(Collections.singletonList(pending), expired);
+    assertTrue(wheel.isEmpty());
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.spy.memcached.OperationTimeoutException;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingBulkFutureTest {
+
+  private static final long TIMEOUT = 200;
+
+  private final AsciiOperationFactory opFact = new AsciiOperationFactory();
+
+  @Test
+  void testGetLongerThanTimeoutWhileCompleting() throws Exception {
+    // given
+    final StreamingBulkFuture future = new StreamingBulkFuture(TIMEOUT);
+    final List<OperationCallback> callbacks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      OperationCallback cb = callback();
+      future.addOperation(cb, opFact.version(cb));
+      callbacks.add(cb);
+    }
+    future.endOfStream();
+
+    // when
+    Thread completer = new Thread(() -> {
+      try {
+        for (OperationCallback cb : callbacks) {
+          Thread.sleep(TIMEOUT / 2);
+          future.complete(cb);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    completer.start();
+
+    // then
+    long start = System.currentTimeMillis();
+    assertTrue(future.get());
+    assertTrue(System.currentTimeMillis() - start > TIMEOUT);
+    completer.join();
+  }
+
+  @Test
+  void testGetTimeoutWithoutProgress() {
+    // given
+    StreamingBulkFuture future = new StreamingBulkFuture(TIMEOUT);
+    OperationCallback cb = callback();
+    future.addOperation(cb, opFact.version(cb));
+    future.endOfStream();
+
+    // when, then
+    assertThrows(OperationTimeoutException.class, future::get);
+    assertFalse(future.isDone());
+  }
+
+  private static OperationCallback callback() {
+    return new OperationCallback() {
+      public void receivedStatus(OperationStatus status) {
+      }
+
+      public void complete() {
+      }
+    };
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.internal.result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.spy.memcached.collection.BKeyObject;
+import net.spy.memcached.collection.CollectionResponse;
+import net.spy.memcached.collection.SMGetElement;
+import net.spy.memcached.ops.CollectionOperationStatus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SMGetResultTest {
+
+  @Test
+  void testMergeUpToCount() {
+    SMGetResult<String> result = new SMGetResult<>(5, false, false);
+    result.addSMGetElements(elements("a", 1, 4, 7));
+    result.addSMGetElements(elements("b", 2, 5, 8));
+    result.addSMGetElements(new ArrayList<>());
+    result.addSMGetElements(elements("c", 3, 6, 9));
+    result.makeResultOperationStatus();
+
+    assertEquals(Arrays.asList("a1", "b2", "c3", "a4", "b5"), values(result));
+    assertEquals(CollectionResponse.END, result.getOperationStatus().getResponse());
+  }
+
+  @Test
+  void testMergeReverse() {
+    SMGetResult<String> result = new SMGetResult<>(10, false, true);
+    result.addSMGetElements(elements("a", 7, 4, 1));
+    result.addSMGetElements(elements("b", 8, 5));
+    result.makeResultOperationStatus();
+
+    assertEquals(Arrays.asList("b8", "a7", "b5", "a4", "a1"), values(result));
+  }
+
+  @Test
+  void testDuplicatedBkeys() {
+    SMGetResult<String> result = new SMGetResult<>(10, false, false);
+    result.addSMGetElements(elements("b", 1, 2));
+    result.addSMGetElements(elements("a", 2, 3));
+    result.makeResultOperationStatus();
+
+    // the elements of the same bkey are sorted by the cache key.
+    assertEquals(Arrays.asList("b1", "a2", "b2", "a3"), values(result));
+    assertEquals(CollectionResponse.DUPLICATED, result.getOperationStatus().getResponse());
+  }
+
+  @Test
+  void testUniqueBkeys() {
+    SMGetResult<String> result = new SMGetResult<>(10, true, false);
+    result.addSMGetElements(elements("b", 1, 2));
+    result.addSMGetElements(elements("a", 2, 3));
+    result.makeResultOperationStatus();
+
+    assertEquals(Arrays.asList("b1", "a2", "a3"), values(result));
+    assertEquals(CollectionResponse.END, result.getOperationStatus().getResponse());
+  }
+
+  @Test
+  void testTrimmedKeysAfterLastElement() {
+    SMGetResult<String> result = new SMGetResult<>(3, false, false);
+    result.addSMGetElements(elements("a", 1, 2, 3));
+    result.addSMGetElements(elements("b", 4));
+    result.addTrimmedKey("c", new BKeyObject(2L));
+    result.addTrimmedKey("d", new BKeyObject(5L));
+    result.makeResultOperationStatus();
+
+    assertEquals(Arrays.asList("a1", "a2", "a3"), values(result));
+    assertEquals(1, result.getMergedTrimmedKeys().size());
+    assertEquals("c", result.getMergedTrimmedKeys().get(0).getKey());
+  }
+
+  @Test
+  void testTrimmedKeysAfterLastElementReverse() {
+    SMGetResult<String> result = new SMGetResult<>(2, false, true);
+    result.addSMGetElements(elements("a", 5, 3));
+    result.addSMGetElements(elements("b", 4));
+    result.addTrimmedKey("c", new BKeyObject(6L));
+    result.addTrimmedKey("d", new BKeyObject(4L));
+    result.addTrimmedKey("e", new BKeyObject(1L));
+    result.makeResultOperationStatus();
+
+    assertEquals(Arrays.asList("a5", "b4"), values(result));
+    assertEquals(1, result.getMergedTrimmedKeys().size());
+    assertEquals("c", result.getMergedTrimmedKeys().get(0).getKey());
+  }
+
+  @Test
+  void testFailedResult() {
+    SMGetResult<String> result = new SMGetResult<>(3, false, false);
+    result.addSMGetElements(elements("a", 1, 2, 3));
+    result.setFailedOperationStatus(
+            new CollectionOperationStatus(false, "CANCELED", CollectionResponse.CANCELED));
+    result.makeResultOperationStatus();
+
+    assertTrue(result.getFinalResult().isEmpty());
+    assertEquals(CollectionResponse.CANCELED, result.getOperationStatus().getResponse());
+  }
+
+  private static List<SMGetElement<String>> elements(String key, long... bkeys) {
+    List<SMGetElement<String>> elements = new ArrayList<>();
+    for (long bkey : bkeys) {
+      elements.add(new SMGetElement<>(key, bkey, null, key + bkey));
+    }
+    return elements;
+  }
+
+  private static List<String> values(SMGetResult<String> result) {
+    List<String> values = new ArrayList<>();
+    for (SMGetElement<String> element : result.getFinalResult()) {
+      values.add(element.getValue());
+    }
+    return values;
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.spy.memcached.ops.GetOperation;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationState;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedReadTest {
+
+  private static final String RESPONSE = "VALUE key 0 3\r\nabc\r\nEND\r\n";
+
+  private final AsciiOperationFactory factory = new AsciiOperationFactory();
+  private final List<String> values = new ArrayList<>();
+  private final List<OperationStatus> statuses = new ArrayList<>();
+  private final AtomicInteger completes = new AtomicInteger();
+  private final AtomicInteger duplicateWins = new AtomicInteger();
+
+  private final GetOperation.Callback callback = new GetOperation.Callback() {
+    public void gotData(String key, int flags, byte[] data) {
+      values.add(new String(data, StandardCharsets.US_ASCII));
+    }
+
+    public void receivedStatus(OperationStatus status) {
+      statuses.add(status);
+    }
+
+    public void complete() {
+      completes.incrementAndGet();
+    }
+  };
+
+  private Operation primary;
+  private Operation duplicate;
+
+  @BeforeEach
+  void setUp() {
+    primary = factory.get("key", callback);
+    startReading(primary);
+  }
+
+  @Test
+  void testDuplicateWins() throws Exception {
+    assertTrue(hedge());
+    startReading(duplicate);
+
+    respond(duplicate, RESPONSE);
+    assertEquals(1, values.size());
+    assertEquals(1, completes.get());
+    assertEquals(1, duplicateWins.get());
+
+    // the late response of the primary is discarded.
+    respond(primary, RESPONSE);
+    assertEquals(1, values.size());
+    assertEquals(1, statuses.size());
+    assertEquals(1, completes.get());
+    assertEquals(OperationState.COMPLETE, primary.getState());
+    assertFalse(primary.isCancelled());
+  }
+
+  @Test
+  void testPrimaryWins() throws Exception {
+    assertTrue(hedge());
+
+    respond(primary, RESPONSE);
+    assertEquals(1, values.size());
+    assertEquals(1, completes.get());
+    assertEquals(0, duplicateWins.get());
+    assertTrue(statuses.get(0).isSuccess());
+
+    // the duplicate not written yet is cancelled without notifying the callback.
+    assertTrue(duplicate.isCancelled());
+    assertEquals(1, statuses.size());
+    assertEquals(1, completes.get());
+  }
+
+  @Test
+  void testNoHedgeAfterResponseStarted() throws Exception {
+    respond(primary, "VALUE key 0 3\r\nabc\r\n");
+    assertFalse(hedge());
+    assertFalse(primary.hedge(cb -> null, duplicateWins::incrementAndGet));
+  }
+
+  @Test
+  void testNoHedgeWithoutDuplicate() {
+    assertFalse(primary.hedge(cb -> null, duplicateWins::incrementAndGet));
+    assertTrue(hedge());
+    assertFalse(hedge());
+  }
+
+  @Test
+  void testCancelledDuplicateGivesWay() throws Exception {
+    assertTrue(hedge());
+    startReading(duplicate);
+
+    duplicate.cancel("test");
+    assertTrue(statuses.isEmpty());
+    assertEquals(0, completes.get());
+
+    respond(primary, RESPONSE);
+    assertEquals(1, values.size());
+    assertEquals(1, completes.get());
+    assertTrue(statuses.get(0).isSuccess());
+  }
+
+  @Test
+  void testDuplicateCancelledWithPrimary() throws Exception {
+    assertTrue(hedge());
+    startReading(duplicate);
+
+    primary.cancel("test");
+    assertTrue(duplicate.isCancelled());
+    assertEquals(1, completes.get());
+    assertEquals(1, statuses.size());
+    assertFalse(statuses.get(0).isSuccess());
+
+    // the response of the cancelled duplicate is not delivered.
+    respond(duplicate, RESPONSE);
+    assertTrue(values.isEmpty());
+    assertEquals(1, statuses.size());
+    assertEquals(1, completes.get());
+    assertEquals(0, duplicateWins.get());
+  }
+
+  @Test
+  void testNoHedgeAfterCancel() {
+    primary.cancel("test");
+    assertFalse(hedge());
+    assertEquals(1, completes.get());
+  }
+
+  @Test
+  void testBothCancelled() {
+    assertTrue(hedge());
+
+    duplicate.cancel("test");
+    assertEquals(0, completes.get());
+    primary.cancel("test");
+    assertEquals(1, completes.get());
+    assertEquals(1, statuses.size());
+    assertFalse(statuses.get(0).isSuccess());
+  }
+
+  private boolean hedge() {
+    return primary.hedge(cb -> duplicate = factory.get("key", (GetOperation.Callback) cb),
+        duplicateWins::incrementAndGet);
+  }
+
+  private static void startReading(Operation op) {
+    op.initialize();
+    op.writing();
+    op.writeComplete();
+  }
+
+  private static void respond(Operation op, String response) throws Exception {
+    ByteBuffer bb = ByteBuffer.wrap(response.getBytes(StandardCharsets.US_ASCII));
+    while (bb.hasRemaining()) {
+      op.readFromBuffer(bb);
+    }
+  }
+}
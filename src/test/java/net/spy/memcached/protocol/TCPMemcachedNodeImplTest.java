@@ -17,20 +17,31 @@
  */
 package net.spy.memcached.protocol;
 
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicLong;
 
+import net.spy.memcached.CommandBufferPool;
+import net.spy.memcached.ConnectionFactory;
+import net.spy.memcached.ConnectionFactoryBuilder;
 import net.spy.memcached.DefaultConnectionFactory;
 import net.spy.memcached.ops.GetOperation;
 import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationState;
 import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.ops.StoreType;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -126,5 +137,241 @@ class TCPMemcachedNodeImplTest {
       assertFalse(op.isCancelled());
     }
   }
-  
+
+  @Test
+  void testGatheringWrite() throws Exception {
+    // given
+    final int opCount = 10;
+    final ConnectionFactory factory = new ConnectionFactoryBuilder()
+        .setUseGatheringWrite(true)
+        .build();
+
+    TCPMemcachedNodeImpl node = (TCPMemcachedNodeImpl) factory.createMemcachedNode(
+        "tcp node impl test node",
+        InetSocketAddress.createUnresolved("127.0.0.1", 11211),
+        4096
+    );
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    List<Operation> operations = new LinkedList<>();
+    for (int i = 0; i < opCount; i++) {
+      Operation op = factory.getOperationFactory().get(
+          "cacheKey=" + i,
+          new GetOperation.Callback() {
+            @Override
+            public void receivedStatus(OperationStatus status) {
+            }
+
+            @Override
+            public void gotData(String key, int flags, byte[] data) {
+            }
+
+            @Override
+            public void complete() {
+            }
+          });
+      node.insertOp(op);
+      ByteBuffer b = op.getBuffer().duplicate();
+      byte[] bytes = new byte[b.remaining()];
+      b.get(bytes);
+      expected.write(bytes);
+      operations.add(op);
+    }
+
+    try (ServerSocketChannel server = ServerSocketChannel.open()) {
+      server.bind(new InetSocketAddress("127.0.0.1", 0));
+      SocketChannel client = SocketChannel.open(server.getLocalAddress());
+      node.setChannel(client);
+
+      try (SocketChannel accepted = server.accept()) {
+        // when
+        node.fillWriteBuffer(false);
+
+        // then
+        assertEquals(expected.size(), node.getBytesRemainingToWrite());
+        assertEquals(0, node.getWriteQueueSize());
+        assertEquals(opCount, node.getReadQueueSize());
+        for (Operation op : operations) {
+          assertEquals(OperationState.READING, op.getState());
+        }
+
+        while (node.getBytesRemainingToWrite() > 0) {
+          node.writeSome();
+        }
+
+        ByteBuffer received = ByteBuffer.allocate(expected.size());
+        while (received.hasRemaining()) {
+          accepted.read(received);
+        }
+        assertArrayEquals(expected.toByteArray(), received.array());
+      } finally {
+        node.closeChannel();
+      }
+    }
+  }
+
+  @Test
+  void testCommandBufferPool() throws Exception {
+    for (boolean gathering : new boolean[]{false, true}) {
+      // given
+      final int opCount = 10;
+      final ConnectionFactory factory = new ConnectionFactoryBuilder()
+          .setUseGatheringWrite(gathering)
+          .build();
+      CommandBufferPool pool = new CommandBufferPool(1024 * 1024);
+
+      TCPMemcachedNodeImpl node = (TCPMemcachedNodeImpl) factory.createMemcachedNode(
+          "tcp node impl test node",
+          InetSocketAddress.createUnresolved("127.0.0.1", 11211),
+          4096
+      );
+      node.setCommandBufferPool(pool);
+
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      for (int i = 0; i < opCount; i++) {
+        Operation op = factory.getOperationFactory().store(StoreType.set,
+            "cacheKey=" + i, 0, 0, new byte[3000], new OperationCallback() {
+              @Override
+              public void receivedStatus(OperationStatus status) {
+              }
+
+              @Override
+              public void complete() {
+              }
+            });
+        node.insertOp(op);
+        ByteBuffer b = op.getBuffer().duplicate();
+        byte[] bytes = new byte[b.remaining()];
+        b.get(bytes);
+        expected.write(bytes);
+      }
+      assertEquals(opCount * 4096, pool.getOutstandingBytes());
+      assertEquals(opCount, pool.getMissCount());
+
+      try (ServerSocketChannel server = ServerSocketChannel.open()) {
+        server.bind(new InetSocketAddress("127.0.0.1", 0));
+        SocketChannel client = SocketChannel.open(server.getLocalAddress());
+        node.setChannel(client);
+
+        try (SocketChannel accepted = server.accept()) {
+          // when
+          ByteBuffer received = ByteBuffer.allocate(expected.size());
+          while (node.hasWriteOp() || node.getBytesRemainingToWrite() > 0) {
+            node.fillWriteBuffer(false);
+            while (node.getBytesRemainingToWrite() > 0) {
+              node.writeSome();
+            }
+            accepted.read(received);
+          }
+          while (received.hasRemaining()) {
+            accepted.read(received);
+          }
+
+          // then
+          assertArrayEquals(expected.toByteArray(), received.array());
+          assertEquals(0, pool.getOutstandingBytes());
+          assertEquals(opCount * 4096, pool.getPooledBytes());
+        } finally {
+          node.closeChannel();
+        }
+      }
+    }
+  }
+  @Test
+  void testGatheredBuffersReleased() throws Exception {
+    for (boolean resend : new boolean[]{false, true}) {
+      // given
+      final int opCount = 10;
+      final ConnectionFactory factory = new ConnectionFactoryBuilder()
+          .setUseGatheringWrite(true)
+          .build();
+      CommandBufferPool pool = new CommandBufferPool(1024 * 1024);
+
+      TCPMemcachedNodeImpl node = (TCPMemcachedNodeImpl) factory.createMemcachedNode(
+          "tcp node impl test node",
+          InetSocketAddress.createUnresolved("127.0.0.1", 11211),
+          16384
+      );
+      node.setCommandBufferPool(pool);
+
+      for (int i = 0; i < opCount; i++) {
+        node.insertOp(factory.getOperationFactory().store(StoreType.set,
+            "cacheKey=" + i, 0, 0, new byte[3000], new OperationCallback() {
+              @Override
+              public void receivedStatus(OperationStatus status) {
+              }
+
+              @Override
+              public void complete() {
+              }
+            }));
+      }
+      node.fillWriteBuffer(false);
+      // the current write op is also in the read queue, but not gathered yet.
+      int gathered = node.getReadQueueSize() - 1;
+      assertEquals(OperationState.WRITING, node.getCurrentWriteOp().getState());
+      assertTrue(gathered > 1);
+
+      // when
+      if (resend) {
+        node.setupResend("test");
+      } else {
+        node.destroyReadQueue(false);
+      }
+
+      // then
+      assertEquals(0, node.getBytesRemainingToWrite());
+      assertEquals((opCount - gathered) * 4096, pool.getOutstandingBytes());
+      assertEquals(gathered * 4096, pool.getPooledBytes());
+    }
+  }
+
+  @Test
+  void testNoreplyOperationNotRead() throws Exception {
+    for (boolean gathering : new boolean[]{false, true}) {
+      // given
+      final ConnectionFactory factory = new ConnectionFactoryBuilder()
+          .setUseGatheringWrite(gathering)
+          .build();
+      TCPMemcachedNodeImpl node = (TCPMemcachedNodeImpl) factory.createMemcachedNode(
+          "tcp node impl test node",
+          InetSocketAddress.createUnresolved("127.0.0.1", 11211),
+          4096
+      );
+      final List<OperationStatus> statuses = new LinkedList<>();
+      OperationCallback cb = new OperationCallback() {
+        @Override
+        public void receivedStatus(OperationStatus status) {
+          statuses.add(status);
+        }
+
+        @Override
+        public void complete() {
+        }
+      };
+      Operation noreplyOp = factory.getOperationFactory().store(StoreType.set,
+          "noreplyKey", 0, 0, new byte[3], true, cb);
+      Operation op = factory.getOperationFactory().store(StoreType.set,
+          "cacheKey", 0, 0, new byte[3], cb);
+      node.insertOp(op);
+      node.insertOp(noreplyOp);
+
+      ByteBuffer b = noreplyOp.getBuffer().duplicate();
+      byte[] bytes = new byte[b.remaining()];
+      b.get(bytes);
+      assertTrue(new String(bytes).startsWith("set noreplyKey 0 0 3 noreply\r\n"));
+
+      // when
+      node.fillWriteBuffer(false);
+
+      // then
+      assertEquals(OperationState.COMPLETE, noreplyOp.getState());
+      assertEquals(OperationState.READING, op.getState());
+      assertEquals(1, statuses.size());
+      assertTrue(statuses.get(0).isSuccess());
+      Queue<Operation> readQ = getQueue("readQ", node);
+      assertEquals(1, readQ.size());
+      assertSame(op, readQ.peek());
+    }
+  }
 }
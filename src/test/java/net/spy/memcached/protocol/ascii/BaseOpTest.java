@@ -38,6 +38,7 @@ import net.spy.memcached.ops.OperationException;
 import net.spy.memcached.ops.OperationStatus;
 import net.spy.memcached.ops.SingleKeyPipedOperationCallback;
 import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.util.ResponseTokenizer;
 
 import org.junit.jupiter.api.Test;
 
@@ -204,9 +205,9 @@ class BaseOpTest {
     }
 
     @Override
-    public void handleLine(String line) {
+    public void handleLine(ResponseTokenizer line) {
       assert getReadType() == OperationReadType.LINE;
-      lines.add(line);
+      lines.add(line.toString());
       if (--linesToRead == 0) {
         setReadType(OperationReadType.DATA);
       }
@@ -0,0 +1,151 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.protocol.binary;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.spy.memcached.BinaryConnectionFactory;
+import net.spy.memcached.ConnectionFactory;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.OperationState;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.ops.StatusCode;
+import net.spy.memcached.ops.StoreType;
+import net.spy.memcached.protocol.TCPMemcachedNodeImpl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimizedMutationImplTest {
+
+  private final BinaryOperationFactory opFact = new BinaryOperationFactory();
+  private final Map<String, OperationStatus> statuses = new HashMap<>();
+
+  @Test
+  void testQuietCommands() throws Exception {
+    // given
+    Operation set = opFact.store(StoreType.set, "k1", 0, 0, new byte[]{1}, callback("k1"));
+    Operation delete = opFact.delete("k2", callback("k2"));
+    Operation add = opFact.store(StoreType.add, "k3", 0, 0, new byte[]{3}, callback("k3"));
+
+    OptimizedMutationImpl om = new OptimizedMutationImpl(set);
+    om.addOperation(delete);
+    om.addOperation(add);
+    om.initialize();
+
+    // when
+    List<int[]> packets = readPackets(om.getBuffer().duplicate());
+
+    // then
+    assertEquals(4, packets.size());
+    assertEquals(StoreOperationImpl.SETQ, packets.get(0)[0]);
+    assertEquals(DeleteOperationImpl.DELETEQ, packets.get(1)[0]);
+    assertEquals(StoreOperationImpl.ADDQ, packets.get(2)[0]);
+    assertEquals(NoopOperationImpl.CMD, packets.get(3)[0]);
+
+    // only the failed delete and the noop get responses.
+    ByteBuffer response = ByteBuffer.allocate(2 * OperationImpl.MIN_RECV_PACKET);
+    putResponse(response, DeleteOperationImpl.DELETEQ, OperationImpl.ERR_NOT_FOUND,
+            packets.get(1)[1]);
+    putResponse(response, NoopOperationImpl.CMD, 0, packets.get(3)[1]);
+    response.flip();
+    while (response.hasRemaining()) {
+      om.readFromBuffer(response);
+    }
+
+    assertEquals(OperationState.COMPLETE, om.getState());
+    assertEquals(3, statuses.size());
+    assertTrue(statuses.get("k1").isSuccess());
+    assertEquals(StatusCode.ERR_NOT_FOUND, statuses.get("k2").getStatusCode());
+    assertTrue(statuses.get("k3").isSuccess());
+    assertEquals(OperationState.COMPLETE, set.getState());
+    assertEquals(OperationState.COMPLETE, delete.getState());
+    assertEquals(OperationState.COMPLETE, add.getState());
+  }
+
+  @Test
+  void testMergedWithoutOptimize() throws Exception {
+    // given
+    ConnectionFactory factory = new BinaryConnectionFactory();
+    TCPMemcachedNodeImpl node = (TCPMemcachedNodeImpl) factory.createMemcachedNode(
+            "binary node test node",
+            InetSocketAddress.createUnresolved("127.0.0.1", 11211),
+            4096);
+    for (int i = 0; i < 10; i++) {
+      node.insertOp(opFact.store(StoreType.set, "key" + i, 0, 0, new byte[]{1},
+              callback("key" + i)));
+    }
+
+    // when
+    node.fillWriteBuffer(false);
+
+    // then
+    // the first store is written as it is, and the rest are merged.
+    assertEquals(0, node.getWriteQueueSize());
+    assertEquals(2, node.getReadQueueSize());
+  }
+
+  private OperationCallback callback(final String key) {
+    return new OperationCallback() {
+      @Override
+      public void receivedStatus(OperationStatus status) {
+        statuses.put(key, status);
+      }
+
+      @Override
+      public void complete() {
+      }
+    };
+  }
+
+  /**
+   * Read the opcode and opaque of each request packet.
+   */
+  private static List<int[]> readPackets(ByteBuffer bb) {
+    List<int[]> packets = new ArrayList<>();
+    while (bb.hasRemaining()) {
+      int start = bb.position();
+      int cmd = bb.get(start + 1);
+      int bodyLen = bb.getInt(start + 8);
+      int opaque = bb.getInt(start + 12);
+      packets.add(new int[]{cmd, opaque});
+      bb.position(start + OperationImpl.MIN_RECV_PACKET + bodyLen);
+    }
+    return packets;
+  }
+
+  private static void putResponse(ByteBuffer bb, int cmd, int errorCode, int opaque) {
+    bb.put(OperationImpl.RES_MAGIC);
+    bb.put((byte) cmd);
+    bb.putShort((short) 0); // keylen
+    bb.put((byte) 0); // extralen
+    bb.put((byte) 0); // data type
+    bb.putShort((short) errorCode);
+    bb.putInt(0); // bodylen
+    bb.putInt(opaque);
+    bb.putLong(0); // cas
+  }
+}
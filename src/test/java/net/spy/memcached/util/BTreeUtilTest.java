@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BTreeUtilTest {
@@ -89,6 +90,33 @@ class BTreeUtilTest {
     assertEquals(1, BTreeUtil.compareByteArraysInLexOrder(array2, array1));
   }
 
+  @Test
+  void testAdjacentByteArrayBKey() {
+    byte[] max = new byte[31];
+    Arrays.fill(max, (byte) 0xFF);
+    byte[] full = max.clone();
+    full[29] = 1;
+
+    assertTrue(Arrays.equals(new byte[]{1, 0},
+            BTreeUtil.adjacentByteArrayBKey(new byte[]{1}, false)));
+    byte[] next = BTreeUtil.adjacentByteArrayBKey(full, false);
+    assertEquals(30, next.length);
+    assertEquals(2, next[29]);
+    assertNull(BTreeUtil.adjacentByteArrayBKey(max, false));
+
+    assertTrue(Arrays.equals(new byte[]{1},
+            BTreeUtil.adjacentByteArrayBKey(new byte[]{1, 0}, true)));
+    byte[] prev = BTreeUtil.adjacentByteArrayBKey(new byte[]{2}, true);
+    assertEquals(31, prev.length);
+    assertEquals(1, prev[0]);
+    assertEquals((byte) 0xFF, prev[30]);
+    assertNull(BTreeUtil.adjacentByteArrayBKey(new byte[]{0}, true));
+
+    // no bkey is between a bkey and its adjacent one.
+    assertTrue(BTreeUtil.compareByteArraysInLexOrder(prev, new byte[]{2}) < 0);
+    assertTrue(BTreeUtil.compareByteArraysInLexOrder(prev, new byte[]{1, (byte) 0xFF}) > 0);
+  }
+
   @Test
   void testInValidSizeBkey() {
     assertThrows(IllegalArgumentException.class, () -> {
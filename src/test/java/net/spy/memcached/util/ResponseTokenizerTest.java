@@ -0,0 +1,161 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseTokenizerTest {
+
+  private static ByteBuffer buffer(String s) {
+    return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  void testReadLine() {
+    ResponseTokenizer line = new ResponseTokenizer();
+    ByteBuffer bb = buffer("STORED\r\nEND\r\n");
+
+    assertTrue(line.read(bb));
+    assertTrue(line.is("STORED"));
+    assertFalse(line.is("STORE"));
+    assertTrue(line.startsWith("STORE"));
+    assertEquals("STORED", line.toString());
+
+    assertTrue(line.read(bb));
+    assertTrue(line.is("END"));
+    assertFalse(bb.hasRemaining());
+  }
+
+  @Test
+  void testReadLineSplitOverBuffers() {
+    ResponseTokenizer line = new ResponseTokenizer();
+
+    assertFalse(line.read(buffer("VALUE ke")));
+    assertFalse(line.read(buffer("y 0 5")));
+    assertFalse(line.read(buffer("\r")));
+    assertTrue(line.read(buffer("\nignored")));
+    assertEquals("VALUE key 0 5", line.toString());
+    assertEquals(4, line.tokens());
+    assertEquals("key", line.stringToken(1));
+    assertEquals(5, line.intToken(3));
+  }
+
+  @Test
+  void testReadLineFromDirectBuffer() {
+    ResponseTokenizer line = new ResponseTokenizer();
+    ByteBuffer bb = ByteBuffer.allocateDirect(32);
+    bb.put("COUNT=12\r\n".getBytes(StandardCharsets.US_ASCII));
+    bb.flip();
+
+    assertTrue(line.read(bb));
+    assertTrue(line.startsWith("COUNT="));
+    assertEquals(12, line.parseInt("COUNT=".length(), line.length()));
+  }
+
+  @Test
+  void testTokens() {
+    ResponseTokenizer line = new ResponseTokenizer();
+    line.set("VALUE  key   1 0x0A0b  -9223372036854775808 ");
+
+    assertEquals(5, line.tokens());
+    assertTrue(line.tokenIs(0, "VALUE"));
+    assertFalse(line.tokenIs(0, "VALUES"));
+    assertTrue(line.tokenStartsWith(3, "0x"));
+    assertEquals(1, line.intToken(2));
+    assertArrayEquals(new byte[]{0x0A, 0x0B}, line.hexToken(3));
+    assertEquals(Long.MIN_VALUE, line.longToken(4));
+    assertEquals(Arrays.asList("VALUE", "key", "1", "0x0A0b", "-9223372036854775808"),
+        line.toList());
+    assertThrows(IndexOutOfBoundsException.class, () -> line.stringToken(5));
+  }
+
+  @Test
+  void testParseNumbers() {
+    ResponseTokenizer line = new ResponseTokenizer();
+
+    line.set("9223372036854775807 9223372036854775808 2147483648 12a -");
+    assertEquals(Long.MAX_VALUE, line.longToken(0));
+    assertThrows(NumberFormatException.class, () -> line.longToken(1));
+    assertThrows(NumberFormatException.class, () -> line.intToken(2));
+    assertThrows(NumberFormatException.class, () -> line.intToken(3));
+    assertThrows(NumberFormatException.class, () -> line.intToken(4));
+
+    line.set("12345");
+    assertTrue(line.isDigits());
+    line.set("NOT_FOUND");
+    assertFalse(line.isDigits());
+  }
+
+  @Test
+  void testHexTokenWithoutPrefix() {
+    ResponseTokenizer line = new ResponseTokenizer();
+    line.set("FF00 ABC");
+
+    assertArrayEquals(new byte[]{(byte) 0xFF, 0x00}, line.hexToken(0));
+    assertThrows(IllegalArgumentException.class, () -> line.hexToken(1));
+  }
+
+  @Test
+  void testReadToken() {
+    ResponseTokenizer header = new ResponseTokenizer();
+
+    assertEquals(ResponseTokenizer.TOKEN, header.readToken(buffer("1 ")));
+    assertEquals(1, header.tokens());
+    assertEquals(ResponseTokenizer.TOKEN, header.readToken(buffer("0x01 ")));
+    assertEquals(2, header.tokens());
+    assertEquals(ResponseTokenizer.MORE, header.readToken(buffer("1")));
+    assertEquals(ResponseTokenizer.TOKEN, header.readToken(buffer("0 data")));
+    assertEquals(3, header.tokens());
+    assertEquals(1, header.longToken(0));
+    assertArrayEquals(new byte[]{0x01}, header.hexToken(1));
+    assertEquals(10, header.intToken(2));
+
+    header.clear();
+    ByteBuffer bb = buffer("END\r\n");
+    assertEquals(ResponseTokenizer.LINE, header.readToken(bb));
+    assertTrue(header.is("END"));
+    assertEquals(1, header.tokens());
+  }
+
+  @Test
+  void testReadTokenCompletesLine() {
+    ResponseTokenizer header = new ResponseTokenizer();
+    ByteBuffer bb = buffer("VALUE  key 2\r\nEND\r\n");
+
+    assertEquals(ResponseTokenizer.TOKEN, header.readToken(bb));
+    assertEquals(ResponseTokenizer.TOKEN, header.readToken(bb));
+    assertEquals(ResponseTokenizer.LINE, header.readToken(bb));
+    assertEquals(3, header.tokens());
+    assertEquals("key", header.stringToken(1));
+    assertEquals(2, header.intToken(2));
+
+    // a completed line is cleared by the next read.
+    assertEquals(ResponseTokenizer.LINE, header.readToken(bb));
+    assertEquals("END", header.toString());
+  }
+}
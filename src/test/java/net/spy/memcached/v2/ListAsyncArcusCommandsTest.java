@@ -0,0 +1,138 @@
+package net.spy.memcached.v2;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.collection.CollectionAttributes;
+import net.spy.memcached.collection.ElementValueType;
+import net.spy.memcached.v2.vo.CollectionGetArgs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListAsyncArcusCommandsTest extends AsyncArcusCommandsTest {
+
+  private static final List<Object> VALUES = Arrays.asList("value0", "value1", "value2");
+
+  @Test
+  void lopInsertAndGet() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.lopCreate(key, ElementValueType.STRING, new CollectionAttributes())
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.lopInsert(key, -1, VALUES.get(0));
+        })
+        .thenCompose(result -> async.lopInsert(key, -1, VALUES.get(1)))
+        .thenCompose(result -> async.lopInsert(key, -1, VALUES.get(2)))
+        .thenCompose(result -> async.lopGet(key, 0, -1, CollectionGetArgs.DEFAULT))
+        // then
+        .thenAccept(result -> assertIterableEquals(VALUES, result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void lopInsertNotFound() throws Exception {
+    // given & when
+    async.lopInsert(keys.get(0), 0, VALUE)
+        // then
+        .thenAccept(Assertions::assertFalse)
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void lopGetNotFound() throws Exception {
+    // given & when
+    async.lopGet(keys.get(0), 0, -1, CollectionGetArgs.DEFAULT)
+        // then
+        .thenAccept(Assertions::assertNull)
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void lopGetWithDelete() throws Exception {
+    // given
+    String key = keys.get(0);
+    CollectionAttributes attrs = new CollectionAttributes();
+    CollectionGetArgs args = new CollectionGetArgs.Builder()
+        .withDelete()
+        .dropIfEmpty()
+        .build();
+
+    // when
+    async.lopInsert(key, -1, VALUES.get(0), attrs)
+        .thenCompose(result -> async.lopGet(key, 0, -1, args))
+        .thenCompose(result -> {
+          assertIterableEquals(VALUES.subList(0, 1), result);
+          return async.lopGet(key, 0, -1, CollectionGetArgs.DEFAULT);
+        })
+        // then
+        .thenAccept(Assertions::assertNull)
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void lopMultiInsertAndMultiGet() throws Exception {
+    // given
+    CollectionAttributes attrs = new CollectionAttributes();
+
+    // when
+    async.lopMultiInsert(keys.subList(0, 3), 0, VALUE, attrs)
+        .thenCompose(result -> {
+          assertEquals(3, result.size());
+          result.values().forEach(Assertions::assertTrue);
+          return async.lopMultiGet(keys, 0, -1, CollectionGetArgs.DEFAULT);
+        })
+        // then
+        .thenAccept(result -> {
+          assertEquals(3, result.size());
+          assertFalse(result.containsKey(keys.get(3)));
+          result.values().forEach(values -> assertIterableEquals(Arrays.asList(VALUE), values));
+        })
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void lopDelete() throws Exception {
+    // given
+    String key = keys.get(0);
+    CollectionAttributes attrs = new CollectionAttributes();
+
+    // when
+    async.lopInsert(key, -1, VALUES.get(0), attrs)
+        .thenCompose(result -> async.lopInsert(key, -1, VALUES.get(1)))
+        .thenCompose(result -> async.lopDelete(key, 0, 0, false))
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.lopGet(key, 0, -1, CollectionGetArgs.DEFAULT);
+        })
+        // then
+        .thenAccept(result -> assertIterableEquals(VALUES.subList(1, 2), result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void lopDeleteNotFound() throws Exception {
+    // given & when
+    async.lopDelete(keys.get(0), 0, -1, false)
+        // then
+        .thenAccept(result -> assertNull(result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+}
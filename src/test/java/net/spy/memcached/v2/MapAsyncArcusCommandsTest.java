@@ -0,0 +1,150 @@
+package net.spy.memcached.v2;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.collection.CollectionAttributes;
+import net.spy.memcached.collection.ElementValueType;
+import net.spy.memcached.v2.vo.CollectionGetArgs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapAsyncArcusCommandsTest extends AsyncArcusCommandsTest {
+
+  private static final Map<String, Object> ELEMENTS = new HashMap<>();
+
+  static {
+    ELEMENTS.put("mkey0", "value0");
+    ELEMENTS.put("mkey1", "value1");
+  }
+
+  @Test
+  void mopInsertAndGet() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.mopCreate(key, ElementValueType.STRING, new CollectionAttributes())
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.mopInsert(key, "mkey0", "value0");
+        })
+        .thenCompose(result -> async.mopInsert(key, "mkey1", "value1"))
+        .thenCompose(result -> async.mopGet(key, Collections.emptyList(),
+            CollectionGetArgs.DEFAULT))
+        // then
+        .thenAccept(result -> assertEquals(ELEMENTS, result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void mopInsertDuplicated() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.mopInsert(key, "mkey0", VALUE, new CollectionAttributes())
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.mopInsert(key, "mkey0", VALUE);
+        })
+        // then
+        .thenAccept(Assertions::assertFalse)
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void mopUpsertAndUpdate() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.mopUpsert(key, "mkey0", "value0", new CollectionAttributes())
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.mopUpsert(key, "mkey0", "value1");
+        })
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.mopUpdate(key, "mkey0", "value2");
+        })
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.mopUpdate(key, "mkey1", "value2");
+        })
+        .thenCompose(result -> {
+          assertFalse(result);
+          return async.mopGet(key, Arrays.asList("mkey0"), CollectionGetArgs.DEFAULT);
+        })
+        // then
+        .thenAccept(result -> assertEquals(Collections.singletonMap("mkey0", "value2"), result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void mopGetNotFound() throws Exception {
+    // given & when
+    async.mopGet(keys.get(0), Collections.emptyList(), CollectionGetArgs.DEFAULT)
+        // then
+        .thenAccept(Assertions::assertNull)
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void mopMultiInsertAndMultiGet() throws Exception {
+    // given
+    CollectionAttributes attrs = new CollectionAttributes();
+
+    // when
+    async.mopMultiInsert(keys.subList(0, 2), "mkey0", VALUE, attrs)
+        .thenCompose(result -> {
+          assertEquals(2, result.size());
+          result.values().forEach(Assertions::assertTrue);
+          return async.mopMultiGet(keys, Arrays.asList("mkey0", "mkey1"),
+              CollectionGetArgs.DEFAULT);
+        })
+        // then
+        .thenAccept(result -> {
+          assertEquals(2, result.size());
+          assertEquals(Collections.singletonMap("mkey0", VALUE), result.get(keys.get(0)));
+          assertEquals(Collections.singletonMap("mkey0", VALUE), result.get(keys.get(1)));
+        })
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void mopDelete() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.mopInsert(key, "mkey0", VALUE, new CollectionAttributes())
+        .thenCompose(result -> async.mopDelete(key, Arrays.asList("mkey1"), false))
+        .thenCompose(result -> {
+          assertFalse(result);
+          return async.mopDelete(key, Collections.emptyList(), true);
+        })
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.mopDelete(key, Collections.emptyList(), false);
+        })
+        // then
+        .thenAccept(result -> assertNull(result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,161 @@
+package net.spy.memcached.v2;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.collection.CollectionAttributes;
+import net.spy.memcached.collection.ElementValueType;
+import net.spy.memcached.v2.vo.CollectionGetArgs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SetAsyncArcusCommandsTest extends AsyncArcusCommandsTest {
+
+  private static final Set<Object> VALUES =
+      new HashSet<>(Arrays.asList("value0", "value1", "value2"));
+
+  @Test
+  void sopInsertAndGet() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.sopCreate(key, ElementValueType.STRING, new CollectionAttributes())
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.sopInsert(key, "value0");
+        })
+        .thenCompose(result -> async.sopInsert(key, "value1"))
+        .thenCompose(result -> async.sopInsert(key, "value2"))
+        .thenCompose(result -> async.sopGet(key, 0, CollectionGetArgs.DEFAULT))
+        // then
+        .thenAccept(result -> assertEquals(VALUES, result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void sopInsertDuplicated() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.sopInsert(key, VALUE, new CollectionAttributes())
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.sopInsert(key, VALUE);
+        })
+        // then
+        .thenAccept(Assertions::assertFalse)
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void sopExist() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.sopInsert(key, VALUE, new CollectionAttributes())
+        .thenCompose(result -> async.sopExist(key, VALUE))
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.sopExist(key, "other");
+        })
+        .thenCompose(result -> {
+          assertFalse(result);
+          return async.sopExist(keys.get(1), VALUE);
+        })
+        // then
+        .thenAccept(Assertions::assertNull)
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void sopMultiExist() throws Exception {
+    // given
+    CollectionAttributes attrs = new CollectionAttributes();
+
+    // when
+    async.sopMultiInsert(keys.subList(0, 2), VALUE, attrs)
+        .thenCompose(result -> async.sopInsert(keys.get(2), "other", attrs))
+        .thenCompose(result -> async.sopMultiExist(keys, VALUE))
+        // then
+        .thenAccept(result -> {
+          assertEquals(3, result.size());
+          assertTrue(result.get(keys.get(0)));
+          assertTrue(result.get(keys.get(1)));
+          assertFalse(result.get(keys.get(2)));
+          assertFalse(result.containsKey(keys.get(3)));
+        })
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void sopGetWithDelete() throws Exception {
+    // given
+    String key = keys.get(0);
+    CollectionGetArgs args = new CollectionGetArgs.Builder()
+        .withDelete()
+        .build();
+
+    // when
+    async.sopInsert(key, VALUE, new CollectionAttributes())
+        .thenCompose(result -> async.sopGet(key, 0, args))
+        .thenCompose(result -> {
+          assertEquals(new HashSet<>(Arrays.asList(VALUE)), result);
+          return async.sopGet(key, 0, CollectionGetArgs.DEFAULT);
+        })
+        // then
+        .thenAccept(result -> assertTrue(result.isEmpty()))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void sopMultiGet() throws Exception {
+    // given
+    CollectionAttributes attrs = new CollectionAttributes();
+
+    // when
+    async.sopMultiInsert(keys.subList(0, 2), VALUE, attrs)
+        .thenCompose(result -> async.sopMultiGet(keys, 0, CollectionGetArgs.DEFAULT))
+        // then
+        .thenAccept(result -> {
+          assertEquals(2, result.size());
+          assertEquals(new HashSet<>(Arrays.asList(VALUE)), result.get(keys.get(0)));
+          assertEquals(new HashSet<>(Arrays.asList(VALUE)), result.get(keys.get(1)));
+        })
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void sopDelete() throws Exception {
+    // given
+    String key = keys.get(0);
+
+    // when
+    async.sopInsert(key, VALUE, new CollectionAttributes())
+        .thenCompose(result -> async.sopDelete(key, VALUE, true))
+        .thenCompose(result -> {
+          assertTrue(result);
+          return async.sopDelete(key, VALUE, false);
+        })
+        // then
+        .thenAccept(result -> assertNull(result))
+        .toCompletableFuture()
+        .get(300, TimeUnit.MILLISECONDS);
+  }
+}
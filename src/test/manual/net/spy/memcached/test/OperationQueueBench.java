@@ -0,0 +1,113 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.ops.ArrayOperationQueueFactory;
+import net.spy.memcached.ops.LinkedOperationQueueFactory;
+import net.spy.memcached.ops.MPSCRingOperationQueueFactory;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationQueueFactory;
+import net.spy.memcached.protocol.ascii.ExtensibleOperationImpl;
+import net.spy.memcached.util.ResponseTokenizer;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the input queue implementations with many producer threads
+ * offering to one queue drained by a single consumer, as the IO thread does.
+ */
+@Disabled
+class OperationQueueBench {
+
+  @Test
+  void testCrap() throws Exception {
+    main(new String[]{"256", "5000"});
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 2) {
+      args = new String[]{"256", "5000"};
+      System.out.println("Usage: java "
+              + OperationQueueBench.class.getName()
+              + " <producers> <offers per producer>");
+    }
+
+    int producers = Integer.parseInt(args[0]);
+    int offers = Integer.parseInt(args[1]);
+
+    for (int round = 0; round < 2; round++) {
+      run("array", new ArrayOperationQueueFactory(16384), producers, offers);
+      run("linked", new LinkedOperationQueueFactory(), producers, offers);
+      run("mpsc ring", new MPSCRingOperationQueueFactory(16384), producers, offers);
+    }
+  }
+
+  private static void run(String name, OperationQueueFactory factory,
+                          int producers, int offers) throws Exception {
+    final BlockingQueue<Operation> queue = factory.create();
+    final Operation op = new ExtensibleOperationImpl() {
+      public void handleLine(ResponseTokenizer line) {
+      }
+
+      public void initialize() {
+      }
+    };
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>(producers);
+    for (int p = 0; p < producers; p++) {
+      Thread t = new Thread(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < offers; i++) {
+            if (!queue.offer(op, 10, TimeUnit.SECONDS)) {
+              throw new IllegalStateException("Timed out");
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      t.start();
+      threads.add(t);
+    }
+
+    long total = (long) producers * offers;
+    long drained = 0;
+    List<Operation> tmp = new ArrayList<>(16384);
+    long begin = System.nanoTime();
+    start.countDown();
+    while (drained < total) {
+      tmp.clear();
+      drained += queue.drainTo(tmp, 16384);
+    }
+    long elapsed = System.nanoTime() - begin;
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    System.out.printf("%-10s producers=%d  %,.0f offers/s%n",
+            name, producers, total / (elapsed / 1e9));
+  }
+}
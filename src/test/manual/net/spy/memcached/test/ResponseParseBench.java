@@ -0,0 +1,160 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import net.spy.memcached.collection.BTreeGet;
+import net.spy.memcached.collection.ElementFlagFilter;
+import net.spy.memcached.ops.CollectionGetOperation;
+import net.spy.memcached.ops.GetOperation;
+import net.spy.memcached.ops.Operation;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the response parsing of get, mget and bop get operations
+ * by feeding canned responses to the operations without a server.
+ *
+ * Reported numbers are the time and the bytes allocated per operation,
+ * including the creation of the operation.
+ */
+@Disabled
+class ResponseParseBench {
+
+  private static final AsciiOperationFactory FACTORY = new AsciiOperationFactory();
+
+  private static final GetOperation.Callback GET_CB = new GetOperation.Callback() {
+    public void gotData(String key, int flags, byte[] data) {
+    }
+
+    public void receivedStatus(OperationStatus status) {
+    }
+
+    public void complete() {
+    }
+  };
+
+  private static final CollectionGetOperation.Callback COLL_CB =
+      new CollectionGetOperation.Callback() {
+        public void gotData(String subkey, int flags, byte[] data, byte[] eflag) {
+        }
+
+        public void receivedStatus(OperationStatus status) {
+        }
+
+        public void complete() {
+        }
+      };
+
+  @Test
+  void testCrap() throws Exception {
+    main(new String[]{"200000", "100", "50"});
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 3) {
+      args = new String[]{"200000", "100", "50"};
+      System.out.println("Usage: java "
+              + ResponseParseBench.class.getName()
+              + " <ops> <value size> <elements>");
+    }
+
+    int ops = Integer.parseInt(args[0]);
+    int valueSize = Integer.parseInt(args[1]);
+    int elements = Integer.parseInt(args[2]);
+
+    String value = repeat('v', valueSize);
+    List<String> keys = new ArrayList<>(elements);
+    StringBuilder get = new StringBuilder();
+    StringBuilder mget = new StringBuilder();
+    StringBuilder bopget = new StringBuilder();
+
+    get.append("VALUE key0 0 ").append(valueSize).append("\r\n")
+        .append(value).append("\r\nEND\r\n");
+    bopget.append("VALUE 0 ").append(elements).append("\r\n");
+    for (int i = 0; i < elements; i++) {
+      keys.add("key" + i);
+      mget.append("VALUE key").append(i).append(" 0 ").append(valueSize).append("\r\n")
+          .append(value).append("\r\n");
+      bopget.append(i).append(" 0x0102 ").append(valueSize).append(" ")
+          .append(value).append("\r\n");
+    }
+    mget.append("END\r\n");
+    bopget.append("END\r\n");
+
+    for (int round = 0; round < 2; round++) {
+      run("get", ops, get.toString(),
+          () -> FACTORY.get("key0", GET_CB));
+      run("mget", ops / elements, mget.toString(),
+          () -> FACTORY.get(keys, GET_CB, true));
+      run("bop get", ops / elements, bopget.toString(),
+          () -> FACTORY.collectionGet("bkey", new BTreeGet(0, elements,
+              ElementFlagFilter.DO_NOT_FILTER, 0, elements, false, false), COLL_CB));
+    }
+  }
+
+  private static void run(String name, int ops, String response,
+                          Supplier<Operation> supplier) throws Exception {
+    byte[] bytes = response.getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer bb = ByteBuffer.allocate(16384);
+
+    com.sun.management.ThreadMXBean mxBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long tid = Thread.currentThread().getId();
+    long allocatedBefore = mxBean.getThreadAllocatedBytes(tid);
+    long begin = System.nanoTime();
+
+    for (int i = 0; i < ops; i++) {
+      Operation op = supplier.get();
+      op.initialize();
+      op.writing();
+      op.writeComplete();
+      // feed the response in read buffer sized pieces like the IO thread does.
+      for (int off = 0; off < bytes.length; off += bb.capacity()) {
+        bb.clear();
+        bb.put(bytes, off, Math.min(bb.capacity(), bytes.length - off));
+        bb.flip();
+        while (bb.hasRemaining()) {
+          op.readFromBuffer(bb);
+        }
+      }
+    }
+
+    long elapsed = System.nanoTime() - begin;
+    long allocated = mxBean.getThreadAllocatedBytes(tid) - allocatedBefore;
+
+    System.out.printf("%-8s ops=%d response=%dB  %,.0f ns/op  %,.0f bytes/op%n",
+            name, ops, bytes.length, (double) elapsed / ops, (double) allocated / ops);
+  }
+
+  private static String repeat(char c, int n) {
+    char[] chars = new char[n];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * arcus-java-client : Arcus Java client
+ * Copyright 2010-2014 NAVER Corp.
+ * Copyright 2014-2022 JaM2in Co., Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.spy.memcached.test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import net.spy.memcached.ConnectionFactoryBuilder;
+import net.spy.memcached.MemcachedClient;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the copying write path with the gathering write path
+ * against a fake server that answers every set with STORED.
+ *
+ * Reported numbers are the throughput of the client and
+ * the bytes allocated by the IO thread per operation.
+ */
+@Disabled
+class WriteBufferBench {
+
+  private static final byte[] VERSION = "VERSION 1.13.0\r\n".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] STORED = "STORED\r\n".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] ERROR = "ERROR\r\n".getBytes(StandardCharsets.US_ASCII);
+
+  @Test
+  void testCrap() throws Exception {
+    main(new String[]{"200000", "100", "16"});
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 3) {
+      args = new String[]{"200000", "100", "16"};
+      System.out.println("Usage: java "
+              + WriteBufferBench.class.getName()
+              + " <ops> <value size> <batch>");
+    }
+
+    int ops = Integer.parseInt(args[0]);
+    int valueSize = Integer.parseInt(args[1]);
+    int batch = Integer.parseInt(args[2]);
+
+    try (ServerSocket server = new ServerSocket(0)) {
+      Thread acceptor = new Thread(() -> acceptLoop(server), "fake memcached");
+      acceptor.setDaemon(true);
+      acceptor.start();
+
+      InetSocketAddress addr = new InetSocketAddress("127.0.0.1", server.getLocalPort());
+      for (boolean gathering : new boolean[]{false, true, false, true}) {
+        run(addr, gathering, ops, valueSize, batch);
+      }
+    }
+  }
+
+  private static void run(InetSocketAddress addr, boolean gathering,
+                          int ops, int valueSize, int batch) throws Exception {
+    MemcachedClient client = new MemcachedClient(
+            new ConnectionFactoryBuilder().setUseGatheringWrite(gathering).build(),
+            "WriteBufferBench", Collections.singletonList(addr));
+
+    byte[] value = new byte[valueSize];
+    // warm up the connection and the version operation.
+    client.set("warmup", 0, value).get();
+
+    com.sun.management.ThreadMXBean mxBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long allocatedBefore = mxBean.getThreadAllocatedBytes(client.getId());
+    long begin = System.nanoTime();
+
+    List<Future<Boolean>> futures = new ArrayList<>(batch);
+    for (int i = 0; i < ops; i++) {
+      futures.add(client.set("key" + i, 0, value));
+      if (futures.size() == batch) {
+        for (Future<Boolean> f : futures) {
+          f.get();
+        }
+        futures.clear();
+      }
+    }
+    for (Future<Boolean> f : futures) {
+      f.get();
+    }
+
+    long elapsed = System.nanoTime() - begin;
+    long allocated = mxBean.getThreadAllocatedBytes(client.getId()) - allocatedBefore;
+    client.shutdown();
+
+    System.out.printf("%-10s ops=%d value=%dB batch=%d  %,.0f ops/s  %.1f bytes/op (IO thread)%n",
+            gathering ? "gathering" : "copy", ops, valueSize, batch,
+            ops / (elapsed / 1e9), (double) allocated / ops);
+  }
+
+  private static void acceptLoop(ServerSocket server) {
+    while (!server.isClosed()) {
+      try {
+        Socket s = server.accept();
+        Thread t = new Thread(() -> serve(s), "fake memcached connection");
+        t.setDaemon(true);
+        t.start();
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private static void serve(Socket s) {
+    try (Socket socket = s) {
+      InputStream in = new BufferedInputStream(socket.getInputStream(), 65536);
+      OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 65536);
+      StringBuilder line = new StringBuilder();
+      int c;
+      while ((c = in.read()) >= 0) {
+        if (c != '\n') {
+          line.append((char) c);
+          continue;
+        }
+        String cmd = line.toString();
+        line.setLength(0);
+        if (cmd.startsWith("version")) {
+          out.write(VERSION);
+        } else if (cmd.startsWith("set ")) {
+          String[] tokens = cmd.trim().split(" ");
+          long skip = Integer.parseInt(tokens[4]) + 2;
+          while (skip > 0) {
+            skip -= in.skip(skip);
+          }
+          out.write(STORED);
+        } else {
+          out.write(ERROR);
+        }
+        if (in.available() == 0) {
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      // connection closed by the client.
+    }
+  }
+}